@@ -0,0 +1,97 @@
+package com.emlaksiteniz;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark'ların kullandığı sabit girdiler: kaydedilmiş detay sayfası HTML'i ve
+ * gerçek ilanlara benzeyen, tekrarlanabilir örnek ürünler.
+ */
+public final class BenchmarkFixtures {
+    /**
+     * Kaydedilmiş detay sayfasının adresi; göreli linkler bu adrese göre çözülür.
+     */
+    public static final String DETAIL_PAGE_URL = "https://emlaksiteniz.com/site-icinde-ferah-3-1-daire-firsati-118";
+
+    private static final String[] CITIES = {"Antalya", "İstanbul", "Ankara", "İzmir", "Konya", "Bilecik", "Sakarya"};
+    private static final String[] HEATINGS = {"Doğalgaz (Kombi)", "Kat Kaloriferi", "Klima", "Doğalgaz Sobası"};
+    private static final String[] DEEDS = {"Kat Mülkiyetli", "Kat İrtifaklı", "Hisseli Tapu", "Müstakil Tapulu"};
+    private static final String[] ROOMS = {"1+1", "2+1", "3+1", "4+1", "5 ve üzeri"};
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @return src/test/resources/fixtures altındaki detay sayfası HTML'i
+     */
+    public static String detailPageHtml() {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/fixtures/emlaksiteniz-detail.html")) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture bulunamadı: fixtures/emlaksiteniz-detail.html");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sıra numarasından her seferinde aynı içeriği üreten örnek bir ürün oluşturur.
+     *
+     * @param index Ürünün sıra numarası
+     * @return Örnek ürün
+     */
+    public static Product sampleProduct(int index) {
+        Product product = new Product();
+        product.setName("Site İçinde Ferah " + ROOMS[index % ROOMS.length] + " Daire Fırsatı! #" + index);
+        product.setPrice(String.format("%,d TL", 500_000 + (index * 7919L) % 20_000_000).replace(',', '.'));
+        product.setAdvertisementNumber("İlan ID: " + index);
+        product.setLocation("Fatih, Işık Sk. No:" + (index % 90) + ", Merkez, " + CITIES[index % CITIES.length]);
+        product.setExplanation("Site içerisinde, havuzlu ve kapalı otoparklı, metroya yürüme mesafesinde daire. "
+                + "Güney cephe, geniş balkonlu, ebeveyn banyolu ve ankastre mutfaklıdır.");
+        product.setCategories(List.of("KONUT", index % 3 == 0 ? "KİRALIK KONUTLAR" : "SATILIK KONUTLAR", "Daire"));
+        product.setAdvisor("Danışman " + (index % 40));
+        product.setSquareMeterGross(Integer.toString(60 + index % 240));
+        product.setSquareMeterNet(Integer.toString(50 + index % 200));
+        product.setNumberRooms(ROOMS[index % ROOMS.length]);
+        product.setBuildingAge(Integer.toString(index % 30));
+        product.setFloorLocated(Integer.toString(index % 12));
+        product.setNumberFloors("12");
+        product.setHeating(HEATINGS[index % HEATINGS.length]);
+        product.setNumberBathrooms(Integer.toString(1 + index % 3));
+        product.setKitchen(index % 2 == 0 ? "Açık (Amerikan)" : "Kapalı");
+        product.setBalcony("Var");
+        product.setLift(index % 4 == 0 ? "Yok" : "Var");
+        product.setIsFurnished("Hayır");
+        product.setUsageStatus("Boş");
+        product.setDues(Integer.toString(250 * (index % 8)));
+        product.setIsEligibleCredit("Evet");
+        product.setDeedStatus(DEEDS[index % DEEDS.length]);
+        product.setFromWhom("Emlak Ofisinden");
+        product.setExchangeable("Hayır");
+        product.setAdFeatures(Map.of("Otopark", "Açık Otopark", "Güvenlik", "Var"));
+        List<String> images = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            images.add("https://emlaksiteniz.com/uploads/images/2024/10/ilan-" + index + "-" + i + ".jpg");
+        }
+        product.setImageUrl(images);
+        return product;
+    }
+
+    /**
+     * @param count Ürün sayısı
+     * @return 0'dan count-1'e kadar sıra numaralı örnek ürünler
+     */
+    public static List<Product> sampleProducts(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(sampleProduct(i));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,167 @@
+package com.emlaksiteniz;
+
+import core.scraper.ChangeDetector;
+import core.scraper.CrawlFrontier;
+import core.scraper.CrawlMetrics;
+import core.scraper.DriverPageSource;
+import core.scraper.HtmlPageSource;
+import core.scraper.HttpPage;
+import core.scraper.PageSource;
+import core.scraper.Scraper;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * emlaksiteniz.com için tarayıcısız (HTTP) kazıyıcı.
+ * Sayfaları HttpClient ile sanal thread'ler üzerinde indirir ve alanları Jsoup ile
+ * EmlakScraper'ın XPath'leri üzerinden okur. Yalnızca HTML'de bulunmayan içerikler
+ * (örn: "İlan Özellikleri" sekmesi JS ile yükleniyorsa) için tarayıcı havuzuna düşer.
+ */
+public class EmlakHttpScraper extends EmlakScraper {
+    /**
+     * Ana tarayıcıyı açmadan kazıyıcıyı oluşturur.
+     */
+    public EmlakHttpScraper() {
+        super(false);
+    }
+
+    /**
+     * Liste sayfalarındaki tüm ürünleri HTTP ile eşzamanlı olarak kazır.
+     *
+     * @return Kazınan tüm ürünlerin listesi
+     */
+    @Override
+    public List<Product> scrapeProducts() {
+        List<Product> products = new ArrayList<>();
+        scrapeProducts(products::add);
+        return products;
+    }
+
+    /**
+     * Liste sayfalarındaki tüm ürünleri HTTP ile eşzamanlı olarak kazır ve kazındıkça
+     * sırayla tüketiciye iletir.
+     *
+     * @param sink Kazınan her ürünü alan tüketici
+     */
+    @Override
+    public void scrapeProducts(Consumer<Product> sink) {
+        Consumer<Product> reporting = product -> {
+            System.out.println("Scraped product: " + product.getName());
+            sink.accept(product);
+        };
+
+        startChangeDetection(sink);
+        boolean discoveryComplete;
+        try (CrawlFrontier frontier = newCrawlFrontier().start()) {
+            scrapeConcurrently(frontier, this::scrapeProductDetails, reporting);
+            System.out.println("Total Products Found: " + frontier.productCount()
+                    + " (" + frontier.listingPageCount() + " liste sayfası)");
+            discoveryComplete = frontier.isComplete() && frontier.productCount() > 0;
+
+            if (frontier.productCount() == 0) {
+                List<String> productLinks = collectProductLinksWithBrowser();
+                System.out.println("Total Products Found: " + productLinks.size());
+                scrapeConcurrently(productLinks, this::scrapeProductDetails, reporting);
+                discoveryComplete = false;
+            }
+        }
+        finishChangeDetection(discoveryComplete);
+    }
+
+    /**
+     * Liste sayfasının HTML'inde hiç link yoksa (kartlar JS ile çiziliyorsa)
+     * linkleri tarayıcı havuzundan bir oturumla toplar.
+     *
+     * @return Toplanan ürün linklerinin listesi
+     */
+    private List<String> collectProductLinksWithBrowser() {
+        try {
+            System.out.println("Liste sayfasında HTML içinde link bulunamadı, tarayıcıyla deneniyor");
+            return withBrowser(session -> {
+                session.getDriver().get(baseUrl());
+                readiness().await(session.getDriver(), "listing", LISTING_READY_XPATHS);
+                return collectProductLinks(new DriverPageSource(session.getDriver()));
+            });
+        } catch (Exception e) {
+            System.err.println("Error collecting product links: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Ürün sayfasını tarayıcı yerine HTTP ile kazır.
+     *
+     * @param url Kazınacak ürünün URL'si
+     * @return Kazınan ürün veya ilan değişmediyse null
+     * @throws Exception İndirme başarısız olursa ya da sunucu hata kodu dönerse
+     */
+    @Override
+    protected Product scrapeProduct(String url) throws Exception {
+        return scrapeProductDetails(url);
+    }
+
+    /**
+     * Ürün sayfasını HTTP ile indirip tüm alanlarını çıkarır.
+     * Artımlı taramada değişmeyen ilanlar için null döner.
+     *
+     * @param productUrl Kazınacak ürünün URL'si
+     * @return Kazınan ürün bilgilerini içeren Product nesnesi veya ilan değişmediyse null
+     * @throws Exception İndirme başarısız olursa ya da sunucu hata kodu dönerse
+     */
+    private Product scrapeProductDetails(String productUrl) throws Exception {
+        ChangeDetector detector = changeDetector();
+        PageSource source;
+        if (detector != null) {
+            // Koşullu istek ve parmak izi kontrolü sayfayı zaten indirir, tekrar indirilmez
+            ChangeDetector.Check check = detector.inspect(productUrl);
+            if (!check.isChanged()) {
+                return null;
+            }
+            source = check.getSource();
+        } else {
+            HttpPage page = httpFetcher().fetch(productUrl);
+            if (!page.isSuccessful()) {
+                throw new IOException("HTTP " + page.getStatusCode() + " for " + productUrl);
+            }
+            source = HtmlPageSource.parse(page.getBody(), page.getUrl());
+        }
+
+        long extractStart = CrawlMetrics.start();
+        Product product = extractProduct(source);
+        CrawlMetrics.time("extract", extractStart);
+
+        Map<String, String> features = pairFeatureCells(source.texts(FEATURES_TABLE_XPATH));
+        if (features.isEmpty() && source.exists(FEATURES_TAB_XPATH)) {
+            // Sekme var ama tablo HTML'de yok: içerik JS ile yükleniyor, tarayıcıya düş
+            features = withBrowser(session -> {
+                session.getDriver().get(productUrl);
+                return extractAdditionalFeatures(session);
+            });
+        }
+        product.setAdFeatures(features);
+
+        if (detector != null) {
+            detector.scraped(productUrl, product);
+        }
+        return product;
+    }
+
+    /**
+     * Tarayıcısız kazıyıcıyı çalıştırmak için ana metod.
+     *
+     * @param args Komut satırı argümanları (kullanılmıyor)
+     * @throws InvocationTargetException Yapıcı metod çağrısı başarısız olursa
+     * @throws NoSuchMethodException Yapıcı metod bulunamazsa
+     * @throws InstantiationException Örnek oluşturma başarısız olursa
+     * @throws IllegalAccessException Yapıcı metod erişimi reddedilirse
+     * @throws IOException Dosya işlemleri başarısız olursa
+     */
+    public static void main(String[] args) throws InvocationTargetException, NoSuchMethodException,
+            InstantiationException, IllegalAccessException, IOException {
+        Scraper.executeScraper(EmlakHttpScraper.class);
+    }
+}
@@ -1,37 +1,74 @@
 package com.emlaksiteniz;
 
+import core.scraper.BrowserSession;
+import core.scraper.ChangeDetector;
+import core.scraper.CrawlFrontier;
+import core.scraper.DomSnapshot;
+import core.scraper.DriverPageSource;
+import core.scraper.ExtractionPlan;
+import core.scraper.PageNotReadyException;
+import core.scraper.PageSource;
+import core.scraper.RoundTripCounter;
 import core.scraper.Scraper;
+import core.scraper.ScraperConfig;
+import core.scraper.SpecScraper;
 import org.openqa.selenium.By;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.WebDriver;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
-import java.time.Duration;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 /**
  * emlaksiteniz.com web sitesi için kazıyıcı (scraper) implementasyonu.
  * Web sitesindeki emlak ilanlarından bilgi çıkarır.
  */
 public class EmlakScraper extends Scraper {
-    private static final String BASE_URL = "https://emlaksiteniz.com/urunler";
-    private static final Duration PAGE_LOAD_WAIT = Duration.ofSeconds(3);
-
-    // XPath sabitleri - Web sayfasındaki elementleri bulmak için kullanılan XPath ifadeleri
-    private static final String PRODUCT_LINKS_XPATH = "//div[@class='product-item']//div[@class='ratio ratio-product-box']//a";  // Ürün linklerini bulmak için
-    private static final String PRODUCT_TITLE_XPATH = "//h1[@class='product-title']";  // Ürün başlığını bulmak için
-    private static final String PRODUCT_PRICE_XPATH = "//strong[@class='lbl-price']";  // Ürün fiyatını bulmak için
-    private static final String CATEGORY_ELEMENTS_XPATH = "//nav[@class='nav-breadcrumb']//a";  // Kategori elementlerini bulmak için
-    private static final String ADVISOR_XPATH = "//div[contains(text(),'Danışman')]//a";  // Danışman bilgisini bulmak için
-    private static final String DESCRIPTION_XPATH = "//div[@class='description']";  // Ürün açıklamasını bulmak için
-    private static final String LOCATION_XPATH = "//td[contains(text(),'İlan Konumu')]//parent::tr//td[@class='td-right']";  // Konum bilgisini bulmak için
-    private static final String IMAGE_ELEMENTS_XPATH = "//div[@id='product_thumbnails_slider']//div[@class='item-inner']//img";  // Resim elementlerini bulmak için
-    private static final String FEATURES_TAB_XPATH = "//li[@class='nav-item']//a[contains(text(),'İlan Özellikleri')]";  // Özellikler sekmesini bulmak için
-    private static final String LOCATION_TAB_XPATH = "//li[@class='nav-item']//a[contains(text(),'Emlak Konumu')]";  // Konum sekmesini bulmak için
-    private static final String FEATURES_TABLE_XPATH = "//table[@class='table table-striped table-product-additional-information']//td";  // Özellikler tablosunu bulmak için
+    // Seçiciler sites/emlaksiteniz.json tanımından derlenir; SpecScraper ile aynı plan kullanılır
+    protected static final ExtractionPlan PLAN = SpecScraper.loadPlan("sites/emlaksiteniz.json");
+    protected static final String BASE_URL = PLAN.getSpec().getStartUrl();  // Varsayılan başlangıç adresi (scraper.baseUrl ile değişir)
+
+    protected static final String PRODUCT_LINKS_XPATH = PLAN.getSpec().getProductLinks();  // Ürün linklerini bulmak için
+    protected static final String PAGINATION_LINKS_XPATH = PLAN.getSpec().getPagination();  // Sonraki liste sayfalarını bulmak için
+    protected static final String FEATURES_TAB_XPATH = PLAN.getClickXpath();  // Özellikler sekmesini bulmak için
+    protected static final String FEATURES_TABLE_XPATH = PLAN.xpath("adFeatures");  // Özellikler tablosunu bulmak için
+
+    // sitemap.xml'deki ürün sayfaları (slug-id biçimindeki tek parçalı yollar); www'li ve http adresleri de kabul edilir
+    protected static final Pattern SITEMAP_PRODUCT_URL = Pattern.compile("https?://(www\\.)?emlaksiteniz\\.com/[^/?#]+-\\d+/?");
+
+    // Sayfa tiplerinin hazır sayılması için gereken elementler (sabit beklemeler yerine)
+    protected static final List<String> LISTING_READY_XPATHS = List.of(PRODUCT_LINKS_XPATH);
+    private static final List<String> FEATURES_READY_XPATHS = List.of(FEATURES_TABLE_XPATH);
+
+    private ChangeDetector changeDetector;   // Artımlı taramada değişmeyen ilanları ayıklar (kapalıysa null)
+    private Consumer<Product> unchangedSink; // Değişmeyen ilanların önceki kayıtlarının yazılacağı tüketici
+    private List<String> removedListings = List.of();   // Son taramada kaldırıldığı anlaşılan ilanlar
+
+    /**
+     * Kazıyıcıyı ana tarayıcıyı açmadan oluşturur; tarayıcı gereken işler havuzdan oturum kiralar.
+     * Böylece başlangıçta Chrome'un açılması beklenmez ve sıcak havuz önceki işlerden devralınabilir.
+     */
+    public EmlakScraper() {
+        super(false);
+    }
+
+    /**
+     * Ana tarayıcının açılıp açılmayacağını seçerek kazıyıcıyı oluşturur.
+     *
+     * @param startBrowser Ana tarayıcı oturumu hemen açılsın mı
+     */
+    protected EmlakScraper(boolean startBrowser) {
+        super(startBrowser);
+    }
 
     /**
      * Web sitesindeki tüm ürünleri kazır ve bir liste olarak döndürür.
@@ -42,194 +79,323 @@ public class EmlakScraper extends Scraper {
     @Override
     public List<Product> scrapeProducts() {
         List<Product> products = new ArrayList<>();
-        List<String> productLinks = collectProductLinks();
+        scrapeProducts(products::add);
+        return products;
+    }
 
-        System.out.println("Total Products Found: " + productLinks.size());
+    /**
+     * Web sitesindeki tüm ürünleri kazır ve kazındıkça sırayla tüketiciye iletir.
+     *
+     * @param sink Kazınan her ürünü alan tüketici
+     */
+    @Override
+    public void scrapeProducts(Consumer<Product> sink) {
+        Consumer<Product> reporting = product -> {
+            System.out.println("Scraped product: " + product.getName());
+            sink.accept(product);
+        };
 
-        for (String productUrl : productLinks) {
-            try {
-                Product product = scrapeProductDetails(productUrl);
-                if (product != null) {
-                    products.add(product);
-                    System.out.println("Scraped product: " + product.getName());
-                }
-            } catch (Exception e) {
-                System.err.println("Error scraping product from URL: " + productUrl);
-                System.err.println("Error details: " + e.getMessage());
+        startChangeDetection(sink);
+        boolean discoveryComplete;
+        try (CrawlFrontier frontier = newCrawlFrontier().start()) {
+            // Detay sayfaları, linkler bulundukça havuzdaki tarayıcılarla paralel kazınır;
+            // sonuçlar linklerin bulunma sırasıyla iletilir
+            scrapeInParallel(frontier, this::scrapeProductDetails, reporting);
+            System.out.println("Total Products Found: " + frontier.productCount()
+                    + " (" + frontier.listingPageCount() + " liste sayfası)");
+            discoveryComplete = frontier.isComplete() && frontier.productCount() > 0;
+
+            if (frontier.productCount() == 0) {
+                // Liste sayfası HTML'inde kart yoksa (JS ile çiziliyorsa) tarayıcıyla dene
+                List<String> productLinks = collectProductLinks();
+                System.out.println("Total Products Found: " + productLinks.size());
+                scrapeInParallel(productLinks, this::scrapeProductDetails, reporting);
+                // Tarayıcı yalnızca ilk liste sayfasını okur; sitenin tamamı görülmüş sayılmaz
+                discoveryComplete = false;
             }
         }
+        finishChangeDetection(discoveryComplete);
+        System.out.printf("Sayfa başına ortalama WebDriver çağrısı: %.1f (%d sayfa)%n",
+                RoundTripCounter.averageCallsPerPage(), RoundTripCounter.totalPages());
+        System.out.println(readiness().summary());
+        System.out.println(resourcePolicy().summary());
+    }
 
-        return products;
+    /**
+     * Tarayıcılı ve HTTP kazıyıcıları aynı sitenin ilanlarını aynı anahtarla üretir.
+     *
+     * @return Site adı (sites/emlaksiteniz.json tanımıyla aynı)
+     */
+    @Override
+    protected String siteName() {
+        return "emlaksiteniz";
+    }
+
+    /**
+     * Kaynak politikasında birinci taraf sayılan sunucular; görseller ve betikler bu alan adından gelir.
+     *
+     * @return Sitenin sunucu adları
+     */
+    @Override
+    protected List<String> siteHosts() {
+        String host = URI.create(baseUrl()).getHost();
+        return host == null || host.endsWith("emlaksiteniz.com") ? List.of("emlaksiteniz.com") : List.of("emlaksiteniz.com", host);
+    }
+
+    /**
+     * Taramanın başladığı liste sayfası; scraper.baseUrl ile kayıt sunucusuna (ReplayServer) yönlendirilebilir.
+     *
+     * @return Başlangıç adresi
+     */
+    protected String baseUrl() {
+        return ScraperConfig.baseUrl(BASE_URL);
+    }
+
+    /**
+     * Sitemap'teki ürün sayfalarını seçen desen; başlangıç adresi değiştirildiyse o sunucuya göre kurulur.
+     *
+     * @return Ürün URL deseni
+     */
+    protected Pattern sitemapProductUrl() {
+        URI base = URI.create(baseUrl());
+        if (base.getHost() != null && base.getHost().endsWith("emlaksiteniz.com")) {
+            return SITEMAP_PRODUCT_URL;
+        }
+        return Pattern.compile(Pattern.quote(base.getScheme() + "://" + base.getRawAuthority()) + "/[^/?#]+-\\d+/?");
+    }
+
+    /**
+     * Artımlı tarama açıksa parmak izi dizinini yükler.
+     *
+     * @param sink Değişmediği için kazınmayan ilanların önceki kayıtlarını sırayla alan tüketici
+     */
+    protected void startChangeDetection(Consumer<Product> sink) {
+        if (!ScraperConfig.incremental()) {
+            return;
+        }
+        unchangedSink = sink;
+        try {
+            changeDetector = new ChangeDetector(Path.of(ScraperConfig.fingerprintIndexFile()), httpFetcher(), this::extractProduct);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Keşif eksiksiz bittiyse görülmeyen ilanları kaldırıldı olarak işaretler ve parmak izi dizinini kaydeder.
+     *
+     * @param discoveryComplete Tüm liste sayfaları hatasız dolaşıldıysa true
+     */
+    protected void finishChangeDetection(boolean discoveryComplete) {
+        if (changeDetector == null) {
+            return;
+        }
+        try {
+            changeDetector.finish(discoveryComplete);
+        } catch (IOException e) {
+            System.err.println("Parmak izi dizini kaydedilemedi: " + e.getMessage());
+        }
+        removedListings = changeDetector.removedListings();
+    }
+
+    /**
+     * @return Son artımlı taramada kaldırıldığı anlaşılan ilanların numaraları
+     */
+    @Override
+    public List<String> removedListings() {
+        return removedListings;
+    }
+
+    /**
+     * @return Artımlı tarama açıksa değişiklik dedektörü, değilse null
+     */
+    protected ChangeDetector changeDetector() {
+        return changeDetector;
     }
 
     /**
-     * Web sitesindeki tüm ürün linklerini toplar.
+     * Artımlı taramada yalnızca yeni ya da değişen ilanlar için tarayıcı oturumu kiralanır.
+     *
+     * @param url İlan URL'si
+     * @return İlan kazınacaksa true
+     * @throws Exception Koşullu istek başarısız olursa
+     */
+    @Override
+    protected boolean shouldScrape(String url) throws Exception {
+        return changeDetector == null || changeDetector.needsScrape(url);
+    }
+
+    /**
+     * Değişmediği için kazınmayan ilanın önceki kaydı, çıktı her zaman sitenin tam görüntüsü
+     * olsun diye kendi sırasında yeniden yazılır.
+     *
+     * @param url İlan URL'si
+     */
+    @Override
+    protected void skipped(String url) {
+        if (changeDetector != null && unchangedSink != null) {
+            Product previous = changeDetector.previous(url);
+            if (previous != null) {
+                unchangedSink.accept(previous);
+            }
+        }
+    }
+
+    /**
+     * Önceki çalışmada kazınmış ilanlar artımlı taramada görüldü sayılır.
+     *
+     * @param url İlan URL'si
+     */
+    @Override
+    protected void skippedAsCompleted(String url) {
+        if (changeDetector != null) {
+            changeDetector.resumed(url);
+        }
+    }
+
+    /**
+     * Liste sayfalarını sayfalama ve sitemap üzerinden HTTP ile dolaşacak tarama sınırını oluşturur.
+     *
+     * @return Henüz başlatılmamış tarama sınırı
+     */
+    @Override
+    protected CrawlFrontier newCrawlFrontier() {
+        return new CrawlFrontier(httpFetcher(), CrawlFrontier.httpLoader(httpFetcher()), baseUrl(),
+                PRODUCT_LINKS_XPATH, PAGINATION_LINKS_XPATH, sitemapProductUrl());
+    }
+
+    /**
+     * Web sitesindeki tüm ürün linklerini tarayıcıyla toplar.
      * Ana sayfadaki ürün kartlarından linkleri çıkarır.
      *
      * @return Toplanan ürün linklerinin listesi
      */
     private List<String> collectProductLinks() {
-        List<String> productLinks = new ArrayList<>();
         try {
-            driver.get(BASE_URL);
-            Thread.sleep(PAGE_LOAD_WAIT.getSeconds() * 1000);
-
-            List<WebElement> productElements = driver.findElements(By.xpath(PRODUCT_LINKS_XPATH));
-            for (WebElement productElement : productElements) {
-                String href = productElement.getAttribute("href");
-                if (!href.isEmpty() && !productLinks.contains(href)) {
-                    productLinks.add(href);
-                    System.out.println("Found link: " + href);
-                }
-            }
+            return withBrowser(session -> {
+                session.getDriver().get(baseUrl());
+                readiness().await(session.getDriver(), "listing", LISTING_READY_XPATHS);
+                return collectProductLinks(new DriverPageSource(session.getDriver()));
+            });
         } catch (Exception e) {
             System.err.println("Error collecting product links: " + e.getMessage());
+            return new ArrayList<>();
         }
-        return productLinks;
+    }
+
+    /**
+     * Açık ya da indirilmiş bir liste sayfasındaki ürün kartlarından linkleri çıkarır.
+     *
+     * @param page Liste sayfasını okuyan kaynak
+     * @return Tekrarsız ürün linklerinin listesi
+     */
+    protected List<String> collectProductLinks(PageSource page) {
+        Set<String> productLinks = new LinkedHashSet<>();
+        for (String href : page.attributes(PRODUCT_LINKS_XPATH, "href")) {
+            if (href != null && !href.isEmpty() && productLinks.add(href)) {
+                System.out.println("Found link: " + href);
+            }
+        }
+        return new ArrayList<>(productLinks);
+    }
+
+    /**
+     * Ürün sayfasını havuzdan kiralanan bir tarayıcı oturumunda kazır.
+     *
+     * @param url Kazınacak ürünün URL'si
+     * @return Kazınan ürün bilgilerini içeren Product nesnesi
+     * @throws Exception Oturum alınamazsa ya da sayfa kazınamazsa
+     */
+    @Override
+    protected Product scrapeProduct(String url) throws Exception {
+        return withBrowser(session -> scrapeProductDetails(session, url));
     }
 
     /**
      * Belirli bir ürün URL'sinden ürün detaylarını kazır.
      * Ürünün tüm özelliklerini ve bilgilerini toplar.
+     * Hatalar, URL sırasına göre raporlanabilmesi için çağırana iletilir.
      *
+     * @param session Sayfanın açılacağı tarayıcı oturumu
      * @param productUrl Kazınacak ürünün URL'si
      * @return Kazınan ürün bilgilerini içeren Product nesnesi
      */
-    private Product scrapeProductDetails(String productUrl) {
-        try {
-            driver.get(productUrl);
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector(".product-item")));
-
-            Product product = new Product();
-
-            // Temel Bilgiler
-            product.setName(getTextIfPresent(PRODUCT_TITLE_XPATH));
-            product.setPrice(getTextIfPresent(PRODUCT_PRICE_XPATH));
-            product.setLocation(getTextIfPresent(LOCATION_XPATH));
-            product.setExplanation(getTextIfPresent(DESCRIPTION_XPATH));
-            product.setAdvisor(getTextIfPresent(ADVISOR_XPATH));
-
-            // Emlak Detayları
-            product.setSquareMeterGross(getFeatureValue("Brüt m²"));
-            product.setSquareMeterNet(getFeatureValue("Net m²"));
-            product.setNumberRooms(getFeatureValue("Oda Sayısı"));
-
-            // Ek Bilgiler
-            product.setAdvertisementNumber(getTextIfPresent("//p[contains(text(),'İlan ID')]"));  // İlan numarasını bulmak için
-
-            // Kategori Bilgileri
-            product.setCategories(extractCategories());
-
-            // Diğer Bilgiler
-            product.setNumberBathrooms(getTextIfPresent(generateXPathLocator("Banyo Sayısı")));
-            product.setKitchen(getTextIfPresent(generateXPathLocator("Mutfak")));
-            product.setBalcony(getTextIfPresent(generateXPathLocator("Balkon")));
-            product.setLift(getTextIfPresent(generateXPathLocator("Asansör")));
-            product.setIsFurnished(getTextIfPresent(generateXPathLocator("Eşyalı")));
-            product.setUsageStatus(getTextIfPresent(generateXPathLocator("Kullanım Durumu")));
-            product.setDues(getTextIfPresent(generateXPathLocator("Aidat")));
-            product.setIsEligibleCredit(getTextIfPresent(generateXPathLocator("Krediye Uygun")));
-            product.setDeedStatus(getTextIfPresent(generateXPathLocator("Tapu Durumu")));
-            product.setExchangeable(getTextIfPresent(generateXPathLocator("Takaslı")));
-            product.setBuildingAge(getTextIfPresent(generateXPathLocator("Bina Yaşı")));
-            product.setHeating(getTextIfPresent(generateXPathLocator("Isıtma")));
-            product.setFloorLocated(getTextIfPresent(generateXPathLocator("Bulunduğu Kat")));
-            product.setNumberFloors(getTextIfPresent(generateXPathLocator("Kat Sayısı")));
-            product.setFromWhom(getTextIfPresent(generateXPathLocator("Kimden")));
-
-            // Ek Özellikler
-            product.setAdFeatures(extractAdditionalFeatures());
-            product.setImageUrl(extractImageUrls());
-
-            return product;
-        } catch (Exception e) {
-            System.err.println("Error scraping product details: " + e.getMessage());
-            return null;
+    private Product scrapeProductDetails(BrowserSession session, String productUrl) {
+        WebDriver driver = session.getDriver();
+        driver.get(productUrl);
+        // Yalnızca okunacak temel alanlar beklenir; sayfa durulduğu halde yoksa boşuna beklenmez
+        if (!readiness().await(driver, "detail", PLAN.getReadyXpaths())) {
+            throw new PageNotReadyException("Ürün sayfası hazır olmadı: " + productUrl);
+        }
+
+        // Tüm alanlar ve özellik tablosu tek bir betik çağrısıyla okunur
+        long extractStart = System.nanoTime();
+        DomSnapshot page = DomSnapshot.capture(driver, PLAN.getQueries(), FEATURES_TAB_XPATH, PLAN.getAfterClickQueries());
+        Product product = extractProduct(page);
+        readiness().recordExtraction(System.nanoTime() - extractStart);
+        resourcePolicy().recordTransfer(driver);
+
+        Map<String, String> features = pairFeatureCells(page.texts(FEATURES_TABLE_XPATH));
+        if (features.isEmpty() && page.isClicked()) {
+            // Tablo tıklamadan sonra (AJAX ile) geliyorsa beklenip tekrar okunur
+            features = extractAdditionalFeatures(session);
         }
+        product.setAdFeatures(features);
+
+        if (changeDetector != null) {
+            changeDetector.scraped(productUrl, product);
+        }
+        return product;
     }
 
     /**
-     * Ürün sayfasındaki kategori bilgilerini çıkarır.
-     * Breadcrumb navigasyonundan kategori isimlerini toplar.
+     * Açık ya da indirilmiş bir ürün sayfasından ek özellikler dışındaki tüm alanları site tanımına göre okur.
+     * Tarayıcı ve HTTP kazıyıcıları aynı alan eşlemesini bu metod üzerinden kullanır.
      *
-     * @return Ürünün kategorilerinin listesi
+     * @param source Ürün sayfasını okuyan kaynak
+     * @return Ek özellikleri (adFeatures) henüz doldurulmamış Product nesnesi
      */
-    private List<String> extractCategories() {
-        List<String> categoryNames = new ArrayList<>();
-        List<WebElement> categoryElements = driver.findElements(By.xpath(CATEGORY_ELEMENTS_XPATH));
-        for (int i = 1; i < categoryElements.size(); i++) {
-            categoryNames.add(categoryElements.get(i).getText());
-        }
-        return categoryNames;
+    protected Product extractProduct(PageSource source) {
+        Product product = PLAN.extract(source);
+        // Özellik tablosu sekmeye tıklanarak da gelebildiği için çağıran doldurur
+        product.setAdFeatures(null);
+        return product;
     }
 
     /**
      * Ürünün ek özelliklerini çıkarır.
-     * İlan özellikleri sekmesindeki tablodan bilgileri toplar.
+     * İlan özellikleri sekmesine tıklayıp tablodan bilgileri toplar.
      *
+     * @param session Ürün sayfasının açık olduğu tarayıcı oturumu
      * @return Özellik adı ve değeri çiftlerini içeren Map
      */
-    private Map<String, String> extractAdditionalFeatures() {
-        Map<String, String> features = new HashMap<>();
+    protected Map<String, String> extractAdditionalFeatures(BrowserSession session) {
+        WebDriver driver = session.getDriver();
         try {
             if (!driver.findElements(By.xpath(FEATURES_TAB_XPATH)).isEmpty()) {
                 driver.findElement(By.xpath(FEATURES_TAB_XPATH)).click();
-                wait.until(ExpectedConditions.presenceOfElementLocated(By.xpath(FEATURES_TABLE_XPATH)));
-
-                List<WebElement> tdElements = driver.findElements(By.xpath(FEATURES_TABLE_XPATH));
-                for (int i = 0; i < tdElements.size(); i += 2) {
-                    if (i + 1 < tdElements.size()) {
-                        String key = tdElements.get(i).getText();
-                        String value = tdElements.get(i + 1).getText();
-                        features.put(key, value);
-                    }
+                if (readiness().await(driver, "features", FEATURES_READY_XPATHS)) {
+                    return pairFeatureCells(new DriverPageSource(driver).texts(FEATURES_TABLE_XPATH));
                 }
             }
         } catch (Exception e) {
             System.err.println("Error extracting additional features: " + e.getMessage());
         }
-        return features;
+        return new HashMap<>();
     }
 
     /**
-     * Ürün sayfasındaki tüm resim URL'lerini çıkarır.
-     * Ürün galerisindeki tüm resimlerin URL'lerini toplar.
+     * Özellik tablosunun hücrelerini sırayla (ad, değer) çiftlerine dönüştürür.
      *
-     * @return Ürün resimlerinin URL'lerinin listesi
+     * @param cells Tablonun td hücrelerinin metinleri
+     * @return Özellik adı ve değeri çiftlerini içeren Map
      */
-    private List<String> extractImageUrls() {
-        List<String> imageUrls = new ArrayList<>();
-        try {
-            List<WebElement> imageElements = driver.findElements(By.xpath(IMAGE_ELEMENTS_XPATH));
-            for (WebElement imageElement : imageElements) {
-                imageUrls.add(imageElement.getAttribute("src"));
-            }
-        } catch (Exception e) {
-            System.err.println("Error extracting image URLs: " + e.getMessage());
+    protected static Map<String, String> pairFeatureCells(List<String> cells) {
+        Map<String, String> features = new HashMap<>();
+        for (int i = 0; i + 1 < cells.size(); i += 2) {
+            features.put(cells.get(i), cells.get(i + 1));
         }
-        return imageUrls;
-    }
-
-    /**
-     * Verilen etiket için XPath seçici oluşturur.
-     * Özellik değerlerini bulmak için kullanılır.
-     *
-     * @param label Aranacak özellik etiketi
-     * @return Oluşturulan XPath seçici
-     */
-    private String generateXPathLocator(String label) {
-        return "//label[contains(text(),'" + label + "')]//ancestor::div[2]//div[@class='right']//span";
-    }
-
-    /**
-     * Belirtilen etiket için özellik değerini alır.
-     * XPath seçici oluşturup değeri bulmaya çalışır.
-     *
-     * @param label Aranacak özellik etiketi
-     * @return Bulunan özellik değeri veya boş string
-     */
-    private String getFeatureValue(String label) {
-        return getTextIfPresent(generateXPathLocator(label));
+        return features;
     }
 
     /**
@@ -0,0 +1,63 @@
+package com.emlaksiteniz;
+
+import core.scraper.HtmlPageSource;
+import core.scraper.PageSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kaydedilmiş detay sayfası üzerinde alan çıkarma maliyetini ölçer:
+ * HTML ayrıştırma, EmlakScraper.extractProduct ile tüm alanların okunması ve normalleştirme.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+    private String html;
+    private PageSource parsedPage;
+    private Product product;
+    private EmlakScraper scraper;
+    private ProductNormalizer normalizer;
+
+    @Setup
+    public void setUp() {
+        html = BenchmarkFixtures.detailPageHtml();
+        parsedPage = HtmlPageSource.parse(html, BenchmarkFixtures.DETAIL_PAGE_URL);
+        // Tarayıcı açılmadan yalnızca alan eşlemesi kullanılır
+        scraper = new EmlakScraper(false);
+        product = scraper.extractProduct(parsedPage);
+        normalizer = new ProductNormalizer();
+    }
+
+    @Benchmark
+    public PageSource parseHtml() {
+        return HtmlPageSource.parse(html, BenchmarkFixtures.DETAIL_PAGE_URL);
+    }
+
+    @Benchmark
+    public Product extractFromParsedPage() {
+        return scraper.extractProduct(parsedPage);
+    }
+
+    @Benchmark
+    public Product parseAndExtract() {
+        return scraper.extractProduct(HtmlPageSource.parse(html, BenchmarkFixtures.DETAIL_PAGE_URL));
+    }
+
+    @Benchmark
+    public ListingRecord normalize() {
+        return normalizer.normalize(product);
+    }
+}
@@ -0,0 +1,119 @@
+package com.emlaksiteniz;
+
+import core.scraper.ColumnarReader;
+import core.scraper.ColumnarWriter;
+import core.scraper.ColumnarWriter.Column;
+import core.scraper.ProductReader;
+import core.scraper.ScraperConfig;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Kazınan ilanları sütunlu (ColumnarWriter) biçimde dışa aktaran sınıf.
+ * Sayısal sütunlar ProductNormalizer'ın ayrıştırdığı değerlerden, sözlük sütunları
+ * (kategori, ısıtma, tapu durumu, danışman vb.) ham metinlerden yazılır.
+ * Analiz için ColumnarReader ile yalnızca gereken sütunlar okunabilir.
+ */
+public class ListingExport implements Consumer<Product>, AutoCloseable {
+    private static final int BLOCK_ROWS = 4096;   // Bir bloktaki kayıt sayısı
+
+    /**
+     * Ham ürün ve normalleştirilmiş karşılığı; sütun fonksiyonları ikisinden de okur.
+     */
+    private record Listing(Product product, ListingRecord record) {
+    }
+
+    private static final List<Column<Listing>> COLUMNS = List.of(
+            // Sayısal sütunlar
+            Column.int64("id", l -> l.record().getId()),
+            Column.int64("price", l -> l.record().getPrice()),
+            Column.int32("currency", l -> l.record().getCurrency().ordinal()),
+            Column.int32("grossArea", l -> l.record().getGrossArea()),
+            Column.int32("netArea", l -> l.record().getNetArea()),
+            Column.int32("rooms", l -> l.record().getRooms()),
+            Column.int32("salons", l -> l.record().getSalons()),
+            Column.int32("bathrooms", l -> l.record().getBathrooms()),
+            Column.int32("buildingAge", l -> l.record().getBuildingAge()),
+            Column.int32("floor", l -> l.record().getFloor()),
+            Column.int32("floorCount", l -> l.record().getFloorCount()),
+            Column.int32("dues", l -> l.record().getDues()),
+            // Az sayıda farklı değeri olan metinler sözlükle kodlanır
+            Column.dictionary("categories", l -> l.product().getCategories() == null
+                    ? null : String.join(">", l.product().getCategories())),
+            Column.dictionary("city", l -> ProductNormalizer.city(l.product().getLocation())),
+            Column.dictionary("heating", l -> l.product().getHeating()),
+            Column.dictionary("kitchen", l -> l.product().getKitchen()),
+            Column.dictionary("usageStatus", l -> l.product().getUsageStatus()),
+            Column.dictionary("deedStatus", l -> l.product().getDeedStatus()),
+            Column.dictionary("fromWhom", l -> l.product().getFromWhom()),
+            Column.dictionary("advisor", l -> l.product().getAdvisor()),
+            // Her ilanda farklı olan metinler
+            Column.string("name", l -> l.product().getName()),
+            Column.string("location", l -> l.product().getLocation()),
+            Column.string("explanation", l -> l.product().getExplanation()));
+
+    private final ProductNormalizer normalizer = new ProductNormalizer();
+    private final ColumnarWriter<Listing> writer;
+
+    /**
+     * @param path Yazılacak sütunlu dosya
+     * @throws IOException Dosya açılamazsa
+     */
+    public ListingExport(Path path) throws IOException {
+        this.writer = new ColumnarWriter<>(path, COLUMNS, BLOCK_ROWS);
+    }
+
+    @Override
+    public void accept(Product product) {
+        try {
+            writer.write(new Listing(product, normalizer.normalize(product)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return Yazılan ilan sayısı
+     */
+    public long getRowCount() {
+        return writer.getRowCount();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Bir JSON/NDJSON kazıma çıktısını sütunlu biçime dönüştürür, dosya boyutlarını
+     * karşılaştırır ve birkaç sütunu okuyarak örnek bir sorgu çalıştırır.
+     *
+     * @param args [girdi dosyası] [çıktı dosyası]; varsayılanlar ScraperConfig.outputFile() ve "listings.col"
+     * @throws IOException Dosyalar okunamaz/yazılamazsa
+     */
+    public static void main(String[] args) throws IOException {
+        Path input = Path.of(args.length > 0 ? args[0] : ScraperConfig.outputFile());
+        Path output = Path.of(args.length > 1 ? args[1] : "listings.col");
+
+        try (ListingExport export = new ListingExport(output);
+             Stream<Product> products = input.toString().endsWith(".ndjson")
+                     ? ProductReader.streamRotated(input, null)
+                     : ProductReader.stream(input, null)) {
+            products.forEach(export);
+            System.out.println("Dışa aktarılan ilan: " + export.getRowCount());
+        }
+        System.out.printf("JSON: %d bayt, sütunlu: %d bayt%n", Files.size(input), Files.size(output));
+
+        // Örnek: 3 ve üzeri odalı ilanların il ve fiyatı, yalnızca üç sütun okunarak
+        try (ColumnarReader reader = new ColumnarReader(output)) {
+            long matched = reader.scan("rooms", 3, Long.MAX_VALUE, List.of("city", "price"),
+                    row -> System.out.println(row.getString(0) + ": " + row.getLong(1)));
+            System.out.println(matched + " ilan eşleşti, " + reader.skippedBlocks() + "/" + reader.blockCount() + " blok atlandı");
+        }
+    }
+}
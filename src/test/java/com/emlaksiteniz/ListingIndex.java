@@ -0,0 +1,310 @@
+package com.emlaksiteniz;
+
+import core.scraper.ProductReader;
+import core.scraper.ScraperConfig;
+import core.scraper.SortedRangeIndex;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Kazınan ilanlar üzerinde bellek içi ikincil dizin ve sorgu API'si.
+ * Fiyat ve m² için SortedRangeIndex'te sıralı ilkel diziler, il, ilçe, oda sayısı,
+ * kategori yolu gibi kategorik alanlar için değer başına BitSet kayıt listeleri tutulur.
+ * Sorgular önce kayıt listelerini kesiştirir; aralık koşulları, aday kümesi küçükse
+ * belge başına tutulan değerlerle, değilse sıralı dizilerden doğrudan uygulanır.
+ * Ürünler akış halinde eklenebilir (Consumer); aynı ilan ID'si tekrar gelirse eski kayıt
+ * silinmiş sayılır. Okumalar eşzamanlı, eklemeler tek tek yapılır.
+ */
+public class ListingIndex implements Consumer<Product> {
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    /**
+     * Kategorik (eşitlik) sorgulanabilen alanlar.
+     */
+    public enum Field {
+        CITY, DISTRICT, ROOMS, CATEGORY, HEATING, DEED_STATUS, FROM_WHOM
+    }
+
+    /**
+     * Aralık sorgulanabilen sayısal alanlar.
+     */
+    public enum Range {
+        PRICE, GROSS_AREA, NET_AREA
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ProductNormalizer normalizer = new ProductNormalizer();
+    private final List<Product> products = new ArrayList<>();              // Belge no -> ürün
+    private final Map<Range, long[]> values = new EnumMap<>(Range.class);  // Belge no -> sayısal değer
+    private final Map<Range, SortedRangeIndex> ranges = new EnumMap<>(Range.class);
+    private final Map<Field, Map<String, BitSet>> postings = new EnumMap<>(Field.class);
+    private final Map<Long, Integer> docById = new HashMap<>();
+    private final BitSet live = new BitSet();                              // Silinmemiş belgeler
+
+    public ListingIndex() {
+        for (Range range : Range.values()) {
+            values.put(range, new long[1024]);
+            ranges.put(range, new SortedRangeIndex());
+        }
+        for (Field field : Field.values()) {
+            postings.put(field, new HashMap<>());
+        }
+    }
+
+    /**
+     * Ürünü dizine ekler; aynı ilan ID'li eski kayıt varsa yerini alır.
+     *
+     * @param product Eklenecek ürün
+     */
+    @Override
+    public void accept(Product product) {
+        ListingRecord record = normalizer.normalize(product);
+        lock.writeLock().lock();
+        try {
+            int doc = products.size();
+            products.add(product);
+            live.set(doc);
+            if (record.getId() != ListingRecord.UNKNOWN) {
+                Integer previous = docById.put(record.getId(), doc);
+                if (previous != null) {
+                    live.clear(previous);
+                    products.set(previous, null);
+                }
+            }
+
+            addRange(Range.PRICE, doc, record.getPrice());
+            addRange(Range.GROSS_AREA, doc, record.getGrossArea());
+            addRange(Range.NET_AREA, doc, record.getNetArea());
+
+            addPosting(Field.CITY, doc, ProductNormalizer.city(product.getLocation()));
+            addPosting(Field.DISTRICT, doc, ProductNormalizer.district(product.getLocation()));
+            addPosting(Field.ROOMS, doc, product.getNumberRooms());
+            addPosting(Field.HEATING, doc, product.getHeating());
+            addPosting(Field.DEED_STATUS, doc, product.getDeedStatus());
+            addPosting(Field.FROM_WHOM, doc, product.getFromWhom());
+            if (product.getCategories() != null) {
+                // Her ön ek ayrı bir yol olarak dizinlenir: "KONUT", "KONUT>SATILIK KONUTLAR", ...
+                StringBuilder path = new StringBuilder();
+                for (String category : product.getCategories()) {
+                    if (!path.isEmpty()) {
+                        path.append('>');
+                    }
+                    path.append(category.strip());
+                    addPosting(Field.CATEGORY, doc, path.toString());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Dizindeki güncel (silinmemiş) ilan sayısı
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Koşulları zincirlenerek kurulacak yeni bir sorgu
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    /**
+     * Eşitlik ve aralık koşullarını VE ile birleştiren sorgu.
+     */
+    public class Query {
+        private final Map<Field, String> terms = new EnumMap<>(Field.class);
+        private final Map<Range, long[]> bounds = new EnumMap<>(Range.class);
+        private int limit = Integer.MAX_VALUE;
+
+        private Query() {
+        }
+
+        /**
+         * @param field Kategorik alan
+         * @param value Değer (büyük/küçük harf duyarsız); CATEGORY için yol ön eki
+         * @return Bu sorgu
+         */
+        public Query where(Field field, String value) {
+            terms.put(field, key(value));
+            return this;
+        }
+
+        /**
+         * @param range Sayısal alan
+         * @param min Alt sınır (dahil)
+         * @param max Üst sınır (dahil)
+         * @return Bu sorgu
+         */
+        public Query between(Range range, long min, long max) {
+            bounds.put(range, new long[]{min, max});
+            return this;
+        }
+
+        public Query priceBetween(long min, long max) {
+            return between(Range.PRICE, min, max);
+        }
+
+        public Query grossAreaBetween(long min, long max) {
+            return between(Range.GROSS_AREA, min, max);
+        }
+
+        /**
+         * @param limit Döndürülecek en fazla ilan sayısı
+         * @return Bu sorgu
+         */
+        public Query limit(int limit) {
+            this.limit = Math.max(0, limit);
+            return this;
+        }
+
+        /**
+         * @return Eşleşen ilan sayısı
+         */
+        public int count() {
+            lock.readLock().lock();
+            try {
+                return matches().cardinality();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * @return Eşleşen ilanlar, eklenme sırasıyla
+         */
+        public List<Product> find() {
+            lock.readLock().lock();
+            try {
+                BitSet matches = matches();
+                List<Product> result = new ArrayList<>(Math.min(limit, matches.cardinality()));
+                for (int doc = matches.nextSetBit(0); doc >= 0 && result.size() < limit; doc = matches.nextSetBit(doc + 1)) {
+                    result.add(products.get(doc));
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private BitSet matches() {
+            BitSet candidates = null;
+            for (Map.Entry<Field, String> term : terms.entrySet()) {
+                BitSet posting = postings.get(term.getKey()).get(term.getValue());
+                if (posting == null) {
+                    return new BitSet();
+                }
+                if (candidates == null) {
+                    candidates = (BitSet) posting.clone();
+                } else {
+                    candidates.and(posting);
+                }
+            }
+
+            // En seçici aralık önce uygulanır
+            List<Map.Entry<Range, long[]>> ordered = new ArrayList<>(bounds.entrySet());
+            int[] counts = new int[Range.values().length];
+            for (Map.Entry<Range, long[]> bound : ordered) {
+                counts[bound.getKey().ordinal()] = ranges.get(bound.getKey()).count(bound.getValue()[0], bound.getValue()[1]);
+            }
+            ordered.sort((a, b) -> Integer.compare(counts[a.getKey().ordinal()], counts[b.getKey().ordinal()]));
+
+            for (Map.Entry<Range, long[]> bound : ordered) {
+                long min = bound.getValue()[0];
+                long max = bound.getValue()[1];
+                if (candidates != null && candidates.cardinality() <= counts[bound.getKey().ordinal()]) {
+                    // Aday az: belge başına değere bakmak aralığı toplamaktan ucuz
+                    long[] column = values.get(bound.getKey());
+                    for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                        if (column[doc] == ListingRecord.UNKNOWN || column[doc] < min || column[doc] > max) {
+                            candidates.clear(doc);
+                        }
+                    }
+                } else {
+                    BitSet inRange = new BitSet(products.size());
+                    ranges.get(bound.getKey()).collect(min, max, inRange);
+                    if (candidates == null) {
+                        candidates = inRange;
+                    } else {
+                        candidates.and(inRange);
+                    }
+                }
+            }
+
+            if (candidates == null) {
+                return (BitSet) live.clone();
+            }
+            candidates.and(live);
+            return candidates;
+        }
+    }
+
+    private void addRange(Range range, int doc, long value) {
+        long[] column = values.get(range);
+        if (doc >= column.length) {
+            column = Arrays.copyOf(column, column.length * 2);
+            values.put(range, column);
+        }
+        column[doc] = value;
+        // Bilinmeyen değerler aralık dizinine girmez, hiçbir aralıkla eşleşmez
+        if (value != ListingRecord.UNKNOWN) {
+            ranges.get(range).add(value, doc);
+        }
+    }
+
+    private void addPosting(Field field, int doc, String value) {
+        String key = key(value);
+        if (key != null) {
+            postings.get(field).computeIfAbsent(key, k -> new BitSet()).set(doc);
+        }
+    }
+
+    private static String key(String value) {
+        return value == null || value.isBlank() ? null : value.strip().toLowerCase(TURKISH);
+    }
+
+    /**
+     * Bir kazıma çıktısını dizine yükleyip örnek bir sorgunun süresini ölçer.
+     *
+     * @param args İsteğe bağlı çıktı dosyası (varsayılan: ScraperConfig.outputFile())
+     * @throws IOException Dosya okunamazsa
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : ScraperConfig.outputFile());
+        ListingIndex index = new ListingIndex();
+        try (Stream<Product> products = path.toString().endsWith(".ndjson")
+                ? ProductReader.streamRotated(path, null)
+                : ProductReader.stream(path, null)) {
+            products.forEach(index);
+        }
+        System.out.println("Dizindeki ilan: " + index.size());
+
+        long start = System.nanoTime();
+        List<Product> matches = index.query()
+                .where(Field.CATEGORY, "KONUT")
+                .priceBetween(0, 5_000_000)
+                .find();
+        System.out.printf("%d ilan %.3f ms'de bulundu%n", matches.size(), (System.nanoTime() - start) / 1e6);
+        matches.forEach(product -> System.out.println(product.getName() + " - " + product.getPrice()));
+    }
+}
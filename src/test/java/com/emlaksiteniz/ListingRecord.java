@@ -0,0 +1,294 @@
+package com.emlaksiteniz;
+
+
+/**
+ * Product'ın ayrıştırılmış, tip güvenli ve sıkıştırılmış karşılığı.
+ * Sayısal alanlar ilkel tiplerde tutulur; tekrar eden metin alanları (ısıtma, satıcı tipi,
+ * konum vb.) ProductNormalizer'ın sözlüklerindeki kodlarla saklanır.
+ * Değeri bilinmeyen sayısal alanlar UNKNOWN, evet/hayır alanları UNKNOWN_FLAG olur.
+ */
+public class ListingRecord {
+    /**
+     * Bilinmeyen sayısal değer.
+     */
+    public static final int UNKNOWN = -1;
+    /**
+     * Bilinmeyen evet/hayır değeri; 0 hayır, 1 evet anlamına gelir.
+     */
+    public static final byte UNKNOWN_FLAG = -1;
+    /**
+     * Bilinmeyen kat; giriş katı 0, bodrum/kot katları negatiftir.
+     */
+    public static final short UNKNOWN_FLOOR = Short.MIN_VALUE;
+
+    /**
+     * Fiyatın para birimi.
+     */
+    public enum Currency {
+        TRY, USD, EUR, GBP, UNKNOWN
+    }
+
+    // Temel Bilgiler
+    private long id = UNKNOWN;                      // İlan numarası (örn: "İlan ID: 118" -> 118)
+    private long price = UNKNOWN;                   // Fiyat, para biriminin tam birimi cinsinden
+    private Currency currency = Currency.UNKNOWN;   // Fiyatın para birimi
+    private int location = UNKNOWN;                 // Konum sözlük kodu
+    private int category = UNKNOWN;                 // Kategori yolu sözlük kodu (örn: "KONUT>SATILIK>DAIRE")
+    private int advisor = UNKNOWN;                  // Danışman sözlük kodu
+
+    // Emlak Detayları
+    private int grossArea = UNKNOWN;                // Brüt m²
+    private int netArea = UNKNOWN;                  // Net m²
+    private byte rooms = UNKNOWN;                   // Oda sayısı ("3+1" -> 3)
+    private byte salons = UNKNOWN;                  // Salon sayısı ("3+1" -> 1)
+    private byte bathrooms = UNKNOWN;               // Banyo sayısı
+    private short buildingAge = UNKNOWN;            // Bina yaşı (aralıklarda alt sınır)
+    private short floor = UNKNOWN_FLOOR;            // Bulunduğu kat
+    private short floorCount = UNKNOWN;             // Toplam kat sayısı
+    private int dues = UNKNOWN;                     // Aylık aidat (TL)
+
+    // Kodlanmış kategorik değerler
+    private int heating = UNKNOWN;                  // Isıtma tipi sözlük kodu
+    private int kitchen = UNKNOWN;                  // Mutfak tipi sözlük kodu
+    private int usageStatus = UNKNOWN;              // Kullanım durumu sözlük kodu
+    private int deedStatus = UNKNOWN;               // Tapu durumu sözlük kodu
+    private int fromWhom = UNKNOWN;                 // Satıcı tipi sözlük kodu
+
+    // Evet/hayır alanları
+    private byte balcony = UNKNOWN_FLAG;
+    private byte lift = UNKNOWN_FLAG;
+    private byte furnished = UNKNOWN_FLAG;
+    private byte eligibleCredit = UNKNOWN_FLAG;
+    private byte exchangeable = UNKNOWN_FLAG;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public void setPrice(long price) {
+        this.price = price;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+
+    public int getLocation() {
+        return location;
+    }
+
+    public void setLocation(int location) {
+        this.location = location;
+    }
+
+    public int getCategory() {
+        return category;
+    }
+
+    public void setCategory(int category) {
+        this.category = category;
+    }
+
+    public int getAdvisor() {
+        return advisor;
+    }
+
+    public void setAdvisor(int advisor) {
+        this.advisor = advisor;
+    }
+
+    public int getGrossArea() {
+        return grossArea;
+    }
+
+    public void setGrossArea(int grossArea) {
+        this.grossArea = grossArea;
+    }
+
+    public int getNetArea() {
+        return netArea;
+    }
+
+    public void setNetArea(int netArea) {
+        this.netArea = netArea;
+    }
+
+    public byte getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(byte rooms) {
+        this.rooms = rooms;
+    }
+
+    public byte getSalons() {
+        return salons;
+    }
+
+    public void setSalons(byte salons) {
+        this.salons = salons;
+    }
+
+    public byte getBathrooms() {
+        return bathrooms;
+    }
+
+    public void setBathrooms(byte bathrooms) {
+        this.bathrooms = bathrooms;
+    }
+
+    public short getBuildingAge() {
+        return buildingAge;
+    }
+
+    public void setBuildingAge(short buildingAge) {
+        this.buildingAge = buildingAge;
+    }
+
+    public short getFloor() {
+        return floor;
+    }
+
+    public void setFloor(short floor) {
+        this.floor = floor;
+    }
+
+    public short getFloorCount() {
+        return floorCount;
+    }
+
+    public void setFloorCount(short floorCount) {
+        this.floorCount = floorCount;
+    }
+
+    public int getDues() {
+        return dues;
+    }
+
+    public void setDues(int dues) {
+        this.dues = dues;
+    }
+
+    public int getHeating() {
+        return heating;
+    }
+
+    public void setHeating(int heating) {
+        this.heating = heating;
+    }
+
+    public int getKitchen() {
+        return kitchen;
+    }
+
+    public void setKitchen(int kitchen) {
+        this.kitchen = kitchen;
+    }
+
+    public int getUsageStatus() {
+        return usageStatus;
+    }
+
+    public void setUsageStatus(int usageStatus) {
+        this.usageStatus = usageStatus;
+    }
+
+    public int getDeedStatus() {
+        return deedStatus;
+    }
+
+    public void setDeedStatus(int deedStatus) {
+        this.deedStatus = deedStatus;
+    }
+
+    public int getFromWhom() {
+        return fromWhom;
+    }
+
+    public void setFromWhom(int fromWhom) {
+        this.fromWhom = fromWhom;
+    }
+
+    public byte getBalcony() {
+        return balcony;
+    }
+
+    public void setBalcony(byte balcony) {
+        this.balcony = balcony;
+    }
+
+    public byte getLift() {
+        return lift;
+    }
+
+    public void setLift(byte lift) {
+        this.lift = lift;
+    }
+
+    public byte getFurnished() {
+        return furnished;
+    }
+
+    public void setFurnished(byte furnished) {
+        this.furnished = furnished;
+    }
+
+    public byte getEligibleCredit() {
+        return eligibleCredit;
+    }
+
+    public void setEligibleCredit(byte eligibleCredit) {
+        this.eligibleCredit = eligibleCredit;
+    }
+
+    public byte getExchangeable() {
+        return exchangeable;
+    }
+
+    public void setExchangeable(byte exchangeable) {
+        this.exchangeable = exchangeable;
+    }
+
+    @Override
+    public String toString() {
+        return "ListingRecord{" +
+                "id=" + id +
+                ", price=" + price +
+                ", currency=" + currency +
+                ", location=" + location +
+                ", category=" + category +
+                ", advisor=" + advisor +
+                ", grossArea=" + grossArea +
+                ", netArea=" + netArea +
+                ", rooms=" + rooms +
+                ", salons=" + salons +
+                ", bathrooms=" + bathrooms +
+                ", buildingAge=" + buildingAge +
+                ", floor=" + floor +
+                ", floorCount=" + floorCount +
+                ", dues=" + dues +
+                ", heating=" + heating +
+                ", kitchen=" + kitchen +
+                ", usageStatus=" + usageStatus +
+                ", deedStatus=" + deedStatus +
+                ", fromWhom=" + fromWhom +
+                ", balcony=" + balcony +
+                ", lift=" + lift +
+                ", furnished=" + furnished +
+                ", eligibleCredit=" + eligibleCredit +
+                ", exchangeable=" + exchangeable +
+                '}';
+    }
+}
@@ -0,0 +1,559 @@
+package com.emlaksiteniz;
+
+import core.scraper.ScraperConfig;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * İlanların fiyat ve aidat geçmişini taramalar arasında saklayan zaman serisi.
+ * Her ilan için yalnızca değer (ya da para birimi) değiştiğinde bir nokta eklenir: tarama
+ * zamanı (dakika), ayrıştırılmış tutar ve para birimi. Noktalar ilan başına tek bir byte
+ * dizisinde, önceki noktaya göre fark olarak varint (tutar farkları zigzag) kodlanır; bir
+ * değişiklik çoğunlukla 5-7 bayt tutar. İlan numaraları açık adresli bir long tablosunda,
+ * son değişiklik zamanları ilkel bir dizide tutulur; böylece ilan başına bellek birkaç düzine
+ * bayt kalır ve "son N günde fiyatı %X'ten fazla düşenler" sorgusu, pencerede değişikliği
+ * olmayan ilanların serisi çözülmeden tüm katalogda taranır. İlan numaraları yalnızca site içinde
+ * tekil olduğundan anahtar site ve numaradır; site adları bir kez saklanıp yuvalarda sırasıyla tutulur.
+ * Okumalar eşzamanlı, kayıtlar tek tek yapılır.
+ */
+public class PriceHistory {
+    private static final int MAGIC = 0x50485354;     // "PHST"
+    private static final int VERSION = 1;
+    private static final int CURRENCY_BITS = 0x07;
+    private static final int DUES_FLAG = 0x08;
+    private static final ListingRecord.Currency[] CURRENCIES = ListingRecord.Currency.values();
+
+    private static PriceHistory shared;
+
+    /**
+     * Geçmişi tutulan alanlar.
+     */
+    public enum Field {
+        PRICE, DUES
+    }
+
+    /**
+     * Serideki tek bir değişiklik.
+     *
+     * @param time Değişikliğin görüldüğü taramanın zamanı (epoch ms, dakika hassasiyetinde)
+     * @param field Değişen alan
+     * @param value Yeni tutar
+     * @param currency Tutarın para birimi
+     */
+    public record Point(long time, Field field, long value, ListingRecord.Currency currency) {
+    }
+
+    /**
+     * Fiyatı düşen bir ilan.
+     *
+     * @param site İlanın sitesi
+     * @param id İlan numarası
+     * @param previousPrice Pencere içindeki en yüksek fiyat (pencere başında geçerli olan dahil)
+     * @param currentPrice Güncel fiyat
+     * @param currency Fiyatların para birimi
+     * @param changedAt Son fiyat değişikliğinin zamanı (epoch ms)
+     */
+    public record Drop(String site, long id, long previousPrice, long currentPrice, ListingRecord.Currency currency, long changedAt) {
+        /**
+         * @return Düşüş yüzdesi
+         */
+        public double percent() {
+            return (previousPrice - currentPrice) * 100.0 / previousPrice;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Path file;
+    private int[] table = new int[1024];            // Açık adresli tablo: yuva + 1 (0: boş); anahtar ids'ten okunur
+    private long[] ids = new long[512];             // Yuva -> ilan no
+    private int[] siteOf = new int[512];            // Yuva -> sites içindeki sıra
+    private int[] lastChange = new int[512];        // Yuva -> son değişikliğin dakikası
+    private byte[][] series = new byte[512][];      // Yuva -> kodlanmış noktalar
+    private final List<String> sites = new ArrayList<>();            // Sıra -> site adı
+    private final Map<String, Integer> siteIndex = new HashMap<>();  // Site adı -> sıra
+    private int size;
+    private long points;
+    private long bytes;                             // Serilerin toplam boyutu
+
+    /**
+     * @param file Geçmişin kaydedileceği dosya (null: kaydedilmez)
+     */
+    public PriceHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Ayarlarda açıksa (scraper.priceHistory) süreç boyunca paylaşılan geçmişi döndürür;
+     * ilk çağrıda kaydedilmiş dosya yüklenir.
+     *
+     * @return Paylaşılan geçmiş veya kapalıysa null
+     * @throws IOException Dosya okunamazsa
+     */
+    public static synchronized PriceHistory shared() throws IOException {
+        if (shared == null && ScraperConfig.priceHistoryEnabled()) {
+            shared = load(Path.of(ScraperConfig.priceHistoryFile()));
+        }
+        return shared;
+    }
+
+    /**
+     * Kaydedilmiş geçmişi yükler; dosya yoksa boş bir geçmiş döner.
+     *
+     * @param file Geçmiş dosyası
+     * @return Yüklenen geçmiş
+     * @throws IOException Dosya okunamazsa ya da geçmiş dosyası değilse
+     */
+    public static PriceHistory load(Path file) throws IOException {
+        PriceHistory history = new PriceHistory(file);
+        if (!Files.isRegularFile(file)) {
+            return history;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            int magic = in.readInt();
+            int version = in.readInt();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Fiyat geçmişi dosyası değil ya da sürümü desteklenmiyor: " + file);
+            }
+            int siteCount = in.readInt();
+            List<String> names = new ArrayList<>(siteCount);
+            for (int i = 0; i < siteCount; i++) {
+                names.add(in.readUTF());
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String site = names.get(in.readInt());
+                long id = in.readLong();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                int slot = history.slotFor(site, id, true);
+                history.series[slot] = data;
+                history.lastChange[slot] = lastMinute(data);
+                history.points += countPoints(data);
+                history.bytes += data.length;
+            }
+        }
+        System.out.println("Fiyat geçmişi yüklendi: " + history.summary());
+        return history;
+    }
+
+    /**
+     * Ürünün fiyatını ve aidatını, son kaydedilen değerden farklıysa seriye ekler.
+     * Numarası ya da fiyatı okunamayan ilanlar atlanır.
+     *
+     * @param site İlanın geldiği site (ilan numaraları yalnızca site içinde tekildir)
+     * @param product Kazınan ürün
+     * @param crawledAt Taramanın zamanı (epoch ms); bir taramadaki tüm ilanlar için aynı olmalıdır
+     * @return Bir değişiklik eklendiyse true
+     */
+    public boolean record(String site, Product product, long crawledAt) {
+        long id = ProductNormalizer.parseLong(product.getAdvertisementNumber());
+        if (id == ListingRecord.UNKNOWN) {
+            return false;
+        }
+        long price = ProductNormalizer.parsePrice(product.getPrice());
+        long dues = ProductNormalizer.parsePrice(product.getDues());
+        if (price == ListingRecord.UNKNOWN && dues == ListingRecord.UNKNOWN) {
+            return false;
+        }
+        ListingRecord.Currency priceCurrency = ProductNormalizer.parseCurrency(product.getPrice());
+        ListingRecord.Currency duesCurrency = ProductNormalizer.parseCurrency(product.getDues());
+        int minute = (int) TimeUnit.MILLISECONDS.toMinutes(crawledAt);
+
+        lock.writeLock().lock();
+        try {
+            int slot = slotFor(site, id, true);
+            byte[] data = series[slot];
+            Cursor last = new Cursor(data);
+            while (last.next()) {
+                // Son değerlere kadar ilerlenir
+            }
+            int time = Math.max(minute, last.minute);
+            Encoder encoder = new Encoder(last.minute);
+            if (price != ListingRecord.UNKNOWN && (last.priceCurrency == null || price != last.price || priceCurrency != last.priceCurrency)) {
+                encoder.add(time, 0, priceCurrency, price - last.price);
+            }
+            if (dues != ListingRecord.UNKNOWN && (last.duesCurrency == null || dues != last.duesValue || duesCurrency != last.duesCurrency)) {
+                encoder.add(time, DUES_FLAG, duesCurrency, dues - last.duesValue);
+            }
+            if (encoder.count == 0) {
+                return false;
+            }
+            byte[] grown = Arrays.copyOf(data == null ? new byte[0] : data, (data == null ? 0 : data.length) + encoder.length);
+            System.arraycopy(encoder.buffer, 0, grown, grown.length - encoder.length, encoder.length);
+            series[slot] = grown;
+            lastChange[slot] = time;
+            points += encoder.count;
+            bytes += encoder.length;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param site İlanın sitesi
+     * @param id İlan numarası
+     * @return İlanın değişiklikleri, eskiden yeniye
+     */
+    public List<Point> history(String site, long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotFor(site, id, false);
+            List<Point> result = new ArrayList<>();
+            if (slot < 0) {
+                return result;
+            }
+            Cursor cursor = new Cursor(series[slot]);
+            while (cursor.next()) {
+                result.add(cursor.dues
+                        ? new Point(TimeUnit.MINUTES.toMillis(cursor.minute), Field.DUES, cursor.duesValue, cursor.duesCurrency)
+                        : new Point(TimeUnit.MINUTES.toMillis(cursor.minute), Field.PRICE, cursor.price, cursor.priceCurrency));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Son günlerde fiyatı verilen orandan fazla düşen ilanları bulur. Düşüş, güncel fiyatın
+     * pencere içindeki en yüksek fiyata (pencere başında geçerli olan fiyat dahil) göre
+     * hesaplanır; para birimi değişmişse yalnızca güncel para birimindeki fiyatlar karşılaştırılır.
+     *
+     * @param minPercent En az düşüş yüzdesi (örn: 10)
+     * @param days Geriye bakılacak gün sayısı
+     * @param now Pencerenin sonu (epoch ms)
+     * @return Düşüşler, büyükten küçüğe
+     */
+    public List<Drop> priceDrops(double minPercent, int days, long now) {
+        int cutoff = (int) (TimeUnit.MILLISECONDS.toMinutes(now) - TimeUnit.DAYS.toMinutes(days));
+        List<Drop> drops = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < size; slot++) {
+                if (lastChange[slot] < cutoff) {
+                    continue;   // Pencerede değişiklik yok
+                }
+                Drop drop = drop(slot, cutoff);
+                if (drop != null && drop.percent() > minPercent) {
+                    drops.add(drop);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        drops.sort(Comparator.comparingDouble(Drop::percent).reversed());
+        return drops;
+    }
+
+    /**
+     * @param minPercent En az düşüş yüzdesi
+     * @param days Geriye bakılacak gün sayısı
+     * @return Şu ana kadarki son günlerde fiyatı düşen ilanlar, büyükten küçüğe
+     */
+    public List<Drop> priceDrops(double minPercent, int days) {
+        return priceDrops(minPercent, days, System.currentTimeMillis());
+    }
+
+    /**
+     * @return Geçmişi tutulan ilan sayısı
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Geçmişi dosyasına yazar; yarıda kalan yazma önceki dosyayı bozmaz.
+     *
+     * @throws IOException Yazma başarısız olursa
+     */
+    public void save() throws IOException {
+        if (file == null) {
+            return;
+        }
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sites.size());
+            for (String site : sites) {
+                out.writeUTF(site);
+            }
+            out.writeInt(size);
+            for (int slot = 0; slot < size; slot++) {
+                out.writeInt(siteOf[slot]);
+                out.writeLong(ids[slot]);
+                out.writeInt(series[slot].length);
+                out.write(series[slot]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return Geçmişin tek satırlık özeti
+     */
+    public String summary() {
+        lock.readLock().lock();
+        try {
+            // Seri başına dizi başlığı (16), yuva dizileri (8 + 4 + 4 + 4) ve ortalama doluluktaki tablo (~6)
+            long memory = bytes + size * (16L + 8 + 4 + 4 + 4 + 6);
+            return String.format("Fiyat geçmişi: %d ilan, %d değişiklik, ilan başına ~%d bayt",
+                    size, points, size == 0 ? 0 : memory / size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Seri iki kez okunur: önce güncel fiyat ve para birimi, sonra pencere başında geçerli olan
+     * ve pencere içindeki aynı para birimli fiyatların en yükseği bulunur. Dizi ayrılmaz.
+     */
+    private Drop drop(int slot, int cutoff) {
+        Cursor cursor = new Cursor(series[slot]);
+        int count = 0;
+        int changedAt = 0;
+        while (cursor.next()) {
+            if (!cursor.dues) {
+                count++;
+                changedAt = cursor.minute;
+            }
+        }
+        if (count < 2 || changedAt < cutoff) {
+            return null;
+        }
+        long current = cursor.price;
+        ListingRecord.Currency currency = cursor.priceCurrency;
+
+        long highest = Long.MIN_VALUE;
+        Cursor earlier = new Cursor(series[slot]);
+        for (int seen = 0; seen < count - 1 && earlier.next(); ) {
+            if (earlier.dues) {
+                continue;
+            }
+            seen++;
+            boolean comparable = earlier.priceCurrency == currency;
+            if (earlier.minute <= cutoff) {
+                // Pencere başında geçerli olan fiyat öncekilerin yerini alır
+                highest = comparable ? earlier.price : Long.MIN_VALUE;
+            } else if (comparable) {
+                highest = Math.max(highest, earlier.price);
+            }
+        }
+        if (highest <= current || highest <= 0) {
+            return null;
+        }
+        return new Drop(sites.get(siteOf[slot]), ids[slot], highest, current, currency, TimeUnit.MINUTES.toMillis(changedAt));
+    }
+
+    /**
+     * @param create Yoksa yeni yuva açılsın mı
+     * @return İlanın yuvası; yoksa ve create false ise -1
+     */
+    private int slotFor(String site, long id, boolean create) {
+        Integer known = siteIndex.get(site);
+        if (known == null && !create) {
+            return -1;
+        }
+        int siteNumber = known != null ? known : siteIndex.computeIfAbsent(site, name -> {
+            sites.add(name);
+            return sites.size() - 1;
+        });
+        int mask = table.length - 1;
+        int position = hash(siteNumber, id) & mask;
+        while (table[position] != 0) {
+            int slot = table[position] - 1;
+            if (ids[slot] == id && siteOf[slot] == siteNumber) {
+                return slot;
+            }
+            position = (position + 1) & mask;
+        }
+        if (!create) {
+            return -1;
+        }
+        if (size == ids.length) {
+            int capacity = size + (size >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            siteOf = Arrays.copyOf(siteOf, capacity);
+            lastChange = Arrays.copyOf(lastChange, capacity);
+            series = Arrays.copyOf(series, capacity);
+        }
+        int slot = size++;
+        ids[slot] = id;
+        siteOf[slot] = siteNumber;
+        table[position] = slot + 1;
+        if (size * 4L > table.length * 3L) {
+            rehash(table.length * 2);
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int slot = 0; slot < size; slot++) {
+            int position = hash(siteOf[slot], ids[slot]) & mask;
+            while (slots[position] != 0) {
+                position = (position + 1) & mask;
+            }
+            slots[position] = slot + 1;
+        }
+        table = slots;
+    }
+
+    private static int hash(int site, long id) {
+        long h = (id ^ (long) site << 48) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int lastMinute(byte[] data) {
+        Cursor cursor = new Cursor(data);
+        while (cursor.next()) {
+            // Son noktaya kadar ilerlenir
+        }
+        return cursor.minute;
+    }
+
+    private static int countPoints(byte[] data) {
+        Cursor cursor = new Cursor(data);
+        int count = 0;
+        while (cursor.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Kodlanmış seriyi baştan sona okur. Her nokta: etiket baytı (para birimi + aidat bayrağı),
+     * önceki noktadan bu yana geçen dakika (varint) ve aynı alanın önceki değerine göre fark (zigzag varint).
+     */
+    private static final class Cursor {
+        private final byte[] data;
+        private int position;
+        private int minute;
+        private boolean dues;                           // Son okunan nokta aidat mı
+        private long price;
+        private long duesValue;
+        private ListingRecord.Currency priceCurrency;   // Henüz fiyat noktası yoksa null
+        private ListingRecord.Currency duesCurrency;
+
+        private Cursor(byte[] data) {
+            this.data = data == null ? new byte[0] : data;
+        }
+
+        private boolean next() {
+            if (position >= data.length) {
+                return false;
+            }
+            int tag = data[position++];
+            minute += (int) readVarint();
+            long delta = zigzagDecode(readVarint());
+            ListingRecord.Currency currency = CURRENCIES[Math.min(tag & CURRENCY_BITS, CURRENCIES.length - 1)];
+            dues = (tag & DUES_FLAG) != 0;
+            if (dues) {
+                duesValue += delta;
+                duesCurrency = currency;
+            } else {
+                price += delta;
+                priceCurrency = currency;
+            }
+            return true;
+        }
+
+        private long readVarint() {
+            long value = 0;
+            int shift = 0;
+            while (true) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+                shift += 7;
+            }
+        }
+    }
+
+    /**
+     * Bir kayıtta eklenecek noktaları kodlar.
+     */
+    private static final class Encoder {
+        private final byte[] buffer = new byte[2 * (1 + 5 + 10)];
+        private int length;
+        private int count;
+        private int minute;
+
+        private Encoder(int lastMinute) {
+            this.minute = lastMinute;
+        }
+
+        private void add(int time, int flags, ListingRecord.Currency currency, long delta) {
+            buffer[length++] = (byte) (flags | currency.ordinal());
+            writeVarint(time - minute);
+            writeVarint(zigzagEncode(delta));
+            minute = time;
+            count++;
+        }
+
+        private void writeVarint(long value) {
+            while ((value & ~0x7fL) != 0) {
+                buffer[length++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+    }
+
+    static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Kaydedilmiş geçmişte son günlerde fiyatı düşen ilanları listeler.
+     *
+     * @param args İsteğe bağlı en az düşüş yüzdesi (varsayılan 5) ve gün sayısı (varsayılan 30)
+     * @throws IOException Dosya okunamazsa
+     */
+    public static void main(String[] args) throws IOException {
+        double percent = args.length > 0 ? Double.parseDouble(args[0]) : 5;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        PriceHistory history = load(Path.of(ScraperConfig.priceHistoryFile()));
+        long start = System.nanoTime();
+        List<Drop> drops = history.priceDrops(percent, days);
+        System.out.printf("Son %d günde fiyatı %%%.1f'ten fazla düşen %d ilan %.3f ms'de bulundu%n",
+                days, percent, drops.size(), (System.nanoTime() - start) / 1e6);
+        for (Drop drop : drops.subList(0, Math.min(50, drops.size()))) {
+            System.out.printf("İlan %s:%d: %,d -> %,d %s (%%%.1f)%n", drop.site(), drop.id(), drop.previousPrice(), drop.currentPrice(),
+                    drop.currency(), drop.percent());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.emlaksiteniz;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bir yıllık haftalık taramalarla dolmuş fiyat geçmişinde düşüş sorgusunun ve her taramada
+ * çoğu ilan için yapılan değişmemiş fiyat kaydının maliyetini ölçer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceHistoryBenchmark {
+    private static final int LISTINGS = 100_000;
+    private static final int CRAWLS = 52;
+    private static final long WEEK = TimeUnit.DAYS.toMillis(7);
+
+    private PriceHistory history;
+    private Product unchanged;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        history = new PriceHistory(null);
+        List<Product> products = BenchmarkFixtures.sampleProducts(LISTINGS);
+        long start = TimeUnit.MINUTES.toMillis(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis())) - CRAWLS * WEEK;
+        for (int crawl = 0; crawl < CRAWLS; crawl++) {
+            for (int i = 0; i < LISTINGS; i++) {
+                Product product = products.get(i);
+                if ((i + crawl) % 10 == 0) {
+                    // Her taramada ilanların onda birinin fiyatı %0-9 değişir
+                    long price = ProductNormalizer.parsePrice(product.getPrice());
+                    product.setPrice((price - price * ((i + crawl) % 9) / 100 + 1000) + " TL");
+                }
+                history.record("emlaksiteniz", product, start + crawl * WEEK);
+            }
+        }
+        now = start + CRAWLS * WEEK;
+        unchanged = products.get(LISTINGS / 2);
+    }
+
+    @Benchmark
+    public List<PriceHistory.Drop> priceDropsLast30Days() {
+        return history.priceDrops(5, 30, now);
+    }
+
+    @Benchmark
+    public boolean recordUnchangedPrice() {
+        return history.record("emlaksiteniz", unchanged, now);
+    }
+}
@@ -0,0 +1,125 @@
+package com.emlaksiteniz;
+
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Fiyat geçmişinin kodlamasını (zigzag varint), seriyi çözmesini, yalnızca değişiklikleri
+ * kaydetmesini ve fiyat düşüşü sorgusunun pencere başı ile para birimi kurallarını doğrular.
+ */
+public class PriceHistoryTest {
+    private static final String SITE = "emlaksiteniz";
+    private static final long T0 = TimeUnit.MINUTES.toMillis(28_333_334);   // Dakikaya denk gelen bir an
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @Test
+    public void zigzagRoundTripsAndKeepsSmallDeltasSmall() {
+        for (long value : new long[]{0, 1, -1, 63, -64, 64, 250_000, -250_000, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(value, PriceHistory.zigzagDecode(PriceHistory.zigzagEncode(value)));
+        }
+        assertEquals(0, PriceHistory.zigzagEncode(0));
+        assertEquals(1, PriceHistory.zigzagEncode(-1));
+        assertEquals(2, PriceHistory.zigzagEncode(1));
+        assertEquals(127, PriceHistory.zigzagEncode(-64));   // Tek varint baytına sığar
+    }
+
+    @Test
+    public void decodesEveryChangeAndSurvivesSaveAndLoad() throws Exception {
+        Path file = Files.createTempDirectory("price-history").resolve("price-history.bin");
+        PriceHistory history = new PriceHistory(file);
+        assertTrue(history.record(SITE, product(118, "4.000.000 TL", "1.500 TL"), T0));
+        assertTrue(history.record(SITE, product(118, "3.750.000 TL", "1.500 TL"), T0 + 3 * DAY));
+        // Çok baytlı varint: uzun aralık ve büyük fark
+        assertTrue(history.record(SITE, product(118, "900.000.000.000 TL", "2.000 TL"), T0 + 400 * DAY));
+        assertTrue(history.record(SITE, product(118, "1 TL", "2.000 TL"), T0 + 401 * DAY));
+
+        List<PriceHistory.Point> expected = List.of(
+                new PriceHistory.Point(T0, PriceHistory.Field.PRICE, 4_000_000, ListingRecord.Currency.TRY),
+                new PriceHistory.Point(T0, PriceHistory.Field.DUES, 1_500, ListingRecord.Currency.TRY),
+                new PriceHistory.Point(T0 + 3 * DAY, PriceHistory.Field.PRICE, 3_750_000, ListingRecord.Currency.TRY),
+                new PriceHistory.Point(T0 + 400 * DAY, PriceHistory.Field.PRICE, 900_000_000_000L, ListingRecord.Currency.TRY),
+                new PriceHistory.Point(T0 + 400 * DAY, PriceHistory.Field.DUES, 2_000, ListingRecord.Currency.TRY),
+                new PriceHistory.Point(T0 + 401 * DAY, PriceHistory.Field.PRICE, 1, ListingRecord.Currency.TRY));
+        assertEquals(expected, history.history(SITE, 118));
+
+        history.save();
+        PriceHistory loaded = PriceHistory.load(file);
+        assertEquals(expected, loaded.history(SITE, 118));
+        assertTrue("Başka sitedeki aynı numara ayrı tutulmalı", loaded.history("baskasite", 118).isEmpty());
+    }
+
+    @Test
+    public void recordsOnlyWhenTheValueChanges() {
+        PriceHistory history = new PriceHistory(null);
+        assertTrue(history.record(SITE, product(7, "2.000.000 TL", null), T0));
+        assertFalse(history.record(SITE, product(7, "2.000.000 TL", null), T0 + DAY));
+        assertFalse(history.record(SITE, product(7, "2.000.000 TL", ""), T0 + 2 * DAY));
+        assertFalse("Numarası okunamayan ilan atlanmalı", history.record(SITE, product(-1, "1 TL", null), T0));
+        assertTrue(history.record(SITE, product(7, "1.900.000 TL", null), T0 + 3 * DAY));
+        assertEquals(2, history.history(SITE, 7).size());
+        assertEquals(1, history.size());
+    }
+
+    @Test
+    public void currencySwitchIsRecordedButNotComparedAsADrop() {
+        PriceHistory history = new PriceHistory(null);
+        history.record(SITE, product(9, "5.000.000 TL", null), T0);
+        // Aynı tutar, farklı para birimi: yine de bir değişiklik
+        assertTrue(history.record(SITE, product(9, "5.000.000 USD", null), T0 + DAY));
+        assertTrue(history.record(SITE, product(9, "150.000 USD", null), T0 + 2 * DAY));
+
+        List<PriceHistory.Point> points = history.history(SITE, 9);
+        assertEquals(3, points.size());
+        assertEquals(ListingRecord.Currency.TRY, points.get(0).currency());
+        assertEquals(ListingRecord.Currency.USD, points.get(1).currency());
+        assertEquals(5_000_000, points.get(1).value());
+
+        List<PriceHistory.Drop> drops = history.priceDrops(10, 30, T0 + 3 * DAY);
+        assertEquals(1, drops.size());
+        assertEquals("Yalnızca USD fiyatları karşılaştırılmalı", 5_000_000, drops.get(0).previousPrice());
+        assertEquals(ListingRecord.Currency.USD, drops.get(0).currency());
+
+        history.record(SITE, product(10, "100 TL", null), T0);
+        history.record(SITE, product(10, "1 USD", null), T0 + DAY);
+        assertTrue(history.priceDrops(10, 30, T0 + 3 * DAY).stream().noneMatch(drop -> drop.id() == 10));
+    }
+
+    @Test
+    public void dropIsMeasuredFromThePriceInEffectAtWindowStart() {
+        PriceHistory history = new PriceHistory(null);
+        long now = T0 + 40 * DAY;
+        // Pencere (son 10 gün) başında 1.000.000 geçerli; ondan önceki 2.000.000 sayılmaz
+        history.record(SITE, product(1, "2.000.000 TL", null), T0);
+        history.record(SITE, product(1, "1.000.000 TL", null), T0 + 20 * DAY);
+        history.record(SITE, product(1, "850.000 TL", null), T0 + 35 * DAY);
+        // Tüm değişiklikleri pencereden önce olan ilan taranmaz
+        history.record(SITE, product(2, "1.000.000 TL", null), T0);
+        history.record(SITE, product(2, "500.000 TL", null), T0 + 5 * DAY);
+
+        List<PriceHistory.Drop> drops = history.priceDrops(10, 10, now);
+        assertEquals(1, drops.size());
+        PriceHistory.Drop drop = drops.get(0);
+        assertEquals(1, drop.id());
+        assertEquals(1_000_000, drop.previousPrice());
+        assertEquals(850_000, drop.currentPrice());
+        assertEquals(15.0, drop.percent(), 1e-9);
+        assertEquals(T0 + 35 * DAY, drop.changedAt());
+        assertTrue(history.priceDrops(20, 10, now).isEmpty());
+    }
+
+    private static Product product(long id, String price, String dues) {
+        Product product = new Product();
+        product.setAdvertisementNumber(id < 0 ? "" : "İlan ID: " + id);
+        product.setPrice(price);
+        product.setDues(dues);
+        return product;
+    }
+}
@@ -41,6 +41,8 @@ public class Product {
     // Ek Bilgiler
     private Map<String,String> adFeatures;  // Ek emlak özellikleri
     private List<String> imageUrl;          // Emlak fotoğraf URL'leri
+    private List<ProductImage> images;      // İndirilen fotoğrafların yerel yolu ve içerik özeti
+    private String duplicateCluster;        // Aynı mülkün diğer ilanlarıyla ortak küme kimliği (DuplicateDetector)
 
     /**
      * Default constructor for Product class.
@@ -261,6 +263,22 @@ public class Product {
     public void setImageUrl(List<String> imageUrl) {
         this.imageUrl = imageUrl;
     }
+
+    public List<ProductImage> getImages() {
+        return images;
+    }
+
+    public void setImages(List<ProductImage> images) {
+        this.images = images;
+    }
+
+    public String getDuplicateCluster() {
+        return duplicateCluster;
+    }
+
+    public void setDuplicateCluster(String duplicateCluster) {
+        this.duplicateCluster = duplicateCluster;
+    }
     @Override
     public String toString() {
         return "Advertisement{" +
@@ -291,6 +309,8 @@ public class Product {
                 ", adFeatures='" + adFeatures + '\'' +
                 ", location='" + location + '\'' +
                 ", imageUrl='" + imageUrl + '\'' +
+                ", images='" + images + '\'' +
+                ", duplicateCluster='" + duplicateCluster + '\'' +
                 '}';
     }
 
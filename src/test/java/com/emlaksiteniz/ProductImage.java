@@ -0,0 +1,52 @@
+package com.emlaksiteniz;
+
+
+/**
+ * Bir ilan fotoğrafının diske indirilmiş hali.
+ * Aynı içerik farklı ilanlarda ya da çalışmalarda tekrar görülse de diskte bir kez saklanır.
+ */
+public class ProductImage {
+    private String url;         // Fotoğrafın kaynak URL'si
+    private String path;        // İçerik özetine göre adlandırılmış yerel dosya
+    private String sha256;      // Dosya içeriğinin SHA-256 özeti
+    private long size;          // Dosya boyutu (bayt)
+
+    /**
+     * Default constructor for ProductImage class.
+     */
+    public ProductImage() {
+    }
+
+    public ProductImage(String url, String path, String sha256, long size) {
+        this.url = url;
+        this.path = path;
+        this.sha256 = sha256;
+        this.size = size;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductImage{" +
+                "url='" + url + '\'' +
+                ", path='" + path + '\'' +
+                ", sha256='" + sha256 + '\'' +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,352 @@
+package com.emlaksiteniz;
+
+import core.scraper.ProductReader;
+import core.scraper.ScraperConfig;
+import core.scraper.ValueDictionary;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Ham Product metinlerini ListingRecord'a dönüştüren normalleştirme aşaması.
+ * "4.000.000 TL" gibi fiyatlar tam sayı ve para birimine, "İlan ID: 118" sayısal ID'ye,
+ * "3+1" oda/salon sayılarına, "Giriş Altı Kot 4" negatif kata ayrıştırılır.
+ * Kategorik alanlar alan başına bir sözlükte kodlanır; aynı değer binlerce ilanda
+ * tekrar etse de bir kez saklanır. Birden fazla thread'den kullanılabilir.
+ */
+public class ProductNormalizer {
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final Pattern ROOMS = Pattern.compile("(\\d+)\\s*\\+\\s*(\\d+)");
+    private static final Pattern BASEMENT = Pattern.compile("(kot|bodrum)\\D*(\\d*)");
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    // Aynı anlama gelen farklı yazımlar tek değere indirgenir
+    private static final Map<String, String> HEATING_ALIASES = Map.of(
+            "Kombi (Doğalgaz)", "Doğalgaz (Kombi)");
+
+    private final ValueDictionary cities = new ValueDictionary();
+    private final ValueDictionary categories = new ValueDictionary();
+    private final ValueDictionary advisors = new ValueDictionary();
+    private final ValueDictionary heatings = new ValueDictionary();
+    private final ValueDictionary kitchens = new ValueDictionary();
+    private final ValueDictionary usageStatuses = new ValueDictionary();
+    private final ValueDictionary deedStatuses = new ValueDictionary();
+    private final ValueDictionary sellerTypes = new ValueDictionary();
+
+    /**
+     * Ürünü tip güvenli kayda dönüştürür. Ayrıştırılamayan alanlar bilinmeyen olarak kalır.
+     *
+     * @param product Ham ürün
+     * @return Normalleştirilmiş kayıt
+     */
+    public ListingRecord normalize(Product product) {
+        ListingRecord record = new ListingRecord();
+
+        // Temel Bilgiler
+        record.setId(parseLong(product.getAdvertisementNumber()));
+        record.setPrice(parsePrice(product.getPrice()));
+        record.setCurrency(parseCurrency(product.getPrice()));
+        record.setLocation(cities.code(city(product.getLocation())));
+        record.setCategory(categories.code(product.getCategories() == null ? null : String.join(">", product.getCategories())));
+        record.setAdvisor(advisors.code(product.getAdvisor()));
+
+        // Emlak Detayları
+        record.setGrossArea(toInt(parseLong(product.getSquareMeterGross())));
+        record.setNetArea(toInt(parseLong(product.getSquareMeterNet())));
+        parseRooms(product.getNumberRooms(), record);
+        record.setBathrooms(toByte(parseLong(product.getNumberBathrooms())));
+        record.setBuildingAge(toShort(parseLong(product.getBuildingAge())));
+        record.setFloor(parseFloor(product.getFloorLocated()));
+        record.setFloorCount(toShort(parseLong(product.getNumberFloors())));
+        record.setDues(toInt(parsePrice(product.getDues())));
+
+        // Kategorik değerler
+        String heating = product.getHeating();
+        record.setHeating(heatings.code(heating == null ? null : HEATING_ALIASES.getOrDefault(heating.strip(), heating)));
+        record.setKitchen(kitchens.code(product.getKitchen()));
+        record.setUsageStatus(usageStatuses.code(product.getUsageStatus()));
+        record.setDeedStatus(deedStatuses.code(product.getDeedStatus()));
+        record.setFromWhom(sellerTypes.code(product.getFromWhom()));
+
+        // Evet/hayır alanları
+        record.setBalcony(parseFlag(product.getBalcony()));
+        record.setLift(parseFlag(product.getLift()));
+        record.setFurnished(parseFlag(product.getIsFurnished()));
+        record.setEligibleCredit(parseFlag(product.getIsEligibleCredit()));
+        record.setExchangeable(parseFlag(product.getExchangeable()));
+        return record;
+    }
+
+    public ValueDictionary cities() {
+        return cities;
+    }
+
+    public ValueDictionary categories() {
+        return categories;
+    }
+
+    public ValueDictionary advisors() {
+        return advisors;
+    }
+
+    public ValueDictionary heatings() {
+        return heatings;
+    }
+
+    public ValueDictionary kitchens() {
+        return kitchens;
+    }
+
+    public ValueDictionary usageStatuses() {
+        return usageStatuses;
+    }
+
+    public ValueDictionary deedStatuses() {
+        return deedStatuses;
+    }
+
+    public ValueDictionary sellerTypes() {
+        return sellerTypes;
+    }
+
+    /**
+     * Metindeki ilk tam sayıyı okur (örn: "İlan ID: 118" -> 118, "5 ve üzeri" -> 5).
+     *
+     * @param text Ham metin
+     * @return Sayı veya bulunamazsa UNKNOWN
+     */
+    static long parseLong(String text) {
+        if (text == null) {
+            return ListingRecord.UNKNOWN;
+        }
+        Matcher matcher = DIGITS.matcher(text);
+        // 18 haneden uzun sayılar long'a sığmayabilir, bilinmeyen sayılır
+        return matcher.find() && matcher.group().length() <= 18 ? Long.parseLong(matcher.group()) : ListingRecord.UNKNOWN;
+    }
+
+    /**
+     * Ayrıştırılan sayıyı alanın tipine sığdırır; sığmayan değerler sessizce taşmak yerine bilinmeyen sayılır.
+     */
+    private static int toInt(long value) {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (int) value : ListingRecord.UNKNOWN;
+    }
+
+    private static short toShort(long value) {
+        return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE ? (short) value : ListingRecord.UNKNOWN;
+    }
+
+    private static byte toByte(long value) {
+        return value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE ? (byte) value : ListingRecord.UNKNOWN;
+    }
+
+    /**
+     * Tutarı tam birim olarak okur. Son ayırıcıdan sonra tam üç rakam varsa ve öncesinde diğer ayırıcı
+     * yoksa ayırıcı binliktir, değilse ondalıktır; böylece hem Türkçe hem İngilizce biçim okunur
+     * (örn: "4.000.000 TL" -> 4000000, "1.250,50 TL" -> 1250, "$250,000" -> 250000, "€1,250.50" -> 1250).
+     * Rakam grupları arasındaki boşluklar da binlik ayırıcı sayılır.
+     *
+     * @param text Ham tutar
+     * @return Tam birim cinsinden tutar veya bulunamazsa UNKNOWN
+     */
+    static long parsePrice(String text) {
+        if (text == null) {
+            return ListingRecord.UNKNOWN;
+        }
+        int start = 0;
+        while (start < text.length() && !Character.isDigit(text.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < text.length() && isAmountChar(text.charAt(end))) {
+            end++;
+        }
+        while (end > start && !Character.isDigit(text.charAt(end - 1))) {
+            end--;
+        }
+        String amount = text.substring(start, end);
+        int last = Math.max(amount.lastIndexOf('.'), amount.lastIndexOf(','));
+        if (last >= 0) {
+            char other = amount.charAt(last) == '.' ? ',' : '.';
+            boolean grouping = amount.length() - last - 1 == 3 && amount.indexOf(other) < 0;
+            if (!grouping) {
+                amount = amount.substring(0, last);
+            }
+        }
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < amount.length(); i++) {
+            char c = amount.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.isEmpty() || digits.length() > 18) {
+            return ListingRecord.UNKNOWN;
+        }
+        return Long.parseLong(digits.toString());
+    }
+
+    private static boolean isAmountChar(char c) {
+        return (c >= '0' && c <= '9') || c == '.' || c == ',' || c == ' ' || c == '\u00A0';
+    }
+
+    /**
+     * @param text Ham fiyat (örn: "4.000.000 TL", "$250.000", "150.000 EUR")
+     * @return Fiyatın para birimi
+     */
+    public static ListingRecord.Currency parseCurrency(String text) {
+        if (text == null || text.isBlank()) {
+            return ListingRecord.Currency.UNKNOWN;
+        }
+        String upper = text.toUpperCase(TURKISH);
+        if (upper.contains("TL") || upper.contains("₺") || upper.contains("TRY")) {
+            return ListingRecord.Currency.TRY;
+        }
+        if (upper.contains("$") || upper.contains("USD") || upper.contains("DOLAR")) {
+            return ListingRecord.Currency.USD;
+        }
+        if (upper.contains("€") || upper.contains("EUR") || upper.contains("AVRO")) {
+            return ListingRecord.Currency.EUR;
+        }
+        if (upper.contains("£") || upper.contains("GBP") || upper.contains("STERLİN")) {
+            return ListingRecord.Currency.GBP;
+        }
+        return ListingRecord.Currency.UNKNOWN;
+    }
+
+    /**
+     * "3+1" biçimini oda ve salon sayısına ayırır; "5 ve üzeri" gibi değerlerde yalnızca oda sayısı bilinir.
+     */
+    private static void parseRooms(String text, ListingRecord record) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        Matcher matcher = ROOMS.matcher(text);
+        if (matcher.find()) {
+            record.setRooms(toByte(parseLong(matcher.group(1))));
+            record.setSalons(toByte(parseLong(matcher.group(2))));
+        } else if (text.toLowerCase(TURKISH).contains("stüdyo")) {
+            record.setRooms((byte) 1);
+            record.setSalons((byte) 0);
+        } else {
+            record.setRooms(toByte(parseLong(text)));
+        }
+    }
+
+    /**
+     * Kat metnini sayıya çevirir: giriş/zemin/bahçe katı 0, bodrum ve kot katları negatif.
+     *
+     * @param text Ham kat (örn: "3", "Giriş Katı", "Giriş Altı Kot 4")
+     * @return Kat numarası veya bilinmiyorsa UNKNOWN_FLOOR
+     */
+    static short parseFloor(String text) {
+        if (text == null || text.isBlank()) {
+            return ListingRecord.UNKNOWN_FLOOR;
+        }
+        String lower = text.toLowerCase(TURKISH);
+        Matcher basement = BASEMENT.matcher(lower);
+        if (basement.find()) {
+            long depth = basement.group(2).isEmpty() ? 1 : parseLong(basement.group(2));
+            return depth == ListingRecord.UNKNOWN || depth > Short.MAX_VALUE ? ListingRecord.UNKNOWN_FLOOR : (short) -depth;
+        }
+        long number = parseLong(lower);
+        if (number != ListingRecord.UNKNOWN) {
+            return number > Short.MAX_VALUE ? ListingRecord.UNKNOWN_FLOOR : (short) number;
+        }
+        if (lower.contains("giriş") || lower.contains("zemin") || lower.contains("bahçe")) {
+            return 0;
+        }
+        return ListingRecord.UNKNOWN_FLOOR;
+    }
+
+    /**
+     * @param text Ham değer (örn: "Var", "Evet", "Yok", "Hayır")
+     * @return 1 evet, 0 hayır, bilinmiyorsa UNKNOWN_FLAG
+     */
+    static byte parseFlag(String text) {
+        if (text == null) {
+            return ListingRecord.UNKNOWN_FLAG;
+        }
+        return switch (text.strip().toLowerCase(TURKISH)) {
+            case "var", "evet", "uygun", "var (asansörlü)" -> 1;
+            case "yok", "hayır", "uygun değil" -> 0;
+            default -> ListingRecord.UNKNOWN_FLAG;
+        };
+    }
+
+    /**
+     * Adresin son parçasını il olarak alır (örn: "..., Kocaali, Sakarya" -> "Sakarya").
+     */
+    static String city(String location) {
+        if (location == null) {
+            return null;
+        }
+        int comma = location.lastIndexOf(',');
+        String city = comma < 0 ? location : location.substring(comma + 1);
+        // "Döşemealtı/Antalya" biçiminde ilçe/il
+        int slash = city.lastIndexOf('/');
+        return (slash < 0 ? city : city.substring(slash + 1)).strip();
+    }
+
+    /**
+     * Adresin sondan ikinci parçasını ilçe olarak alır (örn: "..., Kocaali, Sakarya" -> "Kocaali",
+     * "Döşemealtı/Antalya ..." -> "Döşemealtı").
+     *
+     * @param location Ham adres
+     * @return İlçe veya adreste yoksa null
+     */
+    static String district(String location) {
+        if (location == null) {
+            return null;
+        }
+        String[] parts = location.split(",");
+        if (parts.length >= 2) {
+            return parts[parts.length - 2].strip();
+        }
+        int slash = location.indexOf('/');
+        return slash < 0 ? null : location.substring(0, slash).strip();
+    }
+
+    /**
+     * Bir kazıma çıktısını normalleştirip alanların ne kadarının ayrıştırılabildiğini yazdırır.
+     *
+     * @param args İsteğe bağlı çıktı dosyası (varsayılan: ScraperConfig.outputFile())
+     * @throws IOException Dosya okunamazsa
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : ScraperConfig.outputFile());
+        ProductNormalizer normalizer = new ProductNormalizer();
+        AtomicLong total = new AtomicLong();
+        AtomicLong priced = new AtomicLong();
+        AtomicLong sized = new AtomicLong();
+        AtomicLong roomed = new AtomicLong();
+        try (Stream<Product> products = path.toString().endsWith(".ndjson")
+                ? ProductReader.streamRotated(path, null)
+                : ProductReader.stream(path, null)) {
+            products.map(normalizer::normalize).forEach(record -> {
+                total.incrementAndGet();
+                if (record.getPrice() != ListingRecord.UNKNOWN) {
+                    priced.incrementAndGet();
+                }
+                if (record.getGrossArea() != ListingRecord.UNKNOWN) {
+                    sized.incrementAndGet();
+                }
+                if (record.getRooms() != ListingRecord.UNKNOWN) {
+                    roomed.incrementAndGet();
+                }
+            });
+        }
+        System.out.println("Normalleştirilen ilan: " + total.get());
+        System.out.println("Fiyatı çözülen: " + priced.get() + ", m² çözülen: " + sized.get() + ", oda çözülen: " + roomed.get());
+        for (Map.Entry<String, ValueDictionary> entry : List.of(
+                Map.entry("il", normalizer.cities), Map.entry("ısıtma", normalizer.heatings),
+                Map.entry("tapu", normalizer.deedStatuses), Map.entry("kimden", normalizer.sellerTypes))) {
+            System.out.println("Farklı " + entry.getKey() + " değeri: " + entry.getValue().size() + " " + entry.getValue().values());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.emlaksiteniz;
+
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tutarların Türkçe ve İngilizce binlik/ondalık biçimlerinde doğru okunmasını doğrular.
+ */
+public class ProductNormalizerTest {
+
+    @Test
+    public void turkishFormatUsesDotsForThousandsAndCommaForDecimals() {
+        assertEquals(4_000_000, ProductNormalizer.parsePrice("4.000.000 TL"));
+        assertEquals(1_250, ProductNormalizer.parsePrice("1.250,50 TL"));
+        assertEquals(1_500, ProductNormalizer.parsePrice("Aidat: 1.500 TL"));
+        assertEquals(250, ProductNormalizer.parsePrice("250,5 TL"));
+        assertEquals(3_450_000, ProductNormalizer.parsePrice("3 450 000 TL"));
+    }
+
+    @Test
+    public void commaFollowedByThreeDigitsIsAThousandsSeparator() {
+        assertEquals(250_000, ProductNormalizer.parsePrice("$250,000"));
+        assertEquals(1_250_000, ProductNormalizer.parsePrice("1,250,000 USD"));
+        assertEquals(1_250, ProductNormalizer.parsePrice("€1,250.50"));
+        assertEquals(1_250, ProductNormalizer.parsePrice("1.250,500 TL"));
+
+        Product product = new Product();
+        product.setPrice("$250,000");
+        ListingRecord record = new ProductNormalizer().normalize(product);
+        assertEquals(250_000, record.getPrice());
+        assertEquals(ListingRecord.Currency.USD, record.getCurrency());
+    }
+
+    @Test
+    public void missingAmountIsUnknown() {
+        assertEquals(ListingRecord.UNKNOWN, ProductNormalizer.parsePrice(null));
+        assertEquals(ListingRecord.UNKNOWN, ProductNormalizer.parsePrice("Fiyat sorunuz"));
+        assertEquals(ListingRecord.UNKNOWN, ProductNormalizer.parsePrice("1.000.000.000.000.000.000.000 TL"));
+    }
+}
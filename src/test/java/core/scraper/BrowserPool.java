@@ -0,0 +1,330 @@
+package core.scraper;
+
+
+import org.openqa.selenium.WebDriver;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Başlıksız tarayıcı oturumlarından oluşan sabit kapasiteli havuz.
+ * Oturumlar ihtiyaç oldukça (ya da prewarm ile önceden, arka planda) açılır, kiralanır ve geri verilir.
+ * Çöken oturumlar geri verilirken kapatılır ve yerine yenisi açılır. Aynı süreçte art arda
+ * çalışan işler havuzu kapatmadan paylaşabilir; işler arasında resetIdle() oturumları temizler.
+ * Bellek bütçesi iki şekilde uygulanır: kapasite bütçenin oturum başına tahmini belleğe bölümüyle
+ * sınırlanır, ayrıca tarayıcı süreçlerinin (JVM'in alt süreçleri: chromedriver ve Chrome) gerçek bellek
+ * kullanımı /proc üzerinden ölçülür. Ölçülen kullanım bütçeyi aşarken yeni oturum açılmaz ve geri
+ * verilen oturumlar kapatılır; yerlerine gerekince temiz bir oturum açılır. /proc yoksa yalnızca tahmin uygulanır.
+ * Boşalan her oturum ya da yer, bekleyen kiralamaları uyandırır.
+ */
+public class BrowserPool implements AutoCloseable {
+    private final Supplier<WebDriver> driverFactory;                          // Yeni tarayıcı açan fabrika
+    private static final long MEMORY_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(1);  // Ölçümler arası en kısa süre
+
+    private final Duration waitTime;                                          // Oturumların bekleme süresi
+    private final int capacity;                                               // En fazla açık oturum sayısı
+    private final long memoryBudgetMb;                                        // Tüm tarayıcılar için bellek bütçesi
+    private final LinkedBlockingDeque<BrowserSession> idle = new LinkedBlockingDeque<>();  // Boştaki oturumlar
+    private final List<BrowserSession> all = new ArrayList<>();               // Açık olan tüm oturumlar
+    private int opening;                                                      // Açılmakta olan oturum sayısı
+    private boolean overBudget;                                               // Son ölçümde bellek bütçesi aşılmıştı
+    private final Object memoryLock = new Object();                           // Ölçüm havuz kilidini tutmadan yapılır
+    private long sampledAt;                                                   // Son bellek ölçümünün zamanı (nanoTime)
+    private long sampledMb = -1;                                              // Son ölçülen bellek (MB, -1: ölçülemiyor)
+    private boolean closed;
+
+    /**
+     * Havuzu oluşturur. Kapasite, istenen boyut ile bellek bütçesine sığan tahmini oturum sayısının küçüğüdür.
+     *
+     * @param requestedSize İstenen oturum sayısı
+     * @param memoryBudgetMb Tüm tarayıcılar için toplam bellek bütçesi (MB); ölçülen kullanım bunu aşamaz
+     * @param memoryPerSessionMb Oturum başına tahmini bellek (MB)
+     * @param driverFactory Yeni WebDriver örneği oluşturan fabrika
+     * @param waitTime Oturumların WebDriverWait süresi
+     */
+    public BrowserPool(int requestedSize, int memoryBudgetMb, int memoryPerSessionMb,
+                       Supplier<WebDriver> driverFactory, Duration waitTime) {
+        int memoryCap = Math.max(1, memoryBudgetMb / memoryPerSessionMb);
+        this.capacity = Math.max(1, Math.min(requestedSize, memoryCap));
+        this.memoryBudgetMb = memoryBudgetMb;
+        this.driverFactory = driverFactory;
+        this.waitTime = waitTime;
+        if (capacity < requestedSize) {
+            System.out.println("Tarayıcı havuzu tahmini bellek bütçesi nedeniyle " + capacity + " oturumla sınırlandı");
+        }
+    }
+
+    /**
+     * @return Havuzun en fazla açık tutabileceği oturum sayısı
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Şu an açık olan oturum sayısı (kiradakiler dahil)
+     */
+    public synchronized int getOpenCount() {
+        return all.size();
+    }
+
+    /**
+     * @return Boşta bekleyen oturum sayısı
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Havuzdan bir oturum kiralar. Boşta oturum yoksa ve kapasite doluysa bir oturum geri
+     * verilene ya da bir yer boşalana kadar bekler; yer boşalınca oturumu kendisi açmayı dener.
+     *
+     * @param timeout En fazla bekleme süresi
+     * @return Kiralanan oturum
+     * @throws InterruptedException Bekleme kesilirse
+     * @throws IllegalStateException Havuz kapalıysa ya da süre içinde oturum bulunamazsa
+     */
+    public BrowserSession lease(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            BrowserSession session = idle.pollFirst();
+            if (session == null) {
+                // Açılamazsa hata bekleyen kiralamaya hemen iletilir
+                session = openIfBelowCapacity();
+            }
+            if (session != null) {
+                return session;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("Tarayıcı havuzundan " + timeout.toSeconds() + " sn içinde oturum alınamadı");
+            }
+            synchronized (this) {
+                // Oturum ya da yer kontrollerden sonra boşaldıysa beklemeden yeniden denenir
+                if (!closed && idle.isEmpty() && (opening + all.size() >= capacity || overBudget)) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+        }
+    }
+
+    /**
+     * Kiralanan oturumu havuza geri verir. Oturum yanıt vermiyorsa kapatılıp
+     * yerine yeni bir oturum açılır. Tarayıcılar bellek bütçesini aşmışsa oturum kapatılır;
+     * yerine bir sonraki kiralama, bellek yeterliyse temiz bir oturum açar.
+     *
+     * @param session Geri verilen oturum
+     */
+    public void release(BrowserSession session) {
+        if (session.isHealthy() && isOverBudget()) {
+            System.err.println("Tarayıcılar bellek bütçesini aştı (" + sampledMb() + " MB > " + memoryBudgetMb
+                    + " MB), oturum kapatılıyor");
+            CrawlMetrics.count("browser_memory_recycled");
+            discard(session);
+            return;
+        }
+        if (session.isHealthy()) {
+            if (offerIdle(session, true)) {
+                return;
+            }
+            session.quit();
+            return;
+        }
+
+        System.err.println("Çöken tarayıcı oturumu yenisiyle değiştiriliyor");
+        discard(session);
+        try {
+            BrowserSession replacement = openIfBelowCapacity();
+            if (replacement != null && !offerIdle(replacement, true)) {
+                discard(replacement);
+            }
+        } catch (Exception e) {
+            // Yeni oturum açılamazsa yer boş kalır; bekleyen kiralamalar uyandırılır ve kendileri dener
+            System.err.println("Yedek tarayıcı oturumu açılamadı: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Kapasiteyi aşmadan verilen sayıda oturumu arka planda açar; ilk kiralama Chrome'un
+     * açılmasını beklemez.
+     *
+     * @param count Açılacak oturum sayısı
+     */
+    public void prewarm(int count) {
+        for (int i = 0; i < count; i++) {
+            Thread.ofVirtual().name("browser-prewarm").start(() -> {
+                try {
+                    BrowserSession session = openIfBelowCapacity();
+                    if (session != null && !offerIdle(session, false)) {
+                        discard(session);
+                    }
+                } catch (Exception e) {
+                    System.err.println("Tarayıcı önceden açılamadı: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Boştaki tüm oturumları bir sonraki iş için temizler; temizlenemeyenler kapatılır.
+     *
+     * @return Temizlenip havuzda kalan oturum sayısı
+     */
+    public int resetIdle() {
+        List<BrowserSession> sessions = new ArrayList<>();
+        idle.drainTo(sessions);
+        int kept = 0;
+        for (BrowserSession session : sessions) {
+            if (session.reset() && offerIdle(session, false)) {
+                kept++;
+            } else {
+                discard(session);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Havuzdaki tüm tarayıcıları kapatır.
+     */
+    @Override
+    public void close() {
+        List<BrowserSession> sessions;
+        synchronized (this) {
+            closed = true;
+            sessions = new ArrayList<>(all);
+            all.clear();
+            idle.clear();
+            notifyAll();
+        }
+        for (BrowserSession session : sessions) {
+            session.quit();
+        }
+    }
+
+    private BrowserSession openIfBelowCapacity() {
+        // Yer önce kilit altında ayrılır; Chrome'un açılması kilidin dışında yapılır
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Tarayıcı havuzu kapalı");
+            }
+            if (opening + all.size() >= capacity) {
+                return null;
+            }
+        }
+        // Açık oturum yoksa ölçüm sonucundan bağımsız olarak biri açılır; yoksa havuz hiç ilerleyemezdi
+        boolean refuse = isOverBudget();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Tarayıcı havuzu kapalı");
+            }
+            overBudget = refuse && opening + all.size() > 0;
+            if (overBudget || opening + all.size() >= capacity) {
+                return null;
+            }
+            opening++;
+        }
+        BrowserSession session = null;
+        try {
+            session = new BrowserSession(driverFactory.get(), waitTime);
+            return session;
+        } finally {
+            synchronized (this) {
+                opening--;
+                if (session != null) {
+                    all.add(session);
+                } else {
+                    // Açılamayan oturumun yeri boşaldı
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Oturumu boştakilere ekler ve bekleyen kiralamaları uyandırır.
+     *
+     * @return Havuz kapalıysa false; oturum eklenmez
+     */
+    private synchronized boolean offerIdle(BrowserSession session, boolean first) {
+        if (closed) {
+            return false;
+        }
+        if (first) {
+            idle.offerFirst(session);
+        } else {
+            idle.offerLast(session);
+        }
+        notifyAll();
+        return true;
+    }
+
+    private void discard(BrowserSession session) {
+        session.quit();
+        synchronized (this) {
+            all.remove(session);
+            // Kapatılan tarayıcı belleği boşalttı; bekleyen kiralamalar yeniden ölçüp dener
+            overBudget = false;
+            notifyAll();
+        }
+        synchronized (memoryLock) {
+            sampledAt = 0;
+        }
+    }
+
+    private boolean isOverBudget() {
+        long used = sampledMb();
+        return used >= 0 && used > memoryBudgetMb;
+    }
+
+    /**
+     * Tarayıcı süreçlerinin toplam yerleşik belleğini en fazla saniyede bir ölçer.
+     *
+     * @return Ölçülen bellek (MB) veya /proc okunamıyorsa -1
+     */
+    private long sampledMb() {
+        synchronized (memoryLock) {
+            long now = System.nanoTime();
+            if (sampledAt == 0 || now - sampledAt >= MEMORY_SAMPLE_NANOS) {
+                sampledMb = residentMemoryMb();
+                sampledAt = now;
+            }
+            return sampledMb;
+        }
+    }
+
+    /**
+     * JVM'in tüm alt süreçlerinin (chromedriver, Chrome ve yardımcı süreçleri) yerleşik belleğini toplar.
+     * Paylaşılan sayfalar her süreçte ayrı sayıldığından sonuç gerçek kullanımın üst sınırıdır.
+     *
+     * @return Toplam bellek (MB) veya /proc okunamıyorsa -1
+     */
+    static long residentMemoryMb() {
+        if (!Files.isDirectory(Path.of("/proc/self"))) {
+            return -1;
+        }
+        long totalKb = ProcessHandle.current().descendants()
+                .mapToLong(process -> residentKb(process.pid()))
+                .sum();
+        return totalKb / 1024;
+    }
+
+    private static long residentKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Süreç bu arada kapanmış olabilir
+        }
+        return 0;
+    }
+}
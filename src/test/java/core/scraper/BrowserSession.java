@@ -0,0 +1,117 @@
+package core.scraper;
+
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import java.io.IOException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import java.time.Duration;
+
+/**
+ * Havuzdan kiralanan tek bir tarayıcı oturumu.
+ * WebDriver ile ona bağlı bekleme nesnesini birlikte taşır.
+ */
+public class BrowserSession {
+    private final WebDriver driver;      // Oturumun tarayıcı sürücüsü
+    private final WebDriverWait wait;    // Oturuma ait bekleme nesnesi
+    private final RoundTripCounter roundTrips = new RoundTripCounter();  // Sayfa başına WebDriver çağrı sayacı
+    private boolean broken;              // Oturum çöktü olarak işaretlendi mi
+
+    BrowserSession(WebDriver driver, Duration waitTime) {
+        this.driver = roundTrips.decorate(driver);
+        this.wait = new WebDriverWait(this.driver, waitTime);
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public WebDriverWait getWait() {
+        return wait;
+    }
+
+    public RoundTripCounter getRoundTrips() {
+        return roundTrips;
+    }
+
+    /**
+     * Oturumu çöktü olarak işaretler; havuza döndüğünde yenisiyle değiştirilir.
+     */
+    public void markBroken() {
+        broken = true;
+    }
+
+    /**
+     * Hatanın tarayıcı oturumunun kendisinden mi (oturum yok, tarayıcıya ulaşılamıyor) geldiğini söyler.
+     * Element bulunamaması ya da sayfa zaman aşımı gibi sayfaya ait hatalarda oturum sağlıklıdır
+     * ve yeniden başlatılmamalıdır; emin olunamayan durumlar havuza dönüşteki sağlık kontrolüne kalır.
+     *
+     * @param e Sürücüden gelen hata
+     * @return Oturum kullanılamaz durumdaysa true
+     */
+    public static boolean isSessionFailure(WebDriverException e) {
+        if (e instanceof NoSuchSessionException || e instanceof UnreachableBrowserException
+                || e instanceof SessionNotCreatedException) {
+            return true;
+        }
+        // Sürücüyle bağlantı kopmuşsa hata zincirinde bir G/Ç hatası bulunur
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tarayıcının hâlâ yanıt verip vermediğini kontrol eder.
+     *
+     * @return Oturum kullanılabilir durumdaysa true
+     */
+    boolean isHealthy() {
+        if (broken) {
+            return false;
+        }
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Oturumu bir sonraki kazıma işi için temizler: çerezler ve açık sitenin depolaması silinir,
+     * boş sayfaya geçilir. Böylece sıcak tutulan tarayıcılar işler arasında durum taşımaz.
+     *
+     * @return Temizlik başarılıysa true; başarısızsa oturum kullanılmamalıdır
+     */
+    boolean reset() {
+        if (broken) {
+            return false;
+        }
+        try {
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript("try { localStorage.clear(); sessionStorage.clear(); } catch (e) {}");
+            driver.navigate().to("about:blank");
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Tarayıcıyı kapatır, kapatma sırasında oluşan hataları yok sayar.
+     */
+    void quit() {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Tarayıcı kapatılırken hata: " + e.getMessage());
+        }
+    }
+}
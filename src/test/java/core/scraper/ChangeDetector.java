@@ -0,0 +1,218 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Artımlı taramada bir ilanın yeniden kazınması gerekip gerekmediğine karar verir.
+ * Önce FingerprintIndex'teki ETag/Last-Modified ile koşullu GET yapılır; 304 dönerse ilan
+ * değişmemiştir. 200 dönerse sunucu HTML'inden okunan alanların parmak izi kayıtlı
+ * olanla karşılaştırılır. Yalnızca yeni ya da değişen ilanlar kazınır; başarılı kazımadan
+ * sonra yeni parmak izi ve ürün dizine işlenir, böylece hata alan ilanlar sonraki çalışmada tekrar denenir.
+ * Değişmeyen ilanların önceki kaydı previous() ile alınıp çıktıya yeniden yazılır; böylece artımlı
+ * taramanın çıktısı da her zaman sitenin tam görüntüsüdür. Kaydı dizinde olmayan ilanlar değişmiş sayılır.
+ * 404/410 dönen ve eksiksiz bir keşifte hiç görülmeyen ilanlar kaldırıldı sayılır; bunların ilan
+ * ID'leri tarama sonunda removedListings() ile tüketicilere bildirilir.
+ */
+public class ChangeDetector {
+
+    /**
+     * Tek bir ilanın kontrol sonucu.
+     */
+    public static class Check {
+        private final boolean changed;
+        private final HttpPage page;          // 304/404 durumunda gövde boştur
+        private final PageSource source;      // changed ise ayrıştırılmış sayfa
+
+        Check(boolean changed, HttpPage page, PageSource source) {
+            this.changed = changed;
+            this.page = page;
+            this.source = source;
+        }
+
+        /**
+         * @return İlan yeni ya da değişmişse true
+         */
+        public boolean isChanged() {
+            return changed;
+        }
+
+        public HttpPage getPage() {
+            return page;
+        }
+
+        public PageSource getSource() {
+            return source;
+        }
+    }
+
+    private record Pending(String fingerprint, String etag, String lastModified) {
+    }
+
+    private final FingerprintIndex index;
+    private final HttpFetcher fetcher;
+    private final Function<PageSource, Product> extractor;    // HTML'den statik alanları okur
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final long runStartedAt = System.currentTimeMillis();
+    private final AtomicInteger unchanged = new AtomicInteger();   // Atlanan (değişmeyen) ilan sayısı
+    private final List<FingerprintIndex.Entry> removed = new CopyOnWriteArrayList<>();   // Bu çalışmada kaldırılanlar
+
+    /**
+     * @param indexFile Parmak izi dizininin dosyası
+     * @param fetcher Koşullu istekler için HTTP istemcisi
+     * @param extractor Sunucu HTML'inden parmak izi alınacak alanları okuyan fonksiyon
+     * @throws IOException Dizin okunamazsa
+     */
+    public ChangeDetector(Path indexFile, HttpFetcher fetcher, Function<PageSource, Product> extractor) throws IOException {
+        this.index = FingerprintIndex.load(indexFile);
+        this.fetcher = fetcher;
+        this.extractor = extractor;
+        System.out.println("Parmak izi dizini yüklendi: " + index.size() + " ilan");
+    }
+
+    /**
+     * İlanı koşullu GET ile kontrol eder.
+     *
+     * @param url İlan URL'si
+     * @return Kontrol sonucu
+     * @throws IOException İstek başarısız olursa
+     * @throws InterruptedException Bekleme kesilirse
+     */
+    public Check inspect(String url) throws IOException, InterruptedException {
+        FingerprintIndex.Entry entry = index.get(url);
+        if (entry != null && !entry.hasRecord()) {
+            // Önceki kaydı taşınamayan ilan değişmemiş sayılamaz
+            entry = null;
+        }
+        Map<String, String> validators = new HashMap<>();
+        if (entry != null && !entry.isRemoved()) {
+            if (entry.getEtag() != null) {
+                validators.put("If-None-Match", entry.getEtag());
+            }
+            if (entry.getLastModified() != null) {
+                validators.put("If-Modified-Since", entry.getLastModified());
+            }
+        }
+
+        // Keşfedilen her ilan görülmüş sayılır; istek hata verse bile kaldırıldı olarak işaretlenmez
+        index.markSeen(url, null, null);
+
+        HttpPage page = fetcher.fetch(url, validators);
+        if (page.getStatusCode() == 304) {
+            index.markSeen(url, page.getHeader("ETag"), page.getHeader("Last-Modified"));
+            unchanged.incrementAndGet();
+            return new Check(false, page, null);
+        }
+        if (page.getStatusCode() == 404 || page.getStatusCode() == 410) {
+            FingerprintIndex.Entry gone = index.markRemoved(url);
+            if (gone != null) {
+                removed.add(gone);
+            }
+            return new Check(false, page, null);
+        }
+        if (!page.isSuccessful()) {
+            throw new IOException("HTTP " + page.getStatusCode() + " for " + url);
+        }
+
+        PageSource source = HtmlPageSource.parse(page.getBody(), page.getUrl());
+        String fingerprint = FingerprintIndex.fingerprint(extractor.apply(source));
+        if (entry != null && fingerprint.equals(entry.getFingerprint())) {
+            index.markSeen(url, page.getHeader("ETag"), page.getHeader("Last-Modified"));
+            unchanged.incrementAndGet();
+            return new Check(false, page, source);
+        }
+        pending.put(url, new Pending(fingerprint, page.getHeader("ETag"), page.getHeader("Last-Modified")));
+        return new Check(true, page, source);
+    }
+
+    /**
+     * İlanın yeniden kazınması gerekiyorsa true döndürür.
+     *
+     * @param url İlan URL'si
+     * @return Yeni ya da değişmiş ilanlar için true
+     * @throws IOException İstek başarısız olursa
+     * @throws InterruptedException Bekleme kesilirse
+     */
+    public boolean needsScrape(String url) throws IOException, InterruptedException {
+        return inspect(url).isChanged();
+    }
+
+    /**
+     * Yarıda kalmış bir önceki çalışmada kazındığı için bu çalışmada istek atılmayan ilanı görüldü sayar;
+     * böylece tarama sonunda kaldırıldı olarak işaretlenmez.
+     *
+     * @param url İlan URL'si
+     */
+    public void resumed(String url) {
+        index.markSeen(url, null, null);
+    }
+
+    /**
+     * Başarıyla kazınan ilanın parmak izini dizine işler.
+     *
+     * @param url İlan URL'si
+     * @param product Kazınan ürün
+     */
+    public void scraped(String url, Product product) {
+        Pending state = pending.remove(url);
+        if (state != null) {
+            index.update(url, product, state.fingerprint(), state.etag(), state.lastModified());
+        }
+    }
+
+    /**
+     * Değişmediği için bu çalışmada kazınmayan ilanın önceki çalışmada kazınan halini döndürür;
+     * kazıyıcı bunu çıktıya yeniden yazar.
+     *
+     * @param url İlan URL'si
+     * @return Önceki ürün veya ilan kaldırıldıysa ya da dizinde yoksa null
+     */
+    public Product previous(String url) {
+        FingerprintIndex.Entry entry = index.get(url);
+        return entry != null && !entry.isRemoved() ? entry.toProduct() : null;
+    }
+
+    /**
+     * Keşif eksiksiz bittiyse bu çalışmada görülmeyen ilanları kaldırıldı olarak işaretler ve dizini
+     * kaydeder. Bir liste sayfası indirilemediyse görülmeme kaldırılma anlamına gelmez; bu durumda
+     * yalnızca dizin kaydedilir.
+     *
+     * @param discoveryComplete Tüm liste sayfaları hatasız dolaşıldıysa true
+     * @return Bu çalışmada kaldırıldı olarak işaretlenen ilanlar (404/410 dönenler dahil)
+     * @throws IOException Dizin yazılamazsa
+     */
+    public List<FingerprintIndex.Entry> finish(boolean discoveryComplete) throws IOException {
+        if (discoveryComplete) {
+            removed.addAll(index.markUnseenAsRemoved(runStartedAt));
+        } else {
+            System.err.println("Keşif eksik kaldı, görülmeyen ilanlar kaldırıldı olarak işaretlenmedi");
+        }
+        index.save();
+        System.out.println("Artımlı tarama: " + unchanged.get() + " ilan değişmediği için atlandı, "
+                + removed.size() + " ilan kaldırıldı olarak işaretlendi");
+        return List.copyOf(removed);
+    }
+
+    /**
+     * @return Bu çalışmada kaldırıldı olarak işaretlenen ilanların ID'leri (ID'si bilinmeyenler hariç)
+     */
+    public List<String> removedListings() {
+        List<String> ids = new ArrayList<>();
+        for (FingerprintIndex.Entry entry : removed) {
+            if (entry.getListingId() != null && !entry.getListingId().isBlank()) {
+                ids.add(entry.getListingId());
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,334 @@
+package core.scraper;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ColumnarWriter ile yazılmış dosyaları okuyan okuyucu.
+ * Açılışta yalnızca dosya sonundaki footer okunur. Taramada yalnızca istenen sütunların
+ * parçaları diskten okunur; filtre sütununun min/max değerleri aralığın dışında kalan
+ * bloklar hiç okunmadan atlanır. Kayıtlar nesneye dönüştürülmez, Row üzerinden sütun
+ * değerlerine doğrudan erişilir.
+ */
+public class ColumnarReader implements AutoCloseable {
+
+    /**
+     * Tarama sırasında geçerli satırın seçilen sütunlarına erişim.
+     * Aynı nesne her satır için yeniden kullanılır; ziyaretçi dışında saklanmamalıdır.
+     */
+    public static final class Row {
+        private final long[][] numbers;
+        private final String[][] texts;
+        private final List<List<String>> dictionaries;   // Sözlük sütunu değilse null
+        private int index;
+
+        private Row(int columnCount) {
+            this.numbers = new long[columnCount][];
+            this.texts = new String[columnCount][];
+            this.dictionaries = new ArrayList<>(Collections.nCopies(columnCount, null));
+        }
+
+        /**
+         * @param column Seçilen sütunlar içindeki sıra
+         * @return Sayısal değer ya da sözlük sütunlarında değerin kodu
+         */
+        public long getLong(int column) {
+            return numbers[column][index];
+        }
+
+        /**
+         * @param column Seçilen sütunlar içindeki sıra
+         * @return Metin değeri; sözlük sütunlarında kodun karşılığı, sayısal sütunlarda sayının metni
+         */
+        public String getString(int column) {
+            if (texts[column] != null) {
+                return texts[column][index];
+            }
+            long value = numbers[column][index];
+            List<String> dictionary = dictionaries.get(column);
+            if (dictionary != null) {
+                return value < 0 ? null : dictionary.get((int) value);
+            }
+            return Long.toString(value);
+        }
+    }
+
+    private record Chunk(long offset, int length, long min, long max) {
+    }
+
+    private final FileChannel channel;
+    private final List<String> names = new ArrayList<>();
+    private final List<ColumnarWriter.Type> types = new ArrayList<>();
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final List<Integer> blockSizes = new ArrayList<>();
+    private final List<Chunk[]> blockChunks = new ArrayList<>();
+    private final Map<Integer, List<String>> dictionaries = new HashMap<>();
+    private long rowCount;
+    private long skippedBlocks;       // Son taramada min/max sayesinde atlanan blok sayısı
+
+    /**
+     * Dosyayı açıp footer'ı okur.
+     *
+     * @param path Okunacak dosya
+     * @throws IOException Dosya okunamazsa ya da biçim geçersizse
+     */
+    public ColumnarReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            readFooter();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Dosyadaki sütun adları, yazılış sırasıyla
+     */
+    public List<String> columnNames() {
+        return List.copyOf(names);
+    }
+
+    /**
+     * @param column Sütun adı
+     * @return Sütunun saklanma biçimi
+     */
+    public ColumnarWriter.Type type(String column) {
+        return types.get(indexOf(column));
+    }
+
+    /**
+     * @return Toplam kayıt sayısı
+     */
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return Blok sayısı
+     */
+    public int blockCount() {
+        return blockSizes.size();
+    }
+
+    /**
+     * @return Son taramada min/max sayesinde okunmadan atlanan blok sayısı
+     */
+    public long skippedBlocks() {
+        return skippedBlocks;
+    }
+
+    /**
+     * @param column Sözlük sütununun adı
+     * @return Kod sırasıyla sözlük değerleri
+     */
+    public List<String> dictionary(String column) {
+        List<String> values = dictionaries.get(indexOf(column));
+        if (values == null) {
+            throw new IllegalArgumentException("Sözlük sütunu değil: " + column);
+        }
+        return values;
+    }
+
+    /**
+     * Sözlük sütununda bir değerin kodunu bulur; filtrelerde kullanılır.
+     *
+     * @param column Sözlük sütununun adı
+     * @param value Aranan değer
+     * @return Değerin kodu veya yoksa ValueDictionary.MISSING
+     */
+    public int code(String column, String value) {
+        return value == null ? ValueDictionary.MISSING : dictionary(column).indexOf(value.strip());
+    }
+
+    /**
+     * Tüm kayıtların seçilen sütunlarını tarar.
+     *
+     * @param columns Okunacak sütunlar
+     * @param visitor Her satır için çağrılan ziyaretçi
+     * @return Ziyaret edilen satır sayısı
+     * @throws IOException Okuma başarısız olursa
+     */
+    public long scan(List<String> columns, Consumer<Row> visitor) throws IOException {
+        return scan(null, Long.MIN_VALUE, Long.MAX_VALUE, columns, visitor);
+    }
+
+    /**
+     * Filtre sütununun değeri [min, max] aralığında olan kayıtların seçilen sütunlarını tarar.
+     * Footer'daki min/max değerleri aralıkla kesişmeyen bloklar okunmaz.
+     *
+     * @param filterColumn Filtre sütunu (sayısal ya da sözlük kodu); null ise filtre yok
+     * @param min Alt sınır (dahil)
+     * @param max Üst sınır (dahil)
+     * @param columns Okunacak sütunlar
+     * @param visitor Eşleşen her satır için çağrılan ziyaretçi
+     * @return Eşleşen satır sayısı
+     * @throws IOException Okuma başarısız olursa
+     */
+    public long scan(String filterColumn, long min, long max, List<String> columns, Consumer<Row> visitor) throws IOException {
+        int filter = filterColumn == null ? -1 : indexOf(filterColumn);
+        if (filter >= 0 && types.get(filter) == ColumnarWriter.Type.STRING) {
+            throw new IllegalArgumentException("Metin sütunu filtrelenemez: " + filterColumn);
+        }
+        int[] projected = new int[columns.size()];
+        for (int i = 0; i < projected.length; i++) {
+            projected[i] = indexOf(columns.get(i));
+        }
+
+        Row row = new Row(projected.length);
+        for (int i = 0; i < projected.length; i++) {
+            row.dictionaries.set(i, dictionaries.get(projected[i]));
+        }
+
+        long matched = 0;
+        skippedBlocks = 0;
+        for (int block = 0; block < blockSizes.size(); block++) {
+            Chunk[] chunks = blockChunks.get(block);
+            if (filter >= 0 && (chunks[filter].max() < min || chunks[filter].min() > max)) {
+                skippedBlocks++;
+                continue;
+            }
+            int size = blockSizes.get(block);
+            long[] filterValues = filter >= 0 ? readNumbers(filter, chunks[filter], size) : null;
+            for (int i = 0; i < projected.length; i++) {
+                int column = projected[i];
+                if (types.get(column) == ColumnarWriter.Type.STRING) {
+                    row.texts[i] = readStrings(chunks[column], size);
+                    row.numbers[i] = null;
+                } else {
+                    row.numbers[i] = column == filter ? filterValues : readNumbers(column, chunks[column], size);
+                    row.texts[i] = null;
+                }
+            }
+            for (int index = 0; index < size; index++) {
+                if (filterValues == null || (filterValues[index] >= min && filterValues[index] <= max)) {
+                    row.index = index;
+                    visitor.accept(row);
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int indexOf(String column) {
+        Integer index = columnIndex.get(column);
+        if (index == null) {
+            throw new IllegalArgumentException("Bilinmeyen sütun: " + column);
+        }
+        return index;
+    }
+
+    private long[] readNumbers(int column, Chunk chunk, int size) throws IOException {
+        ByteBuffer buffer = read(chunk);
+        long[] values = new long[size];
+        if (types.get(column) == ColumnarWriter.Type.INT64) {
+            for (int i = 0; i < size; i++) {
+                values[i] = buffer.getLong();
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                values[i] = buffer.getInt();
+            }
+        }
+        return values;
+    }
+
+    private String[] readStrings(Chunk chunk, int size) throws IOException {
+        ByteBuffer buffer = read(chunk);
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            int length = buffer.getInt();
+            if (length >= 0) {
+                values[i] = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+        }
+        return values;
+    }
+
+    private ByteBuffer read(Chunk chunk) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(chunk.length());
+        long position = chunk.offset();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Dosya beklenenden kısa");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void readFooter() throws IOException {
+        long size = channel.size();
+        // Başlık (8 bayt) ve kuyruk (12 bayt) sığmıyorsa dosyanın sonundan okumaya çalışılmaz
+        if (size < 20) {
+            throw new IOException("Geçersiz ya da yarım kalmış sütunlu dosya");
+        }
+        ByteBuffer header = read(new Chunk(0, 8, 0, 0));
+        ByteBuffer trailer = read(new Chunk(size - 12, 12, 0, 0));
+        if (header.getInt() != ColumnarWriter.MAGIC || trailer.getInt(8) != ColumnarWriter.MAGIC) {
+            throw new IOException("Geçersiz ya da yarım kalmış sütunlu dosya");
+        }
+        int version = header.getInt();
+        if (version != ColumnarWriter.VERSION) {
+            throw new IOException("Desteklenmeyen sürüm: " + version);
+        }
+        long footerOffset = trailer.getLong(0);
+        if (footerOffset < 8 || footerOffset > size - 12) {
+            throw new IOException("Geçersiz dizin konumu: " + footerOffset);
+        }
+
+        ByteBuffer footer = read(new Chunk(footerOffset, (int) (size - 12 - footerOffset), 0, 0));
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer.array()))) {
+            int columnCount = in.readInt();
+            for (int i = 0; i < columnCount; i++) {
+                String name = in.readUTF();
+                names.add(name);
+                types.add(ColumnarWriter.Type.values()[in.readByte()]);
+                columnIndex.put(name, i);
+            }
+            int blocks = in.readInt();
+            for (int block = 0; block < blocks; block++) {
+                int rows = in.readInt();
+                blockSizes.add(rows);
+                rowCount += rows;
+                Chunk[] chunks = new Chunk[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    chunks[i] = new Chunk(in.readLong(), in.readInt(), in.readLong(), in.readLong());
+                }
+                blockChunks.add(chunks);
+            }
+            for (int i = 0; i < columnCount; i++) {
+                if (types.get(i) == ColumnarWriter.Type.DICTIONARY) {
+                    int count = in.readInt();
+                    List<String> values = new ArrayList<>(count);
+                    for (int value = 0; value < count; value++) {
+                        byte[] encoded = new byte[in.readInt()];
+                        in.readFully(encoded);
+                        values.add(new String(encoded, StandardCharsets.UTF_8));
+                    }
+                    dictionaries.put(i, values);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package core.scraper;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Kayıtları sütun sütun yazan ikili (binary) dışa aktarım biçimi.
+ * Kayıtlar bloklar halinde toplanır; her blokta her sütun ayrı bir parça (chunk) olarak
+ * art arda yazılır: sayısal sütunlar ilkel diziler, az sayıda farklı değeri olan metin
+ * sütunları sözlük kodları, diğer metinler uzunluk önekli UTF-8 olarak saklanır.
+ * Dosyanın sonundaki özet (footer) sütun şemasını, her parçanın konumunu ve min/max
+ * değerlerini, sözlükleri içerir; böylece ColumnarReader yalnızca istenen sütunların
+ * parçalarını okuyabilir ve aralık dışında kalan blokları hiç okumadan atlayabilir.
+ *
+ * <pre>
+ * "LSTC" | sürüm | blok 1: [sütun 1 parçası][sütun 2 parçası]... | blok 2 ... | footer | footer konumu | "LSTC"
+ * </pre>
+ *
+ * @param <T> Yazılan kayıt tipi
+ */
+public class ColumnarWriter<T> implements AutoCloseable {
+    static final int MAGIC = 0x4C535443;   // "LSTC"
+    static final int VERSION = 1;
+
+    /**
+     * Sütunun saklanma biçimi.
+     */
+    public enum Type {
+        INT32, INT64, DICTIONARY, STRING
+    }
+
+    /**
+     * Bir sütunun adı, tipi ve kayıttan değerini okuyan fonksiyonu.
+     *
+     * @param <T> Kayıt tipi
+     */
+    public static final class Column<T> {
+        private final String name;
+        private final Type type;
+        private final ToLongFunction<T> numeric;      // INT32/INT64
+        private final Function<T, String> text;       // DICTIONARY/STRING
+
+        private Column(String name, Type type, ToLongFunction<T> numeric, Function<T, String> text) {
+            this.name = name;
+            this.type = type;
+            this.numeric = numeric;
+            this.text = text;
+        }
+
+        public static <T> Column<T> int32(String name, ToIntFunction<T> value) {
+            return new Column<>(name, Type.INT32, value::applyAsInt, null);
+        }
+
+        public static <T> Column<T> int64(String name, ToLongFunction<T> value) {
+            return new Column<>(name, Type.INT64, value, null);
+        }
+
+        public static <T> Column<T> dictionary(String name, Function<T, String> value) {
+            return new Column<>(name, Type.DICTIONARY, null, value);
+        }
+
+        public static <T> Column<T> string(String name, Function<T, String> value) {
+            return new Column<>(name, Type.STRING, null, value);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Type getType() {
+            return type;
+        }
+    }
+
+    /**
+     * Footer'a yazılan, tek bir parçanın konumu ve değer aralığı.
+     */
+    private record Chunk(long offset, int length, long min, long max) {
+    }
+
+    private final FileChannel channel;
+    private final List<Column<T>> columns;
+    private final int blockRows;
+    private final ValueDictionary[] dictionaries;
+    private final long[][] numbers;                 // Sayısal ve sözlük sütunlarının blok tamponu
+    private final String[][] texts;                 // STRING sütunlarının blok tamponu
+    private final List<Integer> blockSizes = new ArrayList<>();
+    private final List<Chunk[]> blockChunks = new ArrayList<>();
+    private int rowsInBlock;
+    private long rowCount;
+
+    /**
+     * @param path Yazılacak dosya (varsa üzerine yazılır)
+     * @param columns Sütun tanımları
+     * @param blockRows Bir bloktaki en fazla kayıt sayısı
+     * @throws IOException Dosya açılamazsa
+     */
+    public ColumnarWriter(Path path, List<Column<T>> columns, int blockRows) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.columns = List.copyOf(columns);
+        this.blockRows = Math.max(1, blockRows);
+        this.dictionaries = new ValueDictionary[columns.size()];
+        this.numbers = new long[columns.size()][];
+        this.texts = new String[columns.size()][];
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).type) {
+                case DICTIONARY -> {
+                    dictionaries[i] = new ValueDictionary();
+                    numbers[i] = new long[this.blockRows];
+                }
+                case STRING -> texts[i] = new String[this.blockRows];
+                default -> numbers[i] = new long[this.blockRows];
+            }
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).flip();
+        writeFully(header);
+    }
+
+    /**
+     * Bir kaydı blok tamponuna ekler; blok dolunca diske yazılır.
+     *
+     * @param row Yazılacak kayıt
+     * @throws IOException Yazma başarısız olursa
+     */
+    public void write(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            Column<T> column = columns.get(i);
+            switch (column.type) {
+                case DICTIONARY -> numbers[i][rowsInBlock] = dictionaries[i].code(column.text.apply(row));
+                case STRING -> texts[i][rowsInBlock] = column.text.apply(row);
+                default -> numbers[i][rowsInBlock] = column.numeric.applyAsLong(row);
+            }
+        }
+        rowsInBlock++;
+        rowCount++;
+        if (rowsInBlock == blockRows) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * @return Şimdiye kadar yazılan kayıt sayısı
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBlock();
+            writeFooter();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (rowsInBlock == 0) {
+            return;
+        }
+        Chunk[] chunks = new Chunk[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            long offset = channel.position();
+            ByteBuffer chunk = encode(i);
+            int length = chunk.remaining();
+            writeFully(chunk);
+
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            if (numbers[i] != null) {
+                for (int row = 0; row < rowsInBlock; row++) {
+                    min = Math.min(min, numbers[i][row]);
+                    max = Math.max(max, numbers[i][row]);
+                }
+            }
+            chunks[i] = new Chunk(offset, length, min, max);
+        }
+        blockSizes.add(rowsInBlock);
+        blockChunks.add(chunks);
+        for (String[] buffer : texts) {
+            if (buffer != null) {
+                Arrays.fill(buffer, null);
+            }
+        }
+        rowsInBlock = 0;
+    }
+
+    private ByteBuffer encode(int column) {
+        switch (columns.get(column).type) {
+            case INT64 -> {
+                ByteBuffer buffer = ByteBuffer.allocate(rowsInBlock * Long.BYTES);
+                for (int row = 0; row < rowsInBlock; row++) {
+                    buffer.putLong(numbers[column][row]);
+                }
+                return buffer.flip();
+            }
+            case STRING -> {
+                List<byte[]> values = new ArrayList<>(rowsInBlock);
+                int size = 0;
+                for (int row = 0; row < rowsInBlock; row++) {
+                    String value = texts[column][row];
+                    byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+                    values.add(bytes);
+                    size += Integer.BYTES + (bytes == null ? 0 : bytes.length);
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(size);
+                for (byte[] bytes : values) {
+                    // -1 uzunluk null değeri gösterir
+                    buffer.putInt(bytes == null ? -1 : bytes.length);
+                    if (bytes != null) {
+                        buffer.put(bytes);
+                    }
+                }
+                return buffer.flip();
+            }
+            default -> {
+                // INT32 ve sözlük kodları 4 baytta tutulur
+                ByteBuffer buffer = ByteBuffer.allocate(rowsInBlock * Integer.BYTES);
+                for (int row = 0; row < rowsInBlock; row++) {
+                    buffer.putInt((int) numbers[column][row]);
+                }
+                return buffer.flip();
+            }
+        }
+    }
+
+    private void writeFooter() throws IOException {
+        long footerOffset = channel.position();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(columns.size());
+            for (Column<T> column : columns) {
+                out.writeUTF(column.name);
+                out.writeByte(column.type.ordinal());
+            }
+            out.writeInt(blockSizes.size());
+            for (int block = 0; block < blockSizes.size(); block++) {
+                out.writeInt(blockSizes.get(block));
+                for (Chunk chunk : blockChunks.get(block)) {
+                    out.writeLong(chunk.offset());
+                    out.writeInt(chunk.length());
+                    out.writeLong(chunk.min());
+                    out.writeLong(chunk.max());
+                }
+            }
+            for (ValueDictionary dictionary : dictionaries) {
+                if (dictionary != null) {
+                    List<String> values = dictionary.values();
+                    out.writeInt(values.size());
+                    for (String value : values) {
+                        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(encoded.length);
+                        out.write(encoded);
+                    }
+                }
+            }
+        }
+        writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+        writeFully(ByteBuffer.allocate(12).putLong(footerOffset).putInt(MAGIC).flip());
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package core.scraper;
+
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Liste sayfalarını sayfalama linklerini ve (varsa) sitemap.xml'i izleyerek dolaşan tarama sınırı.
+ * Liste sayfaları sanal thread'lerde eşzamanlı indirilir; bulunan ürün URL'leri normalize
+ * edilmiş hali üzerinden O(1) tekrar kontrolünden geçip bulundukları anda kuyruğa eklenir.
+ * Detay aşaması, keşif bitmeden bu sınırı Iterable olarak tüketmeye başlayabilir.
+ */
+public class CrawlFrontier implements Iterable<String>, AutoCloseable {
+    private static final String END_OF_CRAWL = new String("END_OF_CRAWL");  // Kuyruk sonu işareti (kimlikle karşılaştırılır)
+
+    /**
+     * Bir liste sayfasını okunabilir hale getiren yükleyici.
+     */
+    @FunctionalInterface
+    public interface ListingPageLoader {
+        PageSource load(String url) throws Exception;
+    }
+
+    private final HttpFetcher fetcher;               // Sitemap indirmek için
+    private final ListingPageLoader loader;          // Liste sayfalarını yükler
+    private final String seedUrl;                    // İlk liste sayfası
+    private final String productLinksXpath;          // Liste sayfasındaki ürün linkleri
+    private final String paginationXpath;            // Liste sayfasındaki sayfalama linkleri
+    private final Pattern sitemapProductPattern;     // Sitemap'teki hangi URL'lerin ürün olduğu (null: sitemap kullanılmaz)
+    private final int maxListingPages;               // En fazla indirilecek liste sayfası
+
+    private final Set<String> seenListings = ConcurrentHashMap.newKeySet();
+    private final Set<String> seenProducts = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<String> discovered = new LinkedBlockingQueue<>();
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    private final AtomicInteger failedTasks = new AtomicInteger();     // Hata veren liste/sitemap indirmeleri
+    private volatile boolean truncated;                                // Liste sayfası sınırına takıldı mı
+    private final Semaphore concurrency;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private boolean iteratorTaken;
+
+    /**
+     * @param fetcher Sitemap indirmek için kullanılacak HTTP istemcisi
+     * @param loader Liste sayfalarını yükleyen fonksiyon
+     * @param seedUrl Taramanın başlayacağı liste sayfası
+     * @param productLinksXpath Ürün linklerini bulan XPath
+     * @param paginationXpath Sonraki liste sayfalarına giden linkleri bulan XPath
+     * @param sitemapProductPattern Sitemap'teki ürün URL'lerini seçen desen; null ise sitemap okunmaz
+     */
+    public CrawlFrontier(HttpFetcher fetcher, ListingPageLoader loader, String seedUrl,
+                         String productLinksXpath, String paginationXpath, Pattern sitemapProductPattern) {
+        this.fetcher = fetcher;
+        this.loader = loader;
+        this.seedUrl = seedUrl;
+        this.productLinksXpath = productLinksXpath;
+        this.paginationXpath = paginationXpath;
+        this.sitemapProductPattern = ScraperConfig.frontierUseSitemap() ? sitemapProductPattern : null;
+        this.maxListingPages = ScraperConfig.frontierMaxListingPages();
+        this.concurrency = new Semaphore(ScraperConfig.frontierConcurrency());
+    }
+
+    /**
+     * Liste sayfalarını HTTP ile indirip Jsoup ile ayrıştıran yükleyici. Başarısız yanıtlar hata
+     * sayılır; boş bir sayfa gibi ayrıştırılıp keşif eksiksiz bitmiş gibi görünmez.
+     *
+     * @param fetcher Kullanılacak HTTP istemcisi
+     * @return Yükleyici
+     */
+    public static ListingPageLoader httpLoader(HttpFetcher fetcher) {
+        return url -> {
+            HttpPage page = fetcher.fetch(url);
+            if (!page.isSuccessful()) {
+                throw new IOException("HTTP " + page.getStatusCode() + " for " + url);
+            }
+            return HtmlPageSource.parse(page.getBody(), page.getUrl());
+        };
+    }
+
+    /**
+     * Keşfi arka planda başlatır. Ürün URL'leri bulundukça iterator'dan okunabilir.
+     *
+     * @return Bu sınır
+     */
+    public CrawlFrontier start() {
+        pendingTasks.incrementAndGet();  // Başlatma görevi; tohumlar kuyruğa alınınca düşülür
+        try {
+            if (sitemapProductPattern != null) {
+                URI seed = URI.create(seedUrl);
+                submit(() -> readSitemap(seed.getScheme() + "://" + seed.getAuthority() + "/sitemap.xml"));
+            }
+            submitListing(seedUrl);
+        } finally {
+            taskDone();
+        }
+        return this;
+    }
+
+    /**
+     * @return Şimdiye kadar bulunan tekrarsız ürün sayısı
+     */
+    public int productCount() {
+        return seenProducts.size();
+    }
+
+    /**
+     * @return Şimdiye kadar kuyruğa alınan liste sayfası sayısı
+     */
+    public int listingPageCount() {
+        return seenListings.size();
+    }
+
+    /**
+     * Keşif bittikten sonra anlamlıdır; bir liste sayfası ya da sitemap indirilemediyse veya liste
+     * sayfası sınırına takıldıysa sitede olup bulunamayan ilanlar olabilir.
+     *
+     * @return Tüm liste sayfaları hatasız dolaşıldıysa true
+     */
+    public boolean isComplete() {
+        return failedTasks.get() == 0 && !truncated;
+    }
+
+    /**
+     * Bulunan ürün URL'lerini bulundukları sırayla döndüren, keşif sürerken bloklayan iterator.
+     * Tek bir tüketici içindir.
+     */
+    @Override
+    public synchronized Iterator<String> iterator() {
+        if (iteratorTaken) {
+            throw new IllegalStateException("CrawlFrontier yalnızca bir kez tüketilebilir");
+        }
+        iteratorTaken = true;
+        return new Iterator<>() {
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = discovered.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        next = END_OF_CRAWL;
+                    }
+                }
+                if (next == END_OF_CRAWL) {
+                    discovered.offer(END_OF_CRAWL);  // Sonraki hasNext çağrıları da false dönsün
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String url = next;
+                next = null;
+                return url;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void submitListing(String url) {
+        if (url == null || url.isBlank()) {
+            return;
+        }
+        String normalized = UrlNormalizer.normalize(url);
+        if (seenListings.size() >= maxListingPages) {
+            truncated |= !seenListings.contains(normalized);
+            return;
+        }
+        if (!seenListings.add(normalized)) {
+            return;
+        }
+        submit(() -> {
+            PageSource page = loader.load(url);
+            for (String href : page.attributes(productLinksXpath, "href")) {
+                offerProduct(href);
+            }
+            for (String href : page.attributes(paginationXpath, "href")) {
+                submitListing(href);
+            }
+        });
+    }
+
+    private void readSitemap(String sitemapUrl) throws Exception {
+        HttpPage page = fetcher.fetch(sitemapUrl);
+        if (!page.isSuccessful()) {
+            System.out.println("Sitemap bulunamadı (" + page.getStatusCode() + "): " + sitemapUrl);
+            return;
+        }
+        Document sitemap = Jsoup.parse(page.getBody(), page.getUrl(), Parser.xmlParser());
+        // Sitemap indeksi ise alt sitemap'ler de okunur
+        for (Element loc : sitemap.select("sitemap > loc")) {
+            String child = loc.text().trim();
+            if (seenListings.add(UrlNormalizer.normalize(child))) {
+                submit(() -> readSitemap(child));
+            }
+        }
+        for (Element loc : sitemap.select("url > loc")) {
+            String url = loc.text().trim();
+            if (sitemapProductPattern.matcher(url).matches()) {
+                offerProduct(url);
+            }
+        }
+    }
+
+    private void offerProduct(String href) {
+        if (href != null && !href.isEmpty() && seenProducts.add(UrlNormalizer.normalize(href))) {
+            discovered.offer(href);
+            System.out.println("Found link: " + href);
+        }
+    }
+
+    private void submit(FrontierTask task) {
+        pendingTasks.incrementAndGet();
+        executor.submit(() -> {
+            try {
+                concurrency.acquire();
+                try {
+                    task.run();
+                } finally {
+                    concurrency.release();
+                }
+            } catch (Exception e) {
+                failedTasks.incrementAndGet();
+                System.err.println("Error collecting product links: " + e.getMessage());
+            } finally {
+                taskDone();
+            }
+        });
+    }
+
+    private void taskDone() {
+        if (pendingTasks.decrementAndGet() == 0) {
+            discovered.offer(END_OF_CRAWL);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FrontierTask {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,332 @@
+package core.scraper;
+
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Uzun taramaların kaldığı yerden devam edebilmesi için tutulan, yalnızca sona eklenen ilerleme günlüğü.
+ * Keşfedilen, tamamlanan ve hata veren URL'ler satır başına bir JSON kaydı olarak yazılır; her kayıt
+ * hemen işletim sistemine aktarıldığı için JVM ya da tarayıcı çökse bile kaybolmaz, dosya ayrıca
+ * belirli aralıklarla diske zorlanır. Açılışta günlük baştan okunarak durum yeniden kurulur; yarım
+ * kalmış son satır atlanır. Günlük belirli sayıda kayıtta bir, yalnızca güncel durumu içeren bir
+ * kopyayla atomik olarak değiştirilerek sıkıştırılır.
+ * Tarama başarıyla bittiğinde günlük silinir; bir sonraki çalışma baştan başlar.
+ */
+public class CrawlJournal implements AutoCloseable {
+    private static final Gson GSON = new Gson();
+
+    private enum Type { DISCOVERED, COMPLETED, FAILED }
+
+    /**
+     * Günlükteki tek bir kayıt.
+     */
+    private static class Event {
+        private Type type;
+        private String url;
+        private String error;           // Yalnızca FAILED kayıtlarında
+        private int attempts;           // Yalnızca FAILED kayıtlarında; o ana kadarki deneme sayısı
+        private long at;                // Kaydın zamanı (epoch ms)
+
+        Event(Type type, String url, String error, int attempts) {
+            this.type = type;
+            this.url = url;
+            this.error = error;
+            this.attempts = attempts;
+            this.at = System.currentTimeMillis();
+        }
+    }
+
+    private final Path file;
+    private final int compactEvery;           // Bu kadar kayıtta bir sıkıştırılır
+    private final long fsyncIntervalMillis;   // Diske zorlama aralığı (0: yalnızca kapatırken)
+    private final Set<String> completed = new HashSet<>();              // Normalize URL'ler
+    private final Map<String, String> pending = new LinkedHashMap<>();  // Normalize URL -> keşfedilip bitmeyen URL
+    private final Map<String, Event> failed = new LinkedHashMap<>();    // Normalize URL -> son hata kaydı
+    private final List<String> carriedOver = new ArrayList<>();         // Önceki çalışmadan bitmeden kalanlar
+    private final boolean resumed;
+
+    private FileChannel channel;
+    private long appended;                    // Son sıkıştırmadan beri eklenen kayıt sayısı
+    private long lastSync = System.currentTimeMillis();
+    private boolean dirty;                    // Son fsync'ten sonra yazılmış veri var mı
+
+    private CrawlJournal(Path file, int compactEvery, long fsyncIntervalMillis) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.compactEvery = Math.max(1, compactEvery);
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.resumed = Files.exists(this.file) && Files.size(this.file) > 0;
+        if (resumed) {
+            load();
+            carriedOver.addAll(pending.values());
+            failed.values().forEach(event -> carriedOver.add(event.url));
+            // Okunan durum sıkıştırılmış olarak yeniden yazılır; yarım kalan satır da böylece atılır
+            rewrite();
+        } else {
+            Files.createDirectories(this.file.getParent());
+        }
+        openChannel();
+    }
+
+    /**
+     * Ayarları ScraperConfig'ten okuyarak günlüğü açar; dosya varsa önceki çalışmanın durumu yüklenir.
+     *
+     * @param file Günlük dosyası
+     * @return Açılan günlük
+     * @throws IOException Dosya okunamaz ya da açılamazsa
+     */
+    public static CrawlJournal open(Path file) throws IOException {
+        return open(file, ScraperConfig.journalCompactEvery(), ScraperConfig.sinkFsyncIntervalMillis());
+    }
+
+    /**
+     * @param file Günlük dosyası
+     * @param compactEvery Bu kadar kayıt eklendikçe günlük sıkıştırılır
+     * @param fsyncIntervalMillis Dosyanın diske zorlanma aralığı (0: yalnızca kapatırken)
+     * @return Açılan günlük
+     * @throws IOException Dosya okunamaz ya da açılamazsa
+     */
+    public static CrawlJournal open(Path file, int compactEvery, long fsyncIntervalMillis) throws IOException {
+        return new CrawlJournal(file, compactEvery, fsyncIntervalMillis);
+    }
+
+    /**
+     * @return Günlük önceki, yarıda kalmış bir çalışmadan devralındıysa true
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * Önceki çalışmada keşfedilip tamamlanmamış ya da hata vermiş URL'leri döndürür.
+     * Bu çalışmada yeniden keşfedilmeyenler de kaybolmasın diye yeniden deneme kuyruğuna eklenir.
+     *
+     * @return Önceki çalışmadan kalan URL'ler
+     */
+    public synchronized List<String> carriedOver() {
+        return List.copyOf(carriedOver);
+    }
+
+    /**
+     * URL'yi keşfedildi olarak kaydeder.
+     *
+     * @param url Keşfedilen URL
+     * @return URL daha önce tamamlanmışsa false (yeniden kazınmamalı)
+     * @throws IOException Günlüğe yazılamazsa
+     */
+    public synchronized boolean discovered(String url) throws IOException {
+        String key = UrlNormalizer.normalize(url);
+        if (completed.contains(key)) {
+            return false;
+        }
+        if (!pending.containsKey(key) && !failed.containsKey(key)) {
+            pending.put(key, url);
+            append(new Event(Type.DISCOVERED, url, null, 0));
+        }
+        return true;
+    }
+
+    /**
+     * @param url Kontrol edilecek URL
+     * @return URL bu ya da önceki çalışmada tamamlandıysa true
+     */
+    public synchronized boolean isCompleted(String url) {
+        return completed.contains(UrlNormalizer.normalize(url));
+    }
+
+    /**
+     * URL'yi tamamlandı olarak kaydeder (sonucu yazıldı ya da bilerek atlandı).
+     *
+     * @param url Tamamlanan URL
+     * @throws IOException Günlüğe yazılamazsa
+     */
+    public synchronized void completed(String url) throws IOException {
+        String key = UrlNormalizer.normalize(url);
+        if (completed.add(key)) {
+            pending.remove(key);
+            failed.remove(key);
+            append(new Event(Type.COMPLETED, url, null, 0));
+        }
+    }
+
+    /**
+     * URL'nin bir denemesinin hata verdiğini kaydeder.
+     *
+     * @param url Hata veren URL
+     * @param error Hata mesajı
+     * @return Önceki çalışmalar dahil bu URL için yapılan deneme sayısı
+     * @throws IOException Günlüğe yazılamazsa
+     */
+    public synchronized int failed(String url, String error) throws IOException {
+        String key = UrlNormalizer.normalize(url);
+        Event previous = failed.get(key);
+        Event event = new Event(Type.FAILED, url, error, previous == null ? 1 : previous.attempts + 1);
+        pending.remove(key);
+        failed.put(key, event);
+        append(event);
+        return event.attempts;
+    }
+
+    /**
+     * @return Tamamlanan URL sayısı
+     */
+    public synchronized int getCompletedCount() {
+        return completed.size();
+    }
+
+    /**
+     * @return Son denemesi hata vermiş URL sayısı
+     */
+    public synchronized int getFailedCount() {
+        return failed.size();
+    }
+
+    /**
+     * @return Günlük dosyası
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Günlüğü yalnızca güncel durumu içeren bir kopyayla atomik olarak değiştirir.
+     *
+     * @throws IOException Yazma başarısız olursa
+     */
+    public synchronized void compact() throws IOException {
+        channel.close();
+        rewrite();
+        openChannel();
+    }
+
+    /**
+     * Tarama tamamlandığında günlüğü kapatıp siler.
+     *
+     * @throws IOException Dosya silinemezse
+     */
+    public synchronized void finish() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            try {
+                if (dirty) {
+                    channel.force(false);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private void append(Event event) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((GSON.toJson(event) + "\n").getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        dirty = true;
+
+        long now = System.currentTimeMillis();
+        if (fsyncIntervalMillis > 0 && now - lastSync >= fsyncIntervalMillis) {
+            channel.force(false);
+            dirty = false;
+            lastSync = now;
+        }
+        if (++appended >= compactEvery) {
+            compact();
+        }
+    }
+
+    private void load() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Event event;
+                try {
+                    event = GSON.fromJson(line, Event.class);
+                } catch (JsonParseException e) {
+                    // Çökme anında yarım yazılmış son satır
+                    System.err.println("İlerleme günlüğünde okunamayan satır atlandı: " + e.getMessage());
+                    continue;
+                }
+                if (event == null || event.type == null || event.url == null) {
+                    continue;
+                }
+                String key = UrlNormalizer.normalize(event.url);
+                switch (event.type) {
+                    case DISCOVERED -> {
+                        if (!completed.contains(key) && !failed.containsKey(key)) {
+                            pending.put(key, event.url);
+                        }
+                    }
+                    case COMPLETED -> {
+                        completed.add(key);
+                        pending.remove(key);
+                        failed.remove(key);
+                    }
+                    case FAILED -> {
+                        // Her hata kaydı o ana kadarki toplam deneme sayısını taşır
+                        if (!completed.contains(key)) {
+                            pending.remove(key);
+                            failed.put(key, event);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Güncel durumu önce geçici dosyaya yazar, sonra asıl günlüğün yerine taşır.
+     */
+    private void rewrite() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (String key : completed) {
+                writer.write(GSON.toJson(new Event(Type.COMPLETED, key, null, 0)));
+                writer.newLine();
+            }
+            for (String url : pending.values()) {
+                writer.write(GSON.toJson(new Event(Type.DISCOVERED, url, null, 0)));
+                writer.newLine();
+            }
+            for (Event event : failed.values()) {
+                writer.write(GSON.toJson(event));
+                writer.newLine();
+            }
+        }
+        try (FileChannel temporary = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            temporary.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        appended = 0;
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        lastSync = System.currentTimeMillis();
+        dirty = false;
+    }
+}
@@ -0,0 +1,458 @@
+package core.scraper;
+
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Tarama aşamalarının (sayfa açma, bekleme, alan okuma, HTTP, yazma) süre histogramlarını,
+ * olay sayaçlarını ve anlık göstergeleri (uçuştaki sayfa, açık tarayıcı) tutan kayıt defteri.
+ * Değerler JMX MXBean'leri ve düz metin Prometheus uç noktası (/metrics) ile dışarı açılır.
+ * <p>
+ * Ölçüm yalnızca -Dscraper.metrics=true ile açılır. Kapalıyken tüm metodlar sabit bir
+ * bayrak kontrolüyle hemen döner (JIT bu dalları tamamen atar), start() System.nanoTime()
+ * çağırmaz ve meter() sayfa kaynağını sarmadan aynen döndürür.
+ */
+public final class CrawlMetrics {
+    private static final boolean ENABLED = ScraperConfig.metricsEnabled();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String JMX_DOMAIN = "core.scraper";
+
+    private static final Map<String, LatencyHistogram> PHASES = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> FIELDS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> EMPTY_FIELDS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> LEVELS = new ConcurrentHashMap<>();  // inc/dec ile tutulan göstergeler
+
+    private static boolean exposed;
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    private CrawlMetrics() {
+    }
+
+    /**
+     * Bir aşamanın JMX üzerinden okunan süre özeti (milisaniye).
+     */
+    public interface LatencyMXBean {
+        long getCount();
+
+        double getMeanMillis();
+
+        double getP50Millis();
+
+        double getP90Millis();
+
+        double getP99Millis();
+
+        double getMaxMillis();
+    }
+
+    /**
+     * Sayaçların, göstergelerin ve Prometheus metninin JMX görünümü.
+     */
+    public interface CrawlMetricsMXBean {
+        Map<String, Long> getCounters();
+
+        Map<String, Long> getGauges();
+
+        Map<String, Long> getEmptyFields();
+
+        String getPrometheusText();
+    }
+
+    /**
+     * @return Ölçüm açıksa true
+     */
+    public static boolean enabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return Ölçüm açıksa şimdiki zaman (ns), değilse 0
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Bir aşamanın start() ile başlayan süresini kaydeder.
+     *
+     * @param phase Aşama adı (örn: "navigate", "wait", "extract")
+     * @param start start() değeri
+     */
+    public static void time(String phase, long start) {
+        if (ENABLED) {
+            histogram(PHASES, phase, "phase").record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Başka yerde ölçülmüş bir aşama süresini kaydeder.
+     *
+     * @param phase Aşama adı
+     * @param nanos Süre (ns)
+     */
+    public static void record(String phase, long nanos) {
+        if (ENABLED) {
+            histogram(PHASES, phase, "phase").record(nanos);
+        }
+    }
+
+    /**
+     * Bir alan okumasının süresini ve boş dönüp dönmediğini kaydeder.
+     *
+     * @param field Alan adı
+     * @param start start() değeri
+     * @param empty Alan bulunamadıysa ya da boşsa true
+     */
+    public static void field(String field, long start, boolean empty) {
+        if (ENABLED) {
+            histogram(FIELDS, field, "field").record(System.nanoTime() - start);
+            if (empty) {
+                EMPTY_FIELDS.computeIfAbsent(field, k -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    /**
+     * @param event Olay adı (örn: "pages_ok", "pages_failed")
+     */
+    public static void count(String event) {
+        if (ENABLED) {
+            COUNTERS.computeIfAbsent(event, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Değeri okunduğu anda hesaplanan bir gösterge kaydeder (örn: havuzdaki tarayıcı sayısı).
+     *
+     * @param name Gösterge adı
+     * @param value Değeri veren fonksiyon
+     */
+    public static void gauge(String name, LongSupplier value) {
+        if (ENABLED) {
+            GAUGES.put(name, value);
+        }
+    }
+
+    /**
+     * Artırılıp azaltılan bir göstergeyi (örn: uçuştaki sayfa sayısı) değiştirir.
+     *
+     * @param name Gösterge adı
+     * @param delta Değişim
+     */
+    public static void adjust(String name, long delta) {
+        if (ENABLED) {
+            LEVELS.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * Ölçüm açıksa sayfa kaynağını, her sorgunun süresini ve boş dönüşünü alan adıyla
+     * kaydeden bir sarmalayıcıyla döndürür; kapalıysa kaynağı aynen döndürür.
+     *
+     * @param page Sarılacak kaynak
+     * @param fieldNames XPath -> alan adı eşlemesi (eşlemede olmayan XPath'ler kendi adıyla kaydedilir)
+     * @return Ölçülen ya da aynı kaynak
+     */
+    public static PageSource meter(PageSource page, Map<String, String> fieldNames) {
+        return ENABLED ? new MeteredPageSource(page, fieldNames) : page;
+    }
+
+    /**
+     * Ölçüm açıksa MXBean'leri kaydeder ve scraper.metrics.port verilmişse (0 değilse)
+     * Prometheus uç noktasını scraper.metrics.bind adresinde (varsayılan geri döngü) başlatır.
+     * Birden fazla çağrılabilir.
+     */
+    public static synchronized void expose() {
+        if (!ENABLED || exposed) {
+            return;
+        }
+        exposed = true;
+        register("type=CrawlMetrics", new CrawlMetricsMXBean() {
+            @Override
+            public Map<String, Long> getCounters() {
+                return sums(COUNTERS);
+            }
+
+            @Override
+            public Map<String, Long> getGauges() {
+                return gaugeValues();
+            }
+
+            @Override
+            public Map<String, Long> getEmptyFields() {
+                return sums(EMPTY_FIELDS);
+            }
+
+            @Override
+            public String getPrometheusText() {
+                return prometheus();
+            }
+        }, CrawlMetricsMXBean.class);
+        PHASES.forEach((name, histogram) -> registerHistogram("phase", name, histogram));
+
+        int port = ScraperConfig.metricsPort();
+        if (port > 0) {
+            try {
+                server = HttpServer.create(new InetSocketAddress(ScraperConfig.metricsBindAddress(), port), 16);
+                executor = Executors.newVirtualThreadPerTaskExecutor();
+                server.setExecutor(executor);
+                server.createContext("/metrics", exchange -> {
+                    try (exchange) {
+                        byte[] body = prometheus().getBytes(StandardCharsets.UTF_8);
+                        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                        exchange.sendResponseHeaders(200, body.length);
+                        try (OutputStream out = exchange.getResponseBody()) {
+                            out.write(body);
+                        }
+                    }
+                });
+                server.start();
+                System.out.println("Metrikler http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/metrics adresinde");
+            } catch (IOException e) {
+                System.err.println("Metrik uç noktası açılamadı (port " + port + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Prometheus uç noktasını kapatır; MXBean'ler süreç boyunca kalır.
+     */
+    public static synchronized void shutdown() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * @return Prometheus düz metin biçiminde (0.0.4) tüm metrikler
+     */
+    public static String prometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        summaries(out, "scraper_phase_seconds", "Tarama aşamalarının süresi", "phase", PHASES);
+        summaries(out, "scraper_field_seconds", "Alan okumalarının süresi", "field", FIELDS);
+        counters(out, "scraper_events_total", "Tarama olayları", "event", COUNTERS);
+        counters(out, "scraper_field_empty_total", "Boş ya da bulunamayan alan okumaları", "field", EMPTY_FIELDS);
+        String family = null;
+        for (Map.Entry<String, Long> gauge : gaugeValues().entrySet()) {
+            String name = "scraper_" + sanitize(gauge.getKey());
+            int labels = name.indexOf('{');
+            String metric = labels < 0 ? name : name.substring(0, labels);
+            // Etiketli göstergelerde TYPE satırı aileye bir kez yazılır (değerler ada göre sıralıdır)
+            if (!metric.equals(family)) {
+                out.append("# TYPE ").append(metric).append(" gauge\n");
+                family = metric;
+            }
+            out.append(name).append(' ').append(gauge.getValue()).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return Aşama süreleri ve sayaçların okunabilir özeti (ölçüm kapalıysa boş metin)
+     */
+    public static String summary() {
+        if (!ENABLED) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder("Aşama süreleri (ms):\n");
+        new TreeMap<>(PHASES).forEach((name, h) -> out.append(String.format(Locale.ROOT,
+                "  %-12s n=%-7d ort=%.1f p50=%.1f p99=%.1f maks=%.1f%n", name, h.count(), h.mean() / 1e6,
+                h.percentile(0.5) / 1e6, h.percentile(0.99) / 1e6, h.max() / 1e6)));
+        out.append("Olaylar: ").append(sums(COUNTERS));
+        Map<String, Long> empty = sums(EMPTY_FIELDS);
+        if (!empty.isEmpty()) {
+            out.append("\nBoş alanlar: ").append(empty);
+        }
+        return out.toString();
+    }
+
+    private static LatencyHistogram histogram(Map<String, LatencyHistogram> family, String name, String kind) {
+        LatencyHistogram histogram = family.get(name);
+        if (histogram == null) {
+            histogram = family.computeIfAbsent(name, k -> new LatencyHistogram());
+            if (family == PHASES) {
+                registerHistogram(kind, name, histogram);
+            }
+        }
+        return histogram;
+    }
+
+    private static synchronized void registerHistogram(String kind, String name, LatencyHistogram histogram) {
+        if (!exposed) {
+            return;
+        }
+        register("type=CrawlMetrics," + kind + "=" + ObjectName.quote(name), new LatencyMXBean() {
+            @Override
+            public long getCount() {
+                return histogram.count();
+            }
+
+            @Override
+            public double getMeanMillis() {
+                return histogram.mean() / 1e6;
+            }
+
+            @Override
+            public double getP50Millis() {
+                return histogram.percentile(0.5) / 1e6;
+            }
+
+            @Override
+            public double getP90Millis() {
+                return histogram.percentile(0.9) / 1e6;
+            }
+
+            @Override
+            public double getP99Millis() {
+                return histogram.percentile(0.99) / 1e6;
+            }
+
+            @Override
+            public double getMaxMillis() {
+                return histogram.max() / 1e6;
+            }
+        }, LatencyMXBean.class);
+    }
+
+    private static <T> void register(String properties, T bean, Class<T> type) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":" + properties);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(bean, type, true), name);
+            }
+        } catch (JMException e) {
+            System.err.println("MXBean kaydedilemedi (" + properties + "): " + e.getMessage());
+        }
+    }
+
+    private static void summaries(StringBuilder out, String metric, String help, String label,
+                                  Map<String, LatencyHistogram> family) {
+        if (family.isEmpty()) {
+            return;
+        }
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(metric).append(" summary\n");
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(family).entrySet()) {
+            String value = escape(entry.getKey());
+            LatencyHistogram histogram = entry.getValue();
+            for (double quantile : QUANTILES) {
+                out.append(metric).append('{').append(label).append("=\"").append(value)
+                        .append("\",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(histogram.percentile(quantile))).append('\n');
+            }
+            out.append(metric).append("_sum{").append(label).append("=\"").append(value).append("\"} ")
+                    .append(seconds(histogram.sum())).append('\n');
+            out.append(metric).append("_count{").append(label).append("=\"").append(value).append("\"} ")
+                    .append(histogram.count()).append('\n');
+        }
+    }
+
+    private static void counters(StringBuilder out, String metric, String help, String label, Map<String, LongAdder> family) {
+        if (family.isEmpty()) {
+            return;
+        }
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(metric).append(" counter\n");
+        sums(family).forEach((name, value) -> out.append(metric).append('{').append(label).append("=\"")
+                .append(escape(name)).append("\"} ").append(value).append('\n'));
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> family) {
+        Map<String, Long> values = new TreeMap<>();
+        family.forEach((name, adder) -> values.put(name, adder.sum()));
+        return values;
+    }
+
+    private static Map<String, Long> gaugeValues() {
+        Map<String, Long> values = sums(LEVELS);
+        GAUGES.forEach((name, supplier) -> {
+            try {
+                values.put(name, supplier.getAsLong());
+            } catch (RuntimeException e) {
+                // Kapanmış bir kaynağın göstergesi atlanır
+            }
+        });
+        return values;
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String sanitize(String name) {
+        // Ada eklenmiş etiketler (örn: throttle_in_flight{host="..."}) olduğu gibi korunur
+        int labels = name.indexOf('{');
+        return labels < 0 ? name.replaceAll("[^a-zA-Z0-9_]", "_")
+                : name.substring(0, labels).replaceAll("[^a-zA-Z0-9_]", "_") + name.substring(labels);
+    }
+
+    /**
+     * Her sorgunun süresini ve boş dönüp dönmediğini alan adıyla kaydeden sayfa kaynağı.
+     */
+    private static final class MeteredPageSource implements PageSource {
+        private final PageSource page;
+        private final Map<String, String> fieldNames;
+
+        private MeteredPageSource(PageSource page, Map<String, String> fieldNames) {
+            this.page = page;
+            this.fieldNames = fieldNames;
+        }
+
+        @Override
+        public String text(String xpath) {
+            long start = System.nanoTime();
+            String value = page.text(xpath);
+            field(fieldNames.getOrDefault(xpath, xpath), start, value == null || value.isBlank());
+            return value;
+        }
+
+        @Override
+        public List<String> texts(String xpath) {
+            long start = System.nanoTime();
+            List<String> values = page.texts(xpath);
+            field(fieldNames.getOrDefault(xpath, xpath), start, values.isEmpty());
+            return values;
+        }
+
+        @Override
+        public List<String> attributes(String xpath, String attribute) {
+            long start = System.nanoTime();
+            List<String> values = page.attributes(xpath, attribute);
+            field(fieldNames.getOrDefault(xpath, xpath), start, values.isEmpty());
+            return values;
+        }
+
+        @Override
+        public boolean exists(String xpath) {
+            return page.exists(xpath);
+        }
+    }
+}
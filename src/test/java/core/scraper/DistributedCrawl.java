@@ -0,0 +1,456 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import com.google.gson.Gson;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bir taramayı birden fazla JVM'e (aynı makinedeki süreçlere ya da ortak dosya sistemini gören
+ * makinelere) dağıtır. Süreçler yalnızca paylaşılan bir WorkQueue dizini üzerinden haberleşir:
+ * <ul>
+ *     <li>Koordinatör liste sayfalarını dolaşır (CrawlFrontier), bulunan ürün URL'lerini paketler
+ *     halinde kuyruğa koyar, süresi dolan kiraları geri alır ve işçilerin sonuçlarını URL'ye göre
+ *     tekilleştirerek tek çıktıya birleştirir. Birleştirme Scraper.crawl üzerinden yapıldığından
+ *     NDJSON çıktısı, tekrar tespiti, ilan deposu ve fiyat geçmişi tek süreçli taramadaki gibi çalışır.</li>
+ *     <li>İşçiler paket kiralar, kirayı arka planda yeniler, URL'leri kendi HTTP istemcisi ve
+ *     tarayıcı havuzuyla kazır ve sonucu kuyruğa yazar. Kazınamayan URL'ler sonuçta hata olarak
+ *     bildirilir; koordinatör onları deneme hakkı (scraper.retry.max) kaldıkça yeniden kuyruğa koyar.</li>
+ * </ul>
+ * Çöken bir işçinin paketi kira süresi (scraper.distributed.leaseSeconds) dolunca başka bir işçiye
+ * geçer. Yeniden başlatılan koordinatör aynı kuyruktan devam eder: kuyruğa konmuş URL'leri tekrar
+ * koymaz, birleştirilmiş sonuçları tekrar yazmaz; birleştirmenin ortasında öldüyse o sonuç
+ * dosyasından çıktıya yazdıklarını geri alıp dosyayı baştan birleştirir. Biten bir taramanın kuyruğu bir sonraki
+ * koordinatör başlarken temizlenir; bu yüzden işçilerden önce koordinatör başlatılmalıdır.
+ * <p>
+ * Kullanım: {@code DistributedCrawl coordinator|worker [kazıyıcı sınıfı | site tanımı.json]}.
+ * Kayıt arşiviyle denemek için arşiv ayrı bir ReplayServer sürecinde sunulur ve tüm süreçlere
+ * aynı -Dscraper.baseUrl verilir.
+ */
+public class DistributedCrawl {
+    private static final Gson GSON = new Gson();
+    private static final String DEFAULT_TARGET = "com.emlaksiteniz.EmlakHttpScraper";
+
+    private DistributedCrawl() {
+    }
+
+    /**
+     * Sonuç dosyasındaki bir satır: URL'nin kazınan ürünü ya da hatası.
+     * İkisi de yoksa URL atlanmıştır (örn: artımlı taramada değişmemiş ilan).
+     */
+    static final class Outcome {
+        String url;
+        Product product;
+        String error;
+
+        Outcome(String url, Product product, String error) {
+            this.url = url;
+            this.product = product;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Liste sayfalarını dolaşıp URL'leri dağıtan ve sonuçları birleştiren koordinatör.
+     * Kendisi sayfa kazımaz; Scraper olarak Scraper.crawl'a verilir, böylece birleştirilen
+     * ürünler tek süreçli taramayla aynı yoldan yazılır.
+     */
+    static final class Coordinator extends Scraper {
+        private final Scraper site;
+        private final WorkQueue queue;
+        private final Set<String> queued = ConcurrentHashMap.newKeySet();   // Kuyruğa konmuş (normalize) URL'ler
+        private final Set<String> merged = new HashSet<>();                  // Ürünü çıktıya yazılmış (normalize) URL'ler
+        private final Set<Long> batches = ConcurrentHashMap.newKeySet();     // Bu taramada kuyruğa konan paketler
+        private final Set<Long> settled = new HashSet<>();                   // Sonucu birleştirilmiş ya da bırakılmış paketler
+        private NdjsonSink output;                                           // Scraper.crawl'ın çıktısı (crawl dışında null)
+        private Runnable settle = () -> { };
+        private volatile boolean discoveryDone;
+        private volatile Throwable discoveryError;
+        private long duplicateResults;
+        private long failedUrls;
+
+        Coordinator(Scraper site, WorkQueue queue) {
+            super(false);
+            this.site = site;
+            this.queue = queue;
+        }
+
+        /**
+         * Kuyrukta daha önce birleştirmeye başlanmışsa koordinatör yeniden başlatılmıştır;
+         * çıktı silinmez, kaldığı yerden eklenir.
+         */
+        @Override
+        boolean resumesOutput() {
+            return !queue.isFinished() && queue.isMergeStarted();
+        }
+
+        @Override
+        void outputOpened(NdjsonSink output, Runnable settle) {
+            this.output = output;
+            this.settle = settle;
+        }
+
+        @Override
+        public List<Product> scrapeProducts() {
+            List<Product> products = new ArrayList<>();
+            scrapeProducts(products::add);
+            return products;
+        }
+
+        /**
+         * URL'leri arka planda kuyruğa koyarken işçilerin sonuçlarını birleştirir; kuyruğa konan her
+         * paketin sonucu birleştirilince ya da paket deneme hakkı bittiği için bırakılınca taramayı
+         * bitti olarak işaretler. Bekleyen/kiralı dizinlerinin boş görünmesine bakılmaz: paketler
+         * dizinler arasında taşınırken iki ayrı listede de görünmeyebilir.
+         *
+         * @param sink Birleştirilen her ürünü alan tüketici
+         */
+        @Override
+        public void scrapeProducts(Consumer<Product> sink) {
+            try {
+                if (queue.isFinished()) {
+                    System.out.println("Önceki dağıtık tarama bitmiş, kuyruk temizleniyor");
+                    queue.reset();
+                }
+                resume();
+                Thread discovery = new Thread(this::discover, "distributed-discovery");
+                discovery.setDaemon(true);
+                discovery.start();
+
+                int maxRetries = ScraperConfig.maxRetries();
+                while (true) {
+                    queue.reap(maxRetries);
+                    boolean progress = merge(sink);
+                    if (discoveryDone && allSettled()) {
+                        // Bırakıldıktan sonra eski işçisinin yazdığı sonuçlar için son bir kez birleştirilir;
+                        // yeniden denenecek URL çıkmadıysa tarama biter
+                        if (!merge(sink)) {
+                            break;
+                        }
+                    } else if (!progress) {
+                        Thread.sleep(ScraperConfig.distributedPollMillis());
+                    }
+                }
+                if (discoveryError != null) {
+                    throw new IllegalStateException("Ürün URL'leri toplanamadı", discoveryError);
+                }
+                queue.finish();
+                System.out.println(queue.summary());
+                System.out.println("Dağıtık tarama: " + queued.size() + " URL, " + merged.size() + " ürün, "
+                        + duplicateResults + " tekrar eden sonuç atlandı, " + failedUrls + " URL kazınamadı");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * @return Kuyruğa konan tüm paketlerin sonucu birleştirildiyse ya da paket bırakıldıysa true
+         */
+        private boolean allSettled() throws IOException {
+            if (settled.containsAll(batches)) {
+                return true;
+            }
+            settled.addAll(queue.failedBatches());
+            return settled.containsAll(batches);
+        }
+
+        private void enqueue(List<String> urls, int attempt) throws IOException {
+            batches.add(queue.enqueue(urls, attempt));
+        }
+
+        /**
+         * Yeniden başlatılan koordinatör için kuyruğa konmuş ve birleştirilmiş URL'leri yükler.
+         */
+        private void resume() throws IOException {
+            String interrupted = queue.interruptedMerge();
+            if (interrupted != null && output != null) {
+                // Önceki koordinatör bir sonuç dosyasının ürünlerini yazarken öldü: o dosyadan yazılanlar
+                // geri alınır, dosya birleştirilmemiş sayıldığından aşağıda baştan birleştirilir
+                output.rollback(NdjsonSink.Position.parse(interrupted));
+            }
+            queue.forEachQueuedUrl(url -> queued.add(UrlNormalizer.normalize(url)));
+            for (long id = queue.lastBatchId(); id > 0; id--) {
+                batches.add(id);
+            }
+            for (Path result : queue.mergedResults()) {
+                settled.add(queue.batchOf(result));
+                for (Outcome outcome : read(result)) {
+                    String url = UrlNormalizer.normalize(outcome.url);
+                    queued.add(url);
+                    if (outcome.product != null) {
+                        merged.add(url);
+                    }
+                }
+            }
+            // Bitmiş ama henüz birleştirilmemiş paketlerin URL'leri de kuyruğa konmuş sayılır
+            for (Path result : queue.unmergedResults()) {
+                read(result).forEach(outcome -> queued.add(UrlNormalizer.normalize(outcome.url)));
+            }
+            if (!queued.isEmpty()) {
+                System.out.println("Dağıtık tarama kaldığı yerden sürüyor: " + queued.size() + " URL kuyrukta, "
+                        + merged.size() + " ürün birleştirilmiş");
+            }
+        }
+
+        /**
+         * Tarama sınırındaki yeni URL'leri paketler halinde kuyruğa koyar.
+         */
+        private void discover() {
+            int batchSize = ScraperConfig.distributedBatchSize();
+            List<String> batch = new ArrayList<>(batchSize);
+            try (CrawlFrontier frontier = site.newCrawlFrontier().start()) {
+                for (String url : frontier) {
+                    if (queued.add(UrlNormalizer.normalize(url))) {
+                        batch.add(url);
+                        if (batch.size() == batchSize) {
+                            enqueue(batch, 0);
+                            batch.clear();
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    enqueue(batch, 0);
+                }
+                System.out.println("Total Products Found: " + frontier.productCount()
+                        + " (" + frontier.listingPageCount() + " liste sayfası)");
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ürün URL'leri kuyruğa konamadı: " + e.getMessage());
+                discoveryError = e;
+            } finally {
+                discoveryDone = true;
+            }
+        }
+
+        /**
+         * Yeni sonuç dosyalarını birleştirir: ilk kez görülen URL'lerin ürünleri yazılır, hata verenler
+         * deneme hakkı kaldıysa bir sonraki deneme olarak yeniden kuyruğa konur. Her dosyanın
+         * birleştirmesi, çıktının başlangıç konumu günlüğe yazılarak başlar ve çıktı diske
+         * zorlandıktan sonra kapanır; arada ölen koordinatörün yazdıkları yeniden başlarken geri alınır.
+         *
+         * @return En az bir sonuç dosyası birleştirildiyse true
+         */
+        private boolean merge(Consumer<Product> sink) throws IOException {
+            List<Path> results = queue.unmergedResults();
+            for (Path result : results) {
+                if (output != null) {
+                    settle.run();
+                    queue.beginMerge(result, output.checkpoint().toString());
+                }
+                int attempt = queue.attemptOf(result) + 1;
+                List<String> retries = new ArrayList<>();
+                for (Outcome outcome : read(result)) {
+                    String url = UrlNormalizer.normalize(outcome.url);
+                    if (outcome.product != null) {
+                        if (merged.add(url)) {
+                            sink.accept(outcome.product);
+                        } else {
+                            duplicateResults++;
+                        }
+                    } else if (outcome.error != null && !merged.contains(url)) {
+                        if (attempt <= ScraperConfig.maxRetries()) {
+                            System.err.println("Hata veren URL yeniden kuyruğa konuyor (" + attempt + ". deneme): "
+                                    + outcome.url + " - " + outcome.error);
+                            retries.add(outcome.url);
+                        } else {
+                            failedUrls++;
+                            System.err.println("Error scraping product from URL: " + outcome.url);
+                            System.err.println("Error details: " + outcome.error);
+                        }
+                    }
+                }
+                int batchSize = ScraperConfig.distributedBatchSize();
+                for (int from = 0; from < retries.size(); from += batchSize) {
+                    enqueue(retries.subList(from, Math.min(retries.size(), from + batchSize)), attempt);
+                }
+                if (output != null) {
+                    settle.run();
+                    output.flush();
+                }
+                queue.markMerged(result);
+                settled.add(queue.batchOf(result));
+            }
+            return !results.isEmpty();
+        }
+
+        @Override
+        protected String siteName() {
+            return site.siteName();
+        }
+
+        @Override
+        public void close() {
+            site.close();
+            super.close();
+        }
+    }
+
+    /**
+     * Kuyruktan paket kiralayıp kazıyan işçiyi tarama bitene kadar çalıştırır.
+     *
+     * @param scraper URL'leri kazıyacak kazıyıcı; sonunda kapatılır
+     * @param queue Paylaşılan kuyruk
+     * @param worker İşçi adı
+     * @return Kazınan ürün sayısı
+     * @throws IOException Kuyruk okunamaz ya da sonuç yazılamazsa
+     * @throws InterruptedException Bekleme sırasında kesilirse
+     */
+    static long work(Scraper scraper, WorkQueue queue, String worker) throws IOException, InterruptedException {
+        long leaseMillis = ScraperConfig.distributedLeaseSeconds() * 1000L;
+        Map<Long, WorkQueue.Lease> held = new ConcurrentHashMap<>();
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(() -> held.values().forEach(lease -> {
+            try {
+                if (!queue.renew(lease, leaseMillis)) {
+                    System.err.println("Paket " + lease.getId() + " kirası kaybedildi, başka bir işçiye verilmiş olabilir");
+                }
+            } catch (IOException e) {
+                System.err.println("Kira yenilenemedi: " + e.getMessage());
+            }
+        }), leaseMillis / 3, leaseMillis / 3, TimeUnit.MILLISECONDS);
+
+        long products = 0;
+        long errors = 0;
+        int batches = 0;
+        try {
+            while (true) {
+                queue.reap(ScraperConfig.maxRetries());
+                WorkQueue.Lease lease = queue.claim(worker, leaseMillis);
+                if (lease == null) {
+                    if (queue.isFinished()) {
+                        break;
+                    }
+                    Thread.sleep(ScraperConfig.distributedPollMillis());
+                    continue;
+                }
+                held.put(lease.getId(), lease);
+                // Hatalar burada yakalanır: yeniden deneme süreç içinde değil, kuyruk üzerinden yapılır
+                List<Outcome> outcomes = scraper.scrapeConcurrently(lease.getUrls(), url -> {
+                    try {
+                        return new Outcome(url, scraper.scrapeProduct(url), null);
+                    } catch (Exception e) {
+                        return new Outcome(url, null, e.getMessage() != null ? e.getMessage() : e.toString());
+                    }
+                });
+                held.remove(lease.getId());
+                List<String> lines = new ArrayList<>(outcomes.size());
+                for (Outcome outcome : outcomes) {
+                    if (outcome.product != null) {
+                        products++;
+                    } else if (outcome.error != null) {
+                        errors++;
+                    }
+                    lines.add(GSON.toJson(outcome));
+                }
+                if (!queue.complete(lease, lines)) {
+                    System.err.println("Paket " + lease.getId() + " bitirilmeden önce kirası geri alınmıştı; sonuç yine de yazıldı");
+                }
+                batches++;
+                System.out.println(worker + ": paket " + lease.getId() + " bitti (" + lease.getUrls().size() + " URL)");
+            }
+        } finally {
+            heartbeat.shutdownNow();
+            scraper.close();
+        }
+        System.out.println(worker + ": " + batches + " paket, " + products + " ürün, " + errors + " hata");
+        return products;
+    }
+
+    private static List<Outcome> read(Path result) throws IOException {
+        List<Outcome> outcomes = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(result, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    outcomes.add(GSON.fromJson(line, Outcome.class));
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * @param target Kazıyıcı sınıfının tam adı ya da bir site tanımı (.json)
+     * @return Kazıyıcı üreten fabrika
+     */
+    private static Callable<? extends Scraper> factory(String target) {
+        if (target.endsWith(".json")) {
+            ExtractionPlan plan = SpecScraper.loadPlan(target);
+            return () -> new SpecScraper(plan);
+        }
+        Class<? extends Scraper> type;
+        try {
+            type = Class.forName(target).asSubclass(Scraper.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IllegalArgumentException("Kazıyıcı sınıfı bulunamadı: " + target, e);
+        }
+        return () -> type.getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * @return Ayarlardaki işçi adı ya da makine adı ve süreç numarası; dosya adına uygun hale getirilir
+     */
+    private static String workerName() {
+        String name = ScraperConfig.distributedWorker();
+        if (name.isEmpty()) {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                host = "worker";
+            }
+            name = host + "-" + ProcessHandle.current().pid();
+        }
+        return name.replaceAll("[^A-Za-z0-9_-]", "-");
+    }
+
+    /**
+     * Koordinatörü ya da bir işçiyi çalıştırır.
+     *
+     * @param args "coordinator" veya "worker", isteğe bağlı olarak kazıyıcı sınıfı ya da site tanımı
+     *             (varsayılan: com.emlaksiteniz.EmlakHttpScraper)
+     * @throws Exception Kazıyıcı oluşturulamazsa ya da kuyruk işlemleri başarısız olursa
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !args[0].equals("coordinator") && !args[0].equals("worker")) {
+            System.err.println("Kullanım: DistributedCrawl coordinator|worker [kazıyıcı sınıfı | site tanımı.json]");
+            System.exit(2);
+        }
+        Callable<? extends Scraper> factory = factory(args.length > 1 ? args[1] : DEFAULT_TARGET);
+        WorkQueue queue = WorkQueue.open(Path.of(ScraperConfig.distributedDirectory()));
+        if (args[0].equals("coordinator")) {
+            CrawlMetrics.expose();
+            try {
+                Scraper.crawl(new Coordinator(factory.call(), queue), Path.of(ScraperConfig.outputFile()), null, product -> { });
+            } finally {
+                CrawlMetrics.shutdown();
+            }
+        } else {
+            String worker = workerName();
+            System.out.println(worker + " işçisi " + ScraperConfig.distributedDirectory() + " kuyruğundan iş bekliyor");
+            work(factory.call(), queue, worker);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Kuyruk kiralarının süresi dolunca başka işçiye geçmesini, işçinin kirayı yenileyerek uzun paketleri
+ * elinde tutmasını, deneme hakkı biten paketlerin failed/ dizinine düşmesini ve koordinatörün, bir sonuç
+ * dosyasının ürünlerini çıktıya yazdıktan sonra ama dosyayı birleştirildi olarak işaretlemeden önce ölmesi
+ * durumunda yeniden başlayınca ürünleri ikinci kez yazmadığını doğrular.
+ */
+public class DistributedCrawlTest {
+    private static final Gson GSON = new Gson();
+    private static final String SEED = "http://site.test/liste";
+    private static final int PRODUCTS = 10;
+    private static final long SHORT_LEASE = 50;
+
+    private Path directory;
+
+    /**
+     * Liste sayfası ve ürün sayfaları bellekten gelen, ağa çıkmayan site.
+     */
+    private static class FixtureSite extends Scraper {
+        FixtureSite() {
+            super(false);
+        }
+
+        @Override
+        public List<Product> scrapeProducts() {
+            return List.of();
+        }
+
+        @Override
+        protected CrawlFrontier newCrawlFrontier() {
+            StringBuilder html = new StringBuilder("<html><body>");
+            for (int i = 1; i <= PRODUCTS; i++) {
+                html.append("<a class=\"product\" href=\"http://site.test/ilan-").append(i).append("\">ilan</a>");
+            }
+            String listing = html.append("</body></html>").toString();
+            return new CrawlFrontier(null, url -> HtmlPageSource.parse(listing, url), SEED,
+                    "//a[@class='product']", "//a[@class='next']", null);
+        }
+
+        @Override
+        protected Product scrapeProduct(String url) {
+            Product product = new Product();
+            product.setName(url);
+            return product;
+        }
+    }
+
+    /**
+     * Koordinatörün öldüğü anı temsil eder.
+     */
+    private static final class SimulatedCrash extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SimulatedCrash() {
+            super("koordinatör öldü");
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("distributed-crawl");
+        System.setProperty("scraper.distributed.batch", "3");
+        System.setProperty("scraper.distributed.pollMillis", "10");
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty("scraper.distributed.batch");
+        System.clearProperty("scraper.distributed.pollMillis");
+        System.clearProperty("scraper.distributed.leaseSeconds");
+        System.clearProperty("scraper.retry.max");
+    }
+
+    @Test
+    public void expiredLeaseIsReassignedAndLateResultIsKept() throws Exception {
+        WorkQueue queue = WorkQueue.open(directory);
+        long id = queue.enqueue(List.of("http://site.test/ilan-1"), 0);
+        WorkQueue.Lease stalled = queue.claim("w1", SHORT_LEASE);
+        assertEquals(id, stalled.getId());
+        assertNull("Kiralı paket ikinci kez verilmemeli", queue.claim("w2", SHORT_LEASE));
+        assertEquals("Süresi dolmamış kira geri alınmamalı", 0, queue.reap(2));
+
+        Thread.sleep(SHORT_LEASE * 2);
+        assertEquals(1, queue.reap(2));
+        WorkQueue.Lease retried = queue.claim("w2", SHORT_LEASE * 100);
+        assertNotNull(retried);
+        assertEquals(id, retried.getId());
+        assertEquals(1, retried.getAttempt());
+        assertEquals(List.of("http://site.test/ilan-1"), retried.getUrls());
+
+        // Takılan işçi kirasını yenileyemez ama geç yazdığı sonuç kaybolmaz
+        assertFalse(queue.renew(stalled, SHORT_LEASE));
+        assertFalse(queue.complete(stalled, List.of("{}")));
+        assertTrue(queue.complete(retried, List.of("{}")));
+        assertEquals(2, queue.unmergedResults().size());
+        assertEquals(0, queue.leasedCount());
+        assertEquals(0, queue.pendingCount());
+    }
+
+    @Test
+    public void renewedLeaseOutlivesItsOriginalExpiry() throws Exception {
+        WorkQueue queue = WorkQueue.open(directory);
+        queue.enqueue(List.of("http://site.test/ilan-1"), 0);
+        WorkQueue.Lease lease = queue.claim("w1", SHORT_LEASE * 2);
+        for (int i = 0; i < 6; i++) {
+            Thread.sleep(SHORT_LEASE);
+            assertTrue(queue.renew(lease, SHORT_LEASE * 2));
+            assertEquals("Yenilenen kira geri alınmamalı", 0, queue.reap(2));
+        }
+        assertNull(queue.claim("w2", SHORT_LEASE));
+        assertTrue(queue.complete(lease, List.of("{}")));
+    }
+
+    @Test
+    public void workerHeartbeatKeepsSlowBatchLeased() throws Exception {
+        // En kısa kira 3 sn; kazıma bundan uzun sürer, kira her saniye yenilenir
+        System.setProperty("scraper.distributed.leaseSeconds", "3");
+        WorkQueue queue = WorkQueue.open(directory);
+        queue.enqueue(List.of("http://site.test/ilan-1"), 0);
+        Scraper slow = new FixtureSite() {
+            @Override
+            protected Product scrapeProduct(String url) {
+                try {
+                    Thread.sleep(4_500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.scrapeProduct(url);
+            }
+        };
+        Thread worker = new Thread(() -> {
+            try {
+                DistributedCrawl.work(slow, WorkQueue.open(directory), "w1");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.setDaemon(true);
+        worker.start();
+
+        WorkQueue other = WorkQueue.open(directory);
+        while (other.unmergedResults().isEmpty()) {
+            assertEquals("İşçi çalışırken kirası geri alınmamalı", 0, other.reap(2));
+            assertTrue("İşçi paketi bitirmeden durdu", worker.isAlive());
+            Thread.sleep(100);
+        }
+        queue.finish();
+        worker.join(10_000);
+        List<Path> results = other.unmergedResults();
+        assertEquals(1, results.size());
+        assertEquals(0, other.attemptOf(results.get(0)));
+    }
+
+    @Test
+    public void batchIsMovedToFailedAfterRetryMax() throws Exception {
+        System.setProperty("scraper.retry.max", "1");
+        WorkQueue queue = WorkQueue.open(directory);
+        long id = queue.enqueue(List.of("http://site.test/ilan-1"), 0);
+        for (int attempt = 0; attempt <= ScraperConfig.maxRetries(); attempt++) {
+            WorkQueue.Lease lease = queue.claim("w" + attempt, SHORT_LEASE);
+            assertNotNull("Deneme " + attempt + " kiralanabilmeli", lease);
+            assertEquals(attempt, lease.getAttempt());
+            Thread.sleep(SHORT_LEASE * 2);
+            assertEquals(1, queue.reap(ScraperConfig.maxRetries()));
+        }
+        assertEquals(Set.of(id), queue.failedBatches());
+        assertEquals(0, queue.pendingCount());
+        assertEquals(0, queue.leasedCount());
+        assertNull(queue.claim("w9", SHORT_LEASE));
+        // Bırakılan paketin URL'leri, koordinatör yeniden başlarsa tekrar kuyruğa konmaz
+        List<String> queued = new ArrayList<>();
+        queue.forEachQueuedUrl(queued::add);
+        assertEquals(List.of("http://site.test/ilan-1"), queued);
+    }
+
+    @Test
+    public void restartedCoordinatorDoesNotRewriteInterruptedMerge() throws Exception {
+        Path queueDirectory = directory.resolve("queue");
+        Path output = directory.resolve("compiled.ndjson");
+        Thread worker = new Thread(() -> {
+            try {
+                DistributedCrawl.work(new FixtureSite(), WorkQueue.open(queueDirectory), "w1");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.setDaemon(true);
+        worker.start();
+
+        // İkinci sonuç dosyasının ortasında (beginMerge ile markMerged arasında) ölen koordinatör
+        WorkQueue firstQueue = WorkQueue.open(queueDirectory);
+        DistributedCrawl.Coordinator first = new DistributedCrawl.Coordinator(new FixtureSite(), firstQueue);
+        assertFalse(first.resumesOutput());
+        AtomicInteger written = new AtomicInteger();
+        try (NdjsonSink sink = new NdjsonSink(output, Long.MAX_VALUE, 0, 0, false)) {
+            first.outputOpened(sink, () -> { });
+            first.scrapeProducts(writingTo(sink, () -> {
+                if (written.incrementAndGet() == 5) {
+                    throw new SimulatedCrash();
+                }
+            }));
+            fail("Koordinatör ölmeliydi");
+        } catch (SimulatedCrash expected) {
+            // Beklenen
+        }
+        assertNotNull("Yarıda kalan birleştirme günlükte olmalı", firstQueue.interruptedMerge());
+        assertEquals(5, lines(output).size());
+
+        // Aynı kuyruk ve çıktıyla yeniden başlayan koordinatör
+        WorkQueue secondQueue = WorkQueue.open(queueDirectory);
+        DistributedCrawl.Coordinator second = new DistributedCrawl.Coordinator(new FixtureSite(), secondQueue);
+        assertTrue(second.resumesOutput());
+        try (NdjsonSink sink = new NdjsonSink(output, Long.MAX_VALUE, 0, 0, second.resumesOutput())) {
+            second.outputOpened(sink, () -> { });
+            second.scrapeProducts(writingTo(sink, () -> { }));
+        }
+        worker.join(10_000);
+
+        assertTrue(secondQueue.isFinished());
+        assertNull(secondQueue.interruptedMerge());
+        Map<String, Integer> counts = new HashMap<>();
+        for (String line : lines(output)) {
+            counts.merge(GSON.fromJson(line, Product.class).getName(), 1, Integer::sum);
+        }
+        assertEquals(PRODUCTS, counts.size());
+        counts.forEach((url, count) -> assertEquals("Çıktıda tekrar eden ürün: " + url, 1, (int) count));
+    }
+
+    private static Consumer<Product> writingTo(NdjsonSink sink, Runnable afterWrite) {
+        return product -> {
+            try {
+                sink.write(product);
+                sink.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            afterWrite.run();
+        };
+    }
+
+    private static List<String> lines(Path output) throws IOException {
+        return Files.readAllLines(output, StandardCharsets.UTF_8).stream().filter(line -> !line.isBlank()).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package core.scraper;
+
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Tek gidiş-dönüşlük sayfa okumasında çalıştırılacak bir XPath sorgusu.
+ * PageSource metodlarıyla birebir eşleşir: text, texts, attributes ve exists.
+ */
+public final class DomQuery {
+
+    /**
+     * Sorgunun döndüreceği değer türü.
+     */
+    public enum Kind {
+        TEXT,        // İlk eşleşmenin metni
+        TEXTS,       // Tüm eşleşmelerin metinleri
+        ATTRIBUTES,  // Tüm eşleşmelerin bir özniteliği
+        EXISTS       // Eşleşme var mı
+    }
+
+    private final Kind kind;
+    private final String xpath;
+    private final String attribute;   // Yalnızca ATTRIBUTES için
+
+    private DomQuery(Kind kind, String xpath, String attribute) {
+        this.kind = kind;
+        this.xpath = xpath;
+        this.attribute = attribute;
+    }
+
+    public static DomQuery text(String xpath) {
+        return new DomQuery(Kind.TEXT, xpath, null);
+    }
+
+    public static DomQuery texts(String xpath) {
+        return new DomQuery(Kind.TEXTS, xpath, null);
+    }
+
+    public static DomQuery attributes(String xpath, String attribute) {
+        return new DomQuery(Kind.ATTRIBUTES, xpath, attribute);
+    }
+
+    public static DomQuery exists(String xpath) {
+        return new DomQuery(Kind.EXISTS, xpath, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getXpath() {
+        return xpath;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Sorguyu tarayıcıdaki betiğe argüman olarak geçirilecek biçime çevirir.
+     *
+     * @return [tür, xpath, öznitelik] listesi
+     */
+    List<String> toScriptArgument() {
+        return List.of(kind.name(), xpath, attribute == null ? "" : attribute);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DomQuery other)) {
+            return false;
+        }
+        return kind == other.kind && xpath.equals(other.xpath) && Objects.equals(attribute, other.attribute);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, xpath, attribute);
+    }
+}
@@ -0,0 +1,162 @@
+package core.scraper;
+
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sayfadaki tüm alanları tek bir enjekte edilmiş betikle okuyan PageSource.
+ * Her getText()/getAttribute() için ayrı WebDriver isteği yapmak yerine
+ * sorgu listesi tarayıcıya bir kez gönderilir ve sonuçlar tek yanıtta döner.
+ * Listede olmayan bir sorgu istenirse normal WebDriver çağrılarına düşülür.
+ */
+public class DomSnapshot implements PageSource {
+    // Sorguları document.evaluate ile çalıştırır; isteğe bağlı olarak bir sekmeye tıklayıp
+    // ikinci sorgu grubunu tıklamadan sonra okur. Sonuç: [önceki sonuçlar, sonraki sonuçlar, tıklandı mı]
+    private static final String EXTRACTION_SCRIPT = """
+            var queries = arguments[0], clickXpath = arguments[1], afterClick = arguments[2];
+            function all(xpath) {
+              var r = document.evaluate(xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+              var nodes = [];
+              for (var i = 0; i < r.snapshotLength; i++) nodes.push(r.snapshotItem(i));
+              return nodes;
+            }
+            function text(el) {
+              var t = el.innerText !== undefined ? el.innerText : el.textContent;
+              return (t || '').trim();
+            }
+            function attr(el, name) {
+              if (!el.hasAttribute(name)) return null;
+              var p = el[name];
+              return typeof p === 'string' ? p : el.getAttribute(name);
+            }
+            function run(list) {
+              var out = [];
+              for (var i = 0; i < list.length; i++) {
+                var q = list[i];
+                try {
+                  var els = all(q[1]);
+                  if (q[0] === 'TEXT') out.push(els.length ? text(els[0]) : '');
+                  else if (q[0] === 'TEXTS') out.push(els.map(text));
+                  else if (q[0] === 'ATTRIBUTES') out.push(els.map(function (e) { return attr(e, q[2]); }));
+                  else out.push(els.length > 0);
+                } catch (e) {
+                  out.push(null);
+                }
+              }
+              return out;
+            }
+            var before = run(queries);
+            var clicked = false;
+            if (clickXpath) {
+              var tab = all(clickXpath);
+              if (tab.length) { tab[0].click(); clicked = true; }
+            }
+            return [before, run(afterClick), clicked];
+            """;
+
+    private final Map<DomQuery, Object> results = new HashMap<>();
+    private final PageSource fallback;
+    private final boolean clicked;
+
+    private DomSnapshot(PageSource fallback, boolean clicked) {
+        this.fallback = fallback;
+        this.clicked = clicked;
+    }
+
+    /**
+     * Verilen sorguları tek bir betik çağrısıyla çalıştırır.
+     *
+     * @param driver Sayfanın açık olduğu tarayıcı
+     * @param queries Okunacak sorgular
+     * @return Sonuçları içeren anlık görüntü
+     */
+    public static DomSnapshot capture(WebDriver driver, List<DomQuery> queries) {
+        return capture(driver, queries, null, List.of());
+    }
+
+    /**
+     * Sorguları tek bir betik çağrısıyla çalıştırır; ilk grup okunduktan sonra
+     * clickXpath ile bulunan elemente (örn: bir sekme başlığı) tıklanır ve ikinci grup okunur.
+     *
+     * @param driver Sayfanın açık olduğu tarayıcı
+     * @param queries Tıklamadan önce okunacak sorgular
+     * @param clickXpath Tıklanacak elementin XPath'i (null ise tıklanmaz)
+     * @param afterClickQueries Tıklamadan sonra okunacak sorgular
+     * @return Sonuçları içeren anlık görüntü
+     */
+    @SuppressWarnings("unchecked")
+    public static DomSnapshot capture(WebDriver driver, List<DomQuery> queries,
+                                      String clickXpath, List<DomQuery> afterClickQueries) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(EXTRACTION_SCRIPT,
+                toScriptArgument(queries), clickXpath, toScriptArgument(afterClickQueries));
+        List<Object> response = (List<Object>) raw;
+
+        DomSnapshot snapshot = new DomSnapshot(new DriverPageSource(driver), Boolean.TRUE.equals(response.get(2)));
+        snapshot.store(queries, (List<Object>) response.get(0));
+        snapshot.store(afterClickQueries, (List<Object>) response.get(1));
+        return snapshot;
+    }
+
+    /**
+     * @return Betik tıklanacak elementi bulup tıkladıysa true
+     */
+    public boolean isClicked() {
+        return clicked;
+    }
+
+    @Override
+    public String text(String xpath) {
+        Object value = results.get(DomQuery.text(xpath));
+        return value instanceof String text ? text : fallback.text(xpath);
+    }
+
+    @Override
+    public List<String> texts(String xpath) {
+        List<String> values = stringList(results.get(DomQuery.texts(xpath)));
+        return values != null ? values : fallback.texts(xpath);
+    }
+
+    @Override
+    public List<String> attributes(String xpath, String attribute) {
+        List<String> values = stringList(results.get(DomQuery.attributes(xpath, attribute)));
+        return values != null ? values : fallback.attributes(xpath, attribute);
+    }
+
+    @Override
+    public boolean exists(String xpath) {
+        Object value = results.get(DomQuery.exists(xpath));
+        return value instanceof Boolean exists ? exists : fallback.exists(xpath);
+    }
+
+    private void store(List<DomQuery> queries, List<Object> values) {
+        for (int i = 0; i < queries.size() && i < values.size(); i++) {
+            if (values.get(i) != null) {
+                results.put(queries.get(i), values.get(i));
+            }
+        }
+    }
+
+    private static List<List<String>> toScriptArgument(List<DomQuery> queries) {
+        List<List<String>> argument = new ArrayList<>(queries.size());
+        for (DomQuery query : queries) {
+            argument.add(query.toScriptArgument());
+        }
+        return argument;
+    }
+
+    private static List<String> stringList(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(list.size());
+        for (Object item : list) {
+            values.add(item == null ? null : item.toString());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,51 @@
+package core.scraper;
+
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tarayıcıda açık olan sayfayı WebDriver çağrılarıyla okuyan PageSource.
+ */
+public class DriverPageSource implements PageSource {
+    private final WebDriver driver;
+
+    public DriverPageSource(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    public String text(String xpath) {
+        try {
+            return driver.findElement(By.xpath(xpath)).getText().trim();
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    @Override
+    public List<String> texts(String xpath) {
+        List<String> values = new ArrayList<>();
+        for (WebElement element : driver.findElements(By.xpath(xpath))) {
+            values.add(element.getText());
+        }
+        return values;
+    }
+
+    @Override
+    public List<String> attributes(String xpath, String attribute) {
+        List<String> values = new ArrayList<>();
+        for (WebElement element : driver.findElements(By.xpath(xpath))) {
+            values.add(element.getAttribute(attribute));
+        }
+        return values;
+    }
+
+    @Override
+    public boolean exists(String xpath) {
+        return !driver.findElements(By.xpath(xpath)).isEmpty();
+    }
+}
@@ -0,0 +1,113 @@
+package core.scraper;
+
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Chrome sürücüsünün (chromedriver) yolunu bulan ve sonucu yerel bir dosyada saklayan sınıf.
+ * WebDriverManager her çalışmada sürüm çözümlemesi yapar ve gerekirse ağa çıkar; bu sınıf
+ * çözülen yolu bir kez kaydeder, sonraki çalışmalarda dosyadaki sürücü hâlâ duruyorsa
+ * webdriver.chrome.driver özelliğini doğrudan ayarlayıp WebDriverManager'ı hiç çağırmaz.
+ * Chrome güncellenip sürücüyü reddederse invalidate() ile kayıt silinir ve yeniden çözülür.
+ */
+public final class DriverResolver {
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final int OFFLINE_TTL_SECONDS = Integer.MAX_VALUE;  // Çevrimdışıyken WebDriverManager önbelleği hiç eskimez
+
+    private static boolean resolved;
+
+    private DriverResolver() {
+    }
+
+    /**
+     * Sürücü yolunu süreç başına bir kez ayarlar: önce elle verilen webdriver.chrome.driver,
+     * sonra önbellek dosyası, en son WebDriverManager denenir.
+     */
+    public static synchronized void resolve() {
+        if (resolved) {
+            return;
+        }
+        long start = CrawlMetrics.start();
+        if (System.getProperty(DRIVER_PROPERTY) == null) {
+            Path cache = Path.of(ScraperConfig.driverCacheFile());
+            String cached = readCache(cache);
+            if (cached != null) {
+                System.setProperty(DRIVER_PROPERTY, cached);
+            } else {
+                resolveWithManager(cache);
+            }
+        }
+        resolved = true;
+        CrawlMetrics.time("driver_resolve", start);
+    }
+
+    /**
+     * Kaydedilen sürücüyü geçersiz sayar; bir sonraki resolve() WebDriverManager ile yeniden çözer.
+     * Yalnızca bu sınıfın ayarladığı yol temizlenir.
+     */
+    public static synchronized void invalidate() {
+        Path cache = Path.of(ScraperConfig.driverCacheFile());
+        String cached = readCache(cache);
+        if (cached != null && cached.equals(System.getProperty(DRIVER_PROPERTY))) {
+            System.clearProperty(DRIVER_PROPERTY);
+        }
+        try {
+            Files.deleteIfExists(cache);
+        } catch (IOException e) {
+            System.err.println("Sürücü önbelleği silinemedi: " + e.getMessage());
+        }
+        resolved = false;
+    }
+
+    private static void resolveWithManager(Path cache) {
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        if (ScraperConfig.driverOffline()) {
+            manager.ttl(OFFLINE_TTL_SECONDS).ttlBrowsers(OFFLINE_TTL_SECONDS);
+        }
+        manager.setup();
+        String path = manager.getDownloadedDriverPath();
+        if (path == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty("driver", path);
+        properties.setProperty("version", String.valueOf(manager.getDownloadedDriverVersion()));
+        properties.setProperty("resolvedAt", String.valueOf(System.currentTimeMillis()));
+        try {
+            Files.createDirectories(cache.toAbsolutePath().getParent());
+            Path temp = cache.resolveSibling(cache.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Chrome sürücüsü önbelleği");
+            }
+            Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            System.out.println("Chrome sürücüsü " + properties.getProperty("version") + " önbelleğe alındı: " + path);
+        } catch (IOException e) {
+            System.err.println("Sürücü önbelleği yazılamadı: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Önbellekteki sürücü yolu; dosya yoksa, okunamazsa ya da sürücü silinmişse null
+     */
+    private static String readCache(Path cache) {
+        if (!Files.isRegularFile(cache)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(cache, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            return null;
+        }
+        String driver = properties.getProperty("driver");
+        return driver != null && Files.isExecutable(Path.of(driver)) ? driver : null;
+    }
+}
@@ -0,0 +1,531 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.ListingRecord;
+import com.emlaksiteniz.Product;
+import com.emlaksiteniz.ProductImage;
+import com.emlaksiteniz.ProductNormalizer;
+import com.google.gson.Gson;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Aynı mülkün farklı ajanslarca ya da farklı sitelerde yayımlanmış ilanlarını bulan artımlı dedektör.
+ * Her ilan için iki MinHash imzası çıkarılır: başlık ve açıklamanın kelime üçlülerinden (metin) ve
+ * fotoğrafların içerik özeti ya da dosya yolundan (görsel). İmzalar bantlara bölünüp yerelliğe duyarlı
+ * özetlemeyle (LSH) kovalara konur; yalnızca en az bir bandı çakışan ilanlar karşılaştırıldığı için ilan
+ * başına iş, toplam ilan sayısından bağımsızdır. Aday çiftin tahmini Jaccard benzerliği eşiği geçer,
+ * normalize edilmiş konumları, fiyatları ve fiyatların para birimleri çelişmezse ilanlar aynı kümeye
+ * birleştirilir. Konum ve fiyat kümelere eklenmez; eklenseydi ortak jetonlar az fotoğraflı farklı
+ * ilanların benzerliğini eşiğin üstüne taşırdı.
+ * Küme kimliği kümenin ilk gelen ilanının sırasından türetilir (dup-&lt;sıra&gt;); iki küme birleşirse
+ * eskisinin kimliği korunur. Durum dosyaya kaydedildiği için kimlikler çalışmalar arasında da değişmez.
+ */
+public class DuplicateDetector {
+    private static final Gson GSON = new Gson();
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+    private static final int ROWS = 4;                      // Bant başına imza satırı
+    private static final int BANDS = 16;                    // Kanal başına bant; eşik ≈ (1/16)^(1/4) ≈ 0.5
+    private static final int HASHES = ROWS * BANDS;
+    private static final int SHINGLE = 3;                   // Metin için kelime üçlüleri
+    private static final int MAX_BUCKET_CHECKS = 64;        // Kova başına karşılaştırılan en yeni ilan sayısı
+    private static final double PRICE_TOLERANCE = 0.10;     // Fiyatlar bu orandan fazla farklıysa aynı mülk sayılmaz
+    private static final long[] SEEDS = new SplittableRandom(0x5eed_d0_0bL).longs(HASHES).toArray();
+    private static DuplicateDetector shared;
+
+    private enum Channel { TEXT, IMAGES }
+
+    /**
+     * Dosyada satır başına bir kayıt olarak saklanan ilan.
+     */
+    private static class Listing {
+        private String key;       // Site ve ilan numarası
+        private int seq;          // Geliş sırası
+        private int root;         // Kaydedilirken kümenin kökü
+        private String text;      // Metin imzası (Base64, 32 bitlik MinHash değerleri)
+        private String images;    // Görsel imzası (yoksa null)
+        private String place;     // Normalize konum (ilçe/il)
+        private long price;       // Ayrıştırılmış fiyat (bilinmiyorsa 0)
+        private ListingRecord.Currency currency;   // Fiyatın para birimi (eski kayıtlarda null)
+
+        transient int[] textSignature;
+        transient int[] imageSignature;
+
+        int[] signature(Channel channel) {
+            return channel == Channel.TEXT ? textSignature : imageSignature;
+        }
+    }
+
+    private final Path file;
+    private final double threshold;
+    private final List<Listing> listings = new ArrayList<>();
+    private final Map<String, Listing> byKey = new HashMap<>();
+    private final Map<Long, List<Integer>> buckets = new HashMap<>();   // Kanal+bant+satırlar -> ilan sıraları
+    private int[] parent = new int[1024];
+    private long comparisons;
+    private long merges;
+
+    /**
+     * @param file Durumun kaydedileceği dosya (null: kaydedilmez)
+     * @param threshold Aynı mülk sayılmak için gereken en düşük tahmini Jaccard benzerliği (0-1)
+     */
+    public DuplicateDetector(Path file, double threshold) {
+        this.file = file;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Ayarları ScraperConfig'ten okuyarak süreç genelinde paylaşılan dedektörü döndürür; böylece
+     * servis kipinde farklı sitelerin ilanları da birbiriyle karşılaştırılır.
+     *
+     * @return Paylaşılan dedektör ya da kapalıysa null
+     * @throws IOException Kayıtlı durum okunamazsa
+     */
+    public static synchronized DuplicateDetector shared() throws IOException {
+        if (shared == null && ScraperConfig.dedupEnabled()) {
+            shared = load(Path.of(ScraperConfig.dedupIndexFile()), ScraperConfig.dedupThresholdPercent() / 100.0);
+        }
+        return shared;
+    }
+
+    /**
+     * Kaydedilmiş durumu yükler; dosya yoksa boş bir dedektör döner. Kümeler yeniden hesaplanmaz,
+     * kaydedildikleri gibi kurulur.
+     *
+     * @param file Durum dosyası
+     * @param threshold Benzerlik eşiği (0-1)
+     * @return Yüklenen dedektör
+     * @throws IOException Dosya okunamazsa
+     */
+    public static DuplicateDetector load(Path file, double threshold) throws IOException {
+        DuplicateDetector detector = new DuplicateDetector(file, threshold);
+        if (Files.exists(file)) {
+            List<Listing> loaded = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        Listing listing = GSON.fromJson(line, Listing.class);
+                        listing.textSignature = decode(listing.text);
+                        listing.imageSignature = decode(listing.images);
+                        loaded.add(listing);
+                    }
+                }
+            }
+            loaded.sort((a, b) -> Integer.compare(a.seq, b.seq));
+            for (Listing listing : loaded) {
+                int seq = detector.listings.size();
+                // Kayıtlar boşluksuz sıralarla yazılır; bozuk bir dosyada kök bulunamazsa ilan tek başına kalır
+                listing.root = listing.seq == seq && listing.root <= seq ? listing.root : seq;
+                listing.seq = seq;
+                detector.append(listing);
+                detector.parent[seq] = listing.root;
+                detector.index(listing);
+            }
+            System.out.println("Tekrar dizini yüklendi: " + detector.listings.size() + " ilan, "
+                    + detector.clusterCount() + " çok ilanlı küme");
+        }
+        return detector;
+    }
+
+    /**
+     * İlanı dizine ekler (ya da aynı anahtarla daha önce eklendiyse günceller) ve kümesini döndürür.
+     *
+     * @param site İlanın geldiği site (ilan numaraları yalnızca site içinde tekildir)
+     * @param product İlan
+     * @return İlanın küme kimliği
+     */
+    public synchronized String add(String site, Product product) {
+        String key = site + ":" + listingNumber(product);
+        Listing listing = byKey.get(key);
+        int[] text = signature(textTokens(product));
+        int[] images = signature(imageTokens(product));
+        String place = place(product.getLocation());
+        long price = price(product.getPrice());
+        ListingRecord.Currency currency = ProductNormalizer.parseCurrency(product.getPrice());
+
+        if (listing != null) {
+            if (Arrays.equals(text, listing.textSignature) && Arrays.equals(images, listing.imageSignature)
+                    && price == listing.price && currency == listing.currency && Objects.equals(place, listing.place)) {
+                return clusterId(listing.seq);
+            }
+            // Değişen ilan eski kovalarından çıkarılıp yeni imzasıyla yeniden eşleştirilir; küme korunur
+            unindex(listing);
+        } else {
+            listing = new Listing();
+            listing.key = key;
+            listing.seq = listings.size();
+            append(listing);
+            parent[listing.seq] = listing.seq;
+        }
+        listing.textSignature = text;
+        listing.imageSignature = images;
+        listing.place = place;
+        listing.price = price;
+        listing.currency = currency;
+
+        Set<Integer> checked = new HashSet<>();
+        for (Channel channel : Channel.values()) {
+            int[] signature = listing.signature(channel);
+            if (signature == null) {
+                continue;
+            }
+            for (int band = 0; band < BANDS; band++) {
+                List<Integer> bucket = buckets.get(bandKey(channel, band, signature));
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = bucket.size() - 1, seen = 0; i >= 0 && seen < MAX_BUCKET_CHECKS; i--, seen++) {
+                    int other = bucket.get(i);
+                    if (other != listing.seq && checked.add(other) && find(other) != find(listing.seq)
+                            && isDuplicate(listing, listings.get(other))) {
+                        union(listing.seq, other);
+                    }
+                }
+            }
+        }
+        index(listing);
+        return clusterId(listing.seq);
+    }
+
+    /**
+     * @param site İlanın sitesi
+     * @param product İlan
+     * @return İlanın küme kimliği ya da dizinde yoksa null
+     */
+    public synchronized String clusterOf(String site, Product product) {
+        Listing listing = byKey.get(site + ":" + listingNumber(product));
+        return listing == null ? null : clusterId(listing.seq);
+    }
+
+    /**
+     * @return Birden fazla ilan içeren kümeler (küme kimliği -> site:ilan anahtarları)
+     */
+    public synchronized Map<String, List<String>> clusters() {
+        Map<String, List<String>> clusters = new LinkedHashMap<>();
+        for (Listing listing : listings) {
+            clusters.computeIfAbsent(clusterId(listing.seq), id -> new ArrayList<>()).add(listing.key);
+        }
+        clusters.values().removeIf(keys -> keys.size() < 2);
+        return clusters;
+    }
+
+    /**
+     * @return Dizindeki ilan sayısı
+     */
+    public synchronized int size() {
+        return listings.size();
+    }
+
+    /**
+     * @return İlan, küme ve karşılaştırma sayılarının okunabilir özeti
+     */
+    public synchronized String summary() {
+        return String.format("Tekrar tespiti: %d ilan, %d çok ilanlı küme, %d aday karşılaştırıldı, %d birleştirme",
+                listings.size(), clusterCount(), comparisons, merges);
+    }
+
+    /**
+     * Durumu önce geçici dosyaya yazar, sonra asıl dosyanın yerine taşır.
+     *
+     * @throws IOException Yazma başarısız olursa
+     */
+    public synchronized void save() throws IOException {
+        if (file == null) {
+            return;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Listing listing : listings) {
+                listing.root = find(listing.seq);
+                listing.text = encode(listing.textSignature);
+                listing.images = encode(listing.imageSignature);
+                writer.write(GSON.toJson(listing));
+                writer.newLine();
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean isDuplicate(Listing a, Listing b) {
+        comparisons++;
+        if (a.place != null && b.place != null && !a.place.equals(b.place)) {
+            return false;
+        }
+        // Farklı para birimlerindeki fiyatlar karşılaştırılamaz; kur bilinmediği için aynı mülk sayılmaz
+        if (a.price > 0 && b.price > 0 && !sameCurrency(a.currency, b.currency)) {
+            return false;
+        }
+        if (a.price > 0 && b.price > 0
+                && Math.abs(a.price - b.price) > PRICE_TOLERANCE * Math.max(a.price, b.price)) {
+            return false;
+        }
+        return Math.max(similarity(a.textSignature, b.textSignature),
+                similarity(a.imageSignature, b.imageSignature)) >= threshold;
+    }
+
+    private static boolean sameCurrency(ListingRecord.Currency a, ListingRecord.Currency b) {
+        return a == null || b == null || a == ListingRecord.Currency.UNKNOWN || b == ListingRecord.Currency.UNKNOWN || a == b;
+    }
+
+    /**
+     * @return İki imzanın aynı olan satırlarının oranı (Jaccard benzerliğinin tahmini)
+     */
+    private static double similarity(int[] a, int[] b) {
+        if (a == null || b == null) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    private void append(Listing listing) {
+        listings.add(listing);
+        byKey.put(listing.key, listing);
+        if (listing.seq >= parent.length) {
+            parent = Arrays.copyOf(parent, parent.length * 2);
+        }
+    }
+
+    private void index(Listing listing) {
+        for (Channel channel : Channel.values()) {
+            int[] signature = listing.signature(channel);
+            if (signature != null) {
+                for (int band = 0; band < BANDS; band++) {
+                    buckets.computeIfAbsent(bandKey(channel, band, signature), key -> new ArrayList<>()).add(listing.seq);
+                }
+            }
+        }
+    }
+
+    private void unindex(Listing listing) {
+        for (Channel channel : Channel.values()) {
+            int[] signature = listing.signature(channel);
+            if (signature != null) {
+                for (int band = 0; band < BANDS; band++) {
+                    List<Integer> bucket = buckets.get(bandKey(channel, band, signature));
+                    if (bucket != null) {
+                        bucket.remove(Integer.valueOf(listing.seq));
+                    }
+                }
+            }
+        }
+    }
+
+    private int find(int seq) {
+        int root = seq;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[seq] != root) {
+            int next = parent[seq];
+            parent[seq] = root;
+            seq = next;
+        }
+        return root;
+    }
+
+    /**
+     * Kümeleri birleştirir; kimliğin kararlı kalması için daha eski (küçük sıralı) kök korunur.
+     */
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+            merges++;
+        }
+    }
+
+    private String clusterId(int seq) {
+        return "dup-" + find(seq);
+    }
+
+    private int clusterCount() {
+        Map<Integer, Integer> sizes = new HashMap<>();
+        for (Listing listing : listings) {
+            sizes.merge(find(listing.seq), 1, Integer::sum);
+        }
+        return (int) sizes.values().stream().filter(size -> size > 1).count();
+    }
+
+    /**
+     * Başlık ve açıklamanın kelime üçlüleri.
+     */
+    private static Set<Long> textTokens(Product product) {
+        String[] words = normalize((nullToEmpty(product.getName()) + " " + nullToEmpty(product.getExplanation())))
+                .split(" ");
+        Set<Long> tokens = new HashSet<>();
+        if (words.length == 1 && words[0].isEmpty()) {
+            return tokens;
+        }
+        if (words.length < SHINGLE) {
+            tokens.add(hash("t:" + String.join(" ", words)));
+        }
+        for (int i = 0; i + SHINGLE <= words.length; i++) {
+            tokens.add(hash("t:" + String.join(" ", Arrays.copyOfRange(words, i, i + SHINGLE))));
+        }
+        return tokens;
+    }
+
+    /**
+     * Fotoğrafların içerik özetleri (indirildiyse) ve alan adından bağımsız dosya yolları.
+     */
+    private static Set<Long> imageTokens(Product product) {
+        Set<Long> tokens = new HashSet<>();
+        if (product.getImages() != null) {
+            for (ProductImage image : product.getImages()) {
+                if (image != null && image.getSha256() != null) {
+                    tokens.add(hash("s:" + image.getSha256()));
+                }
+            }
+        }
+        if (product.getImageUrl() != null) {
+            for (String url : product.getImageUrl()) {
+                if (url != null && !url.isBlank()) {
+                    String path = url.replaceFirst("^[a-zA-Z]+://[^/]+", "").replaceFirst("[?#].*$", "");
+                    tokens.add(hash("u:" + path.toLowerCase(Locale.ROOT)));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @return Her tohum için kümedeki en küçük karma değeri; küme boşsa null
+     */
+    private static int[] signature(Set<Long> tokens) {
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long token : tokens) {
+            for (int i = 0; i < HASHES; i++) {
+                int value = (int) (mix(token ^ SEEDS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static long bandKey(Channel channel, int band, int[] signature) {
+        long key = mix(channel.ordinal() * 31L + band);
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = mix(key ^ signature[row]);
+        }
+        return key;
+    }
+
+    /**
+     * Konumun son iki parçası (genellikle ilçe ve il); adres ayrıntısı siteden siteye değiştiği için atılır.
+     */
+    static String place(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        String[] parts = location.split(",");
+        List<String> kept = new ArrayList<>();
+        for (int i = Math.max(0, parts.length - 2); i < parts.length; i++) {
+            String part = normalize(parts[i].replaceAll("\\d+", ""));
+            if (!part.isEmpty()) {
+                kept.add(part);
+            }
+        }
+        return kept.isEmpty() ? null : String.join("/", kept);
+    }
+
+    static long price(String text) {
+        if (text == null) {
+            return 0;
+        }
+        String digits = text.replaceAll("[.,]\\d{1,2}(?!\\d)", "").replaceAll("\\D", "");
+        if (digits.isEmpty() || digits.length() > 15) {
+            return 0;
+        }
+        return Long.parseLong(digits);
+    }
+
+    /**
+     * @param product Ürün
+     * @return İlan numarası; yoksa başlık ve konumdan türetilen "#" önekli bir anahtar
+     */
+    static String listingNumber(Product product) {
+        String number = product.getAdvertisementNumber();
+        if (number != null && !number.isBlank()) {
+            return number.strip();
+        }
+        // Numarası olmayan ilan başlık ve konumuyla anahtarlanır
+        return "#" + Long.toHexString(hash(nullToEmpty(product.getName()) + "|" + nullToEmpty(product.getLocation())));
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(TURKISH).replaceAll("[^\\p{L}\\p{N}]+", " ").strip();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * 64 bitlik FNV-1a ve ardından splitmix64 karıştırması.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String encode(int[] signature) {
+        if (signature == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    private static int[] decode(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+        int[] signature = new int[buffer.remaining() / Integer.BYTES];
+        buffer.asIntBuffer().get(signature);
+        return signature;
+    }
+}
@@ -0,0 +1,376 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.xml.xpath.XPathExpressionException;
+
+/**
+ * Bir SiteSpec'in doğrulanıp derlenmiş, sayfa başına tekrar tekrar çalıştırılan hali.
+ * Etiket şablonları XPath'e bir kez açılır, her XPath derlenerek denetlenir, tarayıcıda tek
+ * betikle okunacak DomQuery listeleri ve metrik adları önceden kurulur, alanların yazılacağı
+ * Product alanları da bir kez çözülür. Sayfa başına iş yalnızca sorguların çalıştırılmasıdır.
+ * load() ile okunan planlar dosya değişmedikçe süreç boyunca önbellekte tutulur.
+ */
+public final class ExtractionPlan {
+    private static final String LABEL_PLACEHOLDER = "{label}";
+    private static final String ORIGIN_PLACEHOLDER = "{origin}";
+    // Konum -> {dosyanın değişme zamanı, plan}; sınıf yolundaki tanımlar için zaman null
+    private static final Map<String, Cached> CACHE = new ConcurrentHashMap<>();
+
+    private record Cached(FileTime modified, ExtractionPlan plan) {
+    }
+
+    /**
+     * Tek bir alanın derlenmiş okuma adımı.
+     */
+    private record Step(String name, Field target, SiteSpec.FieldType type, String xpath, String attribute, int skip) {
+    }
+
+    private final SiteSpec spec;
+    private final List<Step> steps;
+    private final List<DomQuery> queries;          // Tıklamadan önce tek betikte okunanlar
+    private final String clickXpath;               // Tarayıcıda tıklanacak sekme (yoksa null)
+    private final List<DomQuery> afterClickQueries;
+    private final Map<String, String> fieldNames;  // XPath -> alan adı (metrikler için)
+    private final List<String> readyXpaths;
+
+    private ExtractionPlan(SiteSpec spec, List<Step> steps, String clickXpath, List<String> readyXpaths) {
+        this.spec = spec;
+        this.steps = List.copyOf(steps);
+        this.clickXpath = clickXpath;
+        this.readyXpaths = List.copyOf(readyXpaths);
+
+        List<DomQuery> before = new ArrayList<>();
+        List<DomQuery> after = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        for (Step step : steps) {
+            DomQuery query = switch (step.type) {
+                case TEXT -> step.attribute == null ? DomQuery.text(step.xpath) : DomQuery.attributes(step.xpath, step.attribute);
+                case LIST -> step.attribute == null ? DomQuery.texts(step.xpath) : DomQuery.attributes(step.xpath, step.attribute);
+                case MAP -> DomQuery.texts(step.xpath);
+            };
+            // Tıklamayla yüklenen tablolar yalnızca tıklamadan sonra okunur
+            if (step.type == SiteSpec.FieldType.MAP && clickXpath != null) {
+                after.add(query);
+            } else {
+                before.add(query);
+            }
+            names.put(step.xpath, step.name);
+        }
+        this.queries = List.copyOf(before);
+        this.afterClickQueries = List.copyOf(after);
+        this.fieldNames = Map.copyOf(names);
+    }
+
+    /**
+     * Tanımı okuyup derler; aynı konum için dosya değişmediyse önbellekteki plan döner.
+     *
+     * @param location Tanım dosyasının yolu ya da sınıf yolundaki kaynak adı
+     * @return Derlenmiş plan
+     * @throws IOException Tanım okunamazsa
+     * @throws IllegalArgumentException Tanım geçersizse
+     */
+    public static ExtractionPlan load(String location) throws IOException {
+        Path path = Path.of(location);
+        FileTime modified = Files.isRegularFile(path) ? Files.getLastModifiedTime(path) : null;
+        Cached cached = CACHE.get(location);
+        if (cached != null && (modified == null ? cached.modified == null : modified.equals(cached.modified))) {
+            return cached.plan;
+        }
+        ExtractionPlan plan = compile(SiteSpec.read(location));
+        CACHE.put(location, new Cached(modified, plan));
+        return plan;
+    }
+
+    /**
+     * Tanımı doğrular ve derler. Tüm hatalar tek seferde raporlanır.
+     *
+     * @param spec Derlenecek tanım
+     * @return Derlenmiş plan
+     * @throws IllegalArgumentException Tanım geçersizse
+     */
+    public static ExtractionPlan compile(SiteSpec spec) {
+        List<String> errors = new ArrayList<>();
+        require(errors, spec.getName(), "name");
+        require(errors, spec.getStartUrl(), "startUrl");
+        checkXpath(errors, "productLinks", spec.getProductLinks(), true);
+        checkXpath(errors, "pagination", spec.getPagination(), false);
+        if (spec.getStartUrl() != null) {
+            try {
+                URI start = URI.create(spec.getStartUrl());
+                if (start.getHost() == null) {
+                    errors.add("startUrl mutlak bir adres olmalı: " + spec.getStartUrl());
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add("startUrl geçersiz: " + e.getMessage());
+            }
+        }
+        if (spec.getSitemapProductUrl() != null) {
+            try {
+                Pattern.compile(spec.getSitemapProductUrl().replace(ORIGIN_PLACEHOLDER, "https://example.com"));
+            } catch (PatternSyntaxException e) {
+                errors.add("sitemapProductUrl geçersiz: " + e.getDescription());
+            }
+        }
+        String labelLocator = spec.getLabelLocator();
+        if (labelLocator != null && !labelLocator.contains(LABEL_PLACEHOLDER)) {
+            errors.add("labelLocator " + LABEL_PLACEHOLDER + " yer tutucusunu içermeli");
+        }
+        if (spec.getFields().isEmpty()) {
+            errors.add("fields boş");
+        }
+
+        List<Step> steps = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        String clickXpath = null;
+        for (SiteSpec.FieldSpec field : spec.getFields()) {
+            String name = field.getName();
+            if (name == null || name.isBlank()) {
+                errors.add("Adı olmayan alan");
+                continue;
+            }
+            String where = "fields." + name;
+            if (!names.add(name)) {
+                errors.add(where + ": alan birden fazla tanımlanmış");
+            }
+            SiteSpec.FieldType type = field.getType() == null ? SiteSpec.FieldType.TEXT : field.getType();
+            if ((field.getXpath() == null) == (field.getLabel() == null)) {
+                errors.add(where + ": xpath ya da label alanlarından yalnızca biri verilmeli");
+                continue;
+            }
+            String xpath = field.getXpath();
+            if (field.getLabel() != null) {
+                if (labelLocator == null || !labelLocator.contains(LABEL_PLACEHOLDER)) {
+                    errors.add(where + ": label kullanmak için labelLocator tanımlanmalı");
+                    continue;
+                }
+                // Şablon burada bir kez açılır; sayfa başına XPath kurulmaz
+                xpath = labelLocator.replace(LABEL_PLACEHOLDER, field.getLabel());
+            }
+            checkXpath(errors, where, xpath, true);
+            if (type == SiteSpec.FieldType.MAP && field.getAttribute() != null) {
+                errors.add(where + ": map alanı öznitelik okuyamaz");
+            }
+            if (field.getSkip() < 0 || (field.getSkip() > 0 && type != SiteSpec.FieldType.LIST)) {
+                errors.add(where + ": skip yalnızca list alanlarında ve sıfır ya da pozitif olabilir");
+            }
+            if (field.getClick() != null) {
+                if (type != SiteSpec.FieldType.MAP) {
+                    errors.add(where + ": click yalnızca map alanlarında kullanılabilir");
+                } else if (clickXpath != null && !clickXpath.equals(field.getClick())) {
+                    errors.add(where + ": sayfa başına yalnızca bir tıklanacak sekme desteklenir");
+                } else {
+                    checkXpath(errors, where + ".click", field.getClick(), true);
+                    clickXpath = field.getClick();
+                }
+            }
+            Field target = productField(errors, where, name, type);
+            if (target != null) {
+                steps.add(new Step(name, target, type, xpath, field.getAttribute(), field.getSkip()));
+            }
+        }
+
+        List<String> readyXpaths = new ArrayList<>();
+        for (String ready : spec.getReady()) {
+            steps.stream().filter(step -> step.name.equals(ready)).findFirst().ifPresentOrElse(
+                    step -> readyXpaths.add(step.xpath),
+                    () -> errors.add("ready: tanımlı olmayan alan " + ready));
+        }
+
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Geçersiz site tanımı " + spec.getName() + ":\n  - "
+                    + String.join("\n  - ", errors));
+        }
+        return new ExtractionPlan(spec, steps, clickXpath, readyXpaths);
+    }
+
+    /**
+     * Sayfadaki tüm alanları okuyup bir Product'a yazar.
+     *
+     * @param source Ürün sayfasını okuyan kaynak (HTML, tarayıcı ya da DomSnapshot)
+     * @return Doldurulan ürün
+     */
+    public Product extract(PageSource source) {
+        PageSource page = CrawlMetrics.meter(source, fieldNames);
+        Product product = new Product();
+        for (Step step : steps) {
+            Object value = switch (step.type) {
+                case TEXT -> {
+                    if (step.attribute == null) {
+                        yield page.text(step.xpath);
+                    }
+                    List<String> values = page.attributes(step.xpath, step.attribute);
+                    yield values.isEmpty() || values.get(0) == null ? "" : values.get(0);
+                }
+                case LIST -> {
+                    List<String> values = step.attribute == null
+                            ? page.texts(step.xpath) : page.attributes(step.xpath, step.attribute);
+                    yield values.size() <= step.skip
+                            ? new ArrayList<String>() : new ArrayList<>(values.subList(step.skip, values.size()));
+                }
+                case MAP -> pairCells(page.texts(step.xpath));
+            };
+            try {
+                step.target.set(product, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Product." + step.name + " yazılamadı", e);
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Tarayıcıda tıklanarak yüklenen bir tablonun HTML'de boş kalıp kalmadığını kontrol eder.
+     *
+     * @param product HTML'den okunan ürün
+     * @param source Ürünün okunduğu kaynak
+     * @return Sayfa tarayıcıda yeniden okunmalıysa true
+     */
+    public boolean needsBrowser(Product product, PageSource source) {
+        if (clickXpath == null || !source.exists(clickXpath)) {
+            return false;
+        }
+        for (Step step : steps) {
+            if (step.type == SiteSpec.FieldType.MAP) {
+                try {
+                    Object value = step.target.get(product);
+                    if (value == null || ((Map<?, ?>) value).isEmpty()) {
+                        return true;
+                    }
+                } catch (IllegalAccessException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param startUrl Taramanın gerçekte başladığı adres (scraper.baseUrl ile değişmiş olabilir)
+     * @return Sitemap'teki ürün URL'lerini seçen desen; tanımda yoksa null
+     */
+    public Pattern sitemapProductPattern(String startUrl) {
+        if (spec.getSitemapProductUrl() == null) {
+            return null;
+        }
+        URI start = URI.create(startUrl);
+        return Pattern.compile(spec.getSitemapProductUrl()
+                .replace(ORIGIN_PLACEHOLDER, Pattern.quote(start.getScheme() + "://" + start.getRawAuthority())));
+    }
+
+    /**
+     * @param startUrl Taramanın gerçekte başladığı adres
+     * @return Tanımdaki ve başlangıç adresindeki sunucu adları
+     */
+    public List<String> hosts(String startUrl) {
+        Set<String> hosts = new LinkedHashSet<>(spec.getHosts());
+        String host = URI.create(startUrl).getHost();
+        if (host != null) {
+            hosts.add(host.startsWith("www.") ? host.substring(4) : host);
+        }
+        return List.copyOf(hosts);
+    }
+
+    /**
+     * @param field Alan adı
+     * @return Alanın derlenmiş XPath'i (etiketli alanlarda açılmış şablon); tanımda yoksa null
+     */
+    public String xpath(String field) {
+        for (Step step : steps) {
+            if (step.name.equals(field)) {
+                return step.xpath;
+            }
+        }
+        return null;
+    }
+
+    public SiteSpec getSpec() {
+        return spec;
+    }
+
+    public List<DomQuery> getQueries() {
+        return queries;
+    }
+
+    public String getClickXpath() {
+        return clickXpath;
+    }
+
+    public List<DomQuery> getAfterClickQueries() {
+        return afterClickQueries;
+    }
+
+    public List<String> getReadyXpaths() {
+        return readyXpaths;
+    }
+
+    private static Map<String, String> pairCells(List<String> cells) {
+        Map<String, String> pairs = new HashMap<>();
+        for (int i = 0; i + 1 < cells.size(); i += 2) {
+            pairs.put(cells.get(i), cells.get(i + 1));
+        }
+        return pairs;
+    }
+
+    private static void require(List<String> errors, String value, String name) {
+        if (value == null || value.isBlank()) {
+            errors.add(name + " boş");
+        }
+    }
+
+    private static void checkXpath(List<String> errors, String where, String xpath, boolean required) {
+        if (xpath == null || xpath.isBlank()) {
+            if (required) {
+                errors.add(where + ": XPath boş");
+            }
+            return;
+        }
+        try {
+            HtmlPageSource.compile(xpath);
+        } catch (XPathExpressionException e) {
+            errors.add(where + ": XPath derlenemedi: " + xpath);
+        }
+    }
+
+    /**
+     * Alanın Product'ta aynı adla ve okuma biçimine uygun tiple bulunduğunu denetler.
+     */
+    private static Field productField(List<String> errors, String where, String name, SiteSpec.FieldType type) {
+        Field field;
+        try {
+            field = Product.class.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            errors.add(where + ": Product'ta böyle bir alan yok");
+            return null;
+        }
+        Class<?> expected = switch (type) {
+            case TEXT -> String.class;
+            case LIST -> List.class;
+            case MAP -> Map.class;
+        };
+        if (!field.getType().equals(expected)) {
+            errors.add(where + ": Product alanı " + field.getType().getSimpleName() + ", "
+                    + type.name().toLowerCase(Locale.ROOT) + " okuması için " + expected.getSimpleName() + " olmalı");
+            return null;
+        }
+        field.setAccessible(true);
+        return field;
+    }
+}
@@ -0,0 +1,135 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Paketteki sites/emlaksiteniz.json tanımının derlenip örnek ilan sayfasından tüm alanları okumasını
+ * ve geçersiz tanımların tüm hataları tek seferde raporlanarak reddedilmesini doğrular.
+ */
+public class ExtractionPlanTest {
+    private static final String PAGE = "https://emlaksiteniz.com/site-icinde-ferah-3-1-daire-118";
+
+    @Test
+    public void bundledSpecCompilesAndReadsTheFixturePage() throws Exception {
+        ExtractionPlan plan = ExtractionPlan.load("sites/emlaksiteniz.json");
+        assertEquals("emlaksiteniz", plan.getSpec().getName());
+        assertEquals(List.of(plan.xpath("name"), plan.xpath("price")), plan.getReadyXpaths());
+        assertNotNull(plan.getClickXpath());
+        // Tıklamayla gelen tablo ilk betikte değil, tıklamadan sonra okunur
+        assertEquals(plan.getSpec().getFields().size() - 1, plan.getQueries().size());
+        assertEquals(1, plan.getAfterClickQueries().size());
+        assertEquals("//label[contains(text(),'Oda Sayısı')]//ancestor::div[2]//div[@class='right']//span",
+                plan.xpath("numberRooms"));
+
+        Product product = plan.extract(HtmlPageSource.parse(fixture(), PAGE));
+        assertEquals("Site İçinde Ferah 3+1 Daire Fırsatı!", product.getName());
+        assertEquals("3.450.000 TL", product.getPrice());
+        assertEquals("İlan ID: 118", product.getAdvertisementNumber());
+        assertEquals("Ahmet Yılmaz", product.getAdvisor());
+        assertEquals("Fatih, Işık Sk. No:11 42430, Sarayönü, Konya", product.getLocation());
+        assertEquals("Ana sayfa bağlantısı atlanmalı", List.of("KONUT", "SATILIK KONUTLAR", "Daire"), product.getCategories());
+        assertEquals("130", product.getSquareMeterGross());
+        assertEquals("3+1", product.getNumberRooms());
+        assertEquals(12, product.getImageUrl().size());
+        assertEquals("https://emlaksiteniz.com/uploads/images/2024/10/ilan-118-12.jpg", product.getImageUrl().get(11));
+        assertEquals("Açık Otopark", product.getAdFeatures().get("Otopark"));
+    }
+
+    @Test
+    public void invalidSpecIsRejectedWithEveryError() throws Exception {
+        SiteSpec spec = spec("""
+                {
+                  "name": "bozuk",
+                  "productLinks": "//div[@class='kart'",
+                  "ready": ["name", "fiyat"],
+                  "fields": [
+                    {"name": "name", "xpath": "//h1", "label": "Başlık"},
+                    {"name": "price", "label": "Fiyat"},
+                    {"name": "location", "xpath": "//td", "click": "//a"},
+                    {"name": "renk", "xpath": "//span"},
+                    {"name": "advisor", "xpath": "//a", "type": "list"},
+                    {"name": "explanation", "xpath": "//p"},
+                    {"name": "explanation", "xpath": "//div"},
+                    {"name": "imageUrl", "xpath": "//img", "type": "list", "skip": -1}
+                  ]
+                }
+                """);
+        String message = rejected(spec);
+        for (String error : List.of(
+                "startUrl boş",
+                "productLinks: XPath derlenemedi",
+                "fields.name: xpath ya da label alanlarından yalnızca biri verilmeli",
+                "fields.price: label kullanmak için labelLocator tanımlanmalı",
+                "fields.location: click yalnızca map alanlarında kullanılabilir",
+                "fields.renk: Product'ta böyle bir alan yok",
+                "fields.advisor: Product alanı String",
+                "fields.explanation: alan birden fazla tanımlanmış",
+                "fields.imageUrl: skip yalnızca list alanlarında",
+                "ready: tanımlı olmayan alan fiyat")) {
+            assertTrue("Eksik hata: " + error + "\n" + message, message.contains(error));
+        }
+    }
+
+    @Test
+    public void malformedTemplatesAndPatternsAreRejected() throws Exception {
+        String message = rejected(spec("""
+                {
+                  "name": "bozuk",
+                  "startUrl": "/urunler",
+                  "productLinks": "//a",
+                  "sitemapProductUrl": "{origin}/[a-",
+                  "labelLocator": "//label[text()='etiket']",
+                  "fields": [
+                    {"name": "name", "xpath": "//h1"},
+                    {"name": "adFeatures", "xpath": "//td", "type": "map", "attribute": "title"}
+                  ]
+                }
+                """));
+        for (String error : List.of(
+                "startUrl mutlak bir adres olmalı",
+                "sitemapProductUrl geçersiz",
+                "labelLocator {label} yer tutucusunu içermeli",
+                "fields.adFeatures: map alanı öznitelik okuyamaz")) {
+            assertTrue("Eksik hata: " + error + "\n" + message, message.contains(error));
+        }
+
+        assertTrue(rejected(spec("{\"name\": \"bos\", \"startUrl\": \"https://example.com\", \"productLinks\": \"//a\"}"))
+                .contains("fields boş"));
+    }
+
+    private static String rejected(SiteSpec spec) {
+        try {
+            ExtractionPlan.compile(spec);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        fail("Geçersiz tanım derlenmemeli");
+        return null;
+    }
+
+    private static SiteSpec spec(String json) throws IOException {
+        Path file = Files.createTempFile("site-spec", ".json");
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+        return SiteSpec.read(file.toString());
+    }
+
+    private static String fixture() throws IOException {
+        try (InputStream in = ExtractionPlanTest.class.getResourceAsStream("/fixtures/emlaksiteniz-detail.html")) {
+            assertNotNull("fixtures/emlaksiteniz-detail.html", in);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import com.google.gson.Gson;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * İlanların içerik parmak izlerini ve HTTP doğrulayıcılarını (ETag/Last-Modified) çalışmalar
+ * arasında saklayan kalıcı dizin. Anahtar normalize edilmiş ilan URL'sidir; ilan ID'si de
+ * saklanır ve aynı ID başka bir URL'de görülürse eski kayıt taşınır. Her kayıt ilanın son yazılan
+ * halini de tutar; artımlı taramada değişmeyen ilanlar çıktıya buradan taşınır.
+ * Dosya satır başına bir JSON kaydı olarak tutulur ve kaydederken atomik olarak değiştirilir.
+ */
+public class FingerprintIndex {
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Tek bir ilanın dizindeki kaydı.
+     */
+    public static class Entry {
+        private String url;             // İlanın URL'si
+        private String listingId;       // İlan ID'si (örn: "İlan ID: 118")
+        private String fingerprint;     // Statik alanların SHA-256 özeti
+        private String etag;            // Son yanıtın ETag başlığı
+        private String lastModified;    // Son yanıtın Last-Modified başlığı
+        private long lastSeen;          // En son görüldüğü zaman (epoch ms)
+        private boolean removed;        // Siteden kaldırıldı mı
+        private String record;          // Son kazınan ürünün JSON'u (değişmeyen ilan çıktıya bundan taşınır)
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getListingId() {
+            return listingId;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public long getLastSeen() {
+            return lastSeen;
+        }
+
+        public boolean isRemoved() {
+            return removed;
+        }
+
+        /**
+         * @return Son kazınan ürün veya kayıt ürünsüz tutulmuşsa (eski dizin dosyaları) null
+         */
+        public Product toProduct() {
+            return record != null ? GSON.fromJson(record, Product.class) : null;
+        }
+
+        /**
+         * @return İlanın son kazınan hali dizinde saklanıyorsa true
+         */
+        public boolean hasRecord() {
+            return record != null;
+        }
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();   // Normalize URL -> kayıt
+    private final Map<String, String> keysByListingId = new ConcurrentHashMap<>();   // İlan ID'si -> normalize URL
+
+    private FingerprintIndex(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Dizini dosyadan yükler; dosya yoksa boş bir dizin döner.
+     *
+     * @param file Dizin dosyası
+     * @return Yüklenen dizin
+     * @throws IOException Dosya okunamazsa
+     */
+    public static FingerprintIndex load(Path file) throws IOException {
+        FingerprintIndex index = new FingerprintIndex(file);
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        Entry entry = GSON.fromJson(line, Entry.class);
+                        index.put(UrlNormalizer.normalize(entry.url), entry);
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Dizini önce geçici dosyaya yazar, sonra asıl dosyanın yerine taşır.
+     *
+     * @throws IOException Yazma başarısız olursa
+     */
+    public synchronized void save() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Entry entry : entries.values()) {
+                writer.write(GSON.toJson(entry));
+                writer.newLine();
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @param url İlan URL'si
+     * @return İlanın kaydı veya yoksa null
+     */
+    public Entry get(String url) {
+        return entries.get(UrlNormalizer.normalize(url));
+    }
+
+    /**
+     * İlanı bu çalışmada görüldü olarak işaretler ve doğrulayıcılarını günceller.
+     *
+     * @param url İlan URL'si
+     * @param etag Yeni ETag (null ise eskisi korunur)
+     * @param lastModified Yeni Last-Modified (null ise eskisi korunur)
+     */
+    public void markSeen(String url, String etag, String lastModified) {
+        Entry entry = get(url);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.lastSeen = System.currentTimeMillis();
+                entry.removed = false;
+                if (etag != null) {
+                    entry.etag = etag;
+                }
+                if (lastModified != null) {
+                    entry.lastModified = lastModified;
+                }
+            }
+        }
+    }
+
+    /**
+     * Yeni kazınan ya da değişen bir ilanın kaydını ürünün kendisiyle birlikte yazar.
+     *
+     * @param url İlan URL'si
+     * @param product Kazınan ürün
+     * @param fingerprint İçerik parmak izi
+     * @param etag Yanıtın ETag başlığı
+     * @param lastModified Yanıtın Last-Modified başlığı
+     */
+    public synchronized void update(String url, Product product, String fingerprint, String etag, String lastModified) {
+        Entry entry = new Entry();
+        entry.url = url;
+        entry.listingId = product.getAdvertisementNumber();
+        entry.fingerprint = fingerprint;
+        entry.record = GSON.toJson(product);
+        entry.etag = etag;
+        entry.lastModified = lastModified;
+        entry.lastSeen = System.currentTimeMillis();
+        put(UrlNormalizer.normalize(url), entry);
+    }
+
+    /**
+     * Kaydı ekler; aynı ilan farklı bir URL'ye taşınmışsa eski URL'nin kaydı silinir.
+     */
+    private void put(String key, Entry entry) {
+        Entry replaced = entries.put(key, entry);
+        if (replaced != null && replaced.listingId != null && !replaced.listingId.equals(entry.listingId)) {
+            keysByListingId.remove(replaced.listingId, key);
+        }
+        if (entry.listingId != null && !entry.listingId.isEmpty()) {
+            String previous = keysByListingId.put(entry.listingId, key);
+            if (previous != null && !previous.equals(key)) {
+                entries.remove(previous);
+            }
+        }
+    }
+
+    /**
+     * İlanı siteden kaldırıldı olarak işaretler.
+     *
+     * @param url İlan URL'si
+     * @return Kayıt bu çağrıyla kaldırıldı durumuna geçtiyse kaydın kendisi, değilse null
+     */
+    public Entry markRemoved(String url) {
+        Entry entry = get(url);
+        if (entry != null) {
+            synchronized (entry) {
+                if (!entry.removed) {
+                    entry.removed = true;
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Verilen zamandan beri görülmemiş tüm ilanları kaldırıldı olarak işaretler.
+     * Yalnızca keşfin eksiksiz bittiği çalışmalarda çağrılmalıdır; aksi halde keşfedilemeyen
+     * ilanlar da kaldırılmış sayılır.
+     *
+     * @param runStartedAt Bu çalışmanın başladığı zaman (epoch ms)
+     * @return Yeni kaldırıldı olarak işaretlenen kayıtlar
+     */
+    public List<Entry> markUnseenAsRemoved(long runStartedAt) {
+        List<Entry> vanished = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                if (!entry.removed && entry.lastSeen < runStartedAt) {
+                    entry.removed = true;
+                    vanished.add(entry);
+                }
+            }
+        }
+        return vanished;
+    }
+
+    /**
+     * @return Dizindeki kayıt sayısı
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Ürünün içeriğinden değişiklik tespiti için kararlı bir parmak izi hesaplar.
+     *
+     * @param product Parmak izi alınacak ürün
+     * @return SHA-256 özetinin onaltılık gösterimi
+     */
+    public static String fingerprint(Product product) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(GSON.toJson(product).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.BenchmarkFixtures;
+import com.emlaksiteniz.Product;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tek bir Product'ın Gson ile serileştirme ve geri okuma maliyetini ölçer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GsonBenchmark {
+    private final Gson gson = new Gson();
+    private final Gson prettyGson = new GsonBuilder().setPrettyPrinting().create();
+    private Product product;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkFixtures.sampleProduct(118);
+        json = gson.toJson(product);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(product);
+    }
+
+    @Benchmark
+    public String toPrettyJson() {
+        return prettyGson.toJson(product);
+    }
+
+    @Benchmark
+    public Product fromJson() {
+        return gson.fromJson(json, Product.class);
+    }
+
+    @Benchmark
+    public String fingerprint() {
+        return FingerprintIndex.fingerprint(product);
+    }
+}
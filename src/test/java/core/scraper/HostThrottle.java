@@ -0,0 +1,519 @@
+package core.scraper;
+
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Her sunucuya giden istekleri (HTTP ve tarayıcı sayfa açışları) sunucu başına düzenleyen sınırlayıcı.
+ * İki sınır birlikte uygulanır:
+ * <ul>
+ *     <li>Token kovası: saniyede en fazla belirli sayıda istek başlatılır; robots.txt'deki
+ *     Crawl-delay daha yavaşsa ona uyulur.</li>
+ *     <li>AIMD eşzamanlılık sınırı: sorunsuz her yanıtta sınır yavaşça (1/sınır kadar) artar;
+ *     429/503, bağlantı hatası ya da gözlenen en iyi sürenin katlarına çıkan gecikmede yarıya iner.
+ *     Aynı tıkanıklık için art arda düşmemek adına sınır, bir yanıt süresi içinde en fazla bir kez düşürülür.</li>
+ * </ul>
+ * 429 ve 503 yanıtlarındaki Retry-After süresi boyunca o sunucuya yeni istek başlatılmaz.
+ * Sunucu başına güncel sınırlar CrawlMetrics göstergeleri olarak dışarı açılır.
+ */
+public class HostThrottle {
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double MIN_RATE = 0.1;                                  // İstek/sn
+    private static final long DEFAULT_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_PAUSE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final long MIN_DECREASE_GAP_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MIN_CONGESTION_NANOS = TimeUnit.MILLISECONDS.toNanos(50);  // Bunun altındaki artışlar ağ oynaklığı sayılır
+    private static final Duration ROBOTS_TIMEOUT = Duration.ofSeconds(5);
+    private static HostThrottle shared;
+
+    private final double maxRate;             // Sunucu başına istek/sn
+    private final int burst;                  // Token kovası kapasitesi
+    private final int initialConcurrency;
+    private final int maxConcurrency;
+    private final double latencyFactor;       // Gecikme, en iyi sürenin bu katını aşarsa tıkanıklık sayılır
+    private final boolean readRobots;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private HttpClient robotsClient;          // robots.txt için (ilk kullanımda oluşturulur)
+
+    /**
+     * @param ratePerSecond Sunucu başına saniyede başlatılabilecek en fazla istek
+     * @param burst Beklemeden art arda başlatılabilecek istek sayısı
+     * @param initialConcurrency Sunucu başına başlangıçtaki eşzamanlı istek sınırı
+     * @param maxConcurrency Eşzamanlı istek sınırının ulaşabileceği en yüksek değer
+     * @param latencyFactor Tıkanıklık sayılan gecikme katsayısı
+     * @param readRobots Her sunucunun robots.txt'sindeki Crawl-delay okunsun mu
+     */
+    public HostThrottle(double ratePerSecond, int burst, int initialConcurrency, int maxConcurrency,
+                        double latencyFactor, boolean readRobots) {
+        this.maxRate = Math.max(MIN_RATE, ratePerSecond);
+        this.burst = Math.max(1, burst);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.initialConcurrency = Math.min(this.maxConcurrency, Math.max(1, initialConcurrency));
+        this.latencyFactor = Math.max(1, latencyFactor);
+        this.readRobots = readRobots;
+    }
+
+    /**
+     * Tüm fetcher'ların ve tarayıcıların paylaştığı, ayarları ScraperConfig'ten okunan sınırlayıcıyı döndürür.
+     *
+     * @return Paylaşılan sınırlayıcı veya sınırlama kapalıysa (scraper.throttle=false) null
+     */
+    public static synchronized HostThrottle shared() {
+        if (shared == null && ScraperConfig.throttleEnabled()) {
+            shared = new HostThrottle(ScraperConfig.throttleRatePerSecond(), ScraperConfig.throttleBurst(),
+                    ScraperConfig.throttleInitialConcurrency(), ScraperConfig.throttleMaxConcurrency(),
+                    ScraperConfig.throttleLatencyFactor(), ScraperConfig.throttleRobots());
+        }
+        return shared;
+    }
+
+    /**
+     * Adresin sunucusu için hız, eşzamanlılık ve Retry-After sınırları izin verene kadar bekler.
+     * Dönen izin, yanıt alındığında complete ile, alınamadıysa close ile bırakılmalıdır.
+     *
+     * @param url İstek yapılacak adres
+     * @return İstek izni
+     * @throws InterruptedException Bekleme kesilirse
+     */
+    public Permit acquire(String url) throws InterruptedException {
+        Host host = host(url);
+        host.lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                long wait;
+                if (now < host.pausedUntil) {
+                    wait = host.pausedUntil - now;
+                } else if (host.inFlight >= (int) host.limit) {
+                    wait = -1;
+                } else {
+                    host.refill(now);
+                    if (host.tokens >= 1) {
+                        host.tokens -= 1;
+                        host.inFlight++;
+                        return new Permit(host, now);
+                    }
+                    wait = (long) Math.ceil((1 - host.tokens) / host.rate * 1e9);
+                }
+                if (wait < 0) {
+                    host.changed.await();
+                } else {
+                    host.changed.awaitNanos(wait);
+                }
+            }
+        } finally {
+            host.lock.unlock();
+        }
+    }
+
+    /**
+     * Verilen sürücüyü, her driver.get() çağrısı bu sınırlayıcıdan izin alacak şekilde sarar.
+     * Tarayıcı yanıt kodunu bildirmediği için sayfa açışlarında yalnızca süre ve hatalar değerlendirilir.
+     *
+     * @param driver Sarılacak sürücü
+     * @return Sınırlanmış sürücü
+     */
+    public WebDriver decorate(WebDriver driver) {
+        return new DriverDecorator().decorate(driver);
+    }
+
+    /**
+     * @return Sunucu başına güncel eşzamanlılık sınırı, hız ve geri çekilme sayılarının okunabilir özeti
+     */
+    public String summary() {
+        StringBuilder out = new StringBuilder("Sunucu sınırları:");
+        new TreeMap<>(hosts).forEach((name, host) -> {
+            host.lock.lock();
+            try {
+                out.append(String.format(Locale.ROOT, "%n  %-28s eşzamanlı=%.1f hız=%.2f/sn %d kez yavaşlatıldı, %d kez 429/503",
+                        name, host.limit, host.rate, host.decreases, host.throttled));
+                if (host.crawlDelay != null) {
+                    out.append(" (Crawl-delay ").append(host.crawlDelay.toMillis()).append(" ms)");
+                }
+            } finally {
+                host.lock.unlock();
+            }
+        });
+        return out.toString();
+    }
+
+    /**
+     * @param url Sunucudaki herhangi bir adres
+     * @return Sunucunun güncel eşzamanlılık sınırı
+     */
+    double concurrencyLimit(String url) {
+        Host host = host(url);
+        host.lock.lock();
+        try {
+            return host.limit;
+        } finally {
+            host.lock.unlock();
+        }
+    }
+
+    /**
+     * Bir sunucuya iki istek arasında beklenecek en kısa süreyi (robots.txt Crawl-delay gibi) belirler.
+     *
+     * @param url Sunucudaki herhangi bir adres
+     * @param delay İstekler arası en kısa süre
+     */
+    public void setCrawlDelay(String url, Duration delay) {
+        Host host = host(url);
+        host.lock.lock();
+        try {
+            host.applyCrawlDelay(delay);
+        } finally {
+            host.lock.unlock();
+        }
+    }
+
+    /**
+     * robots.txt içeriğinden tüm tarayıcılara (User-agent: *) yönelik Crawl-delay değerini okur.
+     *
+     * @param robots robots.txt içeriği
+     * @return Crawl-delay veya belirtilmemişse null
+     */
+    static Duration parseCrawlDelay(String robots) {
+        boolean applies = false;
+        boolean readingAgents = false;
+        Duration delay = null;
+        for (String raw : robots.split("\r?\n|\r")) {
+            int comment = raw.indexOf('#');
+            String line = (comment >= 0 ? raw.substring(0, comment) : raw).trim();
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String key = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (key.equals("user-agent")) {
+                // Art arda gelen User-agent satırları aynı grubu oluşturur
+                applies = (readingAgents && applies) || value.equals("*");
+                readingAgents = true;
+            } else {
+                readingAgents = false;
+                if (applies && key.equals("crawl-delay")) {
+                    try {
+                        delay = Duration.ofMillis(Math.round(Double.parseDouble(value) * 1000));
+                    } catch (NumberFormatException e) {
+                        // Geçersiz değer yok sayılır
+                    }
+                }
+            }
+        }
+        return delay;
+    }
+
+    /**
+     * Retry-After başlığını (saniye ya da HTTP tarihi) süreye çevirir.
+     *
+     * @param value Başlık değeri
+     * @return Beklenecek süre (ns) veya başlık yoksa ya da okunamazsa -1
+     */
+    static long parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(until.getZone()), until).toNanos());
+            } catch (DateTimeParseException ignored) {
+                return -1;
+            }
+        }
+    }
+
+    private Host host(String url) {
+        URI uri = URI.create(url);
+        String name = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT)
+                + (uri.getPort() > 0 ? ":" + uri.getPort() : "");
+        Host host = hosts.get(name);
+        if (host == null) {
+            host = hosts.computeIfAbsent(name, Host::new);
+        }
+        if (readRobots && !host.robotsChecked) {
+            loadRobots(host, uri);
+        }
+        return host;
+    }
+
+    /**
+     * Sunucunun robots.txt dosyasını bir kez okur; okunana kadar o sunucuya gidecek diğer istekler bekler.
+     * Sanal thread'leri taşıyıcı thread'e sabitlememek için synchronized yerine kilit kullanılır.
+     */
+    private void loadRobots(Host host, URI uri) {
+        host.robotsLock.lock();
+        try {
+            if (host.robotsChecked || uri.getScheme() == null) {
+                return;
+            }
+            host.robotsChecked = true;
+            try {
+                URI robots = URI.create(uri.getScheme() + "://" + uri.getRawAuthority() + "/robots.txt");
+                HttpResponse<String> response = robotsClient().send(HttpRequest.newBuilder(robots)
+                        .timeout(ROBOTS_TIMEOUT).GET().build(), HttpResponse.BodyHandlers.ofString());
+                Duration delay = response.statusCode() == 200 ? parseCrawlDelay(response.body()) : null;
+                if (delay != null && !delay.isZero()) {
+                    host.lock.lock();
+                    try {
+                        host.applyCrawlDelay(delay);
+                    } finally {
+                        host.lock.unlock();
+                    }
+                    System.out.println(host.name + " için robots.txt Crawl-delay: " + delay.toMillis() + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("robots.txt okunamadı (" + host.name + "): " + e.getMessage());
+            }
+        } finally {
+            host.robotsLock.unlock();
+        }
+    }
+
+    private synchronized HttpClient robotsClient() {
+        if (robotsClient == null) {
+            robotsClient = HttpClient.newBuilder()
+                    .connectTimeout(ROBOTS_TIMEOUT)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        }
+        return robotsClient;
+    }
+
+    /**
+     * Tek bir sunucunun sınırları ve gözlenen yanıt süreleri.
+     */
+    private final class Host {
+        private final String name;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();  // Yer açıldı ya da bekleme süresi değişti
+        private final ReentrantLock robotsLock = new ReentrantLock();
+        private double limit = initialConcurrency;              // AIMD eşzamanlılık sınırı
+        private int inFlight;
+        private double rateCeiling = maxRate;                   // Crawl-delay ile düşürülebilen üst hız
+        private double rate = maxRate;                          // Güncel hız (istek/sn)
+        private double capacity = burst;                        // Güncel kova kapasitesi
+        private double tokens = burst;
+        private long refilledAt = System.nanoTime();
+        private long pausedUntil;                               // Retry-After bitişi (nanoTime)
+        private long lastDecrease;
+        private double bestLatency;                             // Gözlenen en iyi süre (ns), yavaşça yukarı kayar
+        private double smoothedLatency;                         // Üstel ortalama süre (ns)
+        private int consecutiveBackoffs;                        // Retry-After'sız art arda 429/503 sayısı
+        private long decreases;
+        private long throttled;
+        private Duration crawlDelay;
+        private volatile boolean robotsChecked;
+
+        private Host(String name) {
+            this.name = name;
+            String label = "{host=\"" + name + "\"}";
+            CrawlMetrics.gauge("throttle_concurrency_limit" + label, () -> (long) limit);
+            CrawlMetrics.gauge("throttle_in_flight" + label, () -> inFlight);
+            CrawlMetrics.gauge("throttle_rate_per_minute" + label, () -> Math.round(rate * 60));
+            CrawlMetrics.gauge("throttle_paused_millis" + label,
+                    () -> Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntil - System.nanoTime())));
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) / 1e9 * rate);
+            refilledAt = now;
+        }
+
+        private void applyCrawlDelay(Duration delay) {
+            crawlDelay = delay;
+            rateCeiling = Math.max(MIN_RATE, Math.min(maxRate, 1e9 / Math.max(1, delay.toNanos())));
+            rate = Math.min(rate, rateCeiling);
+            capacity = 1;
+            tokens = Math.min(tokens, capacity);
+        }
+
+        // Gönderilmeyen isteğin yerini hız ayarına dokunmadan boşaltır
+        private void cancel() {
+            lock.lock();
+            try {
+                inFlight--;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Bir yanıtın sonucunu sınırlara yansıtır.
+         *
+         * @param start İsteğin başladığı an (nanoTime)
+         * @param status Yanıt kodu; bağlantı hatası ya da zaman aşımı için -1
+         * @param retryAfter Retry-After başlığı (yoksa null)
+         */
+        private void complete(long start, int status, String retryAfter) {
+            long now = System.nanoTime();
+            long latency = now - start;
+            lock.lock();
+            try {
+                inFlight--;
+                if (status == 429 || status == 503) {
+                    throttled++;
+                    CrawlMetrics.count("throttle_backoff");
+                    long pause = parseRetryAfter(retryAfter);
+                    if (pause < 0) {
+                        // Süre bildirilmediyse art arda her geri çevrilmede bekleme ikiye katlanır
+                        pause = DEFAULT_BACKOFF_NANOS << Math.min(6, consecutiveBackoffs++);
+                    }
+                    pausedUntil = Math.max(pausedUntil, now + Math.min(pause, MAX_PAUSE_NANOS));
+                    decrease(now, true);
+                } else if (status < 0 || status >= 500) {
+                    decrease(now, false);
+                } else {
+                    consecutiveBackoffs = 0;
+                    observe(latency);
+                    // Hem bu yanıt hem ortalama yavaşsa tıkanıklık sayılır; ilk bağlantının kurulum süresi gibi tekil sapmalar sayılmaz
+                    if (isCongested(latency) && isCongested(smoothedLatency)) {
+                        decrease(now, false);
+                    } else if (inFlight + 1 >= (int) limit) {
+                        // Sınır yalnızca gerçekten doluyken büyütülür
+                        limit = Math.min(maxConcurrency, limit + 1 / limit);
+                        rate = Math.min(rateCeiling, rate + rateCeiling / 20);
+                    }
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isCongested(double latency) {
+            return latency > latencyFactor * bestLatency && latency - bestLatency > MIN_CONGESTION_NANOS;
+        }
+
+        private void observe(long latency) {
+            if (bestLatency == 0) {
+                bestLatency = latency;
+                smoothedLatency = latency;
+                return;
+            }
+            smoothedLatency += (latency - smoothedLatency) * 0.2;
+            // En iyi süre hemen aşağı, sunucunun genel hızı değişirse çok yavaş yukarı iner
+            bestLatency = latency < bestLatency ? latency : bestLatency + (latency - bestLatency) * 0.01;
+        }
+
+        private void decrease(long now, boolean slowDown) {
+            if (lastDecrease != 0 && now - lastDecrease < Math.max(MIN_DECREASE_GAP_NANOS, (long) smoothedLatency)) {
+                return;
+            }
+            lastDecrease = now;
+            decreases++;
+            limit = Math.max(1, limit * DECREASE_FACTOR);
+            if (slowDown) {
+                rate = Math.max(MIN_RATE, rate * DECREASE_FACTOR);
+            }
+            CrawlMetrics.count("throttle_decrease");
+        }
+    }
+
+    /**
+     * Bir isteğin sınırlayıcıdan aldığı izin. Yanıt kodu complete ile bildirilmeden kapatılırsa
+     * istek başarısız sayılır; try-with-resources ile kullanılabilir.
+     */
+    public static final class Permit implements AutoCloseable {
+        private final Host host;
+        private long start;
+        private boolean done;
+
+        private Permit(Host host, long start) {
+            this.host = host;
+            this.start = start;
+        }
+
+        /**
+         * İzin alındıktan sonra başka bir sınır beklendiyse gecikme isteğin gerçekten gönderildiği
+         * andan ölçülsün diye başlangıcı yeniden işaretler.
+         */
+        void started() {
+            start = System.nanoTime();
+        }
+
+        /**
+         * İstek hiç gönderilmeden vazgeçildiyse izni hız ayarını etkilemeden bırakır.
+         */
+        void cancel() {
+            if (!done) {
+                done = true;
+                host.cancel();
+            }
+        }
+
+        /**
+         * Yanıtı bildirerek izni bırakır.
+         *
+         * @param status Yanıt kodu
+         * @param retryAfter Retry-After başlığı (yoksa null)
+         */
+        public void complete(int status, String retryAfter) {
+            if (!done) {
+                done = true;
+                host.complete(start, status, retryAfter);
+            }
+        }
+
+        /**
+         * Yanıt alınamadıysa izni hata olarak bırakır.
+         */
+        @Override
+        public void close() {
+            complete(-1, null);
+        }
+    }
+
+    /**
+     * Tarayıcının her sayfa açışını sınırlayıcıdan izin alarak başlatan sarmalayıcı.
+     * İzin driver.get() çağrısının etrafında beklenir; böylece kesilen bekleme sayfayı açmadan
+     * hatayı çağırana iletir.
+     */
+    private final class DriverDecorator extends WebDriverDecorator<WebDriver> {
+        @Override
+        public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+            if (!(target.getOriginal() instanceof WebDriver) || !method.getName().equals("get")
+                    || args == null || args.length != 1 || !(args[0] instanceof String url) || !url.startsWith("http")) {
+                // about:blank, data: gibi ağa çıkmayan adresler ve diğer çağrılar sınırlanmaz
+                return super.call(target, method, args);
+            }
+            Permit permit;
+            try {
+                permit = acquire(url);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Sayfa açma izni beklenirken kesildi: " + url, e);
+            }
+            try (permit) {
+                Object result = super.call(target, method, args);
+                permit.complete(200, null);
+                return result;
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package core.scraper;
+
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Sınırlayıcıyı aşırı yük taklidi yapan bir ReplayServer'a karşı çalıştırarak 429 ve Retry-After
+ * geldiğinde eşzamanlılık sınırının düştüğünü, yük kalkınca yeniden büyüdüğünü doğrular.
+ */
+public class HostThrottleTest {
+    private static final int MAX_CONCURRENCY = 8;
+
+    private Path directory;
+    private PageArchive archive;
+    private ReplayServer server;
+    private HostThrottle throttle;
+    private HttpFetcher fetcher;
+    private String page;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("host-throttle");
+        archive = PageArchive.open(directory.resolve("pages.archive"));
+        archive.record("https://emlaksiteniz.com/ilan", 200, Map.of("Content-Type", List.of("text/html; charset=UTF-8")),
+                "<html><body>ilan</body></html>".getBytes(StandardCharsets.UTF_8));
+        // Eşzamanlı ikiden fazla istek 429 ve Retry-After: 1 alır
+        server = new ReplayServer(archive, 0, Duration.ofMillis(20), 0).injectingFaults(2, 0).start();
+        page = server.origin() + "/ilan";
+        throttle = new HostThrottle(1000, 100, MAX_CONCURRENCY, MAX_CONCURRENCY, 100, false);
+        fetcher = new HttpFetcher(64, Duration.ofSeconds(10)).throttledBy(throttle);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fetcher.close();
+        server.close();
+        archive.close();
+    }
+
+    @Test
+    public void shrinksOnRetryAfterAndRecoversOnceOverloadEnds() throws Exception {
+        int[] statuses = fetchConcurrently(MAX_CONCURRENCY, 1);
+        assertTrue("Aşırı yük 429 döndürmeli", count(statuses, 429) > 0);
+        double shrunk = throttle.concurrencyLimit(page);
+        assertTrue("429 sonrası sınır düşmeli: " + shrunk, shrunk < MAX_CONCURRENCY);
+
+        // Retry-After süresi dolmadan yeni istek başlatılmamalı
+        long start = System.nanoTime();
+        assertEquals(200, fetcher.fetch(page).getStatusCode());
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("Retry-After beklenmeli, beklenen: " + waited + " ms", waited >= 500);
+
+        server.injectingFaults(0, 0);
+        statuses = fetchConcurrently(MAX_CONCURRENCY, 40);
+        assertEquals(statuses.length, count(statuses, 200));
+        double recovered = throttle.concurrencyLimit(page);
+        assertTrue("Yük kalkınca sınır yeniden büyümeli: " + shrunk + " -> " + recovered, recovered > shrunk);
+    }
+
+    @Test
+    public void interruptedPermitWaitAbortsDriverGet() {
+        List<String> opened = new ArrayList<>();
+        WebDriver original = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("get")) {
+                        opened.add((String) args[0]);
+                    }
+                    return null;
+                });
+        WebDriver driver = throttle.decorate(original);
+
+        driver.get(page);
+        assertEquals(List.of(page), opened);
+
+        Thread.currentThread().interrupt();
+        try {
+            driver.get(page);
+            fail("Kesilen bekleme get() çağrısını durdurmalı");
+        } catch (WebDriverException expected) {
+            assertTrue("Kesilme bayrağı korunmalı", Thread.interrupted());
+        }
+        assertEquals("Sayfa izinsiz açılmamalı", 1, opened.size());
+    }
+
+    private int[] fetchConcurrently(int workers, int requestsEach) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                results.add(executor.submit(() -> {
+                    int[] statuses = new int[requestsEach];
+                    for (int j = 0; j < requestsEach; j++) {
+                        statuses[j] = fetcher.fetch(page).getStatusCode();
+                    }
+                    return statuses;
+                }));
+            }
+            int[] all = new int[workers * requestsEach];
+            for (int i = 0; i < workers; i++) {
+                System.arraycopy(results.get(i).get(), 0, all, i * requestsEach, requestsEach);
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int count(int[] statuses, int status) {
+        int count = 0;
+        for (int value : statuses) {
+            if (value == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
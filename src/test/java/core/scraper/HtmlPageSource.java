@@ -0,0 +1,184 @@
+package core.scraper;
+
+
+import org.jsoup.Jsoup;
+import org.jsoup.helper.W3CDom;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Elements;
+import org.jsoup.select.NodeVisitor;
+import org.w3c.dom.NodeList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+/**
+ * HTTP ile indirilmiş HTML'i Jsoup ile ayrıştırıp okuyan PageSource.
+ * Metinler, Selenium'un getText() çıktısına yakın olacak şekilde
+ * blok elementlerde satır sonu bırakılarak üretilir.
+ * Jsoup'un selectXpath'i her sorguda belgeyi W3C DOM'a çevirip XPath'i yeniden derler; burada
+ * belge ilk sorguda bir kez çevrilir, derlenmiş XPath ifadeleri ise süreç genelinde XPath
+ * metnine göre havuzda tutulup sayfalar arasında yeniden kullanılır.
+ */
+public class HtmlPageSource implements PageSource {
+    private static final Set<String> URL_ATTRIBUTES = Set.of("src", "href");  // Mutlak URL'ye çevrilecek öznitelikler
+    private static final Set<String> SKIPPED_TAGS = Set.of("script", "style", "noscript", "template");
+    private static final Set<String> BLOCK_TAGS = Set.of("p", "div", "li", "tr", "table", "ul", "ol",
+            "h1", "h2", "h3", "h4", "h5", "h6", "section", "article", "header", "footer", "blockquote", "pre");
+
+    private static final XPathFactory XPATH_FACTORY = XPathFactory.newInstance();
+    // XPath -> derlenmiş ifadeler; XPathExpression iş parçacığı güvenli olmadığından ödünç alınıp geri bırakılır
+    private static final Map<String, Queue<XPathExpression>> COMPILED = new ConcurrentHashMap<>();
+
+    private final Document document;
+    private W3CDom w3c;                     // İlk sorguda oluşturulur
+    private org.w3c.dom.Node context;       // Sorguların çalıştığı W3C belge kökü
+
+    public HtmlPageSource(Document document) {
+        this.document = document;
+    }
+
+    /**
+     * Ham HTML'i verilen sayfa adresine göre ayrıştırır.
+     *
+     * @param html Sayfanın HTML içeriği
+     * @param baseUrl Göreli linklerin çözüleceği sayfa adresi
+     * @return Oluşturulan PageSource
+     */
+    public static HtmlPageSource parse(String html, String baseUrl) {
+        return new HtmlPageSource(Jsoup.parse(html, baseUrl));
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    @Override
+    public String text(String xpath) {
+        Element element = select(xpath).first();
+        return element == null ? "" : visibleText(element).trim();
+    }
+
+    @Override
+    public List<String> texts(String xpath) {
+        List<String> values = new ArrayList<>();
+        for (Element element : select(xpath)) {
+            values.add(visibleText(element).trim());
+        }
+        return values;
+    }
+
+    @Override
+    public List<String> attributes(String xpath, String attribute) {
+        List<String> values = new ArrayList<>();
+        for (Element element : select(xpath)) {
+            String value = URL_ATTRIBUTES.contains(attribute) ? element.absUrl(attribute) : "";
+            values.add(value.isEmpty() ? element.attr(attribute) : value);
+        }
+        return values;
+    }
+
+    @Override
+    public boolean exists(String xpath) {
+        return !select(xpath).isEmpty();
+    }
+
+    private Elements select(String xpath) {
+        try {
+            if (w3c == null) {
+                w3c = new W3CDom().namespaceAware(false);
+                context = w3c.contextNode(w3c.fromJsoup(document));
+            }
+            Queue<XPathExpression> pool = COMPILED.computeIfAbsent(xpath, key -> new ConcurrentLinkedQueue<>());
+            XPathExpression expression = pool.poll();
+            if (expression == null) {
+                expression = compile(xpath);
+            }
+            try {
+                NodeList nodes = (NodeList) expression.evaluate(context, XPathConstants.NODESET);
+                return new Elements(w3c.sourceNodes(nodes, Element.class));
+            } finally {
+                pool.offer(expression);
+            }
+        } catch (Exception e) {
+            return new Elements();
+        }
+    }
+
+    /**
+     * XPath'i derler; geçersizse hata fırlatır.
+     *
+     * @param xpath Derlenecek XPath
+     * @return Derlenmiş ifade
+     * @throws XPathExpressionException XPath geçersizse
+     */
+    static XPathExpression compile(String xpath) throws XPathExpressionException {
+        // XPathFactory iş parçacığı güvenli değildir; derleme seyrek olduğundan kilit maliyetsizdir
+        synchronized (XPATH_FACTORY) {
+            return XPATH_FACTORY.newXPath().compile(xpath);
+        }
+    }
+
+    /**
+     * Elementin görünen metnini çıkarır: blok elementler ve br satır sonu üretir,
+     * script/style içerikleri atlanır, her satırdaki boşluklar sadeleştirilir.
+     *
+     * @param element Metni alınacak element
+     * @return Satırlara bölünmüş metin
+     */
+    static String visibleText(Element element) {
+        StringBuilder raw = new StringBuilder();
+        element.traverse(new NodeVisitor() {
+            private int skipDepth;
+
+            @Override
+            public void head(Node node, int depth) {
+                if (node instanceof Element el) {
+                    String tag = el.normalName();
+                    if (skipDepth > 0 || SKIPPED_TAGS.contains(tag)) {
+                        skipDepth++;
+                    } else if (tag.equals("br") || BLOCK_TAGS.contains(tag)) {
+                        raw.append('\n');
+                    } else if (tag.equals("td") || tag.equals("th")) {
+                        raw.append(' ');
+                    }
+                } else if (node instanceof TextNode textNode && skipDepth == 0) {
+                    raw.append(textNode.getWholeText());
+                }
+            }
+
+            @Override
+            public void tail(Node node, int depth) {
+                if (node instanceof Element el) {
+                    if (skipDepth > 0) {
+                        skipDepth--;
+                    } else if (BLOCK_TAGS.contains(el.normalName())) {
+                        raw.append('\n');
+                    }
+                }
+            }
+        });
+
+        StringBuilder text = new StringBuilder(raw.length());
+        for (String line : raw.toString().split("\n")) {
+            String normalized = line.replace('\u00a0', ' ').replaceAll("[ \t\r\f]+", " ").trim();
+            if (!normalized.isEmpty()) {
+                if (!text.isEmpty()) {
+                    text.append('\n');
+                }
+                text.append(normalized);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,153 @@
+package core.scraper;
+
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sayfaları tarayıcı açmadan java.net.http.HttpClient ile indiren sınıf.
+ * İstekler sanal thread'ler üzerinde bloklayarak yapılır; aynı anda uçuşta olan
+ * istek sayısı bir semafor ile, sunucu başına hız ve eşzamanlılık ise HostThrottle ile sınırlandırılır.
+ */
+public class HttpFetcher implements AutoCloseable {
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0 Safari/537.36";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();  // İstemcinin iç işleri için
+    private final HttpClient client;
+    private final Semaphore inFlight;        // Uçuştaki istek sınırı
+    private final Duration requestTimeout;   // Tek istek için zaman aşımı
+    private volatile PageArchive archive;    // İndirilen sayfaların kaydedildiği arşiv (kayıt kapalıysa null)
+    private volatile HostThrottle throttle = HostThrottle.shared();  // Sunucu başına sınırlayıcı (kapalıysa null)
+
+    /**
+     * Ayarları ScraperConfig'ten okuyarak bir fetcher oluşturur.
+     */
+    public HttpFetcher() {
+        this(ScraperConfig.httpMaxInFlight(), Duration.ofSeconds(ScraperConfig.httpTimeoutSeconds()));
+    }
+
+    /**
+     * @param maxInFlight Aynı anda yapılabilecek en fazla istek sayısı
+     * @param requestTimeout Tek bir istek için zaman aşımı
+     */
+    public HttpFetcher(int maxInFlight, Duration requestTimeout) {
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    /**
+     * Bundan sonra indirilen tüm sayfaların verilen arşive kaydedilmesini sağlar.
+     *
+     * @param archive Kayıt arşivi (null: kayıt yapılmaz)
+     * @return Bu fetcher
+     */
+    public HttpFetcher recordingTo(PageArchive archive) {
+        this.archive = archive;
+        return this;
+    }
+
+    /**
+     * Sunucu başına sınırlayıcıyı değiştirir; varsayılan olarak paylaşılan sınırlayıcı kullanılır.
+     *
+     * @param throttle Kullanılacak sınırlayıcı (null: sınırlama yapılmaz)
+     * @return Bu fetcher
+     */
+    public HttpFetcher throttledBy(HostThrottle throttle) {
+        this.throttle = throttle;
+        return this;
+    }
+
+    /**
+     * Verilen adresi GET isteğiyle indirir.
+     *
+     * @param url İndirilecek sayfanın adresi
+     * @return İndirilen sayfa
+     * @throws IOException Bağlantı veya okuma hatasında
+     * @throws InterruptedException Bekleme kesilirse
+     */
+    public HttpPage fetch(String url) throws IOException, InterruptedException {
+        return fetch(url, Map.of());
+    }
+
+    /**
+     * Verilen adresi ek başlıklarla GET isteğiyle indirir.
+     *
+     * @param url İndirilecek sayfanın adresi
+     * @param extraHeaders İsteğe eklenecek başlıklar
+     * @return İndirilen sayfa (durum kodu ne olursa olsun)
+     * @throws IOException Bağlantı veya okuma hatasında
+     * @throws InterruptedException Bekleme kesilirse
+     */
+    public HttpPage fetch(String url, Map<String, String> extraHeaders) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                .header("Accept-Language", "tr-TR,tr;q=0.9,en;q=0.8")
+                .GET();
+        extraHeaders.forEach(request::header);
+
+        HostThrottle limiter = throttle;
+        // Sunucunun izni beklenirken genel uçuş sınırından yer tutulmaz
+        HostThrottle.Permit permit = limiter != null ? limiter.acquire(url) : null;
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            if (permit != null) {
+                permit.cancel();
+            }
+            throw e;
+        }
+        long start = CrawlMetrics.start();
+        try (permit) {
+            if (permit != null) {
+                // Genel sınırda beklenen süre sunucunun gecikmesi sayılmaz
+                permit.started();
+            }
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (permit != null) {
+                permit.complete(response.statusCode(), response.headers().firstValue("Retry-After").orElse(null));
+            }
+            CrawlMetrics.time("fetch", start);
+            CrawlMetrics.count(response.statusCode() >= 400 ? "http_error" : "http_ok");
+            HttpPage page = new HttpPage(response.uri().toString(), response.statusCode(),
+                    response.headers().map(), response.body());
+            PageArchive recorder = archive;
+            if (recorder != null) {
+                recorder.record(url, page);
+            }
+            return page;
+        } catch (IOException e) {
+            CrawlMetrics.count("http_failed");
+            throw e;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * @return Alttaki HttpClient örneği
+     */
+    public HttpClient getClient() {
+        return client;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,60 @@
+package core.scraper;
+
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP ile indirilmiş bir sayfanın adresi, durum kodu, başlıkları ve gövdesi.
+ */
+public class HttpPage {
+    private final String url;                          // Yönlendirmeler sonrası son adres
+    private final int statusCode;                      // HTTP durum kodu
+    private final Map<String, List<String>> headers;   // Yanıt başlıkları
+    private final String body;                         // Yanıt gövdesi
+
+    public HttpPage(String url, int statusCode, Map<String, List<String>> headers, String body) {
+        this.url = url;
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Verilen başlığın ilk değerini büyük/küçük harf ayırmadan döndürür.
+     *
+     * @param name Başlık adı
+     * @return Başlık değeri veya yoksa null
+     */
+    public String getHeader(String name) {
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name) && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Durum kodu 2xx ise true
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+}
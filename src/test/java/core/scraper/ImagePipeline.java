@@ -0,0 +1,408 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import com.emlaksiteniz.ProductImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * İlan fotoğraflarını eşzamanlı indirip içerik özetine göre diske yazan boru hattı.
+ * Yanıt gövdesi bellekte biriktirilmeden, gelen parçalar halinde hem SHA-256 özetine
+ * eklenir hem de FileChannel ile geçici dosyaya yazılır; indirme bitince dosya
+ * "ab/abcdef....jpg" biçimindeki özet adına taşınır. Aynı içerik zaten varsa geçici
+ * dosya silinir, böylece ilanlar ve çalışmalar arasında tekrar eden fotoğraflar bir kez saklanır.
+ * Sunucu başına ve toplamda uçuştaki indirme sayısı semaforlarla sınırlandırılır; sunucuların
+ * hız sınırlarına ve Retry-After yanıtlarına HostThrottle ile uyulur.
+ */
+public class ImagePipeline implements AutoCloseable {
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0 Safari/537.36";
+    private static final Map<String, String> CONTENT_TYPE_EXTENSIONS = Map.of(
+            "image/jpeg", "jpg", "image/png", "png", "image/webp", "webp", "image/gif", "gif", "image/avif", "avif");
+
+    private final HttpClient client;
+    private final Path directory;
+    private final Path tempDirectory;
+    private final int perHostConcurrency;
+    private final int maxInFlight;
+    private final Semaphore inFlight;                                  // Toplam uçuştaki indirme sınırı
+    private final Map<String, Semaphore> hostLimits = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ProductImage>> downloads = new ConcurrentHashMap<>();  // URL -> süren indirme
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration requestTimeout;
+    private final AtomicLong downloadedBytes = new AtomicLong();
+    private final AtomicLong reusedFiles = new AtomicLong();           // Diskte zaten olan içerikler
+    private final AtomicLong requestedUrls = new AtomicLong();         // İndirilmesi istenen URL sayısı
+
+    /**
+     * Ayarları ScraperConfig'ten okuyarak bir boru hattı oluşturur.
+     *
+     * @param client İndirmelerde kullanılacak HTTP istemcisi
+     * @throws IOException Dizinler oluşturulamazsa
+     */
+    public ImagePipeline(HttpClient client) throws IOException {
+        this(client, Path.of(ScraperConfig.imageDirectory()), ScraperConfig.imagePerHostConcurrency(),
+                ScraperConfig.imageMaxInFlight(), Duration.ofSeconds(ScraperConfig.httpTimeoutSeconds()));
+    }
+
+    /**
+     * @param client İndirmelerde kullanılacak HTTP istemcisi
+     * @param directory Fotoğrafların saklanacağı dizin
+     * @param perHostConcurrency Aynı sunucuya aynı anda yapılacak en fazla indirme
+     * @param maxInFlight Toplamda aynı anda yapılacak en fazla indirme
+     * @param requestTimeout Tek indirme için zaman aşımı
+     * @throws IOException Dizinler oluşturulamazsa
+     */
+    public ImagePipeline(HttpClient client, Path directory, int perHostConcurrency, int maxInFlight,
+                         Duration requestTimeout) throws IOException {
+        this.client = client;
+        this.directory = directory.toAbsolutePath();
+        this.tempDirectory = this.directory.resolve("tmp");
+        this.perHostConcurrency = Math.max(1, perHostConcurrency);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.requestTimeout = requestTimeout;
+        Files.createDirectories(tempDirectory);
+    }
+
+    /**
+     * Tek bir fotoğrafı indirir. Aynı URL için süren bir indirme varsa aynı sonuç paylaşılır;
+     * biten indirmeler tablodan çıkarılır, tekrar istenen içerik diskte zaten olduğu için yeniden yazılmaz.
+     *
+     * @param url Fotoğrafın adresi
+     * @return Saklanan fotoğrafı veren future
+     */
+    public CompletableFuture<ProductImage> download(String url) {
+        CompletableFuture<ProductImage> running = downloads.get(url);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<ProductImage> created = new CompletableFuture<>();
+        running = downloads.putIfAbsent(url, created);
+        if (running != null) {
+            return running;
+        }
+        requestedUrls.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                ProductImage image = null;
+                Exception failure = null;
+                try {
+                    image = store(url);
+                } catch (IOException | RuntimeException e) {
+                    failure = e;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = e;
+                }
+                // Sonucu bekleyenler uyandığında aynı URL'nin yeni isteği bu future'ı bulmasın
+                downloads.remove(url, created);
+                if (failure != null) {
+                    created.completeExceptionally(failure);
+                } else {
+                    created.complete(image);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            downloads.remove(url, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * Ürünün tüm fotoğraflarını indirir ve sonuçları ürüne işler.
+     * İndirilemeyen fotoğraflar atlanır; URL listesi (imageUrl) olduğu gibi kalır.
+     *
+     * @param product Fotoğrafları indirilecek ürün
+     * @return Fotoğrafları işlenmiş ürünü veren future
+     */
+    public CompletableFuture<Product> attach(Product product) {
+        List<String> urls = product.getImageUrl() == null ? List.of() : product.getImageUrl();
+        List<CompletableFuture<ProductImage>> images = new ArrayList<>();
+        for (String url : urls) {
+            images.add(download(url).exceptionally(e -> {
+                System.err.println("Fotoğraf indirilemedi: " + url + " (" + rootMessage(e) + ")");
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(images.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            product.setImages(images.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList());
+            return product;
+        });
+    }
+
+    /**
+     * Ürünleri geliş sırasıyla alıp fotoğraflarını arka planda indiren ve aynı sırayla
+     * downstream'e ileten bir aşama oluşturur. Tek bir thread'den beslenmelidir.
+     *
+     * @param downstream Fotoğrafları işlenmiş ürünleri alan tüketici
+     * @return Boru hattı aşaması; sonunda drain() çağrılmalıdır
+     */
+    public Stage attaching(Consumer<Product> downstream) {
+        return new Stage(downstream);
+    }
+
+    /**
+     * @return İndirilen (yeni ya da tekrar eden) toplam bayt ve diskte zaten olan içerik sayısı
+     */
+    public String summary() {
+        return String.format("Fotoğraflar: %d URL, %.1f MB indirildi, %d tanesi diskte zaten vardı",
+                requestedUrls.get(), downloadedBytes.get() / 1048576.0, reusedFiles.get());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ürünlerin sırasını koruyarak fotoğraflarını indiren aşama.
+     * Bekleyen ürün sayısı toplam indirme sınırını geçmez; sıradaki ürün hazır oldukça iletilir.
+     */
+    public class Stage implements Consumer<Product> {
+        private final Consumer<Product> downstream;
+        private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+
+        private Stage(Consumer<Product> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void accept(Product product) {
+            pending.add(new Pending(attach(product)));
+            while (!pending.isEmpty() && (pending.size() > maxInFlight || pending.peek().product.isDone())) {
+                forward(pending.poll());
+            }
+        }
+
+        /**
+         * Verilen işi, şimdiye kadar alınan tüm ürünler downstream'e iletildikten sonra çalıştırır
+         * (örn: ilerleme günlüğüne ancak ürün çıktıya yazılınca tamamlandı yazılır). Bekleyen ürün
+         * yoksa hemen çalıştırır.
+         *
+         * @param action Çalıştırılacak iş
+         */
+        public void afterWritten(Runnable action) {
+            if (pending.isEmpty()) {
+                action.run();
+            } else {
+                pending.peekLast().afterWritten.add(action);
+            }
+        }
+
+        /**
+         * Bekleyen tüm ürünlerin indirmelerini bitirip sırayla iletir.
+         */
+        public void drain() {
+            while (!pending.isEmpty()) {
+                forward(pending.poll());
+            }
+        }
+
+        private void forward(Pending next) {
+            downstream.accept(next.product.join());
+            next.afterWritten.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Fotoğrafları inen bir ürün ve ürün iletildikten sonra çalıştırılacak işler.
+     */
+    private static final class Pending {
+        private final CompletableFuture<Product> product;
+        private final List<Runnable> afterWritten = new ArrayList<>(1);
+
+        private Pending(CompletableFuture<Product> product) {
+            this.product = product;
+        }
+    }
+
+    private ProductImage store(String url) throws IOException, InterruptedException {
+        URI uri = URI.create(url);
+        if (uri.getHost() == null) {
+            throw new IOException("Geçersiz fotoğraf adresi");
+        }
+        Semaphore hostLimit = hostLimits.computeIfAbsent(uri.getHost().toLowerCase(), host -> new Semaphore(perHostConcurrency));
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "image/avif,image/webp,image/*,*/*;q=0.8")
+                .GET()
+                .build();
+
+        Path temp = Files.createTempFile(tempDirectory, "download", ".part");
+        try {
+            HttpResponse<Long> response;
+            MessageDigest digest = sha256();
+            HostThrottle throttle = HostThrottle.shared();
+            hostLimit.acquire();
+            try {
+                HostThrottle.Permit permit = throttle != null ? throttle.acquire(url) : null;
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    if (permit != null) {
+                        permit.cancel();
+                    }
+                    throw e;
+                }
+                try (permit; FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    if (permit != null) {
+                        permit.started();
+                    }
+                    response = client.send(request, info -> info.statusCode() / 100 == 2
+                            ? HttpResponse.BodySubscribers.fromSubscriber(new HashingFileSubscriber(channel, digest),
+                                    HashingFileSubscriber::size)
+                            : HttpResponse.BodySubscribers.replacing(-1L));
+                    if (permit != null) {
+                        permit.complete(response.statusCode(), response.headers().firstValue("Retry-After").orElse(null));
+                    }
+                    if (response.statusCode() / 100 == 2) {
+                        channel.force(false);
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            } finally {
+                hostLimit.release();
+            }
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+
+            long size = response.body();
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String contentType = response.headers().firstValue("Content-Type").orElse("");
+            Path target = directory.resolve(hash.substring(0, 2)).resolve(hash + "." + extension(uri, contentType));
+            downloadedBytes.addAndGet(size);
+            if (Files.exists(target)) {
+                reusedFiles.incrementAndGet();
+            } else {
+                Files.createDirectories(target.getParent());
+                // Aynı içerik eşzamanlı indirilse bile dosyalar özdeş olduğundan yer değiştirme güvenlidir
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new ProductImage(url, target.toString(), hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String extension(URI uri, String contentType) {
+        String type = contentType.split(";")[0].trim().toLowerCase();
+        if (CONTENT_TYPE_EXTENSIONS.containsKey(type)) {
+            return CONTENT_TYPE_EXTENSIONS.get(type);
+        }
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        int dot = path.lastIndexOf('.');
+        if (dot > path.lastIndexOf('/') && path.length() - dot <= 5) {
+            String candidate = path.substring(dot + 1).toLowerCase();
+            if (candidate.matches("[a-z0-9]+")) {
+                return candidate;
+            }
+        }
+        return "bin";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+    }
+
+    /**
+     * Yanıt gövdesinin parçalarını sırayla özete ekleyip dosyaya yazan abone.
+     * Bir parça yazılmadan sonrakisi istenmez; böylece bellekte en fazla bir parça tutulur.
+     */
+    private static final class HashingFileSubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+        private final FileChannel channel;
+        private final MessageDigest digest;
+        private Flow.Subscription subscription;
+        private long size;
+        private IOException failure;      // Yazma hatası; kalan gövde okunup atılır
+
+        HashingFileSubscriber(FileChannel channel, MessageDigest digest) {
+            this.channel = channel;
+            this.digest = digest;
+        }
+
+        long size() {
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+            return size;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (failure == null) {
+                try {
+                    for (ByteBuffer buffer : buffers) {
+                        digest.update(buffer.duplicate());
+                        while (buffer.hasRemaining()) {
+                            size += channel.write(buffer);
+                        }
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // Hata, client.send çağrısından IOException olarak fırlatılır
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import com.emlaksiteniz.ProductImage;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Fotoğrafları yerel bir HTTP sunucusundan indirerek boru hattının içerik özetine göre saklamayı,
+ * hatalı yanıtları ve ürün sırasını doğrular.
+ */
+public class ImagePipelineTest {
+    private static final byte[] PHOTO = "fotoğraf içeriği".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private String origin;
+    private Path directory;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("image-pipeline");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/foto")) {
+                exchange.getResponseHeaders().add("Content-Type", "image/jpeg");
+                exchange.sendResponseHeaders(200, PHOTO.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(PHOTO);
+                }
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+            }
+        });
+        server.start();
+        origin = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void storesIdenticalPhotosOnceByContentHash() throws Exception {
+        try (ImagePipeline pipeline = newPipeline()) {
+            ProductImage first = pipeline.download(origin + "/foto-1.jpg").join();
+            ProductImage second = pipeline.download(origin + "/foto-2").join();
+
+            assertEquals(first.getSha256(), second.getSha256());
+            assertEquals(first.getPath(), second.getPath());
+            assertTrue(first.getPath().endsWith(".jpg"));
+            assertEquals(PHOTO.length, first.getSize());
+            assertArrayEquals(PHOTO, Files.readAllBytes(Path.of(first.getPath())));
+            try (var temp = Files.list(directory.resolve("tmp"))) {
+                assertEquals("Geçici dosya kalmamalı", 0, temp.count());
+            }
+            assertTrue(pipeline.summary(), pipeline.summary().contains("2 URL"));
+            assertTrue(pipeline.summary(), pipeline.summary().contains("1 tanesi diskte zaten vardı"));
+        }
+    }
+
+    @Test
+    public void failedDownloadCompletesExceptionallyAndIsNotCached() throws Exception {
+        try (ImagePipeline pipeline = newPipeline()) {
+            try {
+                pipeline.download(origin + "/yok.jpg").join();
+                fail("404 yanıtı hata olmalı");
+            } catch (CompletionException expected) {
+                assertTrue(expected.getCause() instanceof IOException);
+            }
+            // Biten indirme tablodan çıktığı için aynı URL yeniden denenir
+            int before = requests.get();
+            pipeline.download(origin + "/yok.jpg").exceptionally(e -> null).join();
+            assertTrue(requests.get() > before);
+        }
+    }
+
+    @Test
+    public void stageKeepsProductOrderAndSkipsFailedPhotos() throws Exception {
+        List<String> names = new ArrayList<>();
+        List<Integer> imageCounts = new ArrayList<>();
+        try (ImagePipeline pipeline = newPipeline()) {
+            ImagePipeline.Stage stage = pipeline.attaching(product -> {
+                names.add(product.getName());
+                imageCounts.add(product.getImages().size());
+            });
+            for (int i = 0; i < 5; i++) {
+                Product product = new Product();
+                product.setName("ilan-" + i);
+                product.setImageUrl(List.of(origin + "/foto-" + i + ".jpg", origin + "/yok-" + i + ".jpg"));
+                stage.accept(product);
+            }
+            stage.drain();
+        }
+        assertEquals(List.of("ilan-0", "ilan-1", "ilan-2", "ilan-3", "ilan-4"), names);
+        assertEquals(List.of(1, 1, 1, 1, 1), imageCounts);
+    }
+
+    @Test
+    public void afterWrittenRunsOnlyOnceEarlierProductsReachDownstream() throws Exception {
+        List<String> events = new ArrayList<>();
+        try (ImagePipeline pipeline = newPipeline()) {
+            ImagePipeline.Stage stage = pipeline.attaching(product -> events.add("yazıldı " + product.getName()));
+            stage.afterWritten(() -> events.add("boşken hemen"));
+            for (int i = 0; i < 3; i++) {
+                Product product = new Product();
+                product.setName("ilan-" + i);
+                product.setImageUrl(List.of(origin + "/foto-" + i + ".jpg"));
+                stage.accept(product);
+                int index = i;
+                stage.afterWritten(() -> events.add("tamamlandı ilan-" + index));
+            }
+            stage.drain();
+        }
+        assertEquals(List.of("boşken hemen", "yazıldı ilan-0", "tamamlandı ilan-0", "yazıldı ilan-1",
+                "tamamlandı ilan-1", "yazıldı ilan-2", "tamamlandı ilan-2"), events);
+    }
+
+    private ImagePipeline newPipeline() throws IOException {
+        return new ImagePipeline(HttpClient.newHttpClient(), directory, 2, 2, Duration.ofSeconds(10));
+    }
+}
@@ -5,28 +5,34 @@ import com.emlaksiteniz.Product;
 import com.google.gson.*;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 public class JSONHandler {
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();  // Her çağrıda yeniden oluşturulmaz
 
     /**
      * Verilen JSON dizisini belirtilen dosyaya yazar.
+     * Dosya her seferinde baştan yazılır; böylece içerik her zaman tek ve geçerli bir JSON dizisidir.
+     * Akış halinde yazım için {@link NdjsonSink} kullanılır.
      *
      * @param fileName Type: String Info: JSON verisinin yazılacağı dosyanın adı
      * @param jsonArray Type: JsonArray Info: Yazılacak JSON verisini içeren dizi
      * @throws IOException Eğer dosya yazma sırasında bir hata oluşursa
      */
     public static void writeJSONToFile(String fileName, List<Product> jsonArray) throws IOException {
-        // Dosyayı aç ve var olan içeriğe ekleme yap (append) için "true" kullanılır
-        try (FileWriter writer = new FileWriter(fileName, true)) {
+        // Dosyanın sonuna ikinci bir dizi eklemek geçersiz JSON üretir, bu yüzden üzerine yazılır
+        long start = CrawlMetrics.start();
+        try (Writer writer = new BufferedWriter(new FileWriter(fileName, StandardCharsets.UTF_8))) {
             // JSON verisini yazarken daha güzel formatlanmış (pretty-print) olmasını sağlarız
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            gson.toJson(jsonArray, writer);
+            PRETTY_GSON.toJson(jsonArray, writer);
         }
+        CrawlMetrics.time("write_json", start);
     }
 
     /**
      * Belirtilen dosyadan JSON verisini okur ve bir JsonArray olarak döndürür.
+     * Tüm dosya belleğe alınır; büyük dosyalar için {@link ProductReader} kullanılır.
      *
      * @param fileName Type: String Info: JSON verisini içeren dosyanın adı
      * @return Type: JsonArray Info: Dosyadaki JSON verisini bir JsonArray olarak döndürür. Eğer dosya boşsa veya mevcut değilse boş bir JsonArray döner.
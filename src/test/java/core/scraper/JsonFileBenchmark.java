@@ -0,0 +1,114 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.BenchmarkFixtures;
+import com.emlaksiteniz.Product;
+import com.google.gson.JsonArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JSONHandler'ın tüm listeyi yazıp okuyan yolları ile NdjsonSink/ProductReader akış
+ * yollarını 1 bin, 100 bin ve 1 milyon ürünle karşılaştırır.
+ * Her çağrı dosyanın tamamını işlediği için tek seferlik süre ölçülür.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class JsonFileBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int productCount;
+
+    private List<Product> products;
+    private Path directory;
+    private Path jsonFile;          // Okuma benchmark'ları için önceden yazılmış dosyalar
+    private Path ndjsonFile;
+    private Path writeTarget;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        products = BenchmarkFixtures.sampleProducts(productCount);
+        directory = Files.createTempDirectory("json-benchmark");
+        jsonFile = directory.resolve("products.json");
+        ndjsonFile = directory.resolve("products.ndjson");
+        writeTarget = directory.resolve("written");
+        JSONHandler.writeJSONToFile(jsonFile.toString(), products);
+        try (NdjsonSink sink = new NdjsonSink(ndjsonFile, Long.MAX_VALUE, Long.MAX_VALUE, 0)) {
+            for (Product product : products) {
+                sink.write(product);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearWriteTarget() throws IOException {
+        // NdjsonSink mevcut dosyaya eklediği için her yazımdan önce temizlenir
+        Files.deleteIfExists(writeTarget.resolveSibling("written.ndjson"));
+    }
+
+    @Benchmark
+    public Path writeJsonArray() throws IOException {
+        JSONHandler.writeJSONToFile(writeTarget.resolveSibling("written.json").toString(), products);
+        return writeTarget;
+    }
+
+    @Benchmark
+    public JsonArray readJsonArray() throws IOException {
+        return JSONHandler.readJSONFromFile(jsonFile.toString());
+    }
+
+    @Benchmark
+    public long writeNdjson() throws IOException {
+        try (NdjsonSink sink = new NdjsonSink(writeTarget.resolveSibling("written.ndjson"), Long.MAX_VALUE, Long.MAX_VALUE, 0)) {
+            for (Product product : products) {
+                sink.write(product);
+            }
+            return sink.getRecordCount();
+        }
+    }
+
+    @Benchmark
+    public long readNdjson() throws IOException {
+        try (Stream<Product> stream = ProductReader.stream(ndjsonFile, null)) {
+            return stream.count();
+        }
+    }
+
+    @Benchmark
+    public long readNdjsonProjected() throws IOException {
+        // Yalnızca iki alan nesneye dönüştürülür; diğerleri ayrıştırılmadan atlanır
+        try (Stream<Product> stream = ProductReader.stream(ndjsonFile, java.util.Set.of("price", "location"))) {
+            return stream.count();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package core.scraper;
+
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Süreleri (ns) sabit boyutlu, log-doğrusal kovalarda sayan kilitsiz histogram (HDR histogram tarzı).
+ * Her ikinin kuvveti aralığı 16 eşit kovaya bölünür; böylece yüzdelik değerlerin bağıl hatası
+ * %3'ü geçmez ve kayıt tek bir dizi elemanının artırılmasıyla yapılır. Dizi en fazla ~18 dakikalık
+ * süreleri kapsar; daha uzun süreler son kovaya yazılır.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;         // İlk 32 değer birebir saklanır
+    private static final int HALF = SUB_COUNT / 2;              // Her ikinin kuvveti aralığındaki kova sayısı
+    private static final int MAX_SHIFT = 36;                    // 2^41 ns'ye kadar
+    private static final int BUCKETS = SUB_COUNT + MAX_SHIFT * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param nanos Kaydedilecek süre (ns); negatifse 0 sayılır
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return Kaydedilen değer sayısı
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return Kaydedilen değerlerin toplamı (ns)
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return En büyük değer (ns)
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @return Ortalama (ns), kayıt yoksa 0
+     */
+    public double mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Verilen yüzdeliğe düşen kovanın orta noktasını döndürür.
+     *
+     * @param quantile 0 ile 1 arasında yüzdelik (örn: 0.99)
+     * @return Yüzdelik değeri (ns), kayıt yoksa 0
+     */
+    public long percentile(double quantile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(1, Math.max(0, quantile)) * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                long low = lowerBound(i);
+                long mid = low + (lowerBound(i + 1) - low - 1) / 2;
+                return Math.min(mid, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        if (shift > MAX_SHIFT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> shift);                      // HALF ile SUB_COUNT-1 arasında
+        return SUB_COUNT + (shift - 1) * HALF + (sub - HALF);
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_COUNT;
+        int shift = offset / HALF + 1;
+        return (long) (offset % HALF + HALF) << shift;
+    }
+}
@@ -0,0 +1,1127 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import com.google.gson.Gson;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Kazınan ürünleri site ve ilan numarasından oluşan anahtarla saklayan, yalnızca sona eklenen
+ * bölütlü (segment) kayıt deposu. Tek bir ilana ya da tüm ilanların son haline, çıktı dosyasının
+ * tamamını okumadan ulaşmak için kullanılır.
+ * <p>
+ * Her bölüt "LSEG" + sürüm başlığından ve PageArchive'daki gibi [uzunluk][CRC32][veri]
+ * kayıtlarından oluşur. Veri; sıra numarası, bayraklar (sıkıştırılmış, silinmiş), anahtar ve
+ * ürünün (isteğe bağlı Deflate ile sıkıştırılmış) JSON'udur. Bellekte anahtar başına son kaydın
+ * konumu tutulur. Kapanan bölütler salt okunur olarak belleğe eşlenir (mmap) ve yanlarına
+ * kayıt konumlarını içeren bir ipucu (.hint) dosyası yazılır; açılışta bölütlerin kendisi değil
+ * ipuçları okunur. İpucu olmayan (çökme sırasında açık kalmış) bölüt baştan taranır ve sonundaki
+ * yarım kayıt kesilip atılır.
+ * <p>
+ * Yazmalar tek bir yazıcı thread'de toplanır: o anda bekleyen tüm kayıtlar tek yazma ve tek fsync
+ * ile diske geçer (group commit). Kapanmış bölütlerdeki ölü (üzerine yazılmış ya da silinmiş)
+ * verinin oranı eşiği aşınca kapanmış bölütlerin tümü arka planda birleştirilir ve her ilanın
+ * yalnızca son hali yeni bölütlere kopyalanır. Aynı anahtarın hangi kaydının güncel olduğuna
+ * bölüt sırasıyla değil kayıttaki sıra numarasıyla karar verilir.
+ */
+public class ListingStore implements AutoCloseable {
+    private static final int MAGIC = 0x4c534547;        // "LSEG"
+    private static final int HINT_MAGIC = 0x4c484e54;   // "LHNT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_PREFIX = 8;         // Uzunluk + CRC32
+    private static final int RECORD_HEADER = 11;        // Sıra no + bayraklar + anahtar uzunluğu
+    private static final byte COMPRESSED = 1;
+    private static final byte DELETED = 2;
+    private static final int MIN_COMPRESS_BYTES = 256;
+    private static final int MAX_BATCH = 4096;
+    private static final String SEGMENT_EXTENSION = ".seg";
+    private static final String HINT_EXTENSION = ".hint";
+    private static final Gson GSON = new Gson();
+    private static final Pending STOP = new Pending(null, (byte) 0, null, null);
+
+    private static ListingStore shared;
+
+    /**
+     * Bir anahtarın son kaydının yeri. Yükleme sırasında silinmiş anahtarlar segment'i null olan
+     * bir konumla temsil edilir.
+     */
+    private record Location(Segment segment, int offset, int length, long seq) {
+        int size() {
+            return RECORD_PREFIX + length;
+        }
+    }
+
+    /**
+     * Yazıcı thread'e bırakılmış kayıt. Anahtarı null olan kayıt yazılmaz; yalnızca kendinden
+     * önceki kayıtların diske geçmesini beklemek için kullanılır.
+     */
+    private record Pending(String key, byte flags, byte[] body, CompletableFuture<Void> done) {
+    }
+
+    /**
+     * İpucu dosyasındaki tek kayıt.
+     */
+    private record HintEntry(String key, byte flags, int offset, int length, long seq) {
+    }
+
+    /**
+     * Okunan ipucu dosyası; superseded, bu dosyayı yazan birleştirmenin yerini aldığı bölütlerdir.
+     */
+    private record Hint(List<Integer> superseded, List<HintEntry> entries) {
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(int offset, int length, ByteBuffer payload) throws IOException;
+    }
+
+    /**
+     * Tek bir bölüt dosyası. Açık bölüt, yazıcının kanalından ayrı, salt okunur bir kanalla okunur:
+     * okuyan thread kesilirse NIO yalnızca okuyucu kanalını kapatır, yazıcı etkilenmez ve sonraki
+     * okuma yeni bir kanal açar. Bölüt kapandıktan sonra eşlenir ve iki kanal da kapatılır.
+     */
+    private static final class Segment {
+        private final int id;
+        private final Path file;
+        private final FileChannel channel;                      // Yalnızca yazıcı ve birleştirme
+        private FileChannel reader;                             // Okuyucuların kanalı; this ile korunur
+        private final AtomicLong liveBytes = new AtomicLong();  // Hâlâ güncel olan kayıtların toplam boyutu
+        private volatile MappedByteBuffer map;
+        private volatile boolean hinted;                        // İpucu yazıldı; birleştirilebilir
+        private volatile long size;                             // Yazılmış bayt sayısı
+
+        private Segment(int id, Path file, FileChannel channel, long size) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+            this.size = size;
+        }
+
+        private ByteBuffer read(int offset, int length) throws IOException {
+            MappedByteBuffer mapped = map;
+            if (mapped != null) {
+                return mapped.slice(offset, length);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            try {
+                FileChannel input = reader();
+                while (buffer.hasRemaining()) {
+                    if (input.read(buffer, offset + buffer.position()) < 0) {
+                        throw new EOFException("Depo kaydı okunamadı: " + file + "@" + offset);
+                    }
+                }
+            } catch (ClosedByInterruptException e) {
+                throw e;
+            } catch (ClosedChannelException e) {
+                // Okuma sırasında bölüt kapandı; artık eşlenmiş halinden okunur
+                return sealedMap(e).slice(offset, length);
+            }
+            return buffer.flip();
+        }
+
+        /**
+         * @return Bölütün şimdiye kadar yazılmış kısmı
+         */
+        private ByteBuffer view() throws IOException {
+            MappedByteBuffer mapped = map;
+            if (mapped != null) {
+                return mapped.duplicate();
+            }
+            try {
+                return reader().map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } catch (ClosedByInterruptException e) {
+                throw e;
+            } catch (ClosedChannelException e) {
+                return sealedMap(e).duplicate();
+            }
+        }
+
+        /**
+         * @return Okuyucu kanalı; kesilen bir okuma kapattıysa yenisi açılır
+         * @throws ClosedChannelException Bölüt kapandıysa
+         */
+        private synchronized FileChannel reader() throws IOException {
+            if (map != null) {
+                throw new ClosedChannelException();
+            }
+            if (reader == null || !reader.isOpen()) {
+                reader = FileChannel.open(file, StandardOpenOption.READ);
+            }
+            return reader;
+        }
+
+        private MappedByteBuffer sealedMap(ClosedChannelException cause) throws ClosedChannelException {
+            MappedByteBuffer mapped = map;
+            if (mapped == null) {
+                throw cause;
+            }
+            return mapped;
+        }
+
+        private void seal() throws IOException {
+            channel.force(false);
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            channel.close();
+            closeReader();
+        }
+
+        private synchronized void closeReader() throws IOException {
+            if (reader != null) {
+                reader.close();
+                reader = null;
+            }
+        }
+
+        private long garbageBytes() {
+            return Math.max(0, size - HEADER_SIZE - liveBytes.get());
+        }
+    }
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final boolean compress;
+    private final boolean fsync;
+    private final int compactPercent;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextSegmentId = new AtomicInteger(1);
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final ExecutorService compactor;
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder committedRecords = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private ByteBuffer batch = ByteBuffer.allocate(1024 * 1024);   // Yalnızca yazıcı thread
+    private long lastSeq;                                            // Yalnızca yazıcı thread
+    private volatile Segment active;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    private ListingStore(Path directory, long maxSegmentBytes, boolean compress, boolean fsync, int compactPercent) {
+        this.directory = directory;
+        this.maxSegmentBytes = Math.min(Integer.MAX_VALUE, Math.max(HEADER_SIZE + 1024, maxSegmentBytes));
+        this.compress = compress;
+        this.fsync = fsync;
+        this.compactPercent = compactPercent;
+        this.writer = new Thread(this::writeLoop, "listing-store-writer");
+        this.writer.setDaemon(true);
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "listing-store-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Ayarları ScraperConfig'ten okuyarak depoyu açar.
+     *
+     * @param directory Bölütlerin bulunduğu dizin; yoksa oluşturulur
+     * @return Açılmış depo
+     * @throws IOException Dizin ya da bölütler okunamazsa
+     */
+    public static ListingStore open(Path directory) throws IOException {
+        return open(directory, ScraperConfig.storeSegmentMb() * 1024L * 1024L, ScraperConfig.storeCompress(),
+                ScraperConfig.storeFsync(), ScraperConfig.storeCompactPercent());
+    }
+
+    /**
+     * @param directory Bölütlerin bulunduğu dizin; yoksa oluşturulur
+     * @param maxSegmentBytes Bu boyutu aşan bölüt kapatılıp yenisine geçilir
+     * @param compress Ürün JSON'ları Deflate ile sıkıştırılsın mı
+     * @param fsync Her toplu yazmadan sonra dosya diske zorlansın mı
+     * @param compactPercent Kapanmış bölütlerdeki ölü veri bu yüzdeye ulaşınca birleştirme başlar
+     * @return Açılmış depo
+     * @throws IOException Dizin ya da bölütler okunamazsa
+     */
+    public static ListingStore open(Path directory, long maxSegmentBytes, boolean compress, boolean fsync,
+                                    int compactPercent) throws IOException {
+        ListingStore store = new ListingStore(directory.toAbsolutePath(), maxSegmentBytes, compress, fsync, compactPercent);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            store.closeSegments();
+            throw e;
+        }
+        store.writer.start();
+        return store;
+    }
+
+    /**
+     * Ayarlarda bir depo dizini verilmişse (scraper.store) süreç boyunca paylaşılan depoyu döndürür.
+     * Depo, süreç kapanırken kapatılır.
+     *
+     * @return Paylaşılan depo veya depo kapalıysa null
+     * @throws IOException Depo açılamazsa
+     */
+    public static synchronized ListingStore shared() throws IOException {
+        if (shared == null && !ScraperConfig.storeDirectory().isEmpty()) {
+            ListingStore store = open(Path.of(ScraperConfig.storeDirectory()));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    System.err.println("İlan deposu kapatılamadı: " + e.getMessage());
+                }
+            }, "listing-store-close"));
+            shared = store;
+        }
+        return shared;
+    }
+
+    /**
+     * @param site Ürünün kazındığı site (örn: emlaksiteniz)
+     * @param product Ürün
+     * @return Depodaki anahtar: "site:ilan numarası"
+     */
+    public static String key(String site, Product product) {
+        return site + ":" + DuplicateDetector.listingNumber(product);
+    }
+
+    /**
+     * Ürünü yazıcı thread'e bırakır; aynı anahtarlı eski kaydın yerini alır.
+     * Dönen iş, kayıt diske yazılıp okunabilir olunca tamamlanır.
+     *
+     * @param site Ürünün kazındığı site
+     * @param product Yazılacak ürün
+     * @return Kaydın kalıcı olduğunu bildiren iş
+     */
+    public CompletableFuture<Void> append(String site, Product product) {
+        return submit(key(site, product), (byte) 0, GSON.toJson(product).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ürünü yazar ve diske geçene kadar bekler.
+     *
+     * @param site Ürünün kazındığı site
+     * @param product Yazılacak ürün
+     * @throws IOException Yazma başarısız olursa
+     */
+    public void put(String site, Product product) throws IOException {
+        await(append(site, product));
+    }
+
+    /**
+     * Anahtarı siler; silme kaydı da diğer kayıtlar gibi sona eklenir.
+     *
+     * @param key Silinecek anahtar
+     * @throws IOException Yazma başarısız olursa
+     */
+    public void delete(String key) throws IOException {
+        await(submit(key, DELETED, new byte[0]));
+    }
+
+    /**
+     * O ana kadar bırakılmış tüm kayıtların diske geçmesini bekler.
+     *
+     * @throws IOException Yazmalardan biri başarısız olduysa
+     */
+    public void flush() throws IOException {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (enqueue(new Pending(null, (byte) 0, null, done))) {
+            await(done);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * @param site Site
+     * @param advertisementNumber İlan numarası
+     * @return İlanın son hali veya yoksa null
+     * @throws IOException Okuma başarısız olursa ya da kayıt bozuksa
+     */
+    public Product get(String site, String advertisementNumber) throws IOException {
+        return get(site + ":" + advertisementNumber.strip());
+    }
+
+    /**
+     * @param key Depo anahtarı ("site:ilan numarası")
+     * @return İlanın son hali veya yoksa null
+     * @throws IOException Okuma başarısız olursa ya da kayıt bozuksa
+     */
+    public Product get(String key) throws IOException {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer record = location.segment().read(location.offset(), location.size());
+        ByteBuffer payload = record.slice(RECORD_PREFIX, location.length());
+        if (crc(payload) != record.getInt(4)) {
+            throw new IOException("Depo kaydı bozuk: " + location.segment().file + "@" + location.offset());
+        }
+        return decode(payload);
+    }
+
+    /**
+     * Her ilanın son halini bölüt ve dosya sırasıyla iletir. Tarama sürerken birleştirme beklenir;
+     * tarama sırasında yazılan bir ilan eski ya da yeni haliyle, ama yalnızca bir kez gelir.
+     *
+     * @param consumer Her ilanı alan tüketici
+     * @return İletilen ilan sayısı
+     * @throws IOException Okuma başarısız olursa
+     */
+    public long scan(Consumer<Product> consumer) throws IOException {
+        long start = CrawlMetrics.start();
+        long[] count = {0};
+        compactionLock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                forEachRecord(segment.view(), false, (offset, length, payload) -> {
+                    Location location = index.get(keyOf(payload));
+                    if (location != null && location.segment() == segment && location.offset() == offset) {
+                        consumer.accept(decode(payload));
+                        count[0]++;
+                    }
+                });
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+        CrawlMetrics.time("store_scan", start);
+        return count[0];
+    }
+
+    /**
+     * @return Depodaki anahtarlar (canlı görünüm)
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    /**
+     * @return Depodaki ilan sayısı
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Kapanmış bölütlerin tümünü birleştirir: güncel kayıtlar yeni bölütlere kopyalanır, eski
+     * bölütler silinir. Birleştirmenin son ipucu dosyası, yerini aldığı bölütleri listeler;
+     * silme yarıda kalırsa kalan bölütler sonraki açılışta silinir.
+     *
+     * @throws IOException Bölütler yazılamazsa
+     */
+    public void compact() throws IOException {
+        compactionLock.lock();
+        try {
+            List<Segment> inputs = new ArrayList<>();
+            for (Segment segment : segments.values()) {
+                if (segment.hinted) {
+                    inputs.add(segment);
+                }
+            }
+            if (inputs.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            long before = 0;
+            for (Segment input : inputs) {
+                before += input.size;
+            }
+
+            List<Segment> outputs = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            List<Location> from = new ArrayList<>();
+            List<Location> to = new ArrayList<>();
+            ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+            Segment[] out = {createSegment(false)};
+            outputs.add(out[0]);
+            for (Segment input : inputs) {
+                forEachRecord(input.map.duplicate(), false, (offset, length, payload) -> {
+                    String key = keyOf(payload);
+                    Location current = index.get(key);
+                    if (current == null || current.segment() != input || current.offset() != offset) {
+                        return;   // Üzerine yazılmış ya da silinmiş
+                    }
+                    int size = RECORD_PREFIX + length;
+                    if (out[0].size + buffer.position() + size > maxSegmentBytes && out[0].size + buffer.position() > HEADER_SIZE) {
+                        writeFully(out[0], buffer);
+                        out[0] = createSegment(false);
+                        outputs.add(out[0]);
+                    }
+                    if (size > buffer.remaining()) {
+                        writeFully(out[0], buffer);
+                    }
+                    ByteBuffer record = input.map.slice(offset, size);
+                    int newOffset = (int) (out[0].size + buffer.position());
+                    if (size > buffer.capacity()) {
+                        while (record.hasRemaining()) {
+                            out[0].size += out[0].channel.write(record, out[0].size);
+                        }
+                    } else {
+                        buffer.put(record);
+                    }
+                    keys.add(key);
+                    from.add(current);
+                    to.add(new Location(out[0], newOffset, length, current.seq()));
+                });
+            }
+            writeFully(out[0], buffer);
+
+            List<Integer> superseded = new ArrayList<>();
+            for (Segment input : inputs) {
+                superseded.add(input.id);
+            }
+            for (int i = 0; i < outputs.size(); i++) {
+                Segment output = outputs.get(i);
+                output.seal();
+                // Birleştirmenin tamamlandığını son ipucu işaretler
+                writeHint(output, i == outputs.size() - 1 ? superseded : List.of());
+                output.hinted = true;
+                segments.put(output.id, output);
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                Location previous = from.get(i);
+                Location next = to.get(i);
+                boolean[] moved = {false};
+                index.computeIfPresent(keys.get(i), (key, current) -> {
+                    if (current.equals(previous)) {
+                        moved[0] = true;
+                        return next;
+                    }
+                    return current;
+                });
+                if (moved[0]) {
+                    next.segment().liveBytes.addAndGet(next.size());
+                }
+            }
+            for (Segment input : inputs) {
+                segments.remove(input.id);
+                deleteSegmentFiles(input.id);
+            }
+
+            long after = 0;
+            for (Segment output : outputs) {
+                after += output.size;
+            }
+            compactions.increment();
+            System.out.printf("İlan deposu birleştirildi: %d bölüt (%.1f MB) -> %d bölüt (%.1f MB), %d ilan, %.0f ms%n",
+                    inputs.size(), before / 1e6, outputs.size(), after / 1e6, keys.size(), (System.nanoTime() - start) / 1e6);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * @return Depo durumunun tek satırlık özeti
+     */
+    public String summary() {
+        long bytes = 0;
+        long garbage = 0;
+        for (Segment segment : segments.values()) {
+            bytes += segment.size;
+            garbage += segment.garbageBytes();
+        }
+        long records = committedRecords.sum();
+        long batches = commits.sum();
+        return String.format("İlan deposu: %d ilan, %d bölüt, %.1f MB (%%%d ölü), %d kayıt %d toplu yazmada (ort. %.1f), %d birleştirme",
+                index.size(), segments.size(), bytes / 1e6, bytes == 0 ? 0 : garbage * 100 / bytes,
+                records, batches, batches == 0 ? 0.0 : (double) records / batches, compactions.sum());
+    }
+
+    /**
+     * @return Bölütlerin bulunduğu dizin
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Bekleyen kayıtları yazar, açık bölütü kapatıp ipucunu yazar. Kapandıktan sonra gelen
+     * yazmalar hata ile sonuçlanır.
+     *
+     * @throws IOException Son bölüt kapatılamazsa
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        queue.add(STOP);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        Pending leftover;
+        while ((leftover = queue.poll()) != null) {
+            if (leftover.done() != null) {
+                leftover.done().completeExceptionally(new IOException("İlan deposu kapatıldı"));
+            }
+        }
+        compactionLock.lock();
+        try {
+            Segment last = active;
+            if (last != null && last.map == null) {
+                if (last.size <= HEADER_SIZE) {
+                    last.channel.close();
+                    last.closeReader();
+                    segments.remove(last.id);
+                    deleteSegmentFiles(last.id);
+                } else {
+                    last.seal();
+                    writeHint(last, List.of());
+                }
+            }
+        } finally {
+            compactionLock.unlock();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private CompletableFuture<Void> submit(String key, byte flags, byte[] json) {
+        if (key.getBytes(StandardCharsets.UTF_8).length > 0xffff) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Depo anahtarı çok uzun: " + key));
+        }
+        byte[] body = json;
+        if (compress && json.length >= MIN_COMPRESS_BYTES) {
+            byte[] deflated = PageArchive.deflate(json);
+            if (deflated.length + 4 < json.length) {
+                body = ByteBuffer.allocate(4 + deflated.length).putInt(json.length).put(deflated).array();
+                flags |= COMPRESSED;
+            }
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        enqueue(new Pending(key, flags, body, done));
+        return done;
+    }
+
+    private boolean enqueue(Pending pending) {
+        IOException failed = failure;
+        if (failed != null) {
+            pending.done().completeExceptionally(failed);
+            return false;
+        }
+        if (closed) {
+            pending.done().completeExceptionally(new IOException("İlan deposu kapalı: " + directory));
+            return false;
+        }
+        queue.add(pending);
+        return true;
+    }
+
+    private static void await(CompletableFuture<Void> done) throws IOException {
+        try {
+            done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> pending = new ArrayList<>();
+        while (true) {
+            try {
+                pending.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (queue.isEmpty()) {
+                // Yazanlara sıra verilir ki toplu yazma tek kayıtla başlamasın
+                Thread.yield();
+            }
+            queue.drainTo(pending, MAX_BATCH - 1);
+            boolean stop = pending.remove(STOP);
+            if (!pending.isEmpty()) {
+                commit(pending);
+            }
+            pending.clear();
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Bekleyen kayıtları tek seferde açık bölüte yazar, gerekirse diske zorlar ve ancak ondan
+     * sonra dizini günceller ve bekleyenleri uyandırır. Yalnızca yazıcı thread'den çağrılır.
+     */
+    private void commit(List<Pending> pending) {
+        long start = CrawlMetrics.start();
+        List<Location> placed = new ArrayList<>(pending.size());
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            Segment segment = active;
+            batch.clear();
+            for (Pending record : pending) {
+                if (record.key() == null) {
+                    placed.add(null);
+                    continue;
+                }
+                byte[] key = record.key().getBytes(StandardCharsets.UTF_8);
+                int length = RECORD_HEADER + key.length + record.body().length;
+                long end = segment.size + batch.position();
+                if (end + RECORD_PREFIX + length > maxSegmentBytes && end > HEADER_SIZE) {
+                    writeFully(segment, batch);
+                    segment = rotate();
+                }
+                if (RECORD_PREFIX + length > batch.remaining()) {
+                    writeFully(segment, batch);
+                    if (RECORD_PREFIX + length > batch.capacity()) {
+                        batch = ByteBuffer.allocate(RECORD_PREFIX + length);
+                    }
+                }
+                int offset = (int) (segment.size + batch.position());
+                long seq = ++lastSeq;
+                int recordStart = batch.position();
+                batch.putInt(length).putInt(0)
+                        .putLong(seq).put(record.flags()).putShort((short) key.length).put(key).put(record.body());
+                batch.putInt(recordStart + 4, crc(batch.slice(recordStart + RECORD_PREFIX, length)));
+                placed.add(new Location(segment, offset, length, seq));
+            }
+            writeFully(segment, batch);
+            if (fsync) {
+                segment.channel.force(false);
+            }
+        } catch (IOException e) {
+            failure = e;
+            System.err.println("İlan deposuna yazılamadı: " + e.getMessage());
+            for (Pending record : pending) {
+                record.done().completeExceptionally(e);
+            }
+            return;
+        }
+
+        int records = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            Pending record = pending.get(i);
+            Location location = placed.get(i);
+            if (location != null) {
+                Location previous;
+                if ((record.flags() & DELETED) != 0) {
+                    previous = index.remove(record.key());
+                } else {
+                    previous = index.put(record.key(), location);
+                    location.segment().liveBytes.addAndGet(location.size());
+                }
+                if (previous != null) {
+                    previous.segment().liveBytes.addAndGet(-previous.size());
+                }
+                records++;
+            }
+            record.done().complete(null);
+        }
+        commits.increment();
+        committedRecords.add(records);
+        CrawlMetrics.time("store_commit", start);
+    }
+
+    private Segment rotate() throws IOException {
+        Segment sealed = active;
+        sealed.seal();
+        writeHint(sealed, List.of());
+        sealed.hinted = true;
+        active = createSegment(true);
+        maybeCompact();
+        return active;
+    }
+
+    private void maybeCompact() {
+        long bytes = 0;
+        long garbage = 0;
+        for (Segment segment : segments.values()) {
+            if (segment.hinted) {
+                bytes += segment.size;
+                garbage += segment.garbageBytes();
+            }
+        }
+        if (garbage > 0 && garbage * 100 >= bytes * compactPercent && compactionQueued.compareAndSet(false, true)) {
+            compactor.execute(() -> {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    System.err.println("İlan deposu birleştirilemedi: " + e.getMessage());
+                } finally {
+                    compactionQueued.set(false);
+                }
+            });
+        }
+    }
+
+    private Segment createSegment(boolean register) throws IOException {
+        int id = nextSegmentId.getAndIncrement();
+        Path file = segmentFile(id);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        Segment segment = new Segment(id, file, channel, HEADER_SIZE);
+        if (register) {
+            segments.put(id, segment);
+        }
+        return segment;
+    }
+
+    private static void writeFully(Segment segment, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segment.size += segment.channel.write(buffer, segment.size);
+        }
+        buffer.clear();
+    }
+
+    private void load() throws IOException {
+        Files.createDirectories(directory);
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_EXTENSION))
+                    .forEach(name -> {
+                        try {
+                            ids.add(Integer.parseInt(name.substring(0, name.length() - SEGMENT_EXTENSION.length())));
+                        } catch (NumberFormatException e) {
+                            System.err.println("İlan deposunda tanınmayan dosya atlandı: " + name);
+                        }
+                    });
+        }
+        Collections.sort(ids);
+
+        Map<Integer, Hint> hints = new HashMap<>();
+        Set<Integer> superseded = new HashSet<>();
+        for (int id : ids) {
+            Hint hint = readHint(hintFile(id));
+            if (hint != null) {
+                hints.put(id, hint);
+                superseded.addAll(hint.superseded());
+            }
+        }
+
+        Map<String, Location> latest = new HashMap<>();
+        for (int id : ids) {
+            nextSegmentId.set(Math.max(nextSegmentId.get(), id + 1));
+            if (superseded.contains(id)) {
+                // Birleştirme tamamlanmış ama eski bölüt silinmeden süreç durmuş
+                deleteSegmentFiles(id);
+                continue;
+            }
+            Segment segment = openSegment(id);
+            if (segment == null) {
+                continue;
+            }
+            segments.put(id, segment);
+            Hint hint = hints.get(id);
+            if (hint != null && hint.entries().stream().allMatch(entry -> entry.offset() + RECORD_PREFIX + (long) entry.length() <= segment.size)) {
+                for (HintEntry entry : hint.entries()) {
+                    recover(latest, entry.key(), entry.flags(), new Location(segment, entry.offset(), entry.length(), entry.seq()));
+                }
+            } else {
+                ByteBuffer data = segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.size);
+                int end = forEachRecord(data, true, (offset, length, payload) ->
+                        recover(latest, keyOf(payload), payload.get(8), new Location(segment, offset, length, payload.getLong(0))));
+                if (end < segment.size) {
+                    // Süreç yazarken öldürülmüş: yarım kayıt atılır
+                    System.err.println("İlan deposu bölütünün sonundaki yarım kayıt atıldı (" + (segment.size - end) + " bayt): " + segment.file);
+                    segment.channel.truncate(end);
+                    segment.size = end;
+                }
+            }
+            segment.seal();
+            if (hint == null) {
+                writeHint(segment, List.of());
+            }
+            segment.hinted = true;
+        }
+
+        for (Map.Entry<String, Location> entry : latest.entrySet()) {
+            Location location = entry.getValue();
+            lastSeq = Math.max(lastSeq, location.seq());
+            if (location.segment() != null) {
+                index.put(entry.getKey(), location);
+                location.segment().liveBytes.addAndGet(location.size());
+            }
+        }
+        active = createSegment(true);
+        if (!index.isEmpty()) {
+            System.out.println(summary());
+        }
+        maybeCompact();
+    }
+
+    private static void recover(Map<String, Location> latest, String key, byte flags, Location location) {
+        Location stored = (flags & DELETED) != 0 ? new Location(null, 0, 0, location.seq()) : location;
+        latest.merge(key, stored, (previous, next) -> next.seq() > previous.seq() ? next : previous);
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        Path file = segmentFile(id);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            // Oluşturulurken yarıda kalmış, kayıt içermeyen bölüt
+            channel.close();
+            deleteSegmentFiles(id);
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // Başlığın tamamı okunana kadar
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            channel.close();
+            throw new IOException("İlan deposu bölütü değil ya da sürümü desteklenmiyor: " + file);
+        }
+        return new Segment(id, file, channel, size);
+    }
+
+    /**
+     * Verideki geçerli kayıtları sırayla ziyaret eder.
+     *
+     * @return Son geçerli kaydın bittiği konum
+     */
+    private static int forEachRecord(ByteBuffer data, boolean verify, RecordVisitor visitor) throws IOException {
+        int offset = HEADER_SIZE;
+        int limit = data.limit();
+        while (offset + RECORD_PREFIX <= limit) {
+            int length = data.getInt(offset);
+            if (length < RECORD_HEADER || (long) offset + RECORD_PREFIX + length > limit) {
+                break;
+            }
+            ByteBuffer payload = data.slice(offset + RECORD_PREFIX, length);
+            if (verify && crc(payload) != data.getInt(offset + 4)) {
+                break;
+            }
+            visitor.visit(offset, length, payload);
+            offset += RECORD_PREFIX + length;
+        }
+        return offset;
+    }
+
+    private void writeHint(Segment segment, List<Integer> superseded) throws IOException {
+        List<HintEntry> entries = new ArrayList<>();
+        forEachRecord(segment.map.duplicate(), false, (offset, length, payload) ->
+                entries.add(new HintEntry(keyOf(payload), payload.get(8), offset, length, payload.getLong(0))));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 48);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(HINT_MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(superseded.size());
+        for (int id : superseded) {
+            out.writeInt(id);
+        }
+        out.writeInt(entries.size());
+        for (HintEntry entry : entries) {
+            byte[] key = entry.key().getBytes(StandardCharsets.UTF_8);
+            out.writeLong(entry.seq());
+            out.writeByte(entry.flags());
+            out.writeInt(entry.offset());
+            out.writeInt(entry.length());
+            out.writeShort(key.length);
+            out.write(key);
+        }
+        out.flush();
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        Path file = hintFile(segment.id);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Hint readHint(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (data.limit() < 20 || data.getInt() != HINT_MAGIC || data.getInt() != VERSION) {
+                throw new IOException("ipucu dosyası değil");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data.array(), 0, data.limit() - 4);
+            if ((int) crc.getValue() != data.getInt(data.limit() - 4)) {
+                throw new IOException("CRC tutmuyor");
+            }
+            int supersededCount = data.getInt();
+            List<Integer> superseded = new ArrayList<>(supersededCount);
+            for (int i = 0; i < supersededCount; i++) {
+                superseded.add(data.getInt());
+            }
+            int count = data.getInt();
+            List<HintEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long seq = data.getLong();
+                byte flags = data.get();
+                int offset = data.getInt();
+                int length = data.getInt();
+                byte[] key = new byte[Short.toUnsignedInt(data.getShort())];
+                data.get(key);
+                entries.add(new HintEntry(new String(key, StandardCharsets.UTF_8), flags, offset, length, seq));
+            }
+            return new Hint(superseded, entries);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("İlan deposu ipucu okunamadı, bölüt taranacak: " + file + " (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    private static String keyOf(ByteBuffer payload) {
+        byte[] key = new byte[Short.toUnsignedInt(payload.getShort(9))];
+        payload.get(RECORD_HEADER, key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    private static Product decode(ByteBuffer payload) throws IOException {
+        int bodyStart = RECORD_HEADER + Short.toUnsignedInt(payload.getShort(9));
+        byte[] body = new byte[payload.limit() - bodyStart];
+        payload.get(bodyStart, body);
+        if ((payload.get(8) & COMPRESSED) != 0) {
+            int length = ByteBuffer.wrap(body).getInt();
+            body = PageArchive.inflate(Arrays.copyOfRange(body, 4, body.length), length);
+        }
+        return GSON.fromJson(new String(body, StandardCharsets.UTF_8), Product.class);
+    }
+
+    private static int crc(ByteBuffer data) {
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private void deleteSegmentFiles(int id) {
+        try {
+            Files.deleteIfExists(segmentFile(id));
+            Files.deleteIfExists(hintFile(id));
+        } catch (IOException e) {
+            System.err.println("İlan deposu bölütü silinemedi: " + segmentFile(id) + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private void closeSegments() {
+        compactor.shutdownNow();
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.close();
+                segment.closeReader();
+            } catch (IOException e) {
+                // Açılış zaten başarısız; ilk hata bildirilir
+            }
+        }
+    }
+
+    private Path segmentFile(int id) {
+        return directory.resolve(String.format("%06d%s", id, SEGMENT_EXTENSION));
+    }
+
+    private Path hintFile(int id) {
+        return directory.resolve(String.format("%06d%s", id, HINT_EXTENSION));
+    }
+
+    /**
+     * Bir kazıma çıktısını depoya aktarır, ardından rastgele ilanların okunma süresini ve
+     * tüm depoyu taramanın süresini ölçer.
+     *
+     * @param args Depo dizini (varsayılan: scraper.store ya da listing-store), isteğe bağlı
+     *             aktarılacak NDJSON çıktısı ve bu çıktının site adı (varsayılan: emlaksiteniz)
+     * @throws IOException Dosyalar okunamazsa
+     */
+    public static void main(String[] args) throws IOException {
+        String configured = ScraperConfig.storeDirectory();
+        Path directory = Path.of(args.length > 0 ? args[0] : configured.isEmpty() ? "listing-store" : configured);
+        try (ListingStore store = open(directory)) {
+            if (args.length > 1) {
+                String site = args.length > 2 ? args[2] : "emlaksiteniz";
+                long start = System.nanoTime();
+                long[] count = {0};
+                try (Stream<Product> products = ProductReader.streamRotated(Path.of(args[1]), null)) {
+                    products.forEach(product -> {
+                        store.append(site, product);
+                        count[0]++;
+                    });
+                }
+                store.flush();
+                System.out.printf("%d ilan %.0f ms'de aktarıldı%n", count[0], (System.nanoTime() - start) / 1e6);
+            }
+            System.out.println(store.summary());
+
+            List<String> keys = new ArrayList<>(store.keys());
+            if (!keys.isEmpty()) {
+                Collections.shuffle(keys);
+                int lookups = Math.min(10_000, keys.size());
+                long start = System.nanoTime();
+                for (int i = 0; i < lookups; i++) {
+                    store.get(keys.get(i));
+                }
+                System.out.printf("%d ilan okuması: ilan başına %.1f µs%n", lookups, (System.nanoTime() - start) / 1e3 / lookups);
+            }
+            long start = System.nanoTime();
+            long scanned = store.scan(product -> { });
+            System.out.printf("%d ilan %.0f ms'de tarandı%n", scanned, (System.nanoTime() - start) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * İlan deposunun yeniden açılışta kayıtları geri getirmesini, çökme sonrası yarım kaydı atmasını
+ * ve birleştirmenin (yarıda kalsa bile) yalnızca her ilanın son halini bırakmasını doğrular.
+ */
+public class ListingStoreTest {
+    private static final String SITE = "emlaksiteniz";
+    private static final long SMALL_SEGMENT = 1024;   // Birkaç kayıtta bir bölüt kapansın
+    private static final int NO_AUTO_COMPACTION = Integer.MAX_VALUE / 100;
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("listing-store");
+    }
+
+    @Test
+    public void reopenedStoreReturnsLatestValues() throws Exception {
+        try (ListingStore store = open()) {
+            store.put(SITE, product("1", "1.000.000 TL"));
+            store.put(SITE, product("2", "2.000.000 TL"));
+            store.put(SITE, product("1", "1.250.000 TL"));
+        }
+        try (ListingStore store = open()) {
+            assertEquals(2, store.size());
+            assertEquals("1.250.000 TL", store.get(SITE, "1").getPrice());
+            assertEquals("2.000.000 TL", store.get(SITE, " 2 ").getPrice());
+            assertNull(store.get(SITE, "3"));
+        }
+    }
+
+    @Test
+    public void tornTailIsTruncatedOnRecovery() throws Exception {
+        try (ListingStore store = open()) {
+            store.put(SITE, product("1", "1.000.000 TL"));
+            store.put(SITE, product("2", "2.000.000 TL"));
+        }
+        Path segment = onlyFile(".seg");
+        long intact = Files.size(segment);
+        // İpucu yazılamadan ölen süreç: bölüt taranır, sonundaki yarım kayıt atılır
+        Files.delete(Path.of(segment.toString().replace(".seg", ".hint")));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(20).putInt(500).putInt(0).put("yarım".getBytes(StandardCharsets.UTF_8)).flip());
+        }
+
+        try (ListingStore store = open()) {
+            assertEquals(intact, Files.size(segment));
+            assertEquals(2, store.size());
+            assertEquals("2.000.000 TL", store.get(SITE, "2").getPrice());
+            store.put(SITE, product("3", "3.000.000 TL"));
+        }
+        try (ListingStore store = open()) {
+            assertEquals(3, store.size());
+            assertEquals("3.000.000 TL", store.get(SITE, "3").getPrice());
+        }
+    }
+
+    @Test
+    public void compactionKeepsLatestValuesAndDropsTombstones() throws Exception {
+        try (ListingStore store = open()) {
+            writeHistory(store);
+            store.compact();
+            assertLatest(store);
+        }
+        try (ListingStore store = open()) {
+            assertLatest(store);
+            List<Product> scanned = new ArrayList<>();
+            assertEquals(store.size(), store.scan(scanned::add));
+        }
+        for (Path segment : files(".seg")) {
+            String content = new String(Files.readAllBytes(segment), StandardCharsets.ISO_8859_1);
+            assertFalse("Silinen ilan birleştirmede kalmamalı: " + segment, content.contains(SITE + ":silinen"));
+        }
+    }
+
+    @Test
+    public void interruptedCompactionDoesNotResurrectOldValues() throws Exception {
+        Path before = Files.createTempDirectory("listing-store-before");
+        try (ListingStore store = open()) {
+            writeHistory(store);
+            // Birleştirmenin girdileri: kapanmış bölütler ve ipuçları
+            for (Path file : files("")) {
+                Files.copy(file, before.resolve(file.getFileName()));
+            }
+            store.compact();
+        }
+        // Çıktı yazılmış, girdilerin yalnızca bir kısmı silinmişken süreç durmuş gibi ilk bölüt geri konur:
+        // silinen ilanın eski hali bu bölütte, silme kaydı ise silinmiş bir sonrakindedir
+        List<Path> restored = new ArrayList<>();
+        String first;
+        try (Stream<Path> files = Files.list(before)) {
+            first = files.map(path -> path.getFileName().toString()).filter(name -> name.endsWith(".seg"))
+                    .sorted().findFirst().orElseThrow().replace(".seg", ".");
+        }
+        try (Stream<Path> files = Files.list(before)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().startsWith(first)).toList()) {
+                Path target = directory.resolve(file.getFileName());
+                assertFalse(Files.exists(target));
+                Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+                restored.add(target);
+            }
+        }
+        assertEquals(2, restored.size());
+
+        try (ListingStore store = open()) {
+            assertLatest(store);
+            for (Path file : restored) {
+                assertFalse("Yerini alan birleştirme varken eski bölüt silinmeli: " + file, Files.exists(file));
+            }
+        }
+    }
+
+    /**
+     * Kapanmış bölütlere yayılan, üzerine yazılmış ve silinmiş kayıtlar içeren bir geçmiş yazar.
+     */
+    private static void writeHistory(ListingStore store) throws IOException {
+        store.put(SITE, product("degisen", "1.000.000 TL"));
+        store.put(SITE, product("silinen", "5.000.000 TL"));
+        store.put(SITE, product("sabit", "750.000 TL"));
+        for (int i = 0; i < 20; i++) {
+            store.put(SITE, product("dolgu-" + i, i + ".000 TL"));
+        }
+        store.put(SITE, product("degisen", "1.100.000 TL"));
+        store.delete(SITE + ":silinen");
+        // Son değişiklikler de kapanmış bölütlere geçsin
+        for (int i = 0; i < 20; i++) {
+            store.put(SITE, product("dolgu-" + i, i + ".500 TL"));
+        }
+    }
+
+    private static void assertLatest(ListingStore store) throws IOException {
+        assertEquals(22, store.size());
+        assertEquals("1.100.000 TL", store.get(SITE, "degisen").getPrice());
+        assertEquals("750.000 TL", store.get(SITE, "sabit").getPrice());
+        assertEquals("19.500 TL", store.get(SITE, "dolgu-19").getPrice());
+        assertNull(store.get(SITE, "silinen"));
+        assertFalse(store.keys().contains(SITE + ":silinen"));
+    }
+
+    private ListingStore open() throws IOException {
+        return ListingStore.open(directory, SMALL_SEGMENT, false, false, NO_AUTO_COMPACTION);
+    }
+
+    private Path onlyFile(String extension) throws IOException {
+        List<Path> found = files(extension);
+        assertEquals(found.toString(), 1, found.size());
+        return found.get(0);
+    }
+
+    private List<Path> files(String extension) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(extension)).sorted().toList();
+        }
+    }
+
+    private static Product product(String advertisementNumber, String price) {
+        Product product = new Product();
+        product.setAdvertisementNumber(advertisementNumber);
+        product.setName("İlan " + advertisementNumber);
+        product.setPrice(price);
+        return product;
+    }
+}
@@ -0,0 +1,341 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kazınan ürünleri geldikleri anda satır başına bir JSON nesnesi (NDJSON) olarak yazan çıktı.
+ * Kayıtlar bir tampon üzerinden FileChannel'a yazılır, belirli aralıklarla işletim sistemine
+ * aktarılır (flush) ve diske zorlanır (fsync). Dosya belirlenen boyutu aşınca
+ * "ad.1.ndjson", "ad.2.ndjson" ... şeklinde yeni dosyaya geçilir.
+ * Her satır kendi başına geçerli JSON olduğundan, yarıda kesilen bir çalışmada
+ * tamamlanmış tüm kayıtlar okunabilir kalır; en fazla son satır yarım olabilir. Yarıda kalan
+ * çalışma sürdürülürken bu yarım satır kesilir; yeni bir çalışma ise önceki çıktıyı siler.
+ */
+public final class NdjsonSink implements AutoCloseable {
+    private static final Gson GSON = new Gson();             // Tek satırlık (pretty-print olmayan) çıktı için
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String EXTENSION = ".ndjson";
+
+    private final Path directory;
+    private final String baseName;            // Uzantısız dosya adı
+    private final long maxFileBytes;          // Dönüşüm (rotation) sınırı
+    private final long flushIntervalMillis;   // 0 ise her kayıt hemen işletim sistemine aktarılır
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ScheduledExecutorService syncer;
+
+    private FileChannel channel;
+    private int fileIndex;
+    private long fileSize;                    // Açık dosyaya aktarılmış bayt sayısı
+    private long recordCount;
+    private long lastFlush = System.currentTimeMillis();
+    private boolean dirty;                    // Son fsync'ten sonra yazılmış veri var mı
+
+    /**
+     * Ayarları ScraperConfig'ten okuyarak yeni bir çıktı oluşturur; önceki çalışmanın dosyaları silinir.
+     *
+     * @param path Yazılacak dosya (örn: compiled.ndjson)
+     * @throws IOException Dosya açılamazsa
+     */
+    public NdjsonSink(Path path) throws IOException {
+        this(path, false);
+    }
+
+    /**
+     * Ayarları ScraperConfig'ten okuyarak bir çıktı oluşturur.
+     *
+     * @param path Yazılacak dosya (örn: compiled.ndjson)
+     * @param resume Yarıda kalmış bir çalışmanın çıktısına devam edilecekse true
+     * @throws IOException Dosya açılamazsa
+     */
+    public NdjsonSink(Path path, boolean resume) throws IOException {
+        this(path, ScraperConfig.sinkMaxFileMb() * 1024L * 1024L,
+                ScraperConfig.sinkFlushIntervalMillis(), ScraperConfig.sinkFsyncIntervalMillis(), resume);
+    }
+
+    /**
+     * Yeni bir çıktı oluşturur; önceki çalışmanın dosyaları silinir.
+     *
+     * @param path Yazılacak dosya
+     * @param maxFileBytes Bu boyutu aşan dosya kapatılıp yenisine geçilir
+     * @param flushIntervalMillis Tampondaki kayıtların en fazla ne kadar bekleyeceği (0: beklemez)
+     * @param fsyncIntervalMillis Dosyanın diske zorlanma aralığı (0: yalnızca kapatırken)
+     * @throws IOException Dosya açılamazsa
+     */
+    public NdjsonSink(Path path, long maxFileBytes, long flushIntervalMillis, long fsyncIntervalMillis) throws IOException {
+        this(path, maxFileBytes, flushIntervalMillis, fsyncIntervalMillis, false);
+    }
+
+    /**
+     * Devam edilen çalışmada son dosyanın sonundaki yarım satır (çökme sırasında yazılmakta olan
+     * kayıt) kesilip atılır, yeni kayıtlar son tam satırın arkasına eklenir. Yeni çalışmada önceki
+     * çalışmanın tüm dosyaları (dönüşümle açılanlar dahil) silinir.
+     *
+     * @param path Yazılacak dosya
+     * @param maxFileBytes Bu boyutu aşan dosya kapatılıp yenisine geçilir
+     * @param flushIntervalMillis Tampondaki kayıtların en fazla ne kadar bekleyeceği (0: beklemez)
+     * @param fsyncIntervalMillis Dosyanın diske zorlanma aralığı (0: yalnızca kapatırken)
+     * @param resume Yarıda kalmış bir çalışmanın çıktısına devam edilecekse true
+     * @throws IOException Dosya açılamazsa
+     */
+    public NdjsonSink(Path path, long maxFileBytes, long flushIntervalMillis, long fsyncIntervalMillis,
+                      boolean resume) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        this.directory = absolute.getParent();
+        String fileName = absolute.getFileName().toString();
+        this.baseName = fileName.endsWith(EXTENSION) ? fileName.substring(0, fileName.length() - EXTENSION.length()) : fileName;
+        this.maxFileBytes = Math.max(1, maxFileBytes);
+        this.flushIntervalMillis = flushIntervalMillis;
+
+        Files.createDirectories(directory);
+        int lastIndex = 0;
+        while (Files.exists(fileFor(lastIndex + 1))) {
+            lastIndex++;
+        }
+        if (resume) {
+            // Önceki çalışmanın son dosyasına, son tam satırdan itibaren eklemeye devam edilir
+            fileIndex = lastIndex;
+            truncateTornLine(fileFor(fileIndex));
+            openCurrent();
+        } else {
+            for (int index = lastIndex; index > 0; index--) {
+                Files.delete(fileFor(index));
+            }
+            Files.deleteIfExists(fileFor(0));
+            openCurrent();
+        }
+
+        if (fsyncIntervalMillis > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ndjson-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::syncQuietly, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    /**
+     * Bir ürünü tek satırlık JSON olarak yazar. Birden fazla thread'den çağrılabilir.
+     *
+     * @param product Yazılacak ürün
+     * @throws IOException Yazma başarısız olursa
+     */
+    public synchronized void write(Product product) throws IOException {
+        long start = CrawlMetrics.start();
+        byte[] line = (GSON.toJson(product) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        long pending = fileSize + buffer.position();
+        if (pending > 0 && pending + line.length > maxFileBytes) {
+            rotate();
+        }
+        if (line.length > buffer.remaining()) {
+            flushBuffer();
+        }
+        if (line.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(line));
+        } else {
+            buffer.put(line);
+        }
+        recordCount++;
+
+        long now = System.currentTimeMillis();
+        if (flushIntervalMillis <= 0 || now - lastFlush >= flushIntervalMillis) {
+            flushBuffer();
+            lastFlush = now;
+        }
+        CrawlMetrics.time("write", start);
+    }
+
+    /**
+     * Tampondaki kayıtları dosyaya yazar ve dosyayı diske zorlar.
+     *
+     * @throws IOException Yazma başarısız olursa
+     */
+    public synchronized void flush() throws IOException {
+        flushBuffer();
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Tampondaki kayıtları diske zorlar ve çıktının o anki sonunu döndürür.
+     *
+     * @return Şu ana kadar yazılan kayıtların bittiği konum
+     * @throws IOException Yazma başarısız olursa
+     */
+    public synchronized Position checkpoint() throws IOException {
+        flush();
+        return new Position(fileIndex, fileSize);
+    }
+
+    /**
+     * Çıktıyı daha önce alınmış bir konuma geri kısaltır; o konumdan sonra açılmış dosyalar silinir.
+     * Yarıda kalan bir birleştirmenin önceki çalışmada yazdığı kayıtları geri almak içindir.
+     *
+     * @param position checkpoint() ile alınmış konum
+     * @throws IOException Dosyalar kısaltılamazsa
+     */
+    public synchronized void rollback(Position position) throws IOException {
+        buffer.clear();
+        channel.close();
+        for (int index = fileIndex; index > position.fileIndex(); index--) {
+            Files.deleteIfExists(fileFor(index));
+        }
+        fileIndex = position.fileIndex();
+        try (FileChannel writer = FileChannel.open(fileFor(fileIndex), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (writer.size() > position.size()) {
+                System.err.println(fileFor(fileIndex) + " yarıda kalan kayıtlardan geri alındı ("
+                        + (writer.size() - position.size()) + " bayt)");
+                writer.truncate(position.size());
+                writer.force(false);
+            }
+        }
+        openCurrent();
+    }
+
+    /**
+     * Çıktıda bir konum: dönüşüm dosyasının sırası ve o dosyadaki bayt sayısı.
+     *
+     * @param fileIndex Dosya sırası (0: asıl dosya)
+     * @param size Dosyadaki bayt sayısı
+     */
+    public record Position(int fileIndex, long size) {
+        /**
+         * @param text toString() ile yazılmış konum ("sıra:bayt")
+         * @return Okunan konum
+         * @throws IllegalArgumentException Metin bir konum değilse
+         */
+        public static Position parse(String text) {
+            int colon = text.indexOf(':');
+            try {
+                return new Position(Integer.parseInt(text.substring(0, colon)), Long.parseLong(text.substring(colon + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Geçersiz çıktı konumu: " + text, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return fileIndex + ":" + size;
+        }
+    }
+
+    /**
+     * @return Bu çıktıya yazılan kayıt sayısı
+     */
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return Şu anda yazılan dosya
+     */
+    public synchronized Path getCurrentFile() {
+        return fileFor(fileIndex);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        if (channel != null && channel.isOpen()) {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.err.println("NDJSON çıktısı diske yazılamadı: " + e.getMessage());
+        }
+    }
+
+    private void rotate() throws IOException {
+        flush();
+        channel.close();
+        fileIndex++;
+        openCurrent();
+    }
+
+    private void openCurrent() throws IOException {
+        channel = FileChannel.open(fileFor(fileIndex),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+
+    /**
+     * Dosyayı son satır sonuna (\n) kadar kısaltır; hiç satır sonu yoksa dosya boşaltılır.
+     */
+    private static void truncateTornLine(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(8192);
+            long size = reader.size();
+            long end = size;
+            long keep = 0;
+            search:
+            while (end > 0) {
+                long start = Math.max(0, end - chunk.capacity());
+                chunk.clear().limit((int) (end - start));
+                while (chunk.hasRemaining() && reader.read(chunk, start + chunk.position()) >= 0) {
+                    // Parça tamamen okunana kadar
+                }
+                for (int i = chunk.position() - 1; i >= 0; i--) {
+                    if (chunk.get(i) == '\n') {
+                        keep = start + i + 1;
+                        break search;
+                    }
+                }
+                end = start;
+            }
+            if (keep < size) {
+                System.err.println(file + " sonundaki yarım kayıt kesildi (" + (size - keep) + " bayt)");
+                reader.truncate(keep);
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            fileSize += channel.write(source);
+        }
+        dirty = true;
+    }
+
+    private Path fileFor(int index) {
+        return directory.resolve(index == 0 ? baseName + EXTENSION : baseName + "." + index + EXTENSION);
+    }
+}
@@ -0,0 +1,392 @@
+package core.scraper;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Kazıma sırasında indirilen sayfaları (URL, durum kodu, başlıklar, gövde) saklayan,
+ * yalnızca sona eklenen kayıt arşivi. ReplayServer bu arşivi yerel bir HTTP sunucusundan
+ * yeniden sunar; böylece taramalar canlı siteye gitmeden tekrarlanabilir.
+ * <p>
+ * Dosya biçimi: "PGAR" + sürüm, ardından her kayıt için [uzunluk][CRC32][veri].
+ * Veri; zaman, URL, durum kodu, başlıklar ve Deflate ile sıkıştırılmış gövdeden oluşur.
+ * Açılışta dosya baştan taranıp URL başına son kaydın konumu bellekte tutulur; yarım
+ * kalmış (uzunluğu ya da CRC'si tutmayan) son kayıt kesilip atılır. Gövdeler ancak
+ * istendiğinde konumlu okuma ile diskten okunur.
+ */
+public class PageArchive implements AutoCloseable {
+    private static final int MAGIC = 0x50474152;  // "PGAR"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_PREFIX = 8;   // Uzunluk + CRC32
+
+    /**
+     * Arşivlenmiş tek bir yanıt.
+     *
+     * @param url Yanıtın alındığı tam adres
+     * @param statusCode HTTP durum kodu
+     * @param headers Yanıt başlıkları
+     * @param body Yanıt gövdesi
+     * @param recordedAt Kaydın alındığı zaman (epoch ms)
+     */
+    public record Entry(String url, int statusCode, Map<String, List<String>> headers, byte[] body, long recordedAt) {
+        /**
+         * Verilen başlığın ilk değerini büyük/küçük harf ayırmadan döndürür.
+         *
+         * @param name Başlık adı
+         * @return Başlık değeri veya yoksa null
+         */
+        public String header(String name) {
+            for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(name) && !entry.getValue().isEmpty()) {
+                    return entry.getValue().get(0);
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Location(long offset, int length, long bodyCrc) {
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();   // Anahtar -> son kaydın konumu
+    private final Set<String> origins = Collections.synchronizedSet(new LinkedHashSet<>());
+    private long end;                                                        // Sonraki kaydın yazılacağı konum
+
+    private PageArchive(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Arşivi açar; dosya yoksa oluşturur, varsa kayıtlarını dizinler.
+     *
+     * @param file Arşiv dosyası
+     * @return Açılmış arşiv
+     * @throws IOException Dosya açılamazsa ya da arşiv dosyası değilse
+     */
+    public static PageArchive open(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PageArchive archive = new PageArchive(file, channel);
+        try {
+            archive.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return archive;
+    }
+
+    /**
+     * Arşivde kayıtlar için kullanılan anahtar: sunucu adı, normalleştirilmiş yol ve sorgu
+     * (örn: emlaksiteniz.com/ilan-118). Şema ve "www." öneki anahtara girmez; sunucu adı girdiği için
+     * aynı yol farklı sunucularda (site ve CDN gibi) ayrı kaydedilir.
+     *
+     * @param url Tam adres (sunucu adı olmayan yolların anahtarı yalnızca yoldur)
+     * @return Arşiv anahtarı
+     */
+    public static String key(String url) {
+        String normalized = UrlNormalizer.normalize(url);
+        try {
+            URI uri = URI.create(normalized);
+            String host = uri.getRawAuthority() == null ? "" : uri.getRawAuthority();
+            if (host.startsWith("www.")) {
+                host = host.substring(4);
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            return host + (uri.getRawQuery() == null ? path : path + "?" + uri.getRawQuery());
+        } catch (IllegalArgumentException e) {
+            return normalized;
+        }
+    }
+
+    /**
+     * HTTP ile indirilmiş bir sayfayı arşive ekler. Gövde, Content-Type'taki karakter kümesiyle kodlanır.
+     * İstek yönlendirildiyse sayfa, tekrar oynatmada aynı istekle bulunabilmesi için istenen adresle de kaydedilir.
+     *
+     * @param requestedUrl İstenen adres
+     * @param page İndirilen sayfa
+     * @throws IOException Yazma başarısız olursa
+     */
+    public void record(String requestedUrl, HttpPage page) throws IOException {
+        byte[] body = page.getBody().getBytes(charsetOf(page.getHeader("Content-Type")));
+        record(page.getUrl(), page.getStatusCode(), page.getHeaders(), body);
+        if (!key(requestedUrl).equals(key(page.getUrl()))) {
+            record(requestedUrl, page.getStatusCode(), page.getHeaders(), body);
+        }
+    }
+
+    /**
+     * Bir yanıtı arşive ekler. Aynı adresin aynı durum kodu ve gövdeyle son kaydı varsa tekrar yazılmaz;
+     * gövdesiz 304 yanıtları önceki tam kaydın yerini almaması için hiç yazılmaz.
+     *
+     * @param url Yanıtın alındığı tam adres
+     * @param statusCode HTTP durum kodu
+     * @param headers Yanıt başlıkları
+     * @param body Yanıt gövdesi
+     * @throws IOException Yazma başarısız olursa
+     */
+    public void record(String url, int statusCode, Map<String, List<String>> headers, byte[] body) throws IOException {
+        if (statusCode == 304) {
+            return;
+        }
+        String key = key(url);
+        long bodyCrc = crc(body) ^ ((long) statusCode << 32);
+        Location previous = index.get(key);
+        if (previous != null && previous.bodyCrc() == bodyCrc) {
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(System.currentTimeMillis());
+        out.writeUTF(url);
+        out.writeInt(statusCode);
+        List<Map.Entry<String, String>> flat = new ArrayList<>();
+        headers.forEach((name, values) -> values.forEach(value -> flat.add(Map.entry(name, value))));
+        out.writeShort(flat.size());
+        for (Map.Entry<String, String> header : flat) {
+            out.writeUTF(header.getKey());
+            out.writeUTF(header.getValue());
+        }
+        out.writeInt(body.length);
+        out.write(deflate(body));
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_PREFIX + payload.length);
+        record.putInt(payload.length).putInt((int) crc(payload)).put(payload).flip();
+        synchronized (this) {
+            long offset = end;
+            while (record.hasRemaining()) {
+                channel.write(record, end + record.position());
+            }
+            end += record.limit();
+            index.put(key, new Location(offset, payload.length, bodyCrc));
+        }
+        origins.add(originOf(url));
+    }
+
+    /**
+     * @param url Tam adres (şema ve "www." öneki dikkate alınmaz)
+     * @return Adresin son kaydı veya yoksa null
+     * @throws IOException Okuma başarısız olursa
+     */
+    public Entry get(String url) throws IOException {
+        Location location = index.get(key(url));
+        return location == null ? null : read(location);
+    }
+
+    /**
+     * @return Arşivdeki farklı adres sayısı
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return Kaydedilen adreslerin kaynakları (örn: "https://emlaksiteniz.com"), ilk görülme sırasıyla
+     */
+    public List<String> origins() {
+        synchronized (origins) {
+            return new ArrayList<>(origins);
+        }
+    }
+
+    /**
+     * @return Arşiv dosyasının yolu
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+            channel.write(header, 0);
+            end = HEADER_SIZE;
+            return;
+        }
+        ByteBuffer header = readFully(0, HEADER_SIZE);
+        if (header == null || header.getInt() != MAGIC) {
+            throw new IOException("Sayfa arşivi değil: " + file);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Desteklenmeyen arşiv sürümü " + version + ": " + file);
+        }
+
+        long offset = HEADER_SIZE;
+        while (offset + RECORD_PREFIX <= size) {
+            ByteBuffer prefix = readFully(offset, RECORD_PREFIX);
+            int length = prefix.getInt();
+            int crc = prefix.getInt();
+            if (length <= 0 || offset + RECORD_PREFIX + length > size) {
+                break;
+            }
+            ByteBuffer payload = readFully(offset + RECORD_PREFIX, length);
+            if ((int) crc(payload.array()) != crc) {
+                break;
+            }
+            Entry entry = decode(payload.array());
+            long bodyCrc = crc(entry.body()) ^ ((long) entry.statusCode() << 32);
+            index.put(key(entry.url()), new Location(offset, length, bodyCrc));
+            origins.add(originOf(entry.url()));
+            offset += RECORD_PREFIX + length;
+        }
+        if (offset < size) {
+            // Süreç yazarken öldürülmüş: yarım kayıt atılır, sonraki kayıtlar temiz yerden başlar
+            System.err.println("Sayfa arşivinin sonundaki yarım kayıt atıldı (" + (size - offset) + " bayt): " + file);
+            channel.truncate(offset);
+        }
+        end = offset;
+    }
+
+    private Entry read(Location location) throws IOException {
+        ByteBuffer payload = readFully(location.offset() + RECORD_PREFIX, location.length());
+        if (payload == null) {
+            throw new IOException("Arşiv kaydı okunamadı: " + file + "@" + location.offset());
+        }
+        return decode(payload.array());
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long recordedAt = in.readLong();
+        String url = in.readUTF();
+        int statusCode = in.readInt();
+        int headerCount = in.readUnsignedShort();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = in.readUTF();
+            headers.computeIfAbsent(name, k -> new ArrayList<>()).add(in.readUTF());
+        }
+        int bodyLength = in.readInt();
+        byte[] body = inflate(in.readAllBytes(), bodyLength);
+        return new Entry(url, statusCode, headers, body, recordedAt);
+    }
+
+    static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] inflate(byte[] data, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] body = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(body, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IOException("Arşiv kaydının gövdesi bozuk");
+            }
+            return body;
+        } catch (DataFormatException e) {
+            throw new IOException("Arşiv kaydının gövdesi bozuk", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long crc(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    private static String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getRawAuthority();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * @param contentType Content-Type başlığı
+     * @return Başlıktaki karakter kümesi, yoksa ya da tanınmıyorsa UTF-8
+     */
+    static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            for (String part : contentType.split(";")) {
+                String trimmed = part.trim();
+                if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+                    } catch (IllegalArgumentException e) {
+                        return StandardCharsets.UTF_8;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
@@ -0,0 +1,14 @@
+package core.scraper;
+
+
+/**
+ * Açılan sayfada beklenen elementler hiç görünmediğinde (örn: kaldırılmış ilan) fırlatılır.
+ * Tarayıcı sağlıklıdır; bu yüzden WebDriverException değildir ve oturum çöktü olarak işaretlenmez.
+ */
+public class PageNotReadyException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PageNotReadyException(String message) {
+        super(message);
+    }
+}
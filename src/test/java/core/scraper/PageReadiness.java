@@ -0,0 +1,144 @@
+package core.scraper;
+
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sabit uyumalar ve genel seçicilere bekleme yerine, sayfanın gerçekten okunacak
+ * elementlerine göre bekleyen hazır olma motoru.
+ * Her yoklamada tek bir betikle hem istenen XPath'ler hem de DOM/ağ durgunluğu kontrol edilir:
+ * tüm elementler bulunduğunda hemen dönülür; sayfa yüklenip DOM ve kaynak sayısı birkaç
+ * yoklama boyunca değişmediği halde elementler yoksa boşuna beklenmez.
+ * Zaman aşımı, sayfa tipi başına gözlenen hazır olma sürelerinden uyarlanır
+ * (ortalama + 4 sapma, alt/üst sınırlar arasında). Bekleme ve çıkarma süreleri ayrı ayrı toplanır.
+ */
+public class PageReadiness {
+    // Sonuç: [eksik element sayısı, readyState, DOM düğüm sayısı, yüklenen kaynak sayısı]
+    private static final String PROBE_SCRIPT = """
+            var xpaths = arguments[0], missing = 0;
+            for (var i = 0; i < xpaths.length; i++) {
+              var r = document.evaluate(xpaths[i], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null);
+              if (!r.singleNodeValue) missing++;
+            }
+            var resources = window.performance ? performance.getEntriesByType('resource').length : 0;
+            return [missing, document.readyState, document.getElementsByTagName('*').length, resources];
+            """;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final int STABLE_POLLS = 5;                       // Durgun sayılması için değişmeden geçen yoklama
+    private static final Duration MIN_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration MAX_TIMEOUT = Duration.ofSeconds(15);
+
+    private final Map<String, AdaptiveTimeout> timeouts = new ConcurrentHashMap<>();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder extractNanos = new LongAdder();
+    private final LongAdder pages = new LongAdder();
+
+    /**
+     * Verilen XPath'lerin hepsi sayfada bulunana kadar bekler.
+     *
+     * @param driver Sayfanın açık olduğu tarayıcı
+     * @param pageType Zaman aşımının öğrenileceği sayfa tipi (örn: "detail", "listing")
+     * @param xpaths Beklenecek elementlerin XPath'leri
+     * @return Tüm elementler bulunduysa true; sayfa durulduğu ya da süre dolduğu halde eksik varsa false
+     */
+    public boolean await(WebDriver driver, String pageType, List<String> xpaths) {
+        AdaptiveTimeout timeout = timeouts.computeIfAbsent(pageType, type -> new AdaptiveTimeout());
+        long start = System.nanoTime();
+        long metricsStart = CrawlMetrics.start();
+        long deadline = start + timeout.current().toNanos();
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+
+        long lastNodes = -1;
+        long lastResources = -1;
+        int stablePolls = 0;
+        try {
+            while (true) {
+                List<?> probe = (List<?>) js.executeScript(PROBE_SCRIPT, xpaths);
+                long missing = ((Number) probe.get(0)).longValue();
+                if (missing == 0) {
+                    timeout.observe(System.nanoTime() - start);
+                    return true;
+                }
+
+                long nodes = ((Number) probe.get(2)).longValue();
+                long resources = ((Number) probe.get(3)).longValue();
+                boolean loaded = "complete".equals(probe.get(1));
+                stablePolls = loaded && nodes == lastNodes && resources == lastResources ? stablePolls + 1 : 0;
+                lastNodes = nodes;
+                lastResources = resources;
+                if (stablePolls >= STABLE_POLLS || System.nanoTime() >= deadline) {
+                    return false;
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waitNanos.add(System.nanoTime() - start);
+            CrawlMetrics.time("wait_" + pageType, metricsStart);
+        }
+    }
+
+    /**
+     * Bir sayfanın alan çıkarma süresini kaydeder.
+     *
+     * @param nanos Çıkarma için geçen süre (ns)
+     */
+    public void recordExtraction(long nanos) {
+        extractNanos.add(nanos);
+        CrawlMetrics.record("extract", nanos);
+        pages.increment();
+    }
+
+    /**
+     * @param pageType Sayfa tipi
+     * @return Bu sayfa tipi için şu anki zaman aşımı
+     */
+    public Duration currentTimeout(String pageType) {
+        return timeouts.computeIfAbsent(pageType, type -> new AdaptiveTimeout()).current();
+    }
+
+    /**
+     * @return Bekleme ve çıkarma sürelerinin özeti
+     */
+    public String summary() {
+        long count = Math.max(1, pages.sum());
+        return String.format("Bekleme: %.1f sn, çıkarma: %.1f sn (sayfa başına %.0f ms / %.0f ms)",
+                waitNanos.sum() / 1e9, extractNanos.sum() / 1e9,
+                waitNanos.sum() / 1e6 / count, extractNanos.sum() / 1e6 / count);
+    }
+
+    /**
+     * Gözlenen hazır olma sürelerinin üssel hareketli ortalaması ve sapmasından zaman aşımı üretir.
+     */
+    private static final class AdaptiveTimeout {
+        private static final double ALPHA = 0.2;
+        private double meanNanos = -1;
+        private double deviationNanos;
+
+        synchronized void observe(long nanos) {
+            if (meanNanos < 0) {
+                meanNanos = nanos;
+                deviationNanos = nanos / 2.0;
+                return;
+            }
+            deviationNanos = (1 - ALPHA) * deviationNanos + ALPHA * Math.abs(nanos - meanNanos);
+            meanNanos = (1 - ALPHA) * meanNanos + ALPHA * nanos;
+        }
+
+        synchronized Duration current() {
+            if (meanNanos < 0) {
+                return MAX_TIMEOUT;
+            }
+            long nanos = (long) (meanNanos + 4 * deviationNanos);
+            return Duration.ofNanos(Math.max(MIN_TIMEOUT.toNanos(), Math.min(MAX_TIMEOUT.toNanos(), nanos)));
+        }
+    }
+}
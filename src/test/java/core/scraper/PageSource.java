@@ -0,0 +1,45 @@
+package core.scraper;
+
+
+import java.util.List;
+
+/**
+ * Bir ürün sayfasından XPath ile değer okumak için ortak arayüz.
+ * Aynı alan çıkarma kodu hem tarayıcıda açılmış sayfalarda hem de
+ * HTTP ile indirilmiş HTML üzerinde çalışabilsin diye kullanılır.
+ */
+public interface PageSource {
+
+    /**
+     * İlk eşleşen elementin metnini döndürür.
+     *
+     * @param xpath Elementi bulmak için kullanılacak XPath seçici
+     * @return Elementin kırpılmış metni veya bulunamazsa boş string
+     */
+    String text(String xpath);
+
+    /**
+     * Eşleşen tüm elementlerin metinlerini belge sırasıyla döndürür.
+     *
+     * @param xpath Elementleri bulmak için kullanılacak XPath seçici
+     * @return Metinlerin listesi, eşleşme yoksa boş liste
+     */
+    List<String> texts(String xpath);
+
+    /**
+     * Eşleşen tüm elementlerin verilen özniteliğini belge sırasıyla döndürür.
+     *
+     * @param xpath Elementleri bulmak için kullanılacak XPath seçici
+     * @param attribute Okunacak öznitelik adı (örn: src)
+     * @return Öznitelik değerlerinin listesi, eşleşme yoksa boş liste
+     */
+    List<String> attributes(String xpath, String attribute);
+
+    /**
+     * Verilen XPath ile en az bir elementin bulunup bulunmadığını kontrol eder.
+     *
+     * @param xpath Aranacak XPath seçici
+     * @return Element varsa true
+     */
+    boolean exists(String xpath);
+}
@@ -0,0 +1,275 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Kazıma çıktılarını tek seferde belleğe almadan Product nesneleri olarak sırayla okuyan okuyucu.
+ * Hem JSON dizisi (compiled.json) hem NDJSON (compiled.ndjson) dosyalarını, hatta eski
+ * sürümlerin art arda eklenmiş dizilerini okuyabilir. Yalnızca istenen alanlar nesneye
+ * dönüştürülür, diğerleri ayrıştırılmadan atlanır; böylece bellek kullanımı dosya boyutundan bağımsızdır.
+ * NDJSON dosyaları satır satır okunur: ayrıştırılamayan bir satır (örn: çökme sırasında yarım kalmış
+ * kayıt) bildirilip atlanır, sonraki satırlardan okumaya devam edilir.
+ */
+public class ProductReader implements Iterator<Product>, AutoCloseable {
+    private static final Gson GSON = new Gson();
+    private static final int READ_BUFFER_SIZE = 1 << 20;  // 1 MB okuma tamponu
+
+    private final BufferedReader input;
+    private final JsonReader reader;        // JSON dizisi için akış okuyucusu; NDJSON'da null
+    private final Set<String> fields;       // null ise tüm alanlar okunur
+    private final String source;            // Hata mesajları için dosya adı
+    private Product next;
+    private boolean finished;
+    private long lineNumber;                // NDJSON'da son okunan satır
+    private long skippedLines;              // NDJSON'da ayrıştırılamadığı için atlanan satırlar
+
+    /**
+     * Dosyayı tüm alanlarıyla okuyacak bir okuyucu açar.
+     *
+     * @param path Okunacak dosya
+     * @throws IOException Dosya açılamazsa
+     */
+    public ProductReader(Path path) throws IOException {
+        this(path, null);
+    }
+
+    /**
+     * Dosyayı yalnızca verilen alanları doldurarak okuyacak bir okuyucu açar.
+     *
+     * @param path Okunacak dosya
+     * @param fields Okunacak Product alan adları (örn: "price", "location"); null ise hepsi
+     * @throws IOException Dosya açılamazsa
+     */
+    public ProductReader(Path path, Set<String> fields) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        // Geçersiz UTF-8 baytları (örn: yarım kalmış son satır) okumayı durdurmaz
+        BufferedReader buffered = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE), READ_BUFFER_SIZE), READ_BUFFER_SIZE);
+        this.input = buffered;
+        if (startsWithArray(buffered)) {
+            this.reader = new JsonReader(buffered);
+            // Gevşek mod, eski sürümlerin art arda eklenmiş dizilerini okumaya izin verir
+            this.reader.setLenient(true);
+        } else {
+            this.reader = null;
+        }
+        this.fields = fields;
+        this.source = path.toString();
+    }
+
+    /**
+     * Dosyadaki ürünleri tembel (lazy) bir Stream olarak döndürür.
+     * Stream kapatıldığında dosya da kapanır; try-with-resources ile kullanılmalıdır.
+     *
+     * @param path Okunacak dosya
+     * @param fields Okunacak alan adları; null ise hepsi
+     * @return Ürün akışı
+     * @throws IOException Dosya açılamazsa
+     */
+    public static Stream<Product> stream(Path path, Set<String> fields) throws IOException {
+        ProductReader productReader = new ProductReader(path, fields);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(productReader,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(productReader::closeQuietly);
+    }
+
+    /**
+     * NdjsonSink'in döndürdüğü tüm dosyaları (ad.ndjson, ad.1.ndjson, ...) sırayla tek akış olarak okur.
+     *
+     * @param path Ana çıktı dosyası (örn: compiled.ndjson)
+     * @param fields Okunacak alan adları; null ise hepsi
+     * @return Tüm dosyalardaki ürünlerin akışı
+     * @throws IOException Dosyalar listelenemezse
+     */
+    public static Stream<Product> streamRotated(Path path, Set<String> fields) throws IOException {
+        List<Path> files = new ArrayList<>();
+        String fileName = path.getFileName().toString();
+        String baseName = fileName.endsWith(".ndjson") ? fileName.substring(0, fileName.length() - 7) : fileName;
+        Path directory = path.toAbsolutePath().getParent();
+        if (Files.exists(path)) {
+            files.add(path);
+        }
+        for (int index = 1; Files.exists(directory.resolve(baseName + "." + index + ".ndjson")); index++) {
+            files.add(directory.resolve(baseName + "." + index + ".ndjson"));
+        }
+        return files.stream().flatMap(file -> {
+            try {
+                return stream(file, fields);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Product next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Product product = next;
+        next = null;
+        return product;
+    }
+
+    /**
+     * @return NDJSON dosyasında ayrıştırılamadığı için atlanan satır sayısı
+     */
+    public long getSkippedLines() {
+        return skippedLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            System.err.println("Dosya kapatılamadı: " + source);
+        }
+    }
+
+    /**
+     * Dosyanın ilk boşluk olmayan karakterine bakar; okuma konumu değişmez.
+     *
+     * @return Dosya bir JSON dizisiyle başlıyorsa true, NDJSON (ya da boş) ise false
+     */
+    private static boolean startsWithArray(BufferedReader buffered) throws IOException {
+        buffered.mark(READ_BUFFER_SIZE);
+        try {
+            for (int read = 0, c; read < READ_BUFFER_SIZE && (c = buffered.read()) >= 0; read++) {
+                if (!Character.isWhitespace(c) && c != '\uFEFF') {
+                    return c == '[';
+                }
+            }
+            return false;
+        } finally {
+            buffered.reset();
+        }
+    }
+
+    /**
+     * Bir sonraki ürüne kadar ilerler.
+     */
+    private Product readNext() {
+        return reader == null ? readNextLine() : readNextInArray();
+    }
+
+    /**
+     * NDJSON'da bir sonraki ayrıştırılabilen satırı okur; ayrıştırılamayan satırlar atlanır.
+     */
+    private Product readNextLine() {
+        try {
+            String line;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonReader lineReader = new JsonReader(new StringReader(line));
+                    Product product = readProduct(lineReader);
+                    if (lineReader.peek() != JsonToken.END_DOCUMENT) {
+                        throw new MalformedJsonException("Kayıttan sonra fazladan veri");
+                    }
+                    return product;
+                } catch (MalformedJsonException | JsonParseException | EOFException | IllegalStateException e) {
+                    // Yarım kalmış ya da bozuk kayıt: yalnızca bu satır kaybedilir
+                    skippedLines++;
+                    System.err.println("Okunamayan satır atlandı: " + source + ":" + lineNumber + " (" + e.getMessage() + ")");
+                }
+            }
+            finished = true;
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * JSON dizisinde bir sonraki ürün nesnesine kadar ilerler; dizi başlangıç/bitişleri atlanır.
+     */
+    private Product readNextInArray() {
+        try {
+            while (true) {
+                JsonToken token = reader.peek();
+                switch (token) {
+                    case BEGIN_ARRAY -> reader.beginArray();
+                    case END_ARRAY -> reader.endArray();
+                    case BEGIN_OBJECT -> {
+                        return readProduct(reader);
+                    }
+                    case END_DOCUMENT -> {
+                        finished = true;
+                        return null;
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+        } catch (EOFException | MalformedJsonException | JsonParseException e) {
+            // Yarıda kesilmiş bir yazımın son satırı: tamamlanmış kayıtlar okunmuştur
+            System.err.println("Dosyanın sonunda yarım kayıt atlandı: " + source);
+            finished = true;
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Product readProduct(JsonReader reader) throws IOException {
+        JsonObject object = new JsonObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (fields == null || fields.contains(name)) {
+                JsonElement value = JsonParser.parseReader(reader);
+                object.add(name, value);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return GSON.fromJson(object, Product.class);
+    }
+}
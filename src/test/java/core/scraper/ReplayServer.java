@@ -0,0 +1,314 @@
+package core.scraper;
+
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bir PageArchive'i yerel bir HTTP sunucusundan yeniden sunan, canlı sitenin yerine geçen sunucu.
+ * İstekler yol ve sorguya göre arşivdeki son kayıtla eşleştirilir; bulunamayanlar 404 döner.
+ * Metin gövdelerindeki kaydedilmiş site adresleri (örn: https://emlaksiteniz.com) sunucunun kendi
+ * adresiyle değiştirilir, böylece linkler ve sitemap canlı siteye değil bu sunucuya gider.
+ * Arşive ilk kaydedilen sunucu kökten, diğerleri (CDN gibi) /_replay/&lt;sunucu&gt;/ altından sunulur;
+ * böylece farklı sunuculardaki aynı yollar birbirine karışmaz.
+ * Gerçek ağ koşullarını taklit etmek için her yanıta sabit gecikme eklenebilir ve gövde
+ * bağlantı başına bant genişliği sınırıyla parça parça gönderilebilir.
+ * Kayıtlı ETag/Last-Modified değerleriyle gelen koşullu isteklere 304 döner.
+ * Sınırlayıcıları denemek için aşırı yük de taklit edilebilir: eşzamanlı istekler eşiğin yarısını
+ * aştıkça yanıtlar yavaşlar, eşiği aşanlar 429 ve Retry-After ile reddedilir, istenirse
+ * isteklerin bir kısmına rastgele 503 döner.
+ */
+public class ReplayServer implements AutoCloseable {
+    private static final int CHUNK_SIZE = 4 * 1024;
+    private static final String HOST_PREFIX = "/_replay/";                 // Ana sunucu dışındaki sunucuların yolu
+    private static final Duration OVERLOAD_DELAY = Duration.ofMillis(25);  // Eşiğin yarısını aşan her istek için ek gecikme
+    // Yeniden gönderilmeyen, sunucunun kendisinin belirlediği başlıklar
+    private static final Set<String> SKIPPED_HEADERS = Set.of("content-length", "content-encoding",
+            "transfer-encoding", "connection", "keep-alive", "date", "alt-svc", "strict-transport-security");
+
+    private final PageArchive archive;
+    private final int port;
+    private final Duration latency;          // Her yanıttan önce beklenen süre
+    private final long bytesPerSecond;       // Bağlantı başına bant genişliği (0: sınırsız)
+    private final LongAdder served = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder missing = new LongAdder();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();   // Şu anda işlenen istek sayısı
+    private int overloadAt;                  // Bu kadar eşzamanlı istekten fazlası 429 alır (0: kapalı)
+    private int errorPercent;                // Rastgele 503 dönen isteklerin yüzdesi
+    private HttpServer server;
+    private ExecutorService executor;
+    private List<String[]> rewrites = List.of();  // {kaydedilmiş adres, yerel adres} çiftleri
+    private String primaryHost = "";              // Kökten sunulan sunucu (www'suz)
+
+    /**
+     * @param archive Sunulacak arşiv
+     * @param port Dinlenecek port (0: boş bir port seçilir)
+     * @param latency Her yanıttan önce eklenecek gecikme
+     * @param bytesPerSecond Bağlantı başına bant genişliği (bayt/sn, 0: sınırsız)
+     */
+    public ReplayServer(PageArchive archive, int port, Duration latency, long bytesPerSecond) {
+        this.archive = archive;
+        this.port = port;
+        this.latency = latency;
+        this.bytesPerSecond = Math.max(0, bytesPerSecond);
+    }
+
+    /**
+     * Port, gecikme ve bant genişliğini ScraperConfig'ten okuyarak bir sunucu oluşturur.
+     *
+     * @param archive Sunulacak arşiv
+     * @return Henüz başlatılmamış sunucu
+     */
+    public static ReplayServer fromConfig(PageArchive archive) {
+        return new ReplayServer(archive, ScraperConfig.replayPort(),
+                Duration.ofMillis(ScraperConfig.replayLatencyMillis()), ScraperConfig.replayKbPerSecond() * 1024L)
+                .injectingFaults(ScraperConfig.replayOverloadAt(), ScraperConfig.replayErrorPercent());
+    }
+
+    /**
+     * Aşırı yük ve hata taklidini açar.
+     *
+     * @param overloadAt Bu kadar eşzamanlı istekten fazlası 429 ve Retry-After: 1 alır;
+     *                   yarısını aşan her istek yanıtları biraz daha yavaşlatır (0: kapalı)
+     * @param errorPercent Rastgele 503 dönecek isteklerin yüzdesi (0: kapalı)
+     * @return Bu sunucu
+     */
+    public ReplayServer injectingFaults(int overloadAt, int errorPercent) {
+        this.overloadAt = Math.max(0, overloadAt);
+        this.errorPercent = Math.min(100, Math.max(0, errorPercent));
+        return this;
+    }
+
+    /**
+     * Sunucuyu yalnızca yerel arayüzde başlatır.
+     *
+     * @return Bu sunucu
+     * @throws IOException Port açılamazsa
+     */
+    public ReplayServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+
+        List<String[]> pairs = new ArrayList<>();
+        for (String origin : archive.origins()) {
+            String host = origin.substring(origin.indexOf("://") + 3);
+            String bare = host.startsWith("www.") ? host.substring(4) : host;
+            if (primaryHost.isEmpty()) {
+                primaryHost = bare;
+            }
+            String local = bare.equals(primaryHost) ? origin() : origin() + HOST_PREFIX + bare;
+            for (String variant : List.of("https://" + bare, "http://" + bare, "https://www." + bare, "http://www." + bare)) {
+                pairs.add(new String[]{variant, local});
+            }
+        }
+        // Bir adres diğerinin öneki olabilir (örn: site.com ve site.com.tr); uzun olan önce değiştirilir
+        pairs.sort((a, b) -> Integer.compare(b[0].length(), a[0].length()));
+        rewrites = pairs;
+        server.start();
+        return this;
+    }
+
+    /**
+     * @return Sunucunun kök adresi (örn: http://127.0.0.1:41234)
+     */
+    public String origin() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return Sunucunun dinlediği port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return Sunulan, 304 dönen ve arşivde bulunamayan istek sayılarının okunabilir özeti
+     */
+    public String summary() {
+        String summary = String.format("Kayıttan sunulan: %d yanıt (%.1f MB), %d değişmedi (304), %d arşivde yok (404)",
+                served.sum(), sentBytes.sum() / 1048576.0, notModified.sum(), missing.sum());
+        return overloadAt > 0 || errorPercent > 0 ? summary + ", " + rejected.sum() + " reddedildi (429/503)" : summary;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int concurrent = active.incrementAndGet();
+        try (exchange) {
+            String host = primaryHost;
+            String target = exchange.getRequestURI().getRawPath();
+            if (target.startsWith(HOST_PREFIX)) {
+                int slash = target.indexOf('/', HOST_PREFIX.length());
+                host = target.substring(HOST_PREFIX.length(), slash < 0 ? target.length() : slash);
+                target = slash < 0 ? "/" : target.substring(slash);
+            }
+            if (exchange.getRequestURI().getRawQuery() != null) {
+                target += "?" + exchange.getRequestURI().getRawQuery();
+            }
+            PageArchive.Entry entry = archive.get("http://" + host + target);
+            pause(latency.toNanos());
+
+            if (overloadAt > 0 && concurrent > overloadAt) {
+                rejected.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+            if (errorPercent > 0 && ThreadLocalRandom.current().nextInt(100) < errorPercent) {
+                rejected.increment();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            if (overloadAt > 0) {
+                pause(OVERLOAD_DELAY.toNanos() * Math.max(0, concurrent - overloadAt / 2));
+            }
+
+            if (entry == null) {
+                missing.increment();
+                System.err.println("Arşivde yok: " + host + target);
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            Headers headers = exchange.getResponseHeaders();
+            entry.headers().forEach((name, values) -> {
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT)) && !name.startsWith(":")) {
+                    for (String value : values) {
+                        headers.add(name, name.equalsIgnoreCase("Location") ? rewrite(value) : value);
+                    }
+                }
+            });
+
+            if (isNotModified(exchange.getRequestHeaders(), entry)) {
+                notModified.increment();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            byte[] body = isText(entry.header("Content-Type")) ? rewriteBody(entry) : entry.body();
+            boolean head = "HEAD".equalsIgnoreCase(exchange.getRequestMethod());
+            exchange.sendResponseHeaders(entry.statusCode(), head || body.length == 0 ? -1 : body.length);
+            if (!head) {
+                send(exchange.getResponseBody(), body);
+            }
+            served.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gövdeyi parça parça yazar; bant genişliği sınırı varsa her parça, o hızda bitmesi
+     * gereken ana kadar bekletilip öyle gönderilir.
+     */
+    private void send(OutputStream out, byte[] body) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, body.length - offset);
+            if (bytesPerSecond > 0) {
+                long due = start + (offset + length) * 1_000_000_000L / bytesPerSecond;
+                pause(due - System.nanoTime());
+            }
+            out.write(body, offset, length);
+            out.flush();
+            sentBytes.add(length);
+        }
+    }
+
+    private static void pause(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    private static boolean isNotModified(Headers request, PageArchive.Entry entry) {
+        String ifNoneMatch = request.getFirst("If-None-Match");
+        String etag = entry.header("ETag");
+        if (ifNoneMatch != null && etag != null) {
+            return ifNoneMatch.equals(etag) || ifNoneMatch.equals("*");
+        }
+        String ifModifiedSince = request.getFirst("If-Modified-Since");
+        return ifModifiedSince != null && ifModifiedSince.equals(entry.header("Last-Modified"));
+    }
+
+    private static boolean isText(String contentType) {
+        if (contentType == null) {
+            return true;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("xml") || type.contains("json") || type.contains("javascript");
+    }
+
+    private byte[] rewriteBody(PageArchive.Entry entry) {
+        Charset charset = PageArchive.charsetOf(entry.header("Content-Type"));
+        String body = new String(entry.body(), charset);
+        String rewritten = rewrite(body);
+        // Değişiklik yoksa yeniden kodlanmaz
+        return rewritten.equals(body) ? entry.body() : rewritten.getBytes(charset);
+    }
+
+    private String rewrite(String text) {
+        for (String[] pair : rewrites) {
+            text = text.replace(pair[0], pair[1]);
+        }
+        return text;
+    }
+
+    /**
+     * Bir arşivi ayarlardaki gecikme ve bant genişliğiyle sunar; durdurulana kadar çalışır.
+     * Kazıyıcı ayrı bir süreçte -Dscraper.baseUrl=&lt;yazdırılan adres&gt; ile bu sunucuya yönlendirilir.
+     *
+     * @param args Arşiv dosyası (varsayılan: ScraperConfig.replayArchive() ya da pages.archive)
+     * @throws IOException Arşiv açılamazsa ya da port kullanılıyorsa
+     */
+    public static void main(String[] args) throws IOException {
+        String configured = ScraperConfig.replayArchive();
+        Path path = Path.of(args.length > 0 ? args[0] : configured.isEmpty() ? "pages.archive" : configured);
+        PageArchive archive = PageArchive.open(path);
+        ReplayServer server = fromConfig(archive).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            System.out.println(server.summary());
+            try {
+                archive.close();
+            } catch (IOException e) {
+                System.err.println("Arşiv kapatılamadı: " + e.getMessage());
+            }
+        }));
+        System.out.println(archive.size() + " sayfa " + server.origin() + " adresinden sunuluyor ("
+                + String.join(", ", archive.origins()) + " yerine)");
+        System.out.println("Kazıyıcıyı yönlendirmek için: -Dscraper.baseUrl=" + server.origin());
+    }
+}
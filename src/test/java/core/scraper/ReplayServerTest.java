@@ -0,0 +1,103 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bir ilan sayfasını arşive kaydedip ReplayServer üzerinden yeniden sunar ve sayfadan çıkarılan
+ * ürünün canlı sayfadakiyle aynı olduğunu, farklı sunuculardaki aynı yolların karışmadığını doğrular.
+ */
+public class ReplayServerTest {
+    private static final String PAGE = "https://emlaksiteniz.com/site-icinde-ferah-3-1-daire-118";
+    private static final String SITE_IMAGE = "https://emlaksiteniz.com/uploads/images/2024/10/ilan-118-1.jpg";
+    private static final String CDN_IMAGE = "https://cdn.emlaksiteniz.com/uploads/images/2024/10/ilan-118-1.jpg";
+    private static final byte[] SITE_PHOTO = "site fotoğrafı".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CDN_PHOTO = "cdn fotoğrafı".getBytes(StandardCharsets.UTF_8);
+
+    private Path directory;
+    private PageArchive archive;
+    private String html;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("replay-server");
+        archive = PageArchive.open(directory.resolve("pages.archive"));
+        try (InputStream in = getClass().getResourceAsStream("/fixtures/emlaksiteniz-detail.html")) {
+            assertNotNull("fixtures/emlaksiteniz-detail.html", in);
+            // İkinci fotoğraf, sitedekiyle aynı yoldaki bir CDN adresine taşınır
+            html = new String(in.readAllBytes(), StandardCharsets.UTF_8)
+                    .replace("https://emlaksiteniz.com/uploads/images/2024/10/ilan-118-2.jpg", CDN_IMAGE);
+        }
+        archive.record(PAGE, 200, Map.of("Content-Type", List.of("text/html; charset=UTF-8")),
+                html.getBytes(StandardCharsets.UTF_8));
+        archive.record(SITE_IMAGE, 200, Map.of("Content-Type", List.of("image/jpeg")), SITE_PHOTO);
+        archive.record(CDN_IMAGE, 200, Map.of("Content-Type", List.of("image/jpeg")), CDN_PHOTO);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        archive.close();
+    }
+
+    @Test
+    public void keyKeepsHostButIgnoresSchemeAndWww() throws Exception {
+        assertEquals("emlaksiteniz.com/uploads/images/2024/10/ilan-118-1.jpg", PageArchive.key("http://www.emlaksiteniz.com/uploads/images/2024/10/ilan-118-1.jpg/"));
+        assertArrayEquals(SITE_PHOTO, archive.get("http://www.emlaksiteniz.com/uploads/images/2024/10/ilan-118-1.jpg").body());
+        assertArrayEquals(CDN_PHOTO, archive.get(CDN_IMAGE).body());
+        assertEquals(3, archive.size());
+    }
+
+    @Test
+    public void replayedPageYieldsTheRecordedProduct() throws Exception {
+        ExtractionPlan plan = ExtractionPlan.load("sites/emlaksiteniz.json");
+        Product live = plan.extract(HtmlPageSource.parse(html, PAGE));
+
+        try (ReplayServer server = new ReplayServer(archive, 0, Duration.ZERO, 0).start()) {
+            String url = server.origin() + URI.create(PAGE).getPath();
+            HttpResponse<String> page = get(url, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, page.statusCode());
+            Product replayed = plan.extract(HtmlPageSource.parse(page.body(), url));
+
+            assertEquals(live.getName(), replayed.getName());
+            assertEquals(live.getPrice(), replayed.getPrice());
+            assertEquals(live.getAdvertisementNumber(), replayed.getAdvertisementNumber());
+            assertEquals(live.getNumberRooms(), replayed.getNumberRooms());
+            assertEquals(live.getCategories(), replayed.getCategories());
+            assertTrue(replayed.getName(), replayed.getName().contains("Ferah 3+1"));
+
+            // Fotoğraf adresleri yerel sunucuya çevrilir; CDN'dekiler kendi önekiyle
+            List<String> images = replayed.getImageUrl();
+            assertEquals(live.getImageUrl().size(), images.size());
+            assertEquals(server.origin() + URI.create(SITE_IMAGE).getPath(), images.get(0));
+            assertEquals(server.origin() + "/_replay/cdn.emlaksiteniz.com" + URI.create(CDN_IMAGE).getPath(), images.get(1));
+            assertArrayEquals(SITE_PHOTO, get(images.get(0), HttpResponse.BodyHandlers.ofByteArray()).body());
+            assertArrayEquals(CDN_PHOTO, get(images.get(1), HttpResponse.BodyHandlers.ofByteArray()).body());
+        }
+    }
+
+    private static <T> HttpResponse<T> get(String url, HttpResponse.BodyHandler<T> handler) throws Exception {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), handler);
+        }
+    }
+}
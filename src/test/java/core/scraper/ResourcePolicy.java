@@ -0,0 +1,234 @@
+package core.scraper;
+
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tarayıcının kazıma için gereksiz kaynakları indirmesini engelleyen kaynak politikası.
+ * Resimler Chrome tercihleriyle kapatılır (img etiketleri ve src nitelikleri DOM'da kalır);
+ * fontlar, medya dosyaları ve bilinen izleme/harita sunucuları DevTools'un Network.setBlockedURLs
+ * komutuyla tarayıcı içinde engellenir. Üçüncü taraf engeli açıksa (varsayılan kapalı), sitenin kendi
+ * sunucuları ve izin listesi dışındaki tüm istekler DevTools ağ yakalayıcısıyla boş yanıtla kesilir;
+ * yakalayıcı her isteği Java tarafına taşıdığı için sayfa başına gecikme ekler.
+ * Sayfa başına aktarılan bayt sayısı Resource Timing API'sinden okunarak toplanır.
+ * Kayıt arşivi verilmişse sitenin kendi HTML/XML/JSON yanıtları aynı yakalayıcıyla arşive yazılır.
+ */
+public class ResourcePolicy {
+    private static final List<String> FONT_AND_MEDIA_PATTERNS = List.of(
+            "*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot", "*.mp4", "*.webm", "*.mp3", "*.ogg");
+    // Gezinti ve tüm alt kaynakların aktarılan bayt toplamı (Timing-Allow-Origin olmayan
+    // üçüncü taraf kaynaklar 0 görünür, bu yüzden sayı alt sınırdır)
+    private static final String TRANSFER_SCRIPT = """
+            var total = 0, entries = performance.getEntriesByType('navigation')
+                .concat(performance.getEntriesByType('resource'));
+            for (var i = 0; i < entries.length; i++) total += entries[i].transferSize || 0;
+            return total;
+            """;
+
+    private final List<String> siteHosts;       // Birinci taraf ve izin verilen sunucular
+    private final List<String> blockedHosts;
+    private final boolean blockImages;
+    private final boolean blockFontsAndMedia;
+    private final boolean blockThirdParty;
+    private final LongAdder transferredBytes = new LongAdder();
+    private final LongAdder measuredPages = new LongAdder();
+    private volatile PageArchive archive;        // Birinci taraf belgelerin kaydedildiği arşiv (kayıt kapalıysa null)
+
+    /**
+     * @param siteHosts Kazınan sitenin sunucuları ve izin listesi (alt alan adları dahil)
+     * @param blockedHosts Her zaman engellenecek sunucular
+     * @param blockImages Resimler indirilmesin mi
+     * @param blockFontsAndMedia Fontlar ve medya dosyaları indirilmesin mi
+     * @param blockThirdParty Site dışı istekler engellensin mi (siteHosts boşsa uygulanmaz)
+     */
+    public ResourcePolicy(List<String> siteHosts, List<String> blockedHosts,
+                          boolean blockImages, boolean blockFontsAndMedia, boolean blockThirdParty) {
+        this.siteHosts = List.copyOf(siteHosts);
+        this.blockedHosts = List.copyOf(blockedHosts);
+        this.blockImages = blockImages;
+        this.blockFontsAndMedia = blockFontsAndMedia;
+        this.blockThirdParty = blockThirdParty && !siteHosts.isEmpty();
+    }
+
+    /**
+     * Ayarları ScraperConfig'ten okuyarak bir site için politika oluşturur.
+     *
+     * @param siteHosts Sitenin kendi sunucuları (örn: "emlaksiteniz.com")
+     * @return Kaynak politikası
+     */
+    public static ResourcePolicy forSite(List<String> siteHosts) {
+        List<String> allowed = new ArrayList<>(siteHosts);
+        allowed.addAll(ScraperConfig.allowedHosts());
+        return new ResourcePolicy(allowed, ScraperConfig.blockedHosts(),
+                ScraperConfig.blockImages(), ScraperConfig.blockFontsAndMedia(), ScraperConfig.blockThirdParty());
+    }
+
+    /**
+     * Tarayıcı açılmadan önce uygulanacak Chrome tercihlerini ekler.
+     *
+     * @param options Yeni oturumun seçenekleri
+     */
+    public void applyTo(ChromeOptions options) {
+        if (blockImages) {
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+            options.addArguments("--blink-settings=imagesEnabled=false");
+        }
+    }
+
+    /**
+     * Bundan sonra açılan oturumlarda sitenin belgelerinin verilen arşive kaydedilmesini sağlar.
+     *
+     * @param archive Kayıt arşivi (null: kayıt yapılmaz)
+     * @return Bu politika
+     */
+    public ResourcePolicy recordingTo(PageArchive archive) {
+        this.archive = archive;
+        return this;
+    }
+
+    /**
+     * Açılmış bir oturuma DevTools üzerinden URL engellerini ve üçüncü taraf yakalayıcısını kurar.
+     * DevTools desteklenmiyorsa oturum engelsiz çalışmaya devam eder.
+     *
+     * @param driver Yeni açılmış tarayıcı
+     */
+    public void install(WebDriver driver) {
+        List<String> patterns = blockedUrlPatterns();
+        try {
+            if (!patterns.isEmpty() && driver instanceof HasCdp cdp) {
+                cdp.executeCdpCommand("Network.enable", Map.of());
+                cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+            }
+            PageArchive recorder = archive;
+            if (blockThirdParty || recorder != null) {
+                // Yakalayıcı oturum kapanana kadar etkin kalır
+                new NetworkInterceptor(driver, (Filter) next -> request -> {
+                    URI uri = parse(request.getUri());
+                    if (uri == null) {
+                        // Ayrıştırılamayan adresler engellenmez ve kaydedilmez
+                        return next.execute(request);
+                    }
+                    boolean firstParty = siteHosts.isEmpty() || isAllowed(uri.getHost());
+                    if (blockThirdParty && !firstParty) {
+                        return new HttpResponse().setStatus(204);
+                    }
+                    HttpResponse response = next.execute(request);
+                    if (recorder != null && firstParty) {
+                        record(recorder, request.getUri(), response);
+                    }
+                    return response;
+                });
+            }
+        } catch (Exception e) {
+            System.err.println("Kaynak engelleri kurulamadı, oturum engelsiz devam ediyor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Açık sayfanın aktardığı bayt sayısını okuyup toplama ekler.
+     *
+     * @param driver Sayfanın açık olduğu tarayıcı
+     * @return Bu sayfada aktarılan bayt sayısı
+     */
+    public long recordTransfer(WebDriver driver) {
+        try {
+            long bytes = ((Number) ((JavascriptExecutor) driver).executeScript(TRANSFER_SCRIPT)).longValue();
+            transferredBytes.add(bytes);
+            measuredPages.increment();
+            return bytes;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return Aktarılan bayt özetinin okunabilir metni
+     */
+    public String summary() {
+        long pages = measuredPages.sum();
+        return String.format("Aktarılan veri: %.1f MB (sayfa başına %.0f KB, %d sayfa)",
+                transferredBytes.sum() / 1048576.0, pages == 0 ? 0.0 : transferredBytes.sum() / 1024.0 / pages, pages);
+    }
+
+    /**
+     * Belge türündeki (HTML, XML, JSON) bir yanıtı arşive yazar; gövde tarayıcıya aynen iletilir.
+     */
+    private static void record(PageArchive archive, String url, HttpResponse response) {
+        String contentType = response.getHeader("Content-Type");
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (!type.contains("html") && !type.contains("xml") && !type.contains("json")) {
+            return;
+        }
+        byte[] body = Contents.bytes(response.getContent());
+        response.setContent(Contents.bytes(body));
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        response.forEachHeader((name, value) -> headers.computeIfAbsent(name, k -> new ArrayList<>()).add(value));
+        try {
+            archive.record(url, response.getStatus(), headers, body);
+        } catch (IOException e) {
+            System.err.println("Sayfa arşive yazılamadı: " + url + " (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * @return Ayrıştırılmış adres ya da geçersizse null
+     */
+    private static URI parse(String uri) {
+        try {
+            return URI.create(uri);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param host İsteğin sunucusu
+     * @return Sunucu sitenin kendisi ya da izin listesindeyse (alt alan adları dahil) true
+     */
+    boolean isAllowed(String host) {
+        return host == null || matchesAny(host, siteHosts);
+    }
+
+    private List<String> blockedUrlPatterns() {
+        List<String> patterns = new ArrayList<>();
+        if (blockFontsAndMedia) {
+            patterns.addAll(FONT_AND_MEDIA_PATTERNS);
+        }
+        for (String host : blockedHosts) {
+            // İzin listesindeki sunucular engellenmez
+            if (!matchesAny(host, siteHosts)) {
+                patterns.add("*" + host + "/*");
+            }
+        }
+        return patterns;
+    }
+
+    private static boolean matchesAny(String host, List<String> domains) {
+        String lower = host.toLowerCase();
+        for (String domain : domains) {
+            String candidate = domain.toLowerCase();
+            if (lower.equals(candidate) || lower.endsWith("." + candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package core.scraper;
+
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bir tarayıcı oturumunun yaptığı WebDriver çağrılarını (HTTP gidiş-dönüşlerini) sayar.
+ * Her driver.get() yeni bir sayfa başlatır; sayfa başına çağrı sayısı ve tüm
+ * oturumlar için toplamlar tutulur.
+ */
+public class RoundTripCounter implements WebDriverListener {
+    // Uzak sürücüye istek göndermeden yerel nesne döndüren metodlar sayılmaz
+    private static final Set<String> LOCAL_METHODS = Set.of("manage", "navigate", "switchTo", "timeouts",
+            "window", "logs", "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals");
+
+    private static final LongAdder TOTAL_CALLS = new LongAdder();   // Tüm oturumlardaki çağrılar
+    private static final LongAdder TOTAL_PAGES = new LongAdder();   // Tüm oturumlardaki sayfa sayısı
+
+    private int currentPageCalls;   // Açık sayfada şimdiye kadar yapılan çağrı sayısı
+    private long navigateStart;     // Son driver.get() çağrısının başladığı an (ölçüm kapalıysa 0)
+
+    /**
+     * Verilen sürücüyü, çağrıları bu sayaca bildirecek şekilde sarar.
+     *
+     * @param driver Sarılacak sürücü
+     * @return Sayılan çağrıları ileten sürücü
+     */
+    public WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(this).decorate(driver);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (LOCAL_METHODS.contains(method.getName())) {
+            return;
+        }
+        if (target instanceof WebDriver && method.getName().equals("get")) {
+            currentPageCalls = 0;
+            TOTAL_PAGES.increment();
+        }
+        currentPageCalls++;
+        TOTAL_CALLS.increment();
+    }
+
+    @Override
+    public void beforeGet(WebDriver driver, String url) {
+        navigateStart = CrawlMetrics.start();
+    }
+
+    @Override
+    public void afterGet(WebDriver driver, String url) {
+        CrawlMetrics.time("navigate", navigateStart);
+    }
+
+    /**
+     * @return Son açılan sayfada yapılan WebDriver çağrısı sayısı (get dahil)
+     */
+    public int getCurrentPageCalls() {
+        return currentPageCalls;
+    }
+
+    /**
+     * @return Tüm oturumlarda sayfa başına ortalama WebDriver çağrısı
+     */
+    public static double averageCallsPerPage() {
+        long pages = TOTAL_PAGES.sum();
+        return pages == 0 ? 0 : (double) TOTAL_CALLS.sum() / pages;
+    }
+
+    /**
+     * @return Tüm oturumlarda açılan sayfa sayısı
+     */
+    public static long totalPages() {
+        return TOTAL_PAGES.sum();
+    }
+}
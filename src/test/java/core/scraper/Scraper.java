@@ -1,38 +1,568 @@
 package core.scraper;
 
 
+import com.emlaksiteniz.PriceHistory;
 import com.emlaksiteniz.Product;
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.openqa.selenium.By;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import static core.scraper.JSONHandler.writeJSONToFile;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Web kazıma (scraping) işlemleri için soyut temel sınıf.
  * Selenium WebDriver kullanarak web kazıma işlemleri için ortak işlevsellik sağlar.
  */
 public abstract class Scraper {
-    protected WebDriver driver;          // Web tarayıcı sürücüsü
+    protected WebDriver driver;          // Web tarayıcı sürücüsü (ilk driver() çağrısında açılır)
     protected WebDriverWait wait;        // Sayfa yüklenme bekleme nesnesi
+    private final boolean startBrowser;  // Ana tarayıcı oturumu kullanılıyor mu
     private static final Duration DEFAULT_WAIT_TIME = Duration.ofSeconds(5);  // Varsayılan bekleme süresi
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(2);      // Yeniden deneme turları arasındaki artan bekleme
+    // Aynı süreçte art arda çalışan işlerin paylaştığı sıcak havuzlar (kazıyıcı sınıfı ve site sunucularına göre)
+    private static final Map<String, BrowserPool> WARM_POOLS = new ConcurrentHashMap<>();
+    private BrowserPool browserPool;     // Detay sayfaları için tarayıcı havuzu (ilk kullanımda açılır)
+    private boolean sharedPool;          // Havuz sıcak tutuluyor mu (kapatılmaz, işler arasında temizlenir)
+    private HttpFetcher httpFetcher;     // Tarayıcısız istekler için HTTP istemcisi (ilk kullanımda açılır)
+    private ResourcePolicy resourcePolicy;  // Tarayıcıda engellenecek kaynaklar (ilk kullanımda oluşturulur)
+    private PageArchive pageArchive;     // İndirilen sayfaların kaydı (yalnızca scraper.record verilmişse açılır)
+    private final PageReadiness readiness = new PageReadiness();  // Sayfa hazır olma beklemeleri ve süre istatistikleri
+    private CrawlJournal journal;        // Kaldığı yerden devam için ilerleme günlüğü (yalnızca executeScraper açar)
+    private final Set<String> retryQueue = new LinkedHashSet<>();        // Sonda yeniden denenecek URL'ler
+    private final Map<String, Integer> attempts = new HashMap<>();       // Günlük yokken URL başına deneme sayısı
+    private int resumedCount;            // Önceki çalışmada tamamlandığı için atlanan URL sayısı
+    private Consumer<Runnable> afterOutput = Runnable::run;  // İşi, verilen ürünler çıktıya yazıldıktan sonra çalıştırır
 
     /**
      * WebDriver'ı başlıksız (headless) modda başlatan yapıcı metod.
      */
     public Scraper() {
-        WebDriverManager.chromedriver().setup();
+        this(true);
+    }
+
+    /**
+     * Tarayıcıyı başlatıp başlatmamayı seçen yapıcı metod.
+     * Tarayıcısız (HTTP) kazıyıcılar ana tarayıcıyı açmadan başlar; gerekirse
+     * yalnızca tarayıcı havuzunu kullanır. Ana tarayıcı yapıcıda değil ilk driver()
+     * çağrısında açılır; böylece siteHosts() gibi alt sınıf metodları alt sınıfın
+     * alanları atanmadan çağrılmaz.
+     *
+     * @param startBrowser Ana tarayıcı oturumu kullanılsın mı
+     */
+    protected Scraper(boolean startBrowser) {
+        this.startBrowser = startBrowser;
+    }
+
+    /**
+     * Ana tarayıcı oturumu; ilk çağrıda açılır.
+     *
+     * @return Ana WebDriver örneği veya tarayıcısız kazıyıcılarda null
+     */
+    protected final synchronized WebDriver driver() {
+        if (driver == null && startBrowser) {
+            driver = newChromeDriver();
+            wait = new WebDriverWait(driver, DEFAULT_WAIT_TIME);
+        }
+        return driver;
+    }
+
+    /**
+     * Başlıksız modda bu kazıyıcının kaynak politikasıyla yeni bir Chrome oturumu başlatır.
+     * Paylaşılmayan havuzların oturumları da bu metodla açılır. Sürücü yolu önbellekten okunur; Chrome
+     * güncellendiği için önbellekteki sürücü reddedilirse sürücü bir kez yeniden çözülür.
+     *
+     * @return Yeni WebDriver örneği
+     */
+    protected WebDriver newChromeDriver() {
+        return startChrome(resourcePolicy());
+    }
+
+    /**
+     * Verilen kaynak politikasıyla bir Chrome oturumu açar. Kazıyıcı nesnesine bağlı değildir;
+     * sıcak havuzlar oturumlarını bununla açar.
+     *
+     * @param policy Oturuma uygulanacak kaynak politikası
+     * @return Yeni WebDriver örneği
+     */
+    private static WebDriver startChrome(ResourcePolicy policy) {
+        DriverResolver.resolve();
+        long start = CrawlMetrics.start();
+        WebDriver newDriver;
+        try {
+            newDriver = new ChromeDriver(chromeOptions(policy));
+        } catch (SessionNotCreatedException e) {
+            System.err.println("Chrome sürücüsü reddedildi, yeniden çözülüyor: " + e.getRawMessage());
+            DriverResolver.invalidate();
+            DriverResolver.resolve();
+            newDriver = new ChromeDriver(chromeOptions(policy));
+        }
+        policy.install(newDriver);
+        newDriver.manage().window().maximize();
+        CrawlMetrics.time("browser_start", start);
+        // Her sayfa açışı, HTTP istekleriyle aynı sunucu başına hız ve eşzamanlılık sınırına tabidir
+        HostThrottle throttle = HostThrottle.shared();
+        return throttle != null ? throttle.decorate(newDriver) : newDriver;
+    }
+
+    private static ChromeOptions chromeOptions(ResourcePolicy policy) {
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--headless"); // Başlıksız modu etkinleştirmek için yorumu kaldırın
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        wait = new WebDriverWait(driver, DEFAULT_WAIT_TIME);
+        // Birden fazla tarayıcı aynı anda çalışacağı için oturum başına bellek sınırlanır
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--renderer-process-limit=1");
+        options.addArguments("--js-flags=--max-old-space-size=" + ScraperConfig.browserMemoryPerSessionMb() / 2);
+        // Resim, font, medya ve üçüncü taraf istekleri engellenir; yalnızca DOM okunur
+        policy.applyTo(options);
+        return options;
+    }
+
+    /**
+     * İlan numaralarının tekil olduğu site adı; tekrar tespitinde ilanlar site:numara ile anahtarlanır.
+     * Aynı siteyi farklı yollarla kazıyan alt sınıflar aynı adı döndürmelidir.
+     *
+     * @return Site adı
+     */
+    protected String siteName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Artımlı taramada bu çalışmada siteden kaldırıldığı anlaşılan ilanlar; tüketiciler (örn:
+     * ScraperDaemon) bunları siteName() ile anahtarlayıp görüntüden düşer. Tarama bittikten sonra okunur.
+     *
+     * @return Kaldırılan ilanların numaraları
+     */
+    public List<String> removedListings() {
+        return List.of();
+    }
+
+    /**
+     * Kazınan sitenin kendi sunucuları. Üçüncü taraf istek engeli bu sunucular dışındaki
+     * istekleri keser; boş dönerse üçüncü taraf engeli uygulanmaz.
+     *
+     * @return Sitenin sunucu adları (alt alan adları dahil sayılır)
+     */
+    protected List<String> siteHosts() {
+        return List.of();
+    }
+
+    /**
+     * Sitenin liste sayfalarını dolaşıp ürün URL'lerini üreten tarama sınırını oluşturur.
+     * Dağıtık taramada (DistributedCrawl) koordinatör URL'leri buradan toplayıp işçilere dağıtır.
+     *
+     * @return Henüz başlatılmamış tarama sınırı
+     * @throws UnsupportedOperationException Kazıyıcı tarama sınırı kullanmıyorsa
+     */
+    protected CrawlFrontier newCrawlFrontier() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " tarama sınırı sağlamıyor");
+    }
+
+    /**
+     * Tek bir ürün sayfasını kazır. Dağıtık taramada işçiler kiraladıkları URL'leri bununla işler.
+     *
+     * @param url Ürün sayfasının URL'si
+     * @return Kazınan ürün veya sayfa atlanacaksa null
+     * @throws Exception Sayfa kazınamazsa
+     * @throws UnsupportedOperationException Kazıyıcı tek sayfa kazımayı desteklemiyorsa
+     */
+    protected Product scrapeProduct(String url) throws Exception {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " tek ürün kazımayı desteklemiyor");
+    }
+
+    /**
+     * Tüm tarayıcı oturumlarında uygulanan kaynak politikasını döndürür, gerekirse oluşturur.
+     *
+     * @return Kaynak politikası
+     */
+    protected synchronized ResourcePolicy resourcePolicy() {
+        if (resourcePolicy == null) {
+            resourcePolicy = ResourcePolicy.forSite(siteHosts()).recordingTo(pageArchive());
+        }
+        return resourcePolicy;
+    }
+
+    /**
+     * Kayıt açıksa (scraper.record) HTTP ve tarayıcıyla indirilen sayfaların yazıldığı arşivi döndürür.
+     *
+     * @return Kayıt arşivi veya kayıt kapalıysa null
+     */
+    protected synchronized PageArchive pageArchive() {
+        String file = ScraperConfig.recordArchive();
+        if (pageArchive == null && !file.isEmpty()) {
+            try {
+                pageArchive = PageArchive.open(Path.of(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return pageArchive;
+    }
+
+    /**
+     * Detay sayfalarında kullanılan tarayıcı havuzunu döndürür, gerekirse oluşturur.
+     * scraper.pool.keepWarm açıksa (varsayılan) havuz aynı sınıftan ve aynı site sunucularına giden
+     * sonraki kazıyıcılarla paylaşılır;
+     * böylece art arda çalışan işlerde tarayıcılar yeniden açılmaz. Sayfa kaydı (scraper.record)
+     * yapılırken oturumlar kazıyıcının arşivine bağlı olduğundan havuz paylaşılmaz.
+     *
+     * @return Tarayıcı havuzu
+     */
+    protected synchronized BrowserPool browserPool() {
+        if (browserPool == null) {
+            sharedPool = ScraperConfig.browserPoolKeepWarm() && pageArchive() == null;
+            if (sharedPool) {
+                // Paylaşılan havuz, onu ilk açan kazıyıcının nesnesini ya da politikasını tutmaz; oturumlar
+                // sınıfa ve site sunucularına göre ayarlardan kurulan politikayla açılır
+                List<String> hosts = siteHosts();
+                browserPool = WARM_POOLS.computeIfAbsent(getClass().getName() + " " + hosts, key -> {
+                    ResourcePolicy policy = ResourcePolicy.forSite(hosts);
+                    return newBrowserPool(() -> startChrome(policy), true);
+                });
+            } else {
+                browserPool = newBrowserPool(this::newChromeDriver, false);
+            }
+        }
+        return browserPool;
+    }
+
+    private static BrowserPool newBrowserPool(Supplier<WebDriver> driverFactory, boolean keepWarm) {
+        BrowserPool pool = new BrowserPool(ScraperConfig.browserPoolSize(),
+                ScraperConfig.browserMemoryBudgetMb(), ScraperConfig.browserMemoryPerSessionMb(),
+                driverFactory, DEFAULT_WAIT_TIME);
+        CrawlMetrics.gauge("browsers_open", pool::getOpenCount);
+        CrawlMetrics.gauge("browsers_idle", pool::getIdleCount);
+        if (keepWarm) {
+            Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "browser-pool-shutdown"));
+        }
+        pool.prewarm(Math.min(ScraperConfig.browserPoolPrewarm(), pool.getCapacity()));
+        return pool;
+    }
+
+    /**
+     * Havuzdan bir tarayıcı oturumu kiralayıp verilen işi çalıştırır ve oturumu geri verir.
+     *
+     * @param work Oturumla yapılacak iş
+     * @param <R> Sonuç tipi
+     * @return İşin sonucu
+     * @throws Exception İş ya da kiralama başarısız olursa
+     */
+    protected <R> R withBrowser(BrowserWork<R> work) throws Exception {
+        BrowserSession session = browserPool().lease(Duration.ofSeconds(ScraperConfig.browserLeaseTimeoutSeconds()));
+        try {
+            return work.run(session);
+        } catch (WebDriverException e) {
+            if (BrowserSession.isSessionFailure(e)) {
+                session.markBroken();
+            }
+            throw e;
+        } finally {
+            browserPool().release(session);
+        }
+    }
+
+    /**
+     * Kiralanan bir tarayıcı oturumuyla yapılan iş.
+     *
+     * @param <R> Sonuç tipi
+     */
+    @FunctionalInterface
+    protected interface BrowserWork<R> {
+        R run(BrowserSession session) throws Exception;
+    }
+
+    /**
+     * Tarayıcısız istekler için paylaşılan HTTP istemcisini döndürür, gerekirse oluşturur.
+     *
+     * @return HTTP istemcisi
+     */
+    protected synchronized HttpFetcher httpFetcher() {
+        if (httpFetcher == null) {
+            httpFetcher = new HttpFetcher().recordingTo(pageArchive());
+        }
+        return httpFetcher;
+    }
+
+    /**
+     * Sabit uyumalar yerine sayfadaki elementlere göre bekleyen, tüm oturumlarca paylaşılan hazır olma motorunu döndürür.
+     *
+     * @return Sayfa hazır olma motoru
+     */
+    protected PageReadiness readiness() {
+        return readiness;
+    }
+
+    /**
+     * Verilen URL'leri havuzdaki tarayıcılarla paralel olarak kazır ve sonuçları liste olarak döndürür.
+     *
+     * @param urls Kazınacak sayfaların URL'leri
+     * @param task Bir oturum ve URL alıp sonucu üreten kazıma işi
+     * @param <R> Sonuç tipi
+     * @return URL sırasına göre başarılı sonuçlar
+     * @see #scrapeInParallel(Iterable, BiFunction, Consumer)
+     */
+    protected <R> List<R> scrapeInParallel(Iterable<String> urls, BiFunction<BrowserSession, String, R> task) {
+        List<R> results = new ArrayList<>();
+        scrapeInParallel(urls, task, results::add);
+        return results;
+    }
+
+    /**
+     * Verilen URL'leri havuzdaki tarayıcılarla paralel olarak kazır.
+     * Sonuçlar URL sırasıyla, hazır oldukça çağıran thread'de results'a verilir; null dönen URL'ler
+     * atlanır, hata verenler ise tüm URL'ler bittikten sonra yeniden denenir. URL'ler bir
+     * CrawlFrontier gibi akış halinde gelebilir; her URL geldiği anda işe başlanır.
+     *
+     * @param urls Kazınacak sayfaların URL'leri
+     * @param task Bir oturum ve URL alıp sonucu üreten kazıma işi
+     * @param results Başarılı sonuçları sırayla alan tüketici
+     * @param <R> Sonuç tipi
+     */
+    protected <R> void scrapeInParallel(Iterable<String> urls, BiFunction<BrowserSession, String, R> task,
+                                        Consumer<R> results) {
+        BrowserPool pool = browserPool();
+        Duration leaseTimeout = Duration.ofSeconds(ScraperConfig.browserLeaseTimeoutSeconds());
+        ExecutorService workers = Executors.newFixedThreadPool(pool.getCapacity());
+        try {
+            submitInOrder(urls, results, url -> workers.submit(() -> {
+                if (!shouldScrape(url)) {
+                    return null;
+                }
+                long leaseStart = CrawlMetrics.start();
+                BrowserSession session = pool.lease(leaseTimeout);
+                CrawlMetrics.time("lease", leaseStart);
+                CrawlMetrics.adjust("in_flight_pages", 1);
+                long pageStart = CrawlMetrics.start();
+                try {
+                    return task.apply(session, url);
+                } catch (WebDriverException e) {
+                    if (BrowserSession.isSessionFailure(e)) {
+                        session.markBroken();
+                    }
+                    throw e;
+                } finally {
+                    CrawlMetrics.time("page", pageStart);
+                    CrawlMetrics.adjust("in_flight_pages", -1);
+                    pool.release(session);
+                }
+            }));
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Bir URL'nin tarayıcıda kazınması gerekip gerekmediğine, oturum kiralanmadan önce karar verir.
+     * Artımlı tarama yapan alt sınıflar değişmemiş ilanları atlamak için geçersiz kılar.
+     *
+     * @param url Kazınacak sayfanın URL'si
+     * @return Sayfa kazınacaksa true (varsayılan)
+     * @throws Exception Kontrol başarısız olursa; URL hata olarak raporlanır
+     */
+    protected boolean shouldScrape(String url) throws Exception {
+        return true;
+    }
+
+    /**
+     * Verilen URL'leri sanal thread'ler üzerinde eşzamanlı olarak işler ve sonuçları liste olarak döndürür.
+     *
+     * @param urls İşlenecek sayfaların URL'leri
+     * @param task Bir URL alıp sonucu üreten iş
+     * @param <R> Sonuç tipi
+     * @return URL sırasına göre başarılı sonuçlar
+     * @see #scrapeConcurrently(Iterable, ScrapeTask, Consumer)
+     */
+    protected <R> List<R> scrapeConcurrently(Iterable<String> urls, ScrapeTask<R> task) {
+        List<R> results = new ArrayList<>();
+        scrapeConcurrently(urls, task, results::add);
+        return results;
+    }
+
+    /**
+     * Verilen URL'leri sanal thread'ler üzerinde eşzamanlı olarak işler.
+     * Tarayıcı gerektirmeyen (HTTP) işler içindir; sonuçlar URL sırasıyla üretilir,
+     * null dönen URL'ler atlanır, hata verenler sonda yeniden denenir.
+     *
+     * @param urls İşlenecek sayfaların URL'leri
+     * @param task Bir URL alıp sonucu üreten iş
+     * @param results Başarılı sonuçları sırayla alan tüketici
+     * @param <R> Sonuç tipi
+     */
+    protected <R> void scrapeConcurrently(Iterable<String> urls, ScrapeTask<R> task, Consumer<R> results) {
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            submitInOrder(urls, results, url -> workers.submit(() -> {
+                CrawlMetrics.adjust("in_flight_pages", 1);
+                long pageStart = CrawlMetrics.start();
+                try {
+                    return task.scrape(url);
+                } finally {
+                    CrawlMetrics.time("page", pageStart);
+                    CrawlMetrics.adjust("in_flight_pages", -1);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Tek bir URL'yi işleyen, kontrol edilen hata fırlatabilen kazıma işi.
+     *
+     * @param <R> Sonuç tipi
+     */
+    @FunctionalInterface
+    protected interface ScrapeTask<R> {
+        R scrape(String url) throws Exception;
+    }
+
+    private record PendingResult<R>(String url, Future<R> future) {
+    }
+
+    /**
+     * URL'leri sırayla işe verir ve baştaki işler bittikçe sonuçlarını aynı sırayla tüketiciye iletir.
+     * Böylece tüm sonuçlar bellekte biriktirilmeden akış halinde yazılabilir. İlerleme günlüğüne göre
+     * daha önce tamamlanmış URL'ler atlanır; hata verenler tüm URL'ler bittikten sonra artan
+     * aralıklarla yeniden denenir.
+     */
+    private <R> void submitInOrder(Iterable<String> urls, Consumer<R> results, Function<String, Future<R>> submit) {
+        ArrayDeque<PendingResult<R>> pending = new ArrayDeque<>();
+        try {
+            for (String url : urls) {
+                if (discovered(url)) {
+                    pending.addLast(new PendingResult<>(url, submit.apply(url)));
+                    drainInOrder(pending, results, false);
+                }
+            }
+            drainInOrder(pending, results, true);
+
+            for (int round = 1; !retryQueue.isEmpty(); round++) {
+                List<String> retries = new ArrayList<>(retryQueue);
+                retryQueue.clear();
+                retries.removeIf(url -> journal != null && journal.isCompleted(url));
+                if (retries.isEmpty()) {
+                    break;
+                }
+                System.out.println(retries.size() + " URL yeniden deneniyor (" + round + ". tur)");
+                Thread.sleep(RETRY_BACKOFF.multipliedBy(round).toMillis());
+                for (String url : retries) {
+                    pending.addLast(new PendingResult<>(url, submit.apply(url)));
+                    drainInOrder(pending, results, false);
+                }
+                drainInOrder(pending, results, true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.forEach(result -> result.future().cancel(true));
+        }
+    }
+
+    private <R> void drainInOrder(ArrayDeque<PendingResult<R>> pending, Consumer<R> results, boolean block)
+            throws InterruptedException {
+        while (!pending.isEmpty() && (block || pending.peekFirst().future().isDone())) {
+            PendingResult<R> next = pending.pollFirst();
+            try {
+                R result = next.future().get();
+                if (result != null) {
+                    CrawlMetrics.count("pages_ok");
+                    results.accept(result);
+                } else {
+                    CrawlMetrics.count("pages_skipped");
+                    skipped(next.url());
+                }
+                // Sonuç (fotoğrafları inerken) henüz çıktıya yazılmamış olabilir; URL yazıldıktan sonra tamamlanır
+                afterOutput.accept(() -> completed(next.url()));
+            } catch (ExecutionException e) {
+                CrawlMetrics.count("pages_failed");
+                Throwable cause = e.getCause();
+                failed(next.url(), cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            }
+        }
+    }
+
+    /**
+     * URL'yi ilerleme günlüğüne keşfedildi olarak yazar.
+     *
+     * @return URL önceki bir çalışmada tamamlandıysa false
+     */
+    private boolean discovered(String url) {
+        try {
+            if (journal == null || journal.discovered(url)) {
+                return true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        resumedCount++;
+        CrawlMetrics.count("pages_resumed");
+        skippedAsCompleted(url);
+        return false;
+    }
+
+    private void completed(String url) {
+        if (journal != null) {
+            try {
+                journal.completed(url);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Hatayı günlüğe yazar; deneme hakkı kalmışsa URL'yi yeniden deneme kuyruğuna alır.
+     */
+    private void failed(String url, String error) {
+        int attempt;
+        try {
+            attempt = journal != null ? journal.failed(url, error) : attempts.merge(url, 1, Integer::sum);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (attempt <= ScraperConfig.maxRetries()) {
+            retryQueue.add(url);
+            System.err.println("Hata veren URL sonda yeniden denenecek (" + attempt + ". deneme): " + url + " - " + error);
+        } else {
+            System.err.println("Error scraping product from URL: " + url);
+            System.err.println("Error details: " + error);
+        }
+    }
+
+    /**
+     * Önceki, yarıda kalmış bir çalışmada tamamlandığı için yeniden kazınmayan bir URL için çağrılır.
+     * Çalışmalar arası durum tutan alt sınıflar (örn: artımlı tarama) URL'yi görüldü saymak için geçersiz kılar.
+     *
+     * @param url Atlanan URL
+     */
+    protected void skippedAsCompleted(String url) {
+    }
+
+    /**
+     * Kazınması gerekmediği için sonucu null olan bir URL için, sırası geldiğinde sonuçları alan
+     * thread'de ve URL günlüğe tamamlandı yazılmadan önce çağrılır. Artımlı tarama yapan alt sınıflar
+     * değişmeyen ilanın önceki kaydını çıktıya taşımak için geçersiz kılar.
+     *
+     * @param url Atlanan URL
+     */
+    protected void skipped(String url) {
     }
 
     /**
@@ -43,19 +573,103 @@ public abstract class Scraper {
      * @return Elementin metin içeriği veya bulunamazsa boş string
      */
     protected String getTextIfPresent(String xpath) {
-        try {
-            return driver.findElement(By.xpath(xpath)).getText().trim();
-        } catch (Exception e) {
-            return "";
-        }
+        return new DriverPageSource(driver()).text(xpath);
     }
 
     /**
-     * WebDriver örneğini varsa kapatır.
+     * WebDriver örneğini ve tarayıcı havuzunu varsa kapatır.
      */
     public void close() {
-        if (driver != null) {
-            driver.quit();
+        synchronized (this) {
+            if (driver != null) {
+                driver.quit();
+            }
+            if (browserPool != null) {
+                if (sharedPool) {
+                    // Sıcak havuz kapatılmaz; oturumlar sonraki iş için temizlenir
+                    browserPool.resetIdle();
+                } else {
+                    browserPool.close();
+                }
+            }
+            if (httpFetcher != null) {
+                httpFetcher.close();
+            }
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("İlerleme günlüğü kapatılamadı: " + e.getMessage());
+                }
+            }
+            if (pageArchive != null) {
+                try {
+                    System.out.println(pageArchive.size() + " sayfa arşive kaydedildi: " + pageArchive.getFile());
+                    pageArchive.close();
+                } catch (IOException e) {
+                    System.err.println("Sayfa arşivi kapatılamadı: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * İlerleme günlüğünü açar; önceki çalışma yarıda kalmışsa bitmemiş URL'leri yeniden deneme kuyruğuna alır.
+     */
+    void openJournal(Path file) throws IOException {
+        journal = CrawlJournal.open(file);
+        if (journal.isResumed()) {
+            List<String> carriedOver = journal.carriedOver();
+            retryQueue.addAll(carriedOver);
+            System.out.println("Yarıda kalan tarama sürdürülüyor: " + journal.getCompletedCount()
+                    + " sayfa tamamlanmış, " + carriedOver.size() + " sayfa bitmemiş ya da hata vermiş");
+        }
+    }
+
+    /**
+     * @return Yarıda kalmış bir tarama sürdürülüyorsa (çıktı dosyasına eklenecekse) true
+     */
+    boolean resumesOutput() {
+        return journal != null && journal.isResumed();
+    }
+
+    /**
+     * Scraper.crawl çıktıyı açıp ürünleri istemeden hemen önce çağırır. Çıktıya yazılanları kendi
+     * durumuyla birlikte kalıcı kılması gereken alt sınıflar (örn: dağıtık taramanın koordinatörü) için.
+     *
+     * @param output Ürünlerin yazıldığı çıktı
+     * @param settle Verilmiş ama henüz çıktıya ulaşmamış (örn: fotoğrafları inen) ürünleri yazdıran iş;
+     *               yalnızca ürünleri veren thread'den çağrılmalıdır
+     */
+    void outputOpened(NdjsonSink output, Runnable settle) {
+    }
+
+    /**
+     * Sonuçların çıktıya verildikleri anda yazılmadığı durumlar (örn: ImagePipeline aşaması) için,
+     * ilerleme günlüğüne tamamlandı kaydının ne zaman yazılacağını belirler. Verilen tüketici işi,
+     * o ana kadar verilen tüm ürünler çıktıya yazıldıktan sonra çalıştırmalıdır.
+     *
+     * @param afterOutput İşi çıktı yazıldıktan sonra çalıştıran tüketici
+     */
+    void afterOutput(Consumer<Runnable> afterOutput) {
+        this.afterOutput = afterOutput;
+    }
+
+    /**
+     * Tarama tamamlandıysa günlüğü siler; kesilen tarama için günlük sonraki çalışmaya bırakılır.
+     */
+    void finishJournal() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        if (resumedCount > 0) {
+            System.out.println(resumedCount + " sayfa önceki çalışmada tamamlandığı için atlandı");
+        }
+        if (journal.getFailedCount() > 0) {
+            System.err.println(journal.getFailedCount() + " sayfa yeniden denemelere rağmen kazınamadı");
+        }
+        if (!Thread.currentThread().isInterrupted()) {
+            journal.finish();
         }
     }
 
@@ -67,8 +681,24 @@ public abstract class Scraper {
      */
     public abstract List<Product> scrapeProducts();
 
+    /**
+     * Ürünleri kazındıkça verilen tüketiciye iletir.
+     * Varsayılan uygulama tüm listeyi kazıyıp sonra iletir; akış halinde çalışabilen
+     * alt sınıflar bu metodu geçersiz kılarak ürünleri bellekte biriktirmez.
+     *
+     * @param sink Kazınan her ürünü sırayla alan tüketici
+     */
+    public void scrapeProducts(Consumer<Product> sink) {
+        scrapeProducts().forEach(sink);
+    }
+
     /**
      * Verilen kazıyıcı sınıfı için kazıma işlemini çalıştırır.
+     * Ürünler kazındıkça NDJSON çıktı dosyasına (varsayılan: compiled.ndjson) yazılır ve ilerleme
+     * günlüğüne (scraper.journal) işlenir. Tarama yarıda kalırsa bir sonraki çalışma günlükten devam eder:
+     * tamamlanmış sayfalar yeniden indirilmez, bitmemiş ya da hata vermiş olanlar sonda yeniden denenir.
+     * scraper.replay ile bir kayıt arşivi verilmişse tarama, arşivi sunan yerel bir
+     * ReplayServer'a yönlendirilir (scraper.baseUrl ayrıca verilmemişse).
      *
      * @param clazz Çalıştırılacak kazıyıcı sınıfı
      * @param <T> Bu temel sınıfı genişleten kazıyıcı tipi
@@ -81,11 +711,124 @@ public abstract class Scraper {
     public static <T extends Scraper> void executeScraper(Class<T> clazz)
             throws NoSuchMethodException, InvocationTargetException,
             InstantiationException, IllegalAccessException, IOException {
-        T scraper = clazz.getDeclaredConstructor().newInstance();
+        String replay = ScraperConfig.replayArchive();
+        if (!replay.isEmpty()) {
+            try (PageArchive archive = PageArchive.open(Path.of(replay));
+                 ReplayServer server = ReplayServer.fromConfig(archive).start()) {
+                boolean redirect = System.getProperty("scraper.baseUrl") == null;
+                if (redirect) {
+                    System.setProperty("scraper.baseUrl", server.origin());
+                }
+                System.out.println(archive.size() + " kayıtlı sayfa " + server.origin() + " adresinden sunuluyor");
+                try {
+                    runScraper(clazz);
+                } finally {
+                    if (redirect) {
+                        System.clearProperty("scraper.baseUrl");
+                    }
+                }
+                System.out.println(server.summary());
+            }
+        } else {
+            runScraper(clazz);
+        }
+    }
+
+    private static <T extends Scraper> void runScraper(Class<T> clazz)
+            throws NoSuchMethodException, InvocationTargetException,
+            InstantiationException, IllegalAccessException, IOException {
+        CrawlMetrics.expose();
         try {
-            List<Product> products = scraper.scrapeProducts();
-            System.out.println("\nKazınan ürün sayısı: " + products.size());
-            writeJSONToFile("compiled.json", products);
+            String journalFile = ScraperConfig.journalFile();
+            crawl(clazz.getDeclaredConstructor().newInstance(), Path.of(ScraperConfig.outputFile()), journalFile.isEmpty() ? null : Path.of(journalFile),
+                    product -> { });
+        } finally {
+            CrawlMetrics.shutdown();
+        }
+    }
+
+    /**
+     * Verilen kazıyıcıyla tek bir taramayı sonuna kadar çalıştırır; kazıyıcı sonunda kapatılır.
+     * Ürünler çıktı dosyasına yazıldıktan sonra sırayla tap'e de iletilir (örn: ScraperDaemon'un
+     * bellek içi görüntüsü). Metrik uç noktası açılıp kapatılmaz; bu çağıranın işidir.
+     *
+     * @param scraper Çalıştırılacak, yeni oluşturulmuş kazıyıcı
+     * @param output NDJSON çıktı dosyası
+     * @param journalFile İlerleme günlüğü (null: günlük tutulmaz)
+     * @param tap Yazılan her ürünü ayrıca alan tüketici
+     * @return Yazılan ürün sayısı
+     * @throws IOException Dosya işlemleri başarısız olursa
+     */
+    static long crawl(Scraper scraper, Path output, Path journalFile, Consumer<Product> tap) throws IOException {
+        if (journalFile != null) {
+            scraper.openJournal(journalFile);
+        }
+        DuplicateDetector duplicates = DuplicateDetector.shared();
+        ListingStore store = ListingStore.shared();
+        PriceHistory prices = PriceHistory.shared();
+        long crawledAt = System.currentTimeMillis();   // Bir taramadaki tüm fiyatlar aynı zamana işlenir
+        String site = scraper.siteName();
+        // Yalnızca yarıda kalmış bir tarama sürdürülürken önceki çıktıya eklenir
+        try (NdjsonSink sink = new NdjsonSink(output, scraper.resumesOutput())) {
+            // Ürünler kazındıkça dosyaya yazılır; liste bellekte tutulmaz
+            Consumer<Product> writer = product -> {
+                if (duplicates != null) {
+                    product.setDuplicateCluster(duplicates.add(site, product));
+                }
+                if (prices != null) {
+                    prices.record(site, product, crawledAt);
+                }
+                try {
+                    sink.write(product);
+                    CrawlMetrics.count("products_written");
+                    if (store != null) {
+                        // Depo yazmaları yazıcı thread'de toplanır; hatalar flush'ta bildirilir
+                        store.append(site, product);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                tap.accept(product);
+            };
+            if (ScraperConfig.downloadImages()) {
+                // Fotoğraflar arka planda indirilir, ürünler yine kazınma sırasıyla yazılır
+                try (ImagePipeline images = new ImagePipeline(scraper.httpFetcher().getClient())) {
+                    ImagePipeline.Stage stage = images.attaching(writer);
+                    scraper.outputOpened(sink, stage::drain);
+                    scraper.afterOutput(stage::afterWritten);
+                    scraper.scrapeProducts(stage);
+                    stage.drain();
+                    System.out.println(images.summary());
+                }
+            } else {
+                scraper.outputOpened(sink, () -> { });
+                scraper.scrapeProducts(writer);
+            }
+            System.out.println("\nKazınan ürün sayısı: " + sink.getRecordCount());
+            if (!scraper.removedListings().isEmpty()) {
+                System.out.println("Kaldırılan ilan sayısı: " + scraper.removedListings().size());
+            }
+            scraper.finishJournal();
+            if (duplicates != null) {
+                duplicates.save();
+                System.out.println(duplicates.summary());
+            }
+            if (prices != null) {
+                prices.save();
+                System.out.println(prices.summary());
+            }
+            if (store != null) {
+                store.flush();
+                System.out.println(store.summary());
+            }
+            HostThrottle throttle = HostThrottle.shared();
+            if (throttle != null) {
+                System.out.println(throttle.summary());
+            }
+            if (CrawlMetrics.enabled()) {
+                System.out.println(CrawlMetrics.summary());
+            }
+            return sink.getRecordCount();
         } finally {
             scraper.close();
         }
@@ -0,0 +1,767 @@
+package core.scraper;
+
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kazıyıcı ayarlarını sistem özelliklerinden (-Dscraper.xxx=...) okuyan yardımcı sınıf.
+ * Özellik verilmemişse ya da geçersizse varsayılan değer kullanılır.
+ */
+public final class ScraperConfig {
+
+    private ScraperConfig() {
+    }
+
+    /**
+     * Havuzdaki en fazla tarayıcı oturumu sayısı.
+     * Varsayılan olarak işlemci çekirdeği sayısı kadardır.
+     *
+     * @return İstenen havuz boyutu (en az 1)
+     */
+    public static int browserPoolSize() {
+        return Math.max(1, getInt("scraper.pool.size", Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Tüm tarayıcılar için ayrılan toplam bellek bütçesi (MB). Havuz boyutu buna göre seçilir; ayrıca
+     * tarayıcı süreçlerinin ölçülen bellek kullanımı bunu aşarken yeni oturum açılmaz.
+     *
+     * @return Bellek bütçesi (MB)
+     */
+    public static int browserMemoryBudgetMb() {
+        return getInt("scraper.pool.memoryBudgetMb", 4096);
+    }
+
+    /**
+     * Tek bir başlıksız Chrome oturumunun kullandığı tahmini bellek (MB).
+     * Havuz boyutu bütçe / bu değer ile sınırlandırılır; sayfalar bu değeri aşarsa toplam kullanım bütçeyi geçebilir.
+     *
+     * @return Oturum başına bellek tahmini (MB)
+     */
+    public static int browserMemoryPerSessionMb() {
+        return Math.max(1, getInt("scraper.pool.memoryPerSessionMb", 400));
+    }
+
+    /**
+     * Bir oturum için havuzda en fazla ne kadar bekleneceği (saniye).
+     *
+     * @return Kiralama zaman aşımı (saniye)
+     */
+    public static int browserLeaseTimeoutSeconds() {
+        return getInt("scraper.pool.leaseTimeoutSeconds", 120);
+    }
+
+    /**
+     * Kazıma işleri bittiğinde tarayıcı havuzunun kapatılmayıp aynı süreçteki sonraki işler için
+     * açık tutulup tutulmayacağı. Açık tutulan oturumların çerezleri ve depolaması işler arasında temizlenir.
+     *
+     * @return Havuz sıcak tutulacaksa true
+     */
+    public static boolean browserPoolKeepWarm() {
+        return getBoolean("scraper.pool.keepWarm", true);
+    }
+
+    /**
+     * Havuz oluşturulurken arka planda önceden açılacak tarayıcı oturumu sayısı.
+     *
+     * @return Önceden açılacak oturum sayısı (0: oturumlar ilk kiralamada açılır)
+     */
+    public static int browserPoolPrewarm() {
+        return Math.max(0, getInt("scraper.pool.prewarm", 0));
+    }
+
+    /**
+     * Çözülen Chrome sürücüsünün yolunun saklandığı dosya. Dosyadaki sürücü hâlâ duruyorsa
+     * sonraki çalışmalar WebDriverManager'ı (ve ağı) hiç kullanmadan başlar.
+     *
+     * @return Sürücü önbellek dosyasının yolu
+     */
+    public static String driverCacheFile() {
+        return getString("scraper.driver.cache",
+                Path.of(System.getProperty("user.home"), ".cache", "scraper", "chromedriver.properties").toString());
+    }
+
+    /**
+     * Sürücü çözümlenirken ağa çıkılmayıp yalnızca yerel önbelleklerin kullanılıp kullanılmayacağı.
+     *
+     * @return Çevrimdışı çalışılacaksa true
+     */
+    public static boolean driverOffline() {
+        return getBoolean("scraper.driver.offline", false);
+    }
+
+    /**
+     * HTTP modunda aynı anda uçuşta olabilecek en fazla istek sayısı.
+     *
+     * @return Uçuştaki istek sınırı
+     */
+    public static int httpMaxInFlight() {
+        return getInt("scraper.http.maxInFlight", 2000);
+    }
+
+    /**
+     * Tek bir HTTP isteği için zaman aşımı (saniye).
+     *
+     * @return İstek zaman aşımı (saniye)
+     */
+    public static int httpTimeoutSeconds() {
+        return getInt("scraper.http.timeoutSeconds", 20);
+    }
+
+    /**
+     * Tarama sınırının en fazla kaç liste sayfası indireceği.
+     *
+     * @return Liste sayfası sınırı
+     */
+    public static int frontierMaxListingPages() {
+        return getInt("scraper.frontier.maxListingPages", 1000);
+    }
+
+    /**
+     * Tarama sınırında aynı anda indirilen liste sayfası sayısı.
+     *
+     * @return Eşzamanlı liste sayfası sınırı (en az 1)
+     */
+    public static int frontierConcurrency() {
+        return Math.max(1, getInt("scraper.frontier.concurrency", 16));
+    }
+
+    /**
+     * Ürün URL'lerinin sitemap.xml'den de toplanıp toplanmayacağı.
+     *
+     * @return Sitemap kullanılacaksa true
+     */
+    public static boolean frontierUseSitemap() {
+        return getBoolean("scraper.frontier.sitemap", true);
+    }
+
+    /**
+     * SpecScraper'ın kullanacağı site tanımı: bir JSON dosyası ya da dosya yoksa sınıf yolundaki kaynak.
+     *
+     * @return Site tanımının konumu
+     */
+    public static String siteSpec() {
+        return getString("scraper.site", "sites/emlaksiteniz.json");
+    }
+
+    /**
+     * Kazınan ürünlerin yazılacağı NDJSON dosyası.
+     *
+     * @return Çıktı dosyasının yolu
+     */
+    public static String outputFile() {
+        return getString("scraper.output", "compiled.ndjson");
+    }
+
+    /**
+     * Çıktı dosyasının yenisine geçilmeden önce ulaşabileceği en büyük boyut (MB).
+     *
+     * @return Dosya boyutu sınırı (MB)
+     */
+    public static int sinkMaxFileMb() {
+        return Math.max(1, getInt("scraper.sink.maxFileMb", 256));
+    }
+
+    /**
+     * Kayıtların tamponda en fazla ne kadar bekleyeceği (ms). 0 ise her kayıt hemen
+     * işletim sistemine aktarılır; böylece öldürülen bir süreçte tamamlanan kayıt kaybolmaz.
+     *
+     * @return Tampon boşaltma aralığı (ms)
+     */
+    public static int sinkFlushIntervalMillis() {
+        return getInt("scraper.sink.flushIntervalMs", 0);
+    }
+
+    /**
+     * Çıktı dosyasının diske zorlanma (fsync) aralığı (ms).
+     *
+     * @return fsync aralığı (ms)
+     */
+    public static int sinkFsyncIntervalMillis() {
+        return getInt("scraper.sink.fsyncIntervalMs", 1000);
+    }
+
+    /**
+     * Yalnızca yeni ya da değişen ilanların kazınıp kazınmayacağı. Değişmeyen ilanlar kazınmaz ama
+     * önceki kayıtları parmak izi dizininden çıktıya taşınır; çıktı yine sitenin tam görüntüsüdür.
+     *
+     * @return Artımlı tarama açıksa true
+     */
+    public static boolean incremental() {
+        return getBoolean("scraper.incremental", true);
+    }
+
+    /**
+     * Artımlı taramada kullanılan parmak izi dizininin dosyası.
+     *
+     * @return Dizin dosyasının yolu
+     */
+    public static String fingerprintIndexFile() {
+        return getString("scraper.incremental.index", "crawl-index.ndjson");
+    }
+
+    /**
+     * Tarayıcıda resimlerin indirilip indirilmeyeceği. Resim URL'leri (src) DOM'dan yine okunur.
+     *
+     * @return Resimler engellenecekse true
+     */
+    public static boolean blockImages() {
+        return getBoolean("scraper.resources.blockImages", true);
+    }
+
+    /**
+     * Tarayıcıda web fontlarının ve video/ses dosyalarının engellenip engellenmeyeceği.
+     *
+     * @return Fontlar ve medya engellenecekse true
+     */
+    public static boolean blockFontsAndMedia() {
+        return getBoolean("scraper.resources.blockFonts", true);
+    }
+
+    /**
+     * Kazınan siteye ve izin listesine ait olmayan (üçüncü taraf) isteklerin engellenip engellenmeyeceği.
+     * Varsayılan kapalıdır: engel her isteği DevTools ağ yakalayıcısından geçirir. Bilinen izleme
+     * sunucuları scraper.resources.blockHosts ile yakalayıcı olmadan tarayıcı içinde engellenir.
+     *
+     * @return Üçüncü taraf istekler engellenecekse true
+     */
+    public static boolean blockThirdParty() {
+        return getBoolean("scraper.resources.blockThirdParty", false);
+    }
+
+    /**
+     * Her zaman engellenecek sunucular (analitik, reklam, harita vb.), virgülle ayrılmış.
+     *
+     * @return Engellenecek sunucu adları
+     */
+    public static List<String> blockedHosts() {
+        return getList("scraper.resources.blockHosts", "google-analytics.com,googletagmanager.com,doubleclick.net,"
+                + "googlesyndication.com,facebook.net,connect.facebook.net,hotjar.com,yandex.ru,maps.googleapis.com,"
+                + "maps.gstatic.com,fonts.googleapis.com,fonts.gstatic.com");
+    }
+
+    /**
+     * Engellemeden muaf tutulacak ek sunucular (örn: sitenin CDN'i), virgülle ayrılmış.
+     *
+     * @return İzin verilen sunucu adları
+     */
+    public static List<String> allowedHosts() {
+        return getList("scraper.resources.allowHosts", "");
+    }
+
+    /**
+     * Ürün fotoğraflarının kazıma sırasında indirilip indirilmeyeceği.
+     *
+     * @return Fotoğraflar indirilecekse true
+     */
+    public static boolean downloadImages() {
+        return getBoolean("scraper.images", false);
+    }
+
+    /**
+     * İndirilen fotoğrafların içerik özetine göre saklandığı dizin.
+     *
+     * @return Fotoğraf dizini
+     */
+    public static String imageDirectory() {
+        return getString("scraper.images.dir", "images");
+    }
+
+    /**
+     * Aynı sunucudan aynı anda indirilecek en fazla fotoğraf sayısı.
+     *
+     * @return Sunucu başına eşzamanlı indirme sınırı
+     */
+    public static int imagePerHostConcurrency() {
+        return Math.max(1, getInt("scraper.images.perHost", 4));
+    }
+
+    /**
+     * Toplamda aynı anda indirilecek en fazla fotoğraf sayısı.
+     *
+     * @return Eşzamanlı indirme sınırı
+     */
+    public static int imageMaxInFlight() {
+        return Math.max(1, getInt("scraper.images.maxInFlight", 64));
+    }
+
+    /**
+     * Taramanın başlayacağı adres. scraper.baseUrl yalnızca kaynak içeriyorsa
+     * (örn: http://127.0.0.1:8089) varsayılan adresin yolu korunur, yalnızca sunucu değişir.
+     *
+     * @param defaultUrl Kazıyıcının kendi başlangıç adresi
+     * @return Kullanılacak başlangıç adresi
+     */
+    public static String baseUrl(String defaultUrl) {
+        String value = getString("scraper.baseUrl", "");
+        if (value.isEmpty()) {
+            return defaultUrl;
+        }
+        try {
+            URI override = URI.create(value);
+            if (override.getRawPath() == null || override.getRawPath().isEmpty()) {
+                URI original = URI.create(defaultUrl);
+                String query = original.getRawQuery() == null ? "" : "?" + original.getRawQuery();
+                return override.getScheme() + "://" + override.getRawAuthority() + original.getRawPath() + query;
+            }
+            return value;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Geçersiz ayar değeri scraper.baseUrl=" + value + ", varsayılan kullanılıyor: " + defaultUrl);
+            return defaultUrl;
+        }
+    }
+
+    /**
+     * İndirilen sayfaların kaydedileceği arşiv dosyası. Boşsa kayıt yapılmaz.
+     *
+     * @return Kayıt arşivinin yolu veya boş metin
+     */
+    public static String recordArchive() {
+        return getString("scraper.record", "");
+    }
+
+    /**
+     * Taramanın canlı site yerine sunulacağı kayıt arşivi. Boşsa canlı siteye gidilir.
+     *
+     * @return Tekrar oynatılacak arşivin yolu veya boş metin
+     */
+    public static String replayArchive() {
+        return getString("scraper.replay", "");
+    }
+
+    /**
+     * Tekrar oynatma sunucusunun portu (0: boş bir port seçilir).
+     *
+     * @return Sunucu portu
+     */
+    public static int replayPort() {
+        return getInt("scraper.replay.port", 0);
+    }
+
+    /**
+     * Tekrar oynatma sunucusunun her yanıta eklediği gecikme (ms).
+     *
+     * @return Yanıt gecikmesi (ms)
+     */
+    public static int replayLatencyMillis() {
+        return Math.max(0, getInt("scraper.replay.latencyMs", 0));
+    }
+
+    /**
+     * Tekrar oynatma sunucusunun bağlantı başına bant genişliği (KB/sn, 0: sınırsız).
+     *
+     * @return Bant genişliği (KB/sn)
+     */
+    public static int replayKbPerSecond() {
+        return Math.max(0, getInt("scraper.replay.kbPerSecond", 0));
+    }
+
+    /**
+     * Tekrar oynatma sunucusunun aşırı yük eşiği: aynı anda bu kadar istekten fazlası 429 ve
+     * Retry-After ile reddedilir, eşiğin yarısını aşan her istek yanıtları yavaşlatır (0: kapalı).
+     *
+     * @return Eşzamanlı istek eşiği
+     */
+    public static int replayOverloadAt() {
+        return Math.max(0, getInt("scraper.replay.overloadAt", 0));
+    }
+
+    /**
+     * Tekrar oynatma sunucusunun rastgele 503 döndüğü isteklerin yüzdesi.
+     *
+     * @return Hata yüzdesi (0-100)
+     */
+    public static int replayErrorPercent() {
+        return Math.min(100, Math.max(0, getInt("scraper.replay.errorPercent", 0)));
+    }
+
+    /**
+     * Her sunucuya giden HTTP istekleri ve tarayıcı sayfa açışlarının sunucu başına hız ve
+     * eşzamanlılık sınırıyla düzenlenip düzenlenmeyeceği.
+     *
+     * @return Sınırlama açıksa true
+     */
+    public static boolean throttleEnabled() {
+        return getBoolean("scraper.throttle", true);
+    }
+
+    /**
+     * Bir sunucuya saniyede başlatılabilecek en fazla istek (token kovası dolum hızı).
+     * robots.txt'deki Crawl-delay daha yavaşsa o kullanılır.
+     *
+     * @return İstek/sn
+     */
+    public static int throttleRatePerSecond() {
+        return Math.max(1, getInt("scraper.throttle.ratePerSecond", 8));
+    }
+
+    /**
+     * Token kovasının kapasitesi; beklemeden art arda başlatılabilecek istek sayısı.
+     *
+     * @return Kova kapasitesi
+     */
+    public static int throttleBurst() {
+        return Math.max(1, getInt("scraper.throttle.burst", 4));
+    }
+
+    /**
+     * Bir sunucu için başlangıçtaki eşzamanlı istek sınırı; sınır yanıtlara göre büyür ya da küçülür.
+     *
+     * @return Başlangıç sınırı
+     */
+    public static int throttleInitialConcurrency() {
+        return Math.max(1, getInt("scraper.throttle.initialConcurrency", 2));
+    }
+
+    /**
+     * Bir sunucu için eşzamanlı istek sınırının ulaşabileceği en yüksek değer.
+     *
+     * @return En yüksek sınır
+     */
+    public static int throttleMaxConcurrency() {
+        return Math.max(1, getInt("scraper.throttle.maxConcurrency", 16));
+    }
+
+    /**
+     * Yanıt süresi, sunucunun gözlenen en iyi süresinin bu katını aşınca sunucu yavaşlamış
+     * sayılır ve eşzamanlılık azaltılır.
+     *
+     * @return Gecikme katsayısı
+     */
+    public static int throttleLatencyFactor() {
+        return Math.max(2, getInt("scraper.throttle.latencyFactor", 3));
+    }
+
+    /**
+     * Her sunucunun robots.txt dosyasındaki Crawl-delay değerine uyulup uyulmayacağı.
+     *
+     * @return robots.txt okunacaksa true
+     */
+    public static boolean throttleRobots() {
+        return getBoolean("scraper.throttle.robots", true);
+    }
+
+    /**
+     * Aşama süreleri, sayaçlar ve göstergelerin toplanıp toplanmayacağı.
+     * Süreç başında bir kez okunur; kapalıyken ölçüm noktalarının maliyeti yok denecek kadar azdır.
+     *
+     * @return Ölçüm açıksa true
+     */
+    public static boolean metricsEnabled() {
+        return getBoolean("scraper.metrics", false);
+    }
+
+    /**
+     * Prometheus /metrics uç noktasının portu (0: uç nokta açılmaz, yalnızca JMX).
+     *
+     * @return Metrik portu
+     */
+    public static int metricsPort() {
+        return getInt("scraper.metrics.port", 9400);
+    }
+
+    /**
+     * Prometheus uç noktasının dinlediği adres. Varsayılan yalnızca bu makineden erişilebilen
+     * geri döngü adresidir; başka makinelerden toplanacaksa örn. 0.0.0.0 verilir.
+     *
+     * @return Dinlenecek adres
+     */
+    public static InetAddress metricsBindAddress() {
+        return getAddress("scraper.metrics.bind");
+    }
+
+    /**
+     * Keşfedilen, tamamlanan ve hata veren URL'lerin yazıldığı ilerleme günlüğü. Yarıda kalan bir
+     * tarama yeniden başlatıldığında bu günlükten devam eder. Boşsa günlük tutulmaz.
+     *
+     * @return İlerleme günlüğünün yolu veya boş metin
+     */
+    public static String journalFile() {
+        return getString("scraper.journal", "crawl-journal.ndjson");
+    }
+
+    /**
+     * Günlük, bu kadar kayıt eklendikçe yalnızca güncel durumu içerecek şekilde yeniden yazılır.
+     *
+     * @return Sıkıştırma aralığı (kayıt sayısı)
+     */
+    public static int journalCompactEvery() {
+        return Math.max(100, getInt("scraper.journal.compactEvery", 10000));
+    }
+
+    /**
+     * Hata veren bir URL'nin taramanın sonunda en fazla kaç kez yeniden deneneceği.
+     *
+     * @return Yeniden deneme sayısı (0: denenmez)
+     */
+    public static int maxRetries() {
+        return Math.max(0, getInt("scraper.retry.max", 2));
+    }
+
+    /**
+     * Kazınan ilanların, aynı mülkün başka ilanlarıyla (başka sitelerdekiler dahil) kümelenip
+     * duplicateCluster alanına küme kimliği yazılıp yazılmayacağı.
+     *
+     * @return Tekrar tespiti açıksa true
+     */
+    public static boolean dedupEnabled() {
+        return getBoolean("scraper.dedup", true);
+    }
+
+    /**
+     * Tekrar tespitinin imzalarını ve kümelerini çalışmalar arasında sakladığı dosya.
+     *
+     * @return Tekrar dizini dosyasının yolu
+     */
+    public static String dedupIndexFile() {
+        return getString("scraper.dedup.index", "duplicate-index.ndjson");
+    }
+
+    /**
+     * İki ilanın aynı mülk sayılması için metin ya da fotoğraf imzalarının en az bu yüzde
+     * oranında benzemesi gerekir.
+     *
+     * @return Benzerlik eşiği (yüzde)
+     */
+    public static int dedupThresholdPercent() {
+        return Math.min(100, Math.max(1, getInt("scraper.dedup.threshold", 60)));
+    }
+
+    /**
+     * Açıksa her taramada ilanların fiyat ve aidat değişiklikleri PriceHistory'ye işlenir.
+     *
+     * @return Fiyat geçmişi tutuluyorsa true
+     */
+    public static boolean priceHistoryEnabled() {
+        return getBoolean("scraper.priceHistory", true);
+    }
+
+    /**
+     * @return Fiyat geçmişinin çalışmalar arasında saklandığı dosya
+     */
+    public static String priceHistoryFile() {
+        return getString("scraper.priceHistory.file", "price-history.bin");
+    }
+
+    /**
+     * Kazınan ürünlerin ayrıca yazılacağı ilan deposunun (ListingStore) dizini.
+     * Boş bırakılırsa depo kullanılmaz; çıktı yalnızca NDJSON dosyasına yazılır.
+     *
+     * @return Depo dizini veya boş string
+     */
+    public static String storeDirectory() {
+        return getString("scraper.store", "");
+    }
+
+    /**
+     * @return İlan deposunda bir bölütün kapatılıp yenisine geçileceği boyut (MB)
+     */
+    public static int storeSegmentMb() {
+        return Math.min(1024, Math.max(1, getInt("scraper.store.segmentMb", 64)));
+    }
+
+    /**
+     * @return İlan deposundaki ürün JSON'ları sıkıştırılsın mı
+     */
+    public static boolean storeCompress() {
+        return getBoolean("scraper.store.compress", true);
+    }
+
+    /**
+     * Açıksa her toplu yazma diske zorlanır (fsync); aynı anda bekleyen kayıtlar tek fsync'i paylaşır.
+     *
+     * @return Depo yazmaları diske zorlansın mı
+     */
+    public static boolean storeFsync() {
+        return getBoolean("scraper.store.fsync", true);
+    }
+
+    /**
+     * Kapanmış bölütlerdeki ölü (üzerine yazılmış ya da silinmiş) veri bu yüzdeye ulaşınca
+     * bölütler arka planda birleştirilir.
+     *
+     * @return Birleştirme eşiği (yüzde)
+     */
+    public static int storeCompactPercent() {
+        return Math.min(100, Math.max(1, getInt("scraper.store.compactPercent", 50)));
+    }
+
+    /**
+     * Servis kipinde (ScraperDaemon) zamanlanacak kazıyıcılar, virgülle ayrılmış
+     * "sınıf@aralık" biçiminde (örn: com.emlaksiteniz.EmlakHttpScraper@PT30M).
+     * Sınıf yerine bir site tanımı (örn: sites/emlaksiteniz.json) verilirse SpecScraper ile kazınır.
+     * Aralık ISO-8601 süresidir; verilmezse scraper.daemon.interval kullanılır.
+     *
+     * @return İş tanımları
+     */
+    public static List<String> daemonJobs() {
+        return getList("scraper.daemon.jobs", "com.emlaksiteniz.EmlakHttpScraper");
+    }
+
+    /**
+     * Aralığı verilmemiş işlerin iki tarama arasında bekleyeceği süre (dakika).
+     *
+     * @return Varsayılan tarama aralığı (dakika)
+     */
+    public static int daemonIntervalMinutes() {
+        return Math.max(1, getInt("scraper.daemon.interval", 60));
+    }
+
+    /**
+     * Servis kipindeki HTTP/JSON API'nin portu.
+     *
+     * @return API portu
+     */
+    public static int daemonPort() {
+        return getInt("scraper.daemon.port", 9410);
+    }
+
+    /**
+     * Servis kipindeki API'nin dinlediği adres. Varsayılan geri döngü adresidir; API'de kimlik
+     * doğrulama olmadığından başka makinelere açmak (örn. 0.0.0.0) bilinçli bir seçim olmalıdır.
+     *
+     * @return Dinlenecek adres
+     */
+    public static InetAddress daemonBindAddress() {
+        return getAddress("scraper.daemon.bind");
+    }
+
+    /**
+     * /listings uç noktasında limit verilmezse dönülecek ilan sayısı; istenen limit bunun
+     * on katıyla sınırlanır.
+     *
+     * @return Varsayılan sayfa boyu
+     */
+    public static int daemonPageSize() {
+        return Math.max(1, getInt("scraper.daemon.pageSize", 50));
+    }
+
+    /**
+     * Dağıtık taramada (DistributedCrawl) koordinatör ile işçilerin paylaştığı iş kuyruğu dizini.
+     * Tüm süreçler aynı dizini görmelidir (aynı makine ya da ortak dosya sistemi).
+     *
+     * @return Kuyruk dizini
+     */
+    public static String distributedDirectory() {
+        return getString("scraper.distributed.dir", "crawl-queue");
+    }
+
+    /**
+     * @return Bir iş paketindeki (işçinin tek seferde kiraladığı) en fazla ürün URL'si sayısı
+     */
+    public static int distributedBatchSize() {
+        return Math.max(1, getInt("scraper.distributed.batch", 25));
+    }
+
+    /**
+     * Bir işçinin kiraladığı paketi yenilemeden elinde tutabileceği süre. İşçi bu sürenin
+     * üçte birinde bir kirayı yeniler; süresi dolan paket başka bir işçiye verilir.
+     *
+     * @return Kira süresi (saniye)
+     */
+    public static int distributedLeaseSeconds() {
+        return Math.max(3, getInt("scraper.distributed.leaseSeconds", 60));
+    }
+
+    /**
+     * @return Kuyrukta iş ya da sonuç yokken yeniden bakmadan önce beklenecek süre (ms)
+     */
+    public static int distributedPollMillis() {
+        return Math.max(10, getInt("scraper.distributed.pollMillis", 500));
+    }
+
+    /**
+     * Kiralarda ve sonuç dosyalarında görünen işçi adı; her işçi süreci farklı olmalıdır.
+     * Boş bırakılırsa makine adı ve süreç numarasından üretilir.
+     *
+     * @return İşçi adı veya boş string
+     */
+    public static String distributedWorker() {
+        return getString("scraper.distributed.worker", "");
+    }
+
+    /**
+     * Virgülle ayrılmış liste tipindeki bir sistem özelliğini okur; boş öğeler atlanır.
+     *
+     * @param key Özellik adı
+     * @param defaultValue Özellik yoksa kullanılacak virgüllü liste
+     * @return Liste öğeleri
+     */
+    static List<String> getList(String key, String defaultValue) {
+        List<String> values = new ArrayList<>();
+        for (String value : getString(key, defaultValue).split(",")) {
+            if (!value.isBlank()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Metin tipindeki bir sistem özelliğini okur.
+     *
+     * @param key Özellik adı
+     * @param defaultValue Özellik yoksa dönülecek değer
+     * @return Özellik değeri veya varsayılan değer
+     */
+    static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Adres tipindeki bir sistem özelliğini okur.
+     *
+     * @param key Özellik adı
+     * @return Özellik değeri; yoksa ya da çözülemezse geri döngü adresi
+     */
+    static InetAddress getAddress(String key) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return InetAddress.getLoopbackAddress();
+        }
+        try {
+            return InetAddress.getByName(value.trim());
+        } catch (UnknownHostException e) {
+            System.err.println("Geçersiz ayar değeri " + key + "=" + value + ", geri döngü adresi kullanılıyor");
+            return InetAddress.getLoopbackAddress();
+        }
+    }
+
+    /**
+     * Mantıksal (true/false) tipindeki bir sistem özelliğini okur.
+     *
+     * @param key Özellik adı
+     * @param defaultValue Özellik yoksa dönülecek değer
+     * @return Özellik değeri veya varsayılan değer
+     */
+    static boolean getBoolean(String key, boolean defaultValue) {
+        String value = System.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Tam sayı tipindeki bir sistem özelliğini okur.
+     *
+     * @param key Özellik adı
+     * @param defaultValue Özellik yoksa ya da sayı değilse dönülecek değer
+     * @return Özellik değeri veya varsayılan değer
+     */
+    static int getInt(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Geçersiz ayar değeri " + key + "=" + value + ", varsayılan kullanılıyor: " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,553 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.PriceHistory;
+import com.emlaksiteniz.Product;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Kazıyıcıları tek seferlik bir iş yerine sürekli çalışan bir servis olarak işleten sınıf.
+ * Her Scraper alt sınıfı ya da site tanımı (SpecScraper) kendi aralığıyla zamanlanır; taramalar tek bir iş parçacığında sırayla
+ * çalışır, böylece aynı süreçteki sıcak tarayıcı havuzu, HostThrottle ve metrikler paylaşılır.
+ * Biten her taramanın ürünleri, istekler sırasında hiç kilitlenmeyen değişmez bir bellek görüntüsü
+ * (Snapshot) olarak yayımlanır ve küçük bir HTTP/JSON API'den (varsayılan olarak yalnızca geri döngü
+ * adresinde, scraper.daemon.bind ile değişir) sunulur:
+ * <ul>
+ *     <li>GET /listings?offset=0&amp;limit=50 : sayfalı ilan listesi</li>
+ *     <li>GET /listings/{site}/{ilan numarası} : tek ilan</li>
+ *     <li>GET /jobs : işlerin son çalışma durumu</li>
+ *     <li>GET /price-drops?percent=10&amp;days=30 : son günlerde fiyatı düşen ilanlar (PriceHistory)</li>
+ * </ul>
+ * İlan numaraları yalnızca site içinde tekil olduğundan ilanlar site:numara ile anahtarlanır
+ * (ListingStore.key). Yanıtların ETag'i görüntü sürümünden türetilir; If-None-Match ile gelen ve veri değişmemiş
+ * istekler gövdesiz 304 alır. Ürünler görüntü kurulurken bir kez JSON'a çevrildiği için sayfa
+ * yanıtları yalnızca hazır metinlerin birleştirilmesidir.
+ */
+public class ScraperDaemon implements AutoCloseable {
+    private static final Gson GSON = new Gson();
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    /**
+     * Tüm işlerin son başarılı taramalarından kurulan değişmez görüntü.
+     */
+    private static final class Snapshot {
+        private final long version;
+        private final Instant builtAt;
+        private final List<String> items;            // Sırayla, JSON'a çevrilmiş ilanlar
+        private final Map<String, Integer> byKey;     // site:numara -> items içindeki sıra
+
+        Snapshot(long version, Instant builtAt, List<String> items, Map<String, Integer> byKey) {
+            this.version = version;
+            this.builtAt = builtAt;
+            this.items = items;
+            this.byKey = byKey;
+        }
+
+        String etag(String variant) {
+            return "\"" + version + (variant.isEmpty() ? "" : "-" + variant) + "\"";
+        }
+    }
+
+    /**
+     * Zamanlanmış tek bir kazıyıcı ve son taramasının durumu.
+     * Alanlar yalnızca zamanlayıcı iş parçacığında yazılır, /jobs için volatile okunur.
+     */
+    private final class Job implements Runnable {
+        private final String name;
+        private final Callable<? extends Scraper> factory;
+        private final Duration interval;
+        private final Path output;
+        private final Path journal;
+        // site:numara -> ilan JSON'u; yarıda kalmış bir tarama sürdürülürken önceki ilanlar korunur
+        private volatile Map<String, String> listings = new LinkedHashMap<>();
+        private volatile String site;           // Kazıyıcının siteName() değeri; ilk kullanımda öğrenilir
+        private volatile int runs;
+        private volatile Instant lastStart;
+        private volatile long lastDurationMillis;
+        private volatile long lastCount;
+        private volatile String lastError;
+        private volatile Instant nextRun = Instant.now();
+
+        Job(String name, Callable<? extends Scraper> factory, Duration interval, Path output, Path journal) {
+            this.name = name;
+            this.factory = factory;
+            this.interval = interval;
+            this.output = output;
+            this.journal = journal;
+        }
+
+        @Override
+        public void run() {
+            // Yakalanmayan bir hata işin sonraki çalışmalarını iptal ederdi
+            lastStart = Instant.now();
+            long started = System.nanoTime();
+            long start = CrawlMetrics.start();
+            Map<String, String> scraped = new LinkedHashMap<>();
+            try {
+                Scraper scraper = factory.call();
+                site = scraper.siteName();
+                long count = Scraper.crawl(scraper, output, journal, product -> put(scraped, product));
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                if (scraper.resumesOutput()) {
+                    // Önceki (yarıda kalan) çalışmada yazılanlar bu taramada yeniden iletilmez; görüntüde
+                    // kalırlar, siteden kaldırılanlar düşülür
+                    Map<String, String> merged = new LinkedHashMap<>(listings);
+                    for (String number : scraper.removedListings()) {
+                        merged.remove(site + ":" + number.strip());
+                    }
+                    merged.putAll(scraped);
+                    listings = merged;
+                } else {
+                    // Artımlı taramada da değişmeyen ilanlar çıktıya (ve buraya) taşındığı için tarama tam görüntüdür
+                    listings = scraped;
+                }
+                lastCount = count;
+                lastError = null;
+                publish();
+            } catch (Exception e) {
+                lastError = e.getMessage() != null ? e.getMessage() : e.toString();
+                System.err.println(name + " taraması başarısız oldu, önceki görüntü korunuyor: " + lastError);
+            } finally {
+                runs++;
+                lastDurationMillis = (System.nanoTime() - started) / 1_000_000;
+                nextRun = Instant.now().plus(interval);
+                CrawlMetrics.time("daemon_crawl", start);
+            }
+        }
+
+        /**
+         * Önceki çalışmanın çıktı dosyası varsa görüntüyü ondan kurar; ilk tarama bitene kadar
+         * API boş dönmez. Çıktı artımlı taramada da sitenin tam görüntüsüdür (değişmeyen ilanlar
+         * parmak izi dizininden taşınır); ilk tarama bittiğinde görüntü zaten tamamen yenilenir.
+         */
+        void seed() {
+            if (!Files.exists(output)) {
+                return;
+            }
+            if (site == null) {
+                // Kazıyıcılar tarayıcıyı yapıcıda açmadığı için site adını öğrenmek ucuzdur
+                try {
+                    Scraper probe = factory.call();
+                    site = probe.siteName();
+                    probe.close();
+                } catch (Exception e) {
+                    System.err.println(name + " kazıyıcısı oluşturulamadı, görüntü boş başlıyor: " + e.getMessage());
+                    return;
+                }
+            }
+            try (Stream<Product> products = ProductReader.streamRotated(output, null)) {
+                products.forEach(product -> put(listings, product));
+                System.out.println(name + ": " + listings.size() + " ilan " + output + " dosyasından yüklendi");
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println(output + " okunamadı, görüntü boş başlıyor: " + e.getMessage());
+            }
+        }
+
+        private void put(Map<String, String> target, Product product) {
+            // Numarası olmayan ilanlar başlık ve konumlarından türetilen anahtarla tutulur
+            target.put(ListingStore.key(site, product), GSON.toJson(product));
+        }
+    }
+
+    private final List<Job> jobs;
+    private final int port;
+    private final int pageSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scraper-daemon");
+        thread.setDaemon(false);
+        return thread;
+    });
+    private volatile Snapshot snapshot = new Snapshot(0, Instant.now(), List.of(), Map.of());
+    private HttpServer server;
+    private ExecutorService executor;
+    private ReplayServer replay;
+    private PageArchive replayArchive;
+
+    /**
+     * @param jobs "sınıf@aralık" ya da "site-tanımı.json@aralık" biçiminde iş tanımları
+     * @param port API portu (0: boş bir port seçilir)
+     * @param pageSize Varsayılan sayfa boyu
+     * @throws IllegalArgumentException Sınıf bulunamazsa, Scraper değilse, site tanımı geçersizse ya da aralık okunamazsa
+     */
+    public ScraperDaemon(List<String> jobs, int port, int pageSize) {
+        Path output = Path.of(ScraperConfig.outputFile());
+        String journal = ScraperConfig.journalFile();
+        List<Job> parsed = new ArrayList<>();
+        for (String spec : jobs) {
+            int at = spec.indexOf('@');
+            String target = at < 0 ? spec : spec.substring(0, at);
+            Duration interval;
+            try {
+                interval = at < 0 ? Duration.ofMinutes(ScraperConfig.daemonIntervalMinutes()) : Duration.parse(spec.substring(at + 1));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Geçersiz tarama aralığı: " + spec, e);
+            }
+            String name;
+            Callable<? extends Scraper> factory;
+            if (target.endsWith(".json")) {
+                // Site tanımı: kod yazılmadan SpecScraper ile kazınır; tanım burada doğrulanır
+                ExtractionPlan plan = SpecScraper.loadPlan(target);
+                name = plan.getSpec().getName();
+                factory = () -> new SpecScraper(plan);
+            } else {
+                Class<? extends Scraper> type;
+                try {
+                    type = Class.forName(target).asSubclass(Scraper.class);
+                } catch (ClassNotFoundException | ClassCastException e) {
+                    throw new IllegalArgumentException("Kazıyıcı sınıfı bulunamadı: " + target, e);
+                }
+                name = type.getSimpleName();
+                factory = () -> type.getDeclaredConstructor().newInstance();
+            }
+            // Birden fazla iş varsa çıktı ve günlük dosyaları iş başına ayrılır
+            String prefix = jobs.size() > 1 ? name + "-" : "";
+            parsed.add(new Job(name, factory, interval, output.resolveSibling(prefix + output.getFileName()),
+                    journal.isEmpty() ? null : Path.of(journal).resolveSibling(prefix + Path.of(journal).getFileName())));
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Zamanlanacak kazıyıcı yok (scraper.daemon.jobs)");
+        }
+        this.jobs = List.copyOf(parsed);
+        this.port = port;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * İşleri ve portu ScraperConfig'ten okuyarak bir servis oluşturur.
+     *
+     * @return Henüz başlatılmamış servis
+     */
+    public static ScraperDaemon fromConfig() {
+        return new ScraperDaemon(ScraperConfig.daemonJobs(), ScraperConfig.daemonPort(), ScraperConfig.daemonPageSize());
+    }
+
+    /**
+     * Önceki çıktıları yükler, API'yi açar ve işleri zamanlar. İlk taramalar hemen başlar.
+     * scraper.replay ile bir arşiv verilmişse taramalar servis boyunca açık kalan bir ReplayServer'a yönlendirilir.
+     *
+     * @return Bu servis
+     * @throws IOException Port ya da arşiv açılamazsa
+     */
+    public ScraperDaemon start() throws IOException {
+        CrawlMetrics.expose();
+        CrawlMetrics.gauge("daemon_snapshot_version", () -> snapshot.version);
+        CrawlMetrics.gauge("daemon_snapshot_listings", () -> snapshot.items.size());
+
+        String archive = ScraperConfig.replayArchive();
+        if (!archive.isEmpty() && System.getProperty("scraper.baseUrl") == null) {
+            replayArchive = PageArchive.open(Path.of(archive));
+            replay = ReplayServer.fromConfig(replayArchive).start();
+            System.setProperty("scraper.baseUrl", replay.origin());
+            System.out.println(replayArchive.size() + " kayıtlı sayfa " + replay.origin() + " adresinden sunuluyor");
+        }
+
+        jobs.forEach(Job::seed);
+        publish();
+
+        server = HttpServer.create(new InetSocketAddress(ScraperConfig.daemonBindAddress(), port), 64);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/listings", this::handleListings);
+        server.createContext("/jobs", this::handleJobs);
+        server.createContext("/price-drops", this::handlePriceDrops);
+        server.start();
+
+        for (Job job : jobs) {
+            scheduler.scheduleWithFixedDelay(job, 0, job.interval.toMillis(), TimeUnit.MILLISECONDS);
+            System.out.println(job.name + " her " + job.interval + " taranacak");
+        }
+        return this;
+    }
+
+    /**
+     * @return API'nin dinlediği port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return Yayımlanan görüntünün sürümü (her tarama sonunda artar)
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Zamanlayıcıyı durdurur; süren tarama kesilir ve ilerleme günlüğü sonraki başlatmaya kalır.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+        if (replay != null) {
+            replay.close();
+            System.clearProperty("scraper.baseUrl");
+            try {
+                replayArchive.close();
+            } catch (IOException e) {
+                System.err.println("Arşiv kapatılamadı: " + e.getMessage());
+            }
+        }
+        CrawlMetrics.shutdown();
+    }
+
+    /**
+     * İşlerin güncel ilanlarını birleştirip yeni bir görüntü yayımlar. Aynı sitenin aynı ilanı birden
+     * fazla işte varsa (örn: tarayıcılı ve HTTP kazıyıcı) sonraki işinki geçerlidir. Tarama hiçbir ilanı değiştirmediyse sürüm artmaz,
+     * istemcilerin ETag'leri geçerli kalır.
+     */
+    private synchronized void publish() {
+        Map<String, String> merged = new LinkedHashMap<>();
+        for (Job job : jobs) {
+            merged.putAll(job.listings);
+        }
+        List<String> items = new ArrayList<>(merged.size());
+        Map<String, Integer> byKey = new HashMap<>(merged.size() * 2);
+        merged.forEach((key, json) -> {
+            byKey.put(key, items.size());
+            items.add(json);
+        });
+        if (snapshot.version > 0 && items.equals(snapshot.items)) {
+            return;
+        }
+        snapshot = new Snapshot(snapshot.version + 1, Instant.now(), List.copyOf(items), byKey);
+    }
+
+    private void handleListings(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!isRead(exchange)) {
+                return;
+            }
+            Snapshot current = snapshot;
+            String path = exchange.getRequestURI().getPath();
+            if (path.length() > "/listings/".length() && path.startsWith("/listings/")) {
+                // /listings/{site}/{numara} -> site:numara
+                String key = path.substring("/listings/".length()).replaceFirst("/", ":");
+                Integer index = current.byKey.get(key);
+                if (index == null) {
+                    send(exchange, 404, null, "{\"error\":\"İlan bulunamadı\"}");
+                    return;
+                }
+                send(exchange, 200, current.etag(key), current.items.get(index));
+                return;
+            }
+
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            int offset;
+            int limit;
+            try {
+                offset = Math.max(0, Integer.parseInt(query.getOrDefault("offset", "0")));
+                limit = Math.min(pageSize * 10, Math.max(1, Integer.parseInt(query.getOrDefault("limit", String.valueOf(pageSize)))));
+            } catch (NumberFormatException e) {
+                send(exchange, 400, null, "{\"error\":\"offset ve limit sayı olmalı\"}");
+                return;
+            }
+            int total = current.items.size();
+            int end = Math.min(total, offset + limit);
+            StringBuilder body = new StringBuilder(256 + (end - Math.min(offset, end)) * 2048);
+            body.append("{\"version\":").append(current.version)
+                    .append(",\"generatedAt\":").append(GSON.toJson(current.builtAt.toString()))
+                    .append(",\"total\":").append(total)
+                    .append(",\"offset\":").append(offset)
+                    .append(",\"limit\":").append(limit)
+                    .append(",\"next\":").append(end < total ? GSON.toJson("/listings?offset=" + end + "&limit=" + limit) : "null")
+                    .append(",\"items\":[");
+            for (int i = offset; i < end; i++) {
+                if (i > offset) {
+                    body.append(',');
+                }
+                body.append(current.items.get(i));
+            }
+            body.append("]}");
+            send(exchange, 200, current.etag(offset + "-" + limit), body.toString());
+        }
+    }
+
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!isRead(exchange)) {
+                return;
+            }
+            List<Map<String, Object>> states = new ArrayList<>();
+            for (Job job : jobs) {
+                Map<String, Object> state = new LinkedHashMap<>();
+                state.put("scraper", job.name);
+                state.put("interval", job.interval.toString());
+                state.put("runs", job.runs);
+                state.put("lastStart", job.lastStart == null ? null : job.lastStart.toString());
+                state.put("lastDurationMillis", job.lastDurationMillis);
+                state.put("lastCount", job.lastCount);
+                state.put("lastError", job.lastError);
+                state.put("nextRun", job.nextRun.toString());
+                state.put("listings", job.listings.size());
+                states.add(state);
+            }
+            // İş durumu her istekte değişebildiği için ETag verilmez
+            send(exchange, 200, null, GSON.toJson(Map.of("version", snapshot.version, "jobs", states)));
+        }
+    }
+
+    /**
+     * Son günlerde fiyatı düşen ilanlar: /price-drops?percent=10&days=30&limit=100
+     */
+    private void handlePriceDrops(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!isRead(exchange)) {
+                return;
+            }
+            PriceHistory prices = PriceHistory.shared();
+            if (prices == null) {
+                send(exchange, 404, null, "{\"error\":\"Fiyat geçmişi kapalı\"}");
+                return;
+            }
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            double percent;
+            int days;
+            int limit;
+            try {
+                percent = Double.parseDouble(query.getOrDefault("percent", "5"));
+                days = Math.max(1, Integer.parseInt(query.getOrDefault("days", "30")));
+                limit = Math.min(pageSize * 10, Math.max(1, Integer.parseInt(query.getOrDefault("limit", String.valueOf(pageSize)))));
+            } catch (NumberFormatException e) {
+                send(exchange, 400, null, "{\"error\":\"percent, days ve limit sayı olmalı\"}");
+                return;
+            }
+            List<PriceHistory.Drop> drops = prices.priceDrops(percent, days);
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (PriceHistory.Drop drop : drops.subList(0, Math.min(limit, drops.size()))) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("site", drop.site());
+                item.put("advertisementNumber", drop.id());
+                item.put("previousPrice", drop.previousPrice());
+                item.put("currentPrice", drop.currentPrice());
+                item.put("currency", drop.currency());
+                item.put("percent", Math.round(drop.percent() * 10) / 10.0);
+                item.put("changedAt", Instant.ofEpochMilli(drop.changedAt()).toString());
+                items.add(item);
+            }
+            // Pencere zamanla kaydığından ETag verilmez
+            send(exchange, 200, null, GSON.toJson(Map.of("total", drops.size(), "items", items)));
+        }
+    }
+
+    /**
+     * Yalnızca GET ve HEAD kabul edilir; diğer yöntemlere 405 döner.
+     */
+    private static boolean isRead(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        if ("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method)) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        exchange.sendResponseHeaders(405, -1);
+        return false;
+    }
+
+    /**
+     * Yanıtı gönderir; ETag istemcideki sürümle aynıysa gövdesiz 304 döner.
+     */
+    private static void send(HttpExchange exchange, int status, String etag, String body) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", JSON_TYPE);
+        // İstemciler önbelleği kullanabilir ama her seferinde ETag ile doğrulamalıdır
+        headers.set("Cache-Control", "no-cache");
+        if (etag != null) {
+            headers.set("ETag", etag);
+            if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+                CrawlMetrics.count("daemon_not_modified");
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        boolean head = "HEAD".equalsIgnoreCase(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, head ? -1 : bytes.length);
+        if (!head) {
+            exchange.getResponseBody().write(bytes);
+        }
+        CrawlMetrics.count("daemon_responses");
+    }
+
+    /**
+     * If-None-Match virgüllü bir liste ya da zayıf (W/) ETag'ler içerebilir.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> values = new HashMap<>();
+        if (rawQuery == null) {
+            return values;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                values.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Servisi ayarlardaki ya da argümanlardaki işlerle başlatır; durdurulana kadar çalışır.
+     *
+     * @param args İsteğe bağlı "sınıf@aralık" iş tanımları (verilmezse scraper.daemon.jobs)
+     * @throws IOException Port ya da arşiv açılamazsa
+     */
+    public static void main(String[] args) throws IOException {
+        ScraperDaemon daemon = args.length > 0
+                ? new ScraperDaemon(List.of(args), ScraperConfig.daemonPort(), ScraperConfig.daemonPageSize())
+                : fromConfig();
+        daemon.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::close));
+        System.out.println("İlanlar http://" + daemon.server.getAddress().getHostString() + ":" + daemon.getPort()
+                + "/listings adresinden sunuluyor");
+    }
+}
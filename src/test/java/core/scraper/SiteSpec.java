@@ -0,0 +1,169 @@
+package core.scraper;
+
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Bir sitenin JSON dosyasında tanımlanan, kod yazmadan kazınabilmesi için gereken bilgileri.
+ * Liste sayfası, ürün linkleri, sayfalama ve sitemap deseni ile ürün alanlarının nasıl okunacağını
+ * (XPath ya da etiket tablosu, metin ya da öznitelik, tek değer, liste ya da ad/değer tablosu) içerir.
+ * Tanım doğrudan kullanılmaz; ExtractionPlan.compile ile doğrulanıp çalıştırılabilir bir plana çevrilir.
+ * <pre>
+ * {
+ *   "name": "emlaksiteniz",
+ *   "startUrl": "https://emlaksiteniz.com/urunler",
+ *   "productLinks": "//div[@class='product-item']//a",
+ *   "labelLocator": "//label[contains(text(),'{label}')]//ancestor::div[2]//div[@class='right']//span",
+ *   "ready": ["name"],
+ *   "fields": [
+ *     {"name": "name", "xpath": "//h1"},
+ *     {"name": "numberRooms", "label": "Oda Sayısı"},
+ *     {"name": "imageUrl", "xpath": "//img", "type": "list", "attribute": "src"},
+ *     {"name": "adFeatures", "xpath": "//table//td", "type": "map", "click": "//a[text()='Özellikler']"}
+ *   ]
+ * }
+ * </pre>
+ */
+public class SiteSpec {
+    private static final Gson GSON = new Gson();
+
+    /**
+     * Bir alanın sayfadan okunma biçimi.
+     */
+    public enum FieldType {
+        @SerializedName("text") TEXT,   // İlk eşleşmenin metni ya da özniteliği
+        @SerializedName("list") LIST,   // Tüm eşleşmelerin metinleri ya da öznitelikleri
+        @SerializedName("map") MAP      // Hücreler sırayla (ad, değer) çiftleri olarak
+    }
+
+    /**
+     * Product'ın tek bir alanının okunma kuralı.
+     */
+    public static class FieldSpec {
+        private String name;                       // Product alan adı (örn: price)
+        private String xpath;                      // Doğrudan XPath; label ile birlikte verilemez
+        private String label;                      // labelLocator'a yerleştirilecek etiket
+        private String attribute;                  // Metin yerine okunacak öznitelik (örn: src)
+        private FieldType type = FieldType.TEXT;
+        private int skip;                          // Listenin başından atlanacak öğe sayısı (örn: breadcrumb'daki ana sayfa)
+        private String click;                      // Tablo tarayıcıda bu elemente tıklanınca yükleniyorsa
+
+        public String getName() {
+            return name;
+        }
+
+        public String getXpath() {
+            return xpath;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+
+        public FieldType getType() {
+            return type;
+        }
+
+        public int getSkip() {
+            return skip;
+        }
+
+        public String getClick() {
+            return click;
+        }
+    }
+
+    private String name;                 // Sitenin kısa adı (çıktı ve günlük dosyalarında da kullanılır)
+    private String startUrl;             // Taramanın başladığı liste sayfası (scraper.baseUrl ile değişir)
+    private List<String> hosts;          // Birinci taraf sayılan ek sunucular (örn: CDN)
+    private String productLinks;         // Liste sayfasındaki ürün linkleri
+    private String pagination;           // Sonraki liste sayfalarına giden linkler
+    private String sitemapProductUrl;    // Sitemap'teki ürün URL'lerinin deseni; {origin} başlangıç adresinin köküdür
+    private String labelLocator;         // Etiketli alanlar için {label} yer tutuculu XPath şablonu
+    private List<String> ready;          // Tarayıcıda sayfanın hazır sayılması için beklenecek alanlar
+    private List<FieldSpec> fields;
+
+    /**
+     * Tanımı bir dosyadan ya da dosya yoksa sınıf yolundan (örn: sites/emlaksiteniz.json) okur.
+     *
+     * @param location Dosya yolu ya da sınıf yolundaki kaynak adı
+     * @return Okunan tanım
+     * @throws IOException Tanım bulunamazsa ya da JSON okunamazsa
+     */
+    public static SiteSpec read(String location) throws IOException {
+        Path path = Path.of(location);
+        if (Files.isRegularFile(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                return parse(reader, location);
+            }
+        }
+        try (InputStream in = SiteSpec.class.getResourceAsStream("/" + location.replace('\\', '/'))) {
+            if (in == null) {
+                throw new IOException("Site tanımı bulunamadı: " + location);
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8), location);
+        }
+    }
+
+    private static SiteSpec parse(Reader reader, String location) throws IOException {
+        try {
+            SiteSpec spec = GSON.fromJson(reader, SiteSpec.class);
+            if (spec == null) {
+                throw new IOException("Site tanımı boş: " + location);
+            }
+            return spec;
+        } catch (JsonParseException e) {
+            throw new IOException("Site tanımı okunamadı: " + location + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStartUrl() {
+        return startUrl;
+    }
+
+    public List<String> getHosts() {
+        return hosts == null ? List.of() : hosts;
+    }
+
+    public String getProductLinks() {
+        return productLinks;
+    }
+
+    public String getPagination() {
+        return pagination;
+    }
+
+    public String getSitemapProductUrl() {
+        return sitemapProductUrl;
+    }
+
+    public String getLabelLocator() {
+        return labelLocator;
+    }
+
+    public List<String> getReady() {
+        return ready == null ? List.of() : ready;
+    }
+
+    public List<FieldSpec> getFields() {
+        return fields == null ? List.of() : fields;
+    }
+}
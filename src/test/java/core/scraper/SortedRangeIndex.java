@@ -0,0 +1,164 @@
+package core.scraper;
+
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Sayısal bir alan için (değer, belge no) çiftlerini değere göre sıralı ilkel dizilerde tutan
+ * aralık dizini. Aralık sorguları iki ikili arama ile bulunur.
+ * Yeni değerler önce küçük, sırasız bir tampona eklenir; tampon dolunca sıralanıp ana
+ * dizilerle birleştirilir. Böylece akış halinde gelen kayıtlar her eklemede tüm diziyi
+ * kaydırmadan dizine girer. Eşzamanlı erişim çağıranın sorumluluğundadır.
+ */
+public class SortedRangeIndex {
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    private long[] values = new long[0];       // Sıralı değerler
+    private int[] docs = new int[0];           // values ile aynı sıradaki belge numaraları
+    private long[] pendingValues;              // Henüz birleştirilmemiş ekler
+    private int[] pendingDocs;
+    private int pendingCount;
+
+    public SortedRangeIndex() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize Birleştirmeden önce biriktirilecek en fazla ek sayısı
+     */
+    public SortedRangeIndex(int bufferSize) {
+        pendingValues = new long[Math.max(1, bufferSize)];
+        pendingDocs = new int[pendingValues.length];
+    }
+
+    /**
+     * Bir belgenin değerini ekler.
+     *
+     * @param value Değer
+     * @param doc Belge numarası
+     */
+    public void add(long value, int doc) {
+        if (pendingCount == pendingValues.length) {
+            merge();
+        }
+        pendingValues[pendingCount] = value;
+        pendingDocs[pendingCount] = doc;
+        pendingCount++;
+    }
+
+    /**
+     * @return Dizindeki değer sayısı
+     */
+    public int size() {
+        return values.length + pendingCount;
+    }
+
+    /**
+     * [min, max] aralığındaki değer sayısını, belgeleri toplamadan hesaplar.
+     *
+     * @param min Alt sınır (dahil)
+     * @param max Üst sınır (dahil)
+     * @return Aralıktaki değer sayısı
+     */
+    public int count(long min, long max) {
+        int count = Math.max(0, upperBound(max) - lowerBound(min));
+        for (int i = 0; i < pendingCount; i++) {
+            if (pendingValues[i] >= min && pendingValues[i] <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * [min, max] aralığındaki belgeleri işaretler.
+     *
+     * @param min Alt sınır (dahil)
+     * @param max Üst sınır (dahil)
+     * @param result Belge numaralarının işaretleneceği küme
+     */
+    public void collect(long min, long max, BitSet result) {
+        int end = upperBound(max);
+        for (int i = lowerBound(min); i < end; i++) {
+            result.set(docs[i]);
+        }
+        for (int i = 0; i < pendingCount; i++) {
+            if (pendingValues[i] >= min && pendingValues[i] <= max) {
+                result.set(pendingDocs[i]);
+            }
+        }
+    }
+
+    /**
+     * Tampondaki ekleri sıralayıp ana dizilerle birleştirir.
+     */
+    public void merge() {
+        if (pendingCount == 0) {
+            return;
+        }
+        // Tampon (değer, belge) çiftleri olarak sıralanır
+        long[] sortedValues = new long[pendingCount];
+        Integer[] order = new Integer[pendingCount];
+        for (int i = 0; i < pendingCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(pendingValues[a], pendingValues[b]));
+        int[] sortedDocs = new int[pendingCount];
+        for (int i = 0; i < pendingCount; i++) {
+            sortedValues[i] = pendingValues[order[i]];
+            sortedDocs[i] = pendingDocs[order[i]];
+        }
+
+        long[] mergedValues = new long[values.length + pendingCount];
+        int[] mergedDocs = new int[mergedValues.length];
+        int left = 0;
+        int right = 0;
+        for (int out = 0; out < mergedValues.length; out++) {
+            if (right >= pendingCount || (left < values.length && values[left] <= sortedValues[right])) {
+                mergedValues[out] = values[left];
+                mergedDocs[out] = docs[left++];
+            } else {
+                mergedValues[out] = sortedValues[right];
+                mergedDocs[out] = sortedDocs[right++];
+            }
+        }
+        values = mergedValues;
+        docs = mergedDocs;
+        pendingCount = 0;
+    }
+
+    /**
+     * @return min'den küçük olmayan ilk değerin konumu
+     */
+    private int lowerBound(long min) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < min) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return max'tan büyük ilk değerin konumu
+     */
+    private int upperBound(long max) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= max) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,150 @@
+package core.scraper;
+
+
+import com.emlaksiteniz.Product;
+import org.openqa.selenium.WebDriver;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bir site tanımından (SiteSpec) derlenen ExtractionPlan'ı çalıştıran genel kazıyıcı.
+ * Yeni bir site için alt sınıf yazmak yerine JSON tanımı verilir (scraper.site).
+ * Sayfalar EmlakHttpScraper gibi HTTP ile indirilip Jsoup üzerinden okunur; yalnızca
+ * tıklamayla yüklenen tablolar HTML'de boş kalırsa sayfa tarayıcı havuzunda açılıp plan
+ * tek betikle (DomSnapshot) yeniden çalıştırılır.
+ */
+public class SpecScraper extends Scraper {
+    private final ExtractionPlan plan;
+
+    /**
+     * Tanımı ScraperConfig.siteSpec() konumundan okur.
+     */
+    public SpecScraper() {
+        this(loadPlan(ScraperConfig.siteSpec()));
+    }
+
+    /**
+     * @param plan Çalıştırılacak derlenmiş plan
+     */
+    public SpecScraper(ExtractionPlan plan) {
+        super(false);
+        this.plan = plan;
+    }
+
+    /**
+     * @param location Tanım dosyası ya da sınıf yolundaki kaynak
+     * @return Derlenmiş (önbellekteki) plan
+     * @throws UncheckedIOException Tanım okunamazsa
+     * @throws IllegalArgumentException Tanım geçersizse
+     */
+    public static ExtractionPlan loadPlan(String location) {
+        try {
+            return ExtractionPlan.load(location);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return Çalıştırılan plan
+     */
+    public ExtractionPlan getPlan() {
+        return plan;
+    }
+
+    @Override
+    public List<Product> scrapeProducts() {
+        List<Product> products = new ArrayList<>();
+        scrapeProducts(products::add);
+        return products;
+    }
+
+    /**
+     * Liste sayfalarını dolaşıp bulunan ürünleri eşzamanlı olarak kazır ve kazındıkça sırayla iletir.
+     *
+     * @param sink Kazınan her ürünü alan tüketici
+     */
+    @Override
+    public void scrapeProducts(Consumer<Product> sink) {
+        Consumer<Product> reporting = product -> {
+            System.out.println("Scraped product: " + product.getName());
+            sink.accept(product);
+        };
+        try (CrawlFrontier frontier = newCrawlFrontier().start()) {
+            scrapeConcurrently(frontier, this::scrapeProduct, reporting);
+            System.out.println(plan.getSpec().getName() + ": " + frontier.productCount() + " ürün ("
+                    + frontier.listingPageCount() + " liste sayfası)");
+        }
+    }
+
+    @Override
+    protected String siteName() {
+        return plan.getSpec().getName();
+    }
+
+    @Override
+    protected List<String> siteHosts() {
+        return plan.hosts(startUrl());
+    }
+
+    @Override
+    protected CrawlFrontier newCrawlFrontier() {
+        String startUrl = startUrl();
+        return new CrawlFrontier(httpFetcher(), CrawlFrontier.httpLoader(httpFetcher()), startUrl,
+                plan.getSpec().getProductLinks(), plan.getSpec().getPagination(), plan.sitemapProductPattern(startUrl));
+    }
+
+    /**
+     * @return Taramanın başladığı liste sayfası; scraper.baseUrl ile değiştirilebilir
+     */
+    protected String startUrl() {
+        return ScraperConfig.baseUrl(plan.getSpec().getStartUrl());
+    }
+
+    @Override
+    protected Product scrapeProduct(String url) throws Exception {
+        HttpPage page = httpFetcher().fetch(url);
+        if (!page.isSuccessful()) {
+            throw new IOException("HTTP " + page.getStatusCode() + " for " + url);
+        }
+        PageSource source = HtmlPageSource.parse(page.getBody(), page.getUrl());
+        long extractStart = CrawlMetrics.start();
+        Product product = plan.extract(source);
+        CrawlMetrics.time("extract", extractStart);
+        if (plan.needsBrowser(product, source)) {
+            // Tablo HTML'de yok: sekmeye tıklanınca JS ile yükleniyor
+            product = withBrowser(session -> {
+                WebDriver driver = session.getDriver();
+                driver.get(url);
+                if (!readiness().await(driver, "detail", plan.getReadyXpaths())) {
+                    throw new PageNotReadyException("Ürün sayfası hazır olmadı: " + url);
+                }
+                return plan.extract(DomSnapshot.capture(driver, plan.getQueries(),
+                        plan.getClickXpath(), plan.getAfterClickQueries()));
+            });
+        }
+        return product;
+    }
+
+    /**
+     * Ayarlardaki site tanımıyla kazıyıcıyı çalıştırır.
+     *
+     * @param args İsteğe bağlı site tanımı (verilmezse scraper.site)
+     * @throws NoSuchMethodException Yapıcı metod bulunamazsa
+     * @throws InvocationTargetException Yapıcı metod çağrısı başarısız olursa
+     * @throws InstantiationException Örnek oluşturma başarısız olursa
+     * @throws IllegalAccessException Yapıcı metod erişimi reddedilirse
+     * @throws IOException Dosya işlemleri başarısız olursa
+     */
+    public static void main(String[] args) throws NoSuchMethodException, InvocationTargetException,
+            InstantiationException, IllegalAccessException, IOException {
+        if (args.length > 0) {
+            System.setProperty("scraper.site", args[0]);
+        }
+        Scraper.executeScraper(SpecScraper.class);
+    }
+}
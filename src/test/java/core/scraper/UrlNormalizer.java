@@ -0,0 +1,64 @@
+package core.scraper;
+
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Aynı sayfaya giden farklı yazımdaki URL'leri tek bir biçime indirger.
+ * Tekrar kontrolünde anahtar olarak kullanılır.
+ */
+public final class UrlNormalizer {
+
+    private UrlNormalizer() {
+    }
+
+    /**
+     * URL'yi normalize eder: şema ve host küçük harfe çevrilir, varsayılan port,
+     * fragment, sondaki "/" ve izleme parametreleri (utm_*) atılır, sorgu parametreleri sıralanır.
+     *
+     * @param url Normalize edilecek URL
+     * @return Normalize edilmiş URL; ayrıştırılamazsa kırpılmış hali
+     */
+    public static String normalize(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            String scheme = uri.getScheme() == null ? "https" : uri.getScheme().toLowerCase(Locale.ROOT);
+            String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1 || (scheme.equals("http") && port == 80) || (scheme.equals("https") && port == 443);
+
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            if (path.length() > 1 && path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+
+            StringBuilder normalized = new StringBuilder(scheme).append("://").append(host);
+            if (!defaultPort) {
+                normalized.append(':').append(port);
+            }
+            normalized.append(path);
+
+            String query = normalizeQuery(uri.getRawQuery());
+            if (!query.isEmpty()) {
+                normalized.append('?').append(query);
+            }
+            return normalized.toString();
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    private static String normalizeQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        return Arrays.stream(rawQuery.split("&"))
+                .filter(param -> !param.isEmpty() && !param.toLowerCase(Locale.ROOT).startsWith("utm_"))
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+}
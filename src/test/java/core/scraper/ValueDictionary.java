@@ -0,0 +1,88 @@
+package core.scraper;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tekrar eden metin değerlerini (ısıtma tipi, satıcı tipi, konum vb.) küçük tam sayı kodlarına
+ * dönüştüren sözlük. Her farklı değer bir kez saklanır; kayıtlar yalnızca kodu tutar.
+ * Kodlar ilk görülme sırasıyla 0'dan başlar ve sözlüğün ömrü boyunca değişmez.
+ */
+public class ValueDictionary {
+    /**
+     * Boş ya da bilinmeyen değerin kodu.
+     */
+    public static final int MISSING = -1;
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Değerin kodunu döndürür; değer ilk kez görülüyorsa yeni kod atanır.
+     *
+     * @param value Kodlanacak değer
+     * @return Değerin kodu; null ya da boşsa MISSING
+     */
+    public int code(String value) {
+        if (value == null || value.isBlank()) {
+            return MISSING;
+        }
+        String key = value.strip();
+        Integer code = codes.get(key);
+        if (code != null) {
+            return code;
+        }
+        synchronized (values) {
+            return codes.computeIfAbsent(key, k -> {
+                values.add(k);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Koda karşılık gelen değeri döndürür.
+     *
+     * @param code Değerin kodu
+     * @return Değer; kod MISSING ya da tanımsızsa null
+     */
+    public String value(int code) {
+        synchronized (values) {
+            return code < 0 || code >= values.size() ? null : values.get(code);
+        }
+    }
+
+    /**
+     * Var olan bir değerin kodunu, yeni kod atamadan arar.
+     *
+     * @param value Aranan değer
+     * @return Değerin kodu; sözlükte yoksa MISSING
+     */
+    public int find(String value) {
+        if (value == null) {
+            return MISSING;
+        }
+        return codes.getOrDefault(value.strip(), MISSING);
+    }
+
+    /**
+     * @return Sözlükteki farklı değer sayısı
+     */
+    public int size() {
+        synchronized (values) {
+            return values.size();
+        }
+    }
+
+    /**
+     * @return Kod sırasıyla tüm değerlerin kopyası
+     */
+    public List<String> values() {
+        synchronized (values) {
+            return List.copyOf(values);
+        }
+    }
+}
@@ -0,0 +1,571 @@
+package core.scraper;
+
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Birden fazla JVM'in (aynı makinede ya da ortak dosya sisteminde) paylaştığı, dizin tabanlı
+ * kiralamalı iş kuyruğu. Kuyruğa konan her paket bir grup ürün URL'sidir; işçiler paketleri
+ * süreli olarak kiralar, kirayı düzenli aralıklarla yeniler ve sonucu yazınca kirayı bırakır.
+ * Süresi dolan (işçisi çökmüş ya da takılmış) kiralar herhangi bir katılımcı tarafından
+ * kuyruğa geri konur.
+ * <p>
+ * Dizin düzeni:
+ * <ul>
+ *   <li>pending/ID.DENEME.work: kiralanmayı bekleyen paket, satır başına bir URL</li>
+ *   <li>leased/ID.DENEME.İŞÇİ.BİTİŞ.lease: kiralanmış paket; BİTİŞ kiranın dolduğu an (epoch ms)</li>
+ *   <li>results/ID.DENEME.İŞÇİ.ndjson: paketin sonuçları, satır başına bir kayıt</li>
+ *   <li>failed/ID.DENEME.work: deneme hakkı bittiği için bırakılan paket</li>
+ *   <li>merged.log: koordinatörün birleştirdiği sonuç dosyalarının adları; her birleştirmeden önce
+ *   "&gt; ad konum" satırıyla başlangıcı ve çıktının o anki konumu yazılır</li>
+ *   <li>last.id: kuyruğa konan son paketin numarası; paketler 1'den başlayarak sırayla numaralanır</li>
+ *   <li>crawl.done: tarama bittiğinde yazılır; işçiler bunu görünce çıkar</li>
+ * </ul>
+ * Tüm durum geçişleri aynı dosya sistemi içinde atomik yeniden adlandırmadır. İki işçi aynı
+ * paketi kiralamaya çalışırsa yalnızca birinin taşıması başarılı olur; kira yenilemesi ile süresi
+ * dolan kiranın geri alınması da aynı dosya üzerinde yarışır ve yalnızca biri kazanır. Paketler
+ * dizinler arasında taşınırken bir dizin listesinde görünmeyebileceğinden taramanın bittiği
+ * bekleyen/kiralı sayılarından değil, her paket numarasının son durumlarından (results/ ya da failed/,
+ * ikisi de kalıcıdır) çıkarılmalıdır. Geri alınan bir paketin eski işçisi yine de sonuç yazabilir; aynı paketin
+ * birden fazla sonucu olabileceğinden birleştiren taraf URL'ye göre tekilleştirmelidir.
+ */
+public class WorkQueue {
+    private static final String PENDING = "pending";
+    private static final String LEASED = "leased";
+    private static final String RESULTS = "results";
+    private static final String FAILED = "failed";
+    private static final String WORK_SUFFIX = ".work";
+    private static final String LEASE_SUFFIX = ".lease";
+    private static final String RESULT_SUFFIX = ".ndjson";
+    private static final String MERGED_LOG = "merged.log";
+    private static final String DONE_MARKER = "crawl.done";
+    private static final String LAST_ID = "last.id";
+    private static final String BEGIN_MARK = "> ";                 // merged.log'da başlayan birleştirme satırı
+
+    private final Path directory;
+    private final Set<Long> resultIds = ConcurrentHashMap.newKeySet();   // Sonucu görülmüş paketler (bir kez yazılınca silinmez)
+    private long nextId;                                                 // Yalnızca kuyruğa ekleyen (koordinatör) kullanır
+
+    /**
+     * Kiralanmış bir paket. Kira yenilendikçe dosya adı (bitiş zamanı) değişir.
+     */
+    public static final class Lease {
+        private final long id;
+        private final int attempt;
+        private final String worker;
+        private final List<String> urls;
+        private Path file;
+
+        private Lease(long id, int attempt, String worker, List<String> urls, Path file) {
+            this.id = id;
+            this.attempt = attempt;
+            this.worker = worker;
+            this.urls = urls;
+            this.file = file;
+        }
+
+        /**
+         * @return Paket numarası
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * @return Paketin kaçıncı denemesi olduğu (ilk kiralamada 0)
+         */
+        public int getAttempt() {
+            return attempt;
+        }
+
+        /**
+         * @return Paketteki URL'ler
+         */
+        public List<String> getUrls() {
+            return urls;
+        }
+    }
+
+    private WorkQueue(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Kuyruk dizinini açar, yoksa oluşturur.
+     *
+     * @param directory Kuyruk dizini
+     * @return Açılan kuyruk
+     * @throws IOException Dizin oluşturulamazsa
+     */
+    public static WorkQueue open(Path directory) throws IOException {
+        WorkQueue queue = new WorkQueue(directory);
+        for (String name : List.of(PENDING, LEASED, RESULTS, FAILED)) {
+            Files.createDirectories(directory.resolve(name));
+        }
+        return queue;
+    }
+
+    /**
+     * Önceki taramanın tüm paketlerini, sonuçlarını ve işaretlerini siler.
+     *
+     * @throws IOException Dosyalar silinemezse
+     */
+    public synchronized void reset() throws IOException {
+        for (String name : List.of(PENDING, LEASED, RESULTS, FAILED)) {
+            for (Path file : list(name, "")) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory.resolve(MERGED_LOG));
+        Files.deleteIfExists(directory.resolve(DONE_MARKER));
+        Files.deleteIfExists(directory.resolve(LAST_ID));
+        resultIds.clear();
+        nextId = 0;
+    }
+
+    /**
+     * URL'leri yeni bir paket olarak kuyruğa koyar. Paket önce gizli bir geçici dosyaya yazılır,
+     * sonra bekleyenler arasına taşınır; yarım paket hiçbir zaman kiralanamaz.
+     *
+     * @param urls Paketteki URL'ler
+     * @param attempt Paketin deneme sayısı (yeni URL'ler için 0)
+     * @return Paket numarası
+     * @throws IOException Paket yazılamazsa
+     */
+    public synchronized long enqueue(List<String> urls, int attempt) throws IOException {
+        if (nextId == 0) {
+            nextId = lastBatchId() + 1;
+        }
+        long id = nextId++;
+        Path temp = directory.resolve(PENDING).resolve("." + id + ".tmp");
+        Files.write(temp, urls, StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(PENDING).resolve(workName(id, attempt)), StandardCopyOption.ATOMIC_MOVE);
+        Path lastTemp = directory.resolve("." + LAST_ID + ".tmp");
+        Files.writeString(lastTemp, Long.toString(id), StandardCharsets.UTF_8);
+        Files.move(lastTemp, directory.resolve(LAST_ID), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return id;
+    }
+
+    /**
+     * Bu taramada kuyruğa konan son paketin numarası. Paketler 1'den başlayıp sırayla numaralandığından
+     * 1..lastBatchId aralığındaki her paket bir sonuca ya da failed/ dizinine ulaşınca tarama bitmiştir.
+     *
+     * @return Son paket numarası veya henüz paket yoksa 0
+     * @throws IOException Dizin okunamazsa
+     */
+    public synchronized long lastBatchId() throws IOException {
+        long last = 0;
+        Path file = directory.resolve(LAST_ID);
+        if (Files.exists(file)) {
+            last = Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim());
+        }
+        // Numara yazılmadan ölen koordinatörün son paketi dizinlerde görülür
+        return Math.max(last, highestId());
+    }
+
+    /**
+     * Bekleyen en eski paketi kiralar. Sonucu zaten yazılmış (kirası geri alınmışken eski işçisi
+     * bitirmiş) paketler kiralanmaz, kuyruktan kaldırılır.
+     *
+     * @param worker İşçi adı (harf, rakam, '-' ve '_')
+     * @param leaseMillis Kira süresi
+     * @return Kiralanan paket veya bekleyen paket yoksa null
+     * @throws IOException Dizin okunamazsa
+     * @throws IllegalArgumentException İşçi adı dosya adında kullanılamayacak karakter içeriyorsa
+     */
+    public Lease claim(String worker, long leaseMillis) throws IOException {
+        if (!worker.matches("[A-Za-z0-9_-]+")) {
+            throw new IllegalArgumentException("Geçersiz işçi adı: " + worker);
+        }
+        for (Path work : list(PENDING, WORK_SUFFIX)) {
+            String[] parts = parts(work, WORK_SUFFIX);
+            long id = Long.parseLong(parts[0]);
+            int attempt = Integer.parseInt(parts[1]);
+            Path lease = directory.resolve(LEASED).resolve(leaseName(id, attempt, worker, System.currentTimeMillis() + leaseMillis));
+            try {
+                Files.move(work, lease, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                continue;   // Başka bir işçi önce kiraladı
+            }
+            if (hasResult(id)) {
+                Files.deleteIfExists(lease);
+                continue;
+            }
+            return new Lease(id, attempt, worker, Files.readAllLines(lease, StandardCharsets.UTF_8), lease);
+        }
+        return null;
+    }
+
+    /**
+     * Kiranın bitiş zamanını ileri alır.
+     *
+     * @param lease Yenilenecek kira
+     * @param leaseMillis Şu andan itibaren kira süresi
+     * @return Kira hâlâ bu işçideyse true; süresi dolup geri alındıysa false
+     * @throws IOException Yeniden adlandırma başka bir nedenle başarısız olursa
+     */
+    public boolean renew(Lease lease, long leaseMillis) throws IOException {
+        synchronized (lease) {
+            if (lease.file == null) {
+                return false;
+            }
+            Path renewed = directory.resolve(LEASED).resolve(leaseName(lease.id, lease.attempt, lease.worker,
+                    System.currentTimeMillis() + leaseMillis));
+            try {
+                Files.move(lease.file, renewed, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                lease.file = null;
+                return false;
+            }
+            lease.file = renewed;
+            return true;
+        }
+    }
+
+    /**
+     * Paketin sonuçlarını yazar ve kirayı bırakır. Sonuç dosyası kira bırakılmadan önce atomik
+     * olarak yerine konur; kira bu arada geri alınmış olsa da sonuç kaybolmaz.
+     *
+     * @param lease Tamamlanan kira
+     * @param lines Sonuç satırları
+     * @return Kira bırakılana kadar bu işçide kaldıysa true
+     * @throws IOException Sonuç yazılamazsa
+     */
+    public boolean complete(Lease lease, List<String> lines) throws IOException {
+        String name = lease.id + "." + lease.attempt + "." + lease.worker + RESULT_SUFFIX;
+        Path temp = directory.resolve(RESULTS).resolve("." + name + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, directory.resolve(RESULTS).resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        resultIds.add(lease.id);
+        synchronized (lease) {
+            boolean held = lease.file != null && Files.deleteIfExists(lease.file);
+            lease.file = null;
+            return held;
+        }
+    }
+
+    /**
+     * Süresi dolmuş kiraları geri alır: sonucu yazılmış olanlar kaldırılır, deneme hakkı kalanlar
+     * bir sonraki deneme olarak kuyruğa geri konur, kalmayanlar failed/ dizinine taşınır.
+     * Aynı anda birden fazla süreç çağırabilir; her kirayı yalnızca biri geri alır.
+     *
+     * @param maxRetries Bir paketin ilk denemeden sonra en fazla kaç kez yeniden kiralanabileceği
+     * @return Geri alınan kira sayısı
+     * @throws IOException Dizin okunamazsa
+     */
+    public int reap(int maxRetries) throws IOException {
+        long now = System.currentTimeMillis();
+        int reaped = 0;
+        for (Path lease : list(LEASED, LEASE_SUFFIX)) {
+            String[] parts = parts(lease, LEASE_SUFFIX);
+            if (Long.parseLong(parts[3]) > now) {
+                continue;
+            }
+            long id = Long.parseLong(parts[0]);
+            int attempt = Integer.parseInt(parts[1]) + 1;
+            try {
+                if (hasResult(id)) {
+                    Files.delete(lease);
+                } else if (attempt > maxRetries) {
+                    Files.move(lease, directory.resolve(FAILED).resolve(workName(id, attempt - 1)), StandardCopyOption.ATOMIC_MOVE);
+                    System.err.println("Paket " + id + " " + attempt + " denemede bitirilemedi, bırakıldı (işçi: " + parts[2] + ")");
+                } else {
+                    Files.move(lease, directory.resolve(PENDING).resolve(workName(id, attempt)), StandardCopyOption.ATOMIC_MOVE);
+                    System.err.println("Süresi dolan kira geri alındı: paket " + id + " (işçi: " + parts[2] + ")");
+                }
+                reaped++;
+            } catch (NoSuchFileException e) {
+                // İşçi kirayı yeniledi, bitirdi ya da başka bir süreç önce geri aldı
+            }
+        }
+        return reaped;
+    }
+
+    /**
+     * @return Henüz birleştirilmemiş sonuç dosyaları, paket sırasıyla
+     * @throws IOException Dizin okunamazsa
+     */
+    public List<Path> unmergedResults() throws IOException {
+        Set<String> merged = mergedNames();
+        List<Path> results = new ArrayList<>();
+        for (Path result : list(RESULTS, RESULT_SUFFIX)) {
+            if (!merged.contains(result.getFileName().toString())) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return Daha önce birleştirilmiş sonuç dosyaları
+     * @throws IOException Günlük okunamazsa
+     */
+    public List<Path> mergedResults() throws IOException {
+        List<Path> results = new ArrayList<>();
+        for (String name : mergedNames()) {
+            results.add(directory.resolve(RESULTS).resolve(name));
+        }
+        return results;
+    }
+
+    /**
+     * Bir sonuç dosyasının birleştirilmeye başlandığını, çıktının o anki konumuyla birlikte günlüğe
+     * yazar. Birleştirme markMerged ile kapanmadan süreç ölürse yeniden başlayan koordinatör
+     * interruptedMerge ile bu konumu alıp çıktıyı oraya geri kısaltır.
+     *
+     * @param result Birleştirilecek sonuç dosyası
+     * @param checkpoint Çıktının birleştirme öncesi konumu
+     * @throws IOException Günlüğe yazılamazsa
+     */
+    public synchronized void beginMerge(Path result, String checkpoint) throws IOException {
+        appendMergeLog(BEGIN_MARK + result.getFileName() + " " + checkpoint);
+    }
+
+    /**
+     * Sonuç dosyasını birleştirildi olarak günlüğe ekler; yeniden başlayan koordinatör onu tekrar işlemez.
+     *
+     * @param result Birleştirilen sonuç dosyası
+     * @throws IOException Günlüğe yazılamazsa
+     */
+    public synchronized void markMerged(Path result) throws IOException {
+        appendMergeLog(result.getFileName().toString());
+    }
+
+    /**
+     * @return Başlayıp markMerged ile kapanmamış son birleştirmenin çıktı konumu, yoksa null
+     * @throws IOException Günlük okunamazsa
+     */
+    public synchronized String interruptedMerge() throws IOException {
+        Path log = directory.resolve(MERGED_LOG);
+        String name = null;
+        String checkpoint = null;
+        if (Files.exists(log)) {
+            for (String line : Files.readAllLines(log, StandardCharsets.UTF_8)) {
+                if (line.startsWith(BEGIN_MARK)) {
+                    int space = line.lastIndexOf(' ');
+                    name = line.substring(BEGIN_MARK.length(), space);
+                    checkpoint = line.substring(space + 1);
+                } else if (line.trim().equals(name)) {
+                    name = null;
+                    checkpoint = null;
+                }
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return Bu kuyrukta birleştirmeye başlanmışsa (koordinatör çıktıya yazmışsa) true
+     */
+    public boolean isMergeStarted() {
+        return Files.exists(directory.resolve(MERGED_LOG));
+    }
+
+    /**
+     * @param result Sonuç dosyası
+     * @return Dosyanın ait olduğu paketin numarası
+     */
+    public long batchOf(Path result) {
+        return Long.parseLong(parts(result, RESULT_SUFFIX)[0]);
+    }
+
+    /**
+     * Deneme hakkı bittiği için bırakılan paketler. failed/ dizinine taşınan paket oradan çıkmaz;
+     * bir listede görülmeyen paket sonraki listede görülür.
+     *
+     * @return Bırakılan paketlerin numaraları
+     * @throws IOException Dizin okunamazsa
+     */
+    public Set<Long> failedBatches() throws IOException {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Path work : list(FAILED, WORK_SUFFIX)) {
+            ids.add(Long.parseLong(parts(work, WORK_SUFFIX)[0]));
+        }
+        return ids;
+    }
+
+    /**
+     * @param result Sonuç dosyası
+     * @return Dosyanın ait olduğu paketin deneme sayısı
+     */
+    public int attemptOf(Path result) {
+        return Integer.parseInt(parts(result, RESULT_SUFFIX)[1]);
+    }
+
+    /**
+     * Kuyruktaki, kiradaki, bırakılmış ve sonuçlanmış tüm paketlerin URL'lerini verir.
+     * Yeniden başlayan koordinatör zaten kuyruğa konmuş URL'leri tekrar koymamak için kullanır.
+     *
+     * @param urls Her paket URL'sini alan tüketici
+     * @throws IOException Paketler okunamazsa
+     */
+    public void forEachQueuedUrl(Consumer<String> urls) throws IOException {
+        for (String name : List.of(PENDING, LEASED, FAILED)) {
+            for (Path work : list(name, name.equals(LEASED) ? LEASE_SUFFIX : WORK_SUFFIX)) {
+                try {
+                    Files.readAllLines(work, StandardCharsets.UTF_8).forEach(urls);
+                } catch (NoSuchFileException e) {
+                    // Okunurken kiralandı ya da geri alındı; diğer dizinlerde görülür
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Kiralanmayı bekleyen paket sayısı
+     * @throws IOException Dizin okunamazsa
+     */
+    public int pendingCount() throws IOException {
+        return list(PENDING, WORK_SUFFIX).size();
+    }
+
+    /**
+     * @return Kiralanmış paket sayısı
+     * @throws IOException Dizin okunamazsa
+     */
+    public int leasedCount() throws IOException {
+        return list(LEASED, LEASE_SUFFIX).size();
+    }
+
+    /**
+     * @return Deneme hakkı bittiği için bırakılan paket sayısı
+     * @throws IOException Dizin okunamazsa
+     */
+    public int failedCount() throws IOException {
+        return list(FAILED, WORK_SUFFIX).size();
+    }
+
+    /**
+     * Taramayı bitti olarak işaretler; boşta bekleyen işçiler çıkar.
+     *
+     * @throws IOException İşaret yazılamazsa
+     */
+    public void finish() throws IOException {
+        try {
+            Files.createFile(directory.resolve(DONE_MARKER));
+        } catch (FileAlreadyExistsException e) {
+            // Zaten işaretlenmiş
+        }
+    }
+
+    /**
+     * @return Tarama bitti olarak işaretlendiyse true
+     */
+    public boolean isFinished() {
+        return Files.exists(directory.resolve(DONE_MARKER));
+    }
+
+    /**
+     * @return Kuyruk durumunun tek satırlık özeti
+     */
+    public String summary() {
+        try {
+            return "İş kuyruğu (" + directory + "): " + pendingCount() + " bekleyen, " + leasedCount() + " kiralı, "
+                    + list(RESULTS, RESULT_SUFFIX).size() + " sonuç, " + failedCount() + " bırakılan paket";
+        } catch (IOException e) {
+            return "İş kuyruğu (" + directory + ") okunamadı: " + e.getMessage();
+        }
+    }
+
+    private boolean hasResult(long id) throws IOException {
+        if (resultIds.contains(id)) {
+            return true;
+        }
+        String prefix = id + ".";
+        for (Path result : list(RESULTS, RESULT_SUFFIX)) {
+            if (result.getFileName().toString().startsWith(prefix)) {
+                resultIds.add(id);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Birleştirme günlüğüne bir satır ekler; satır diske yazılmadan dönülmez.
+     */
+    private void appendMergeLog(String line) throws IOException {
+        Files.writeString(directory.resolve(MERGED_LOG), line + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+    }
+
+    private Set<String> mergedNames() throws IOException {
+        Path log = directory.resolve(MERGED_LOG);
+        Set<String> names = new LinkedHashSet<>();
+        if (Files.exists(log)) {
+            for (String line : Files.readAllLines(log, StandardCharsets.UTF_8)) {
+                if (!line.isBlank() && !line.startsWith(BEGIN_MARK)) {
+                    names.add(line.trim());
+                }
+            }
+        }
+        return names;
+    }
+
+    private long highestId() throws IOException {
+        long highest = 0;
+        for (String name : List.of(PENDING, LEASED, RESULTS, FAILED)) {
+            for (Path file : list(name, "")) {
+                String fileName = file.getFileName().toString();
+                int dot = fileName.indexOf('.');
+                if (dot > 0) {
+                    highest = Math.max(highest, Long.parseLong(fileName.substring(0, dot)));
+                }
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Bir alt dizindeki, uzantısı tutan ve geçici olmayan (nokta ile başlamayan) dosyaları
+     * paket numarasına göre sıralı döndürür.
+     */
+    private List<Path> list(String name, String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory.resolve(name))) {
+            for (Iterator<Path> it = stream.iterator(); it.hasNext(); ) {
+                Path file = it.next();
+                String fileName = file.getFileName().toString();
+                if (suffix.isEmpty() || fileName.endsWith(suffix) && !fileName.startsWith(".")) {
+                    files.add(file);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (!suffix.isEmpty()) {
+            files.sort(Comparator.comparingLong(file -> Long.parseLong(parts(file, suffix)[0])));
+        }
+        return files;
+    }
+
+    private static String[] parts(Path file, String suffix) {
+        String fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.length() - suffix.length()).split("\\.");
+    }
+
+    private static String workName(long id, int attempt) {
+        return id + "." + attempt + WORK_SUFFIX;
+    }
+
+    private static String leaseName(long id, int attempt, String worker, long expiresAt) {
+        return id + "." + attempt + "." + worker + "." + expiresAt + LEASE_SUFFIX;
+    }
+}